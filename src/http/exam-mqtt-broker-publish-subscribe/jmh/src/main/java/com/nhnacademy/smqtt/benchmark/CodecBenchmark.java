@@ -0,0 +1,91 @@
+package com.nhnacademy.smqtt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nhnacademy.smqtt.message.CONNECT;
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.SUBSCRIBE;
+
+/**
+ * CONNECT, PUBLISH, SUBSCRIBE 메시지의 인코딩(toByteArray)과 디코딩(Message.parsing) 성능을 측정합니다.
+ *
+ * <p>
+ * 메시지 객체와 인코딩된 바이트 배열은 Setup에서 한 번만 만들고, 측정 메서드는 변환 결과를 반환하여
+ * JIT가 호출을 제거하지 못하도록 합니다. 할당량은 -prof gc 옵션으로 함께 확인합니다.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    @Param({ "16", "1024" })
+    int payloadSize;
+
+    private CONNECT connect;
+    private PUBLISH publish;
+    private SUBSCRIBE subscribe;
+    private byte[] connectBytes;
+    private byte[] publishBytes;
+    private byte[] subscribeBytes;
+
+    /**
+     * 측정에 사용할 메시지를 준비합니다.
+     */
+    @Setup
+    public void setUp() {
+        connect = new CONNECT("benchmark-client");
+        connect.setKeepAlive((short) 60);
+        publish = new PUBLISH("benchmark/codec/topic", "x".repeat(payloadSize));
+        subscribe = new SUBSCRIBE("benchmark/codec/#");
+
+        connectBytes = connect.toByteArray();
+        publishBytes = publish.toByteArray();
+        subscribeBytes = subscribe.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeConnect() {
+        return connect.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodePublish() {
+        return publish.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeSubscribe() {
+        return subscribe.toByteArray();
+    }
+
+    @Benchmark
+    public Message parseConnect() {
+        return Message.parsing(connectBytes);
+    }
+
+    @Benchmark
+    public Message parsePublish() {
+        return Message.parsing(publishBytes);
+    }
+
+    @Benchmark
+    public Message parseSubscribe() {
+        return Message.parsing(subscribeBytes);
+    }
+}
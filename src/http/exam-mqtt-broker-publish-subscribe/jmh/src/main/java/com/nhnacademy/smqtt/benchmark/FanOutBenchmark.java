@@ -0,0 +1,212 @@
+package com.nhnacademy.smqtt.benchmark;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nhnacademy.smqtt.broker.Broker;
+import com.nhnacademy.smqtt.message.CONNACK;
+import com.nhnacademy.smqtt.message.CONNECT;
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.SUBACK;
+import com.nhnacademy.smqtt.message.SUBSCRIBE;
+
+/**
+ * 같은 프로세스에서 실행한 브로커에 loopback으로 연결하여 PUBLISH 한 건이 모든 구독자에게 전달되는 성능을 측정합니다.
+ *
+ * <p>
+ * 측정 메서드는 QoS 0 PUBLISH를 보내고 구독자 수만큼의 수신이 끝날 때까지 기다리므로,
+ * 결과의 ops/s는 초당 완료된 fan-out 횟수입니다. 한 번에 메시지 하나만 전달 중이므로 전송 대기열은 넘치지 않습니다.
+ * 구독자는 각자의 스레드에서 메시지를 읽어 수신 수만 셉니다.
+ * 연결마다 스레드를 사용하는 VIRTUAL_THREAD 모드와 Reactor 기반의 NON_BLOCKING 모드를 비교합니다.
+ * 고정 크기 스레드 풀을 사용하는 BLOCKING 모드는 풀 크기보다 많은 연결을 처리하지 못하므로 제외합니다.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+    private static final String TOPIC = "benchmark/fanout";
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    @Param({ "1", "10", "100" })
+    int subscribers;
+
+    @Param({ "16", "1024" })
+    int payloadSize;
+
+    @Param({ "NON_BLOCKING", "VIRTUAL_THREAD" })
+    Broker.Mode mode;
+
+    private final AtomicLong received = new AtomicLong();
+    private final List<Socket> sockets = new ArrayList<>();
+    private final List<Thread> readers = new ArrayList<>();
+    private Broker broker;
+    private DataOutputStream publisher;
+    private byte[] publishBytes;
+    private long expected;
+
+    /**
+     * 브로커를 실행하고 구독자와 발행자를 연결합니다.
+     *
+     * @throws IOException          연결에 실패한 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생한 경우
+     */
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+
+        broker = new Broker(port);
+        broker.setMode(mode);
+        broker.setReactorCount(2);
+        broker.setDaemon(true);
+        broker.start();
+        waitForBroker(port);
+
+        for (int i = 0; i < subscribers; i++) {
+            Socket socket = connect(port, "sub-" + i);
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            output.write(new SUBSCRIBE(TOPIC).toByteArray());
+            output.flush();
+            if (!(receive(input) instanceof SUBACK)) {
+                throw new IllegalStateException("SUBACK을 받지 못했습니다.");
+            }
+
+            Thread reader = new Thread(() -> drain(input), "fanout-reader-" + i);
+            reader.setDaemon(true);
+            reader.start();
+            readers.add(reader);
+        }
+
+        Socket socket = connect(port, "publisher");
+        publisher = new DataOutputStream(socket.getOutputStream());
+        publishBytes = new PUBLISH(TOPIC, "x".repeat(payloadSize)).toByteArray();
+    }
+
+    /**
+     * 연결을 닫고 브로커를 중단합니다.
+     *
+     * @throws IOException 연결을 닫지 못한 경우
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        for (Thread reader : readers) {
+            reader.interrupt();
+        }
+        broker.interrupt();
+    }
+
+    /**
+     * PUBLISH 한 건을 보내고 모든 구독자가 받을 때까지 기다립니다.
+     *
+     * @return 지금까지 수신한 메시지 수
+     * @throws IOException 발행에 실패한 경우
+     */
+    @Benchmark
+    public long publishAndAwait() throws IOException {
+        expected += subscribers;
+        publisher.write(publishBytes);
+        publisher.flush();
+
+        long deadline = System.nanoTime() + TIMEOUT;
+        long count;
+        while ((count = received.get()) < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("구독자가 메시지를 받지 못했습니다: " + count + "/" + expected);
+            }
+            Thread.onSpinWait();
+        }
+
+        return count;
+    }
+
+    private void drain(DataInputStream input) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (receive(input) instanceof PUBLISH) {
+                    received.incrementAndGet();
+                }
+            }
+        } catch (IOException ignore) {
+            // 측정이 끝나 연결이 닫혔습니다.
+        }
+    }
+
+    private Socket connect(int port, String clientId) throws IOException {
+        Socket socket = new Socket("localhost", port);
+        socket.setTcpNoDelay(true);
+        sockets.add(socket);
+
+        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+        output.write(new CONNECT(clientId).toByteArray());
+        output.flush();
+        if (!(receive(new DataInputStream(socket.getInputStream())) instanceof CONNACK)) {
+            throw new IllegalStateException("CONNACK을 받지 못했습니다: " + clientId);
+        }
+
+        return socket;
+    }
+
+    private static void waitForBroker(int port) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try (Socket socket = new Socket("localhost", port)) {
+                return;
+            } catch (IOException e) {
+                Thread.sleep(50);
+            }
+        }
+
+        throw new IllegalStateException("브로커가 시작되지 않았습니다: " + port);
+    }
+
+    private static Message receive(DataInputStream input) throws IOException {
+        byte[] header = new byte[5];
+        input.readFully(header, 0, 2);
+
+        int lengthFieldCount = 1;
+        int length = header[1] & 0x7F;
+        int multiplier = 128;
+        while ((header[lengthFieldCount] & 0x80) == 0x80) {
+            lengthFieldCount++;
+            input.readFully(header, lengthFieldCount, 1);
+            length += (header[lengthFieldCount] & 0x7F) * multiplier;
+            multiplier *= 128;
+        }
+
+        byte[] buffer = new byte[1 + lengthFieldCount + length];
+        System.arraycopy(header, 0, buffer, 0, 1 + lengthFieldCount);
+        input.readFully(buffer, 1 + lengthFieldCount, length);
+
+        return Message.parsing(buffer);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nhnacademy.smqtt.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PINGREQ;
+
+/**
+ * Message.getByteBuffer의 고정 헤더와 Remaining Length 인코딩 성능을 측정합니다.
+ *
+ * <p>
+ * length 값은 Remaining Length 필드가 각각 1, 2, 3바이트가 되는 경계 값입니다.
+ * 반환되는 버퍼는 본문 크기만큼 할당되므로 -prof gc의 할당량은 length에 비례합니다.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemainingLengthBenchmark {
+    @Param({ "127", "128", "16383", "16384" })
+    int length;
+
+    private final Message message = new PINGREQ();
+
+    @Benchmark
+    public ByteBuffer getByteBuffer() {
+        return message.getByteBuffer(length);
+    }
+}
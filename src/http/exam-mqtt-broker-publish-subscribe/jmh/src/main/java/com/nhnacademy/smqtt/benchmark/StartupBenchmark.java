@@ -0,0 +1,121 @@
+package com.nhnacademy.smqtt.benchmark;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nhnacademy.smqtt.client.Client;
+
+/**
+ * 새로 시작한 JVM에서 클라이언트가 CONNECT를 보내고 첫 CONNACK을 받기까지의 시간을 측정합니다.
+ *
+ * <p>
+ * 한 번 실행하고 끝나는 CLI 발행자는 메시지 클래스의 초기화 비용을 매번 치르므로, 포크마다 한 번만 측정(SingleShotTime)하여
+ * 클래스 로딩과 Message의 타입 표 초기화가 결과에 포함되도록 합니다. 브로커를 같은 JVM에서 실행하면 Setup에서 메시지 클래스가
+ * 먼저 초기화되므로, CONNECT 프레임을 읽고 고정된 CONNACK 바이트를 돌려주는 소켓 서버를 대신 사용합니다.
+ * 측정 메서드는 processing() 없이 연결하고 DISCONNECT를 보낸 후 끝납니다.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    private static final byte[] CONNACK = { 0x20, 0x02, 0x00, 0x00 };
+
+    private ServerSocket server;
+    private Thread acceptor;
+
+    /**
+     * CONNECT를 받으면 CONNACK을 돌려주는 소켓 서버를 시작합니다. 메시지 클래스는 사용하지 않습니다.
+     *
+     * @throws IOException 서버 소켓을 열지 못한 경우
+     */
+    @Setup
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        acceptor = new Thread(this::accept, "startup-broker");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 소켓 서버를 닫습니다.
+     *
+     * @throws IOException 서버 소켓을 닫지 못한 경우
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        acceptor.interrupt();
+    }
+
+    /**
+     * 클라이언트를 만들어 CONNACK을 받을 때까지 연결합니다.
+     *
+     * @return 연결한 클라이언트
+     * @throws IOException 연결하지 못한 경우
+     */
+    @Benchmark
+    public Client connect() throws IOException {
+        boolean[] connected = new boolean[1];
+        Client client = new Client("localhost", server.getLocalPort(), "startup-benchmark") {
+            @Override
+            protected void connectionEstablished() {
+                connected[0] = true;
+            }
+        };
+        client.run();
+        if (!connected[0]) {
+            throw new IllegalStateException("CONNACK을 받지 못했습니다.");
+        }
+
+        return client;
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                OutputStream output = socket.getOutputStream();
+
+                // 고정 헤더와 Remaining Length를 읽고 CONNECT 본문은 건너뜁니다.
+                input.readUnsignedByte();
+                int length = 0;
+                int shift = 0;
+                int digit;
+                do {
+                    digit = input.readUnsignedByte();
+                    length |= (digit & 0x7F) << shift;
+                    shift += 7;
+                } while ((digit & 0x80) != 0);
+                input.readFully(new byte[length]);
+
+                output.write(CONNACK);
+                output.flush();
+                while (input.read() >= 0) {
+                    // DISCONNECT를 받고 클라이언트가 닫을 때까지 읽습니다.
+                }
+            } catch (IOException ignore) {
+                // 측정이 끝나 서버 소켓이 닫혔습니다.
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nhnacademy.smqtt.client.Client;
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PINGREQ;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.PUBREC;
+import com.nhnacademy.smqtt.message.PUBREL;
+import com.nhnacademy.smqtt.message.SUBACK;
+import com.nhnacademy.smqtt.message.SUBSCRIBE;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 다른 브로커(peer)로 발행 메시지를 전달하는 브리지 연결입니다.
+ *
+ * <p>
+ * 기존 MQTT 클라이언트와 같은 방식으로 peer에 연결하여 '$bridge/digest'를 구독합니다.
+ * peer는 자신의 클라이언트들이 구독 중인 토픽 필터 목록(다이제스트)을 이 토픽으로 보내며,
+ * 링크는 그 필터들로 로컬 브로커의 브리지 구독 트리에 등록됩니다.
+ * 따라서 로컬에서 발행된 메시지 중 peer에 구독자가 있는 토픽만 peer로 전달됩니다.
+ * </p>
+ *
+ * <p>
+ * 전달할 프레임은 발행 스레드가 대기열에 넣고, 전송 스레드가 쌓인 프레임을 한 번의 쓰기로 묶어 보냅니다.
+ * peer는 브리지 연결로 받은 메시지를 자신의 클라이언트에게만 전달하고 다시 다른 peer로 전달하지 않으므로,
+ * 브로커들은 서로 모두 연결(full mesh)되어야 하며 메시지는 한 번만 건너갑니다.
+ * QoS 1, 2 메시지는 peer까지 해당 QoS로 전달하고 PUBACK, PUBCOMP를 받을 때까지 본문을 보관합니다.
+ * 응답을 받기 전에 연결이 끊기면 다음 링크가 {@link #resend(BridgeLink)}로 넘겨받아 다시 연결한 뒤 처음부터 보내므로,
+ * peer의 구독자는 같은 메시지를 두 번 받을 수 있습니다(최소 한 번 전달).
+ * </p>
+ */
+@Slf4j
+class BridgeLink extends Client {
+    static final String CLIENT_ID_PREFIX = "$bridge/";
+    static final String DIGEST_TOPIC = "$bridge/digest";
+    static final String DIGEST_SEPARATOR = "\n";
+    static final int MAX_BATCH_FRAMES = 256;
+    static final int MAX_BATCH_BYTES = 64 * 1024;
+    static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final long PING_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+
+    private final TopicTree bridgeSubscribers;
+    private final Forwarder forwarder = new Forwarder();
+    private final BlockingQueue<Forward> queue;
+    // 응답을 기다리는 QoS 1, 2 프레임. 보낸 순서를 유지해야 다시 보낼 때 순서가 바뀌지 않습니다.
+    private final Map<Integer, Forward> unacked = new LinkedHashMap<>();
+    private final LongAdder droppedCount = new LongAdder();
+    private final String peer;
+    private volatile Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * BridgeLink 생성자.
+     *
+     * @param peerHost          peer 브로커의 호스트 주소
+     * @param peerPort          peer 브로커의 포트 번호
+     * @param name              로컬 브로커의 브리지 이름
+     * @param bridgeSubscribers 전달 대상을 등록할 브리지 구독 트리
+     * @param queueCapacity     전송을 기다릴 수 있는 프레임 수
+     * @throws IOException 연결할 수 없는 경우
+     */
+    BridgeLink(String peerHost, int peerPort, String name, TopicTree bridgeSubscribers, int queueCapacity)
+            throws IOException {
+        super(peerHost, peerPort, CLIENT_ID_PREFIX + name);
+
+        this.bridgeSubscribers = bridgeSubscribers;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.peer = peerHost + ":" + peerPort;
+    }
+
+    /**
+     * 다이제스트를 구독하고, 연결이 끊길 때까지 peer로부터 받은 메시지를 처리합니다.
+     *
+     * @throws IOException 연결에 문제가 생긴 경우
+     */
+    @Override
+    protected void processing() throws IOException {
+        send(new SUBSCRIBE(DIGEST_TOPIC));
+
+        writer = new Thread(this::drain, "bridge-writer-" + peer);
+        writer.setDaemon(true);
+        writer.start();
+        log.info("브리지가 연결되었습니다: {}", peer);
+
+        try {
+            while (!closed) {
+                Message message;
+                try {
+                    message = receive();
+                } catch (EOFException e) {
+                    if (closed) {
+                        return;
+                    }
+                    throw e;
+                }
+
+                if ((message instanceof PUBLISH publish) && DIGEST_TOPIC.equals(publish.getTopic())) {
+                    updateDigest(publish.getMessage());
+                } else if (message instanceof PUBREC pubRec) {
+                    send(new PUBREL(pubRec.getPacketId()));
+                } else if ((message instanceof SUBACK subAck) && (subAck.getReturnCode() == (byte) 0x80)) {
+                    throw new IOException("다이제스트를 구독할 수 없습니다: " + peer);
+                }
+            }
+        } finally {
+            closed = true;
+            writer.interrupt();
+            bridgeSubscribers.unsubscribeAll(forwarder);
+            log.info("브리지 연결이 종료되었습니다: {}", peer);
+        }
+    }
+
+    /**
+     * peer가 보낸 다이제스트로 전달 대상 토픽 필터를 갱신합니다.
+     * 바뀐 필터만 구독하거나 해제하여, 갱신 중에도 계속 구독 중인 토픽의 메시지를 놓치지 않도록 합니다.
+     *
+     * @param digest 줄바꿈으로 구분된 토픽 필터 목록
+     */
+    void updateDigest(String digest) {
+        Set<String> filters = new HashSet<>();
+        if ((digest != null) && !digest.isEmpty()) {
+            for (String filter : digest.split(DIGEST_SEPARATOR)) {
+                try {
+                    TopicTree.validateFilter(TopicTree.split(filter));
+                    filters.add(filter);
+                } catch (IllegalArgumentException e) {
+                    log.warn("{}: 다이제스트의 토픽 필터가 올바르지 않습니다: {}", peer, filter);
+                }
+            }
+        }
+
+        for (String filter : new ArrayList<>(bridgeSubscribers.getFilters(forwarder))) {
+            if (!filters.contains(filter)) {
+                bridgeSubscribers.unsubscribe(forwarder, filter);
+            }
+        }
+        for (String filter : filters) {
+            bridgeSubscribers.subscribe(forwarder, filter, 2);
+        }
+        log.debug("{}: 다이제스트를 갱신하였습니다 ({}개)", peer, filters.size());
+    }
+
+    /**
+     * 브리지 구독 트리에 등록되는 전달 대상을 반환합니다.
+     *
+     * @return 전달 대상
+     */
+    Session getForwarder() {
+        return forwarder;
+    }
+
+    /**
+     * 대기열이 가득 차 버린 프레임 수를 반환합니다.
+     *
+     * @return 버린 프레임 수
+     */
+    long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * 이전 링크에서 응답을 받지 못한 QoS 1, 2 프레임을 넘겨받아, 새로 전달할 프레임보다 먼저 보내도록 대기열에 넣습니다.
+     * 연결하기 전에 호출해야 하며, 대기열에 들어가지 못한 프레임은 버립니다.
+     *
+     * @param previous 연결이 끊긴 이전 링크
+     */
+    void resend(BridgeLink previous) {
+        for (Forward forward : previous.takeUnacked()) {
+            if (!queue.offer(forward)) {
+                forward.frame.release();
+                droppedCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 응답을 받지 못한 프레임을 모두 버립니다. 더 이상 다시 연결하지 않을 때 호출합니다.
+     */
+    void discardUnacked() {
+        for (Forward forward : takeUnacked()) {
+            forward.frame.release();
+        }
+    }
+
+    private List<Forward> takeUnacked() {
+        synchronized (unacked) {
+            List<Forward> taken = new ArrayList<>(unacked.values());
+            unacked.clear();
+            return taken;
+        }
+    }
+
+    /**
+     * 응답을 기다리는 QoS 1, 2 프레임 수를 반환합니다.
+     *
+     * @return 프레임 수
+     */
+    int getUnackedCount() {
+        synchronized (unacked) {
+            return unacked.size();
+        }
+    }
+
+    /**
+     * peer가 PUBACK, PUBCOMP로 응답하면 보관하던 프레임을 놓고 식별자를 반납합니다.
+     * 식별자를 반납하기 전에 프레임을 꺼내야 같은 식별자로 새로 보낸 프레임과 섞이지 않습니다.
+     *
+     * @param packetId 반납할 패킷 식별자
+     */
+    @Override
+    protected void releasePacketId(int packetId) {
+        Forward forward;
+        synchronized (unacked) {
+            forward = unacked.remove(packetId);
+        }
+        if (forward != null) {
+            forward.frame.release();
+        }
+        super.releasePacketId(packetId);
+    }
+
+    /**
+     * 연결을 종료합니다. 수신 대기 중인 스레드는 DISCONNECT를 보내고 연결을 닫습니다.
+     */
+    void close() {
+        closed = true;
+        try {
+            shutdownInput();
+        } catch (IOException e) {
+            log.debug("{}: {}", peer, e.getMessage());
+        }
+    }
+
+    /**
+     * 대기열의 프레임을 묶어 전송합니다. 한동안 보낼 프레임이 없으면 PINGREQ로 연결을 유지합니다.
+     */
+    private void drain() {
+        List<Forward> batch = new ArrayList<>(MAX_BATCH_FRAMES);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(MAX_BATCH_BYTES);
+        WritableByteChannel channel = Channels.newChannel(buffer);
+
+        try {
+            while (!closed) {
+                Forward first = queue.poll(PING_INTERVAL, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    send(new PINGREQ());
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_FRAMES - 1);
+                for (int i = 0; i < batch.size(); i++) {
+                    // 꺼낸 자리는 비워 두어, 도중에 실패하면 finally에서 남은 프레임만 놓도록 합니다.
+                    Forward forward = batch.set(i, null);
+                    int packetId = 0;
+                    if (forward.qos > 0) {
+                        try {
+                            packetId = allocatePacketId();
+                        } catch (IllegalStateException e) {
+                            forward.frame.release();
+                            throw e;
+                        }
+                        // 응답을 받을 때까지 본문을 보관합니다. 식별자는 releasePacketId()에서 프레임과 함께 반납됩니다.
+                        synchronized (unacked) {
+                            unacked.put(packetId, forward);
+                        }
+                    }
+                    try {
+                        for (ByteBuffer part : forward.frame.toBuffers(forward.qos, packetId)) {
+                            channel.write(part);
+                        }
+                    } finally {
+                        // QoS 0 프레임은 묶음 버퍼에 복사했으므로 본문이 더 필요하지 않습니다.
+                        if (packetId == 0) {
+                            forward.frame.release();
+                        }
+                    }
+                    if (buffer.size() >= MAX_BATCH_BYTES) {
+                        send(buffer.toByteArray());
+                        buffer.reset();
+                    }
+                }
+                if (buffer.size() > 0) {
+                    send(buffer.toByteArray());
+                    buffer.reset();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.warn("{}: 전달에 실패하였습니다: {}", peer, e.getMessage());
+            close();
+        } finally {
+            for (Forward forward : batch) {
+                if (forward != null) {
+                    forward.frame.release();
+                }
+            }
+            batch.clear();
+            Forward forward;
+            while ((forward = queue.poll()) != null) {
+                forward.frame.release();
+            }
+        }
+    }
+
+    private static final class Forward {
+        final PublishFrame frame;
+        final int qos;
+
+        Forward(PublishFrame frame, int qos) {
+            this.frame = frame;
+            this.qos = qos;
+        }
+    }
+
+    /**
+     * 브리지 구독 트리에서 peer를 대신하는 구독자입니다. 발행 메시지를 전송 대기열에 넣기만 합니다.
+     */
+    private final class Forwarder implements Session {
+        @Override
+        public String getClientId() {
+            return CLIENT_ID_PREFIX + peer;
+        }
+
+        @Override
+        public void setClientId(String clientId) {
+            throw new UnsupportedOperationException("브리지의 식별자는 변경할 수 없습니다.");
+        }
+
+        @Override
+        public void send(Message message) {
+            // 제어 메시지는 링크가 직접 처리합니다.
+        }
+
+        @Override
+        public void sendPublish(PublishFrame frame, int qos) {
+            if (closed) {
+                return;
+            }
+            frame.retain();
+            if (!queue.offer(new Forward(frame, qos))) {
+                frame.release();
+                droppedCount.increment();
+            }
+        }
+
+        @Override
+        public void sendPublish(List<PublishFrame> frames) {
+            for (PublishFrame frame : frames) {
+                sendPublish(frame, 0);
+            }
+        }
+
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return null;
+        }
+
+        @Override
+        public InflightWindow getInflightWindow() {
+            return null;
+        }
+
+        @Override
+        public void setKeepAlive(KeepAlive keepAlive) {
+            // 링크가 PINGREQ로 연결을 유지합니다.
+        }
+
+        @Override
+        public void close() {
+            BridgeLink.this.close();
+        }
+
+        @Override
+        public String toString() {
+            return getClientId();
+        }
+    }
+}
@@ -2,72 +2,1280 @@ package com.nhnacademy.smqtt.broker;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import com.nhnacademy.smqtt.message.CONNACK;
 import com.nhnacademy.smqtt.message.CONNECT;
 import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.MessageDecoder;
 import com.nhnacademy.smqtt.message.PINGRESP;
+import com.nhnacademy.smqtt.message.PUBACK;
+import com.nhnacademy.smqtt.message.PUBCOMP;
 import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.PUBREC;
+import com.nhnacademy.smqtt.message.PUBREL;
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.message.PayloadPool;
 import com.nhnacademy.smqtt.message.SUBACK;
 import com.nhnacademy.smqtt.message.SUBSCRIBE;
+import com.nhnacademy.smqtt.message.TopicTable;
+import com.nhnacademy.smqtt.message.UNSUBACK;
 import com.nhnacademy.smqtt.message.UNSUBSCRIBE;
+import com.nhnacademy.smqtt.store.MessageLog;
+import com.nhnacademy.smqtt.utils.HashedWheelTimer;
+import com.nhnacademy.smqtt.utils.VirtualThreads;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * MQTT Broker 클래스는 클라이언트와의 연결을 관리하고 메시지를 주고받는 역할을 합니다.
  * 이 클래스는 스레드를 상속받아 여러 클라이언트와 동시에 통신할 수 있습니다.
+ *
+ * <p>
+ * 블로킹 모드에서는 연결마다 스레드 풀의 스레드 하나가 할당되고,
+ * 논블로킹 모드에서는 코어 수만큼의 Reactor가 Selector로 모든 연결을 나누어 처리합니다.
+ * </p>
  */
 @Slf4j
 public class Broker extends Thread {
+    /**
+     * 클라이언트 연결을 처리하는 방식입니다.
+     */
+    public enum Mode {
+        /** 연결마다 스레드 풀의 스레드를 하나씩 사용합니다. */
+        BLOCKING,
+        /** ServerSocketChannel과 Selector 기반의 Reactor 스레드가 연결을 나누어 처리합니다. */
+        NON_BLOCKING,
+        /**
+         * BLOCKING과 같은 블로킹 I/O를 사용하되 연결마다 가상 스레드를 사용하여 스레드 수의 제한 없이 처리합니다.
+         * 가상 스레드를 지원하지 않는 런타임에서는 연결마다 플랫폼 스레드를 사용합니다.
+         */
+        VIRTUAL_THREAD
+    }
+
+    /**
+     * 구독자의 전송 대기열이 가득 찼을 때의 처리 방식입니다.
+     */
+    public enum OverflowPolicy {
+        /** 가장 오래된 발행 메시지를 버리고 새 메시지를 넣습니다. */
+        DROP_OLDEST,
+        /** 새 발행 메시지를 버립니다. */
+        DROP_NEWEST,
+        /** 느린 구독자의 연결을 끊습니다. */
+        DISCONNECT
+    }
+
+    /**
+     * 공유 구독 그룹에서 메시지를 받을 구성원을 선택하는 방식입니다.
+     */
+    public enum ShareStrategy {
+        /** 구성원에게 순서대로 돌아가며 전달합니다. */
+        ROUND_ROBIN,
+        /** 전송 대기열과 in-flight 창에 쌓인 메시지가 가장 적은 구성원에게 전달합니다. */
+        LEAST_LOADED
+    }
+
+    static final int READ_BUFFER_SIZE = 8192;
+    static final int DEFAULT_OUTBOUND_QUEUE_CAPACITY = 1000;
+    static final int DEFAULT_MAX_INFLIGHT = 20;
+    static final long DEFAULT_RETRY_INTERVAL = 10_000;
+    static final int DEFAULT_MAX_QUEUED_MESSAGES = 10_000;
+    static final int DEFAULT_QUEUE_MEMORY_THRESHOLD = 100;
+    static final int BLOCKING_POOL_SIZE = 10;
+    static final int DEFAULT_WRITE_BATCH_BYTES = 64 * 1024;
+    static final long DEFAULT_WRITE_COALESCE_MICROS = 100;
+    // 리눅스 writev()가 한 번에 받을 수 있는 버퍼 수(IOV_MAX)
+    static final int MAX_WRITE_BUFFERS = 1024;
+    static final long BRIDGE_RETRY_INTERVAL = 1000;
+    static final long DIGEST_UPDATE_DELAY = 100;
+    static final int MAX_BRIDGE_NAME_LENGTH = 23 - BridgeLink.CLIENT_ID_PREFIX.length();
+    static final long DEFAULT_SYS_INTERVAL = 10;
+    static final long LOG_COMPACTION_INTERVAL = 10;
+    static final int MIN_COMPACTION_SEGMENTS = 3;
+    static final long SPOOL_FLUSH_INTERVAL = 1000;
+
+    private final TopicTree topicSubscribers = new TopicTree();
+    private final TopicTable topicTable = new TopicTable();
+    private final PayloadPool payloadPool = new PayloadPool();
+    private final SharedSubscriptions sharedSubscriptions = new SharedSubscriptions(topicSubscribers);
+    private final TopicTree bridgeSubscribers = new TopicTree();
+    private final List<InetSocketAddress> bridgePeers = new CopyOnWriteArrayList<>();
+    private final List<Thread> bridgeThreads = new ArrayList<>();
+    private final Set<BridgeLink> bridgeLinks = ConcurrentHashMap.newKeySet();
+    private final DigestUpdate digestUpdate = new DigestUpdate();
+    private final BrokerMetrics metrics = new BrokerMetrics(topicSubscribers::getSubscriptionCount);
+    private final SysReport sysReport = new SysReport();
+    private long sysInterval = DEFAULT_SYS_INTERVAL;
+    private int dispatchPartitions;
+    private volatile PublishPipeline pipeline;
+    private int metricsPort = -1;
+    private volatile MetricsEndpoint metricsEndpoint;
+    private String bridgeName;
+    private final RetainedStore retainedStore = new RetainedStore();
+    private final SessionRegistry sessionRegistry = new SessionRegistry(this::createOfflineQueue);
+    private Path spoolDirectory;
+    private volatile MessageLog spoolLog;
+    private ExecutorService executorService;
+    private int port;
+    private Mode mode = Mode.BLOCKING;
+    private int reactorCount = Runtime.getRuntime().availableProcessors();
+    private int outboundQueueCapacity = DEFAULT_OUTBOUND_QUEUE_CAPACITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    private ShareStrategy shareStrategy = ShareStrategy.ROUND_ROBIN;
+    private int maxInflight = DEFAULT_MAX_INFLIGHT;
+    private long retryInterval = DEFAULT_RETRY_INTERVAL;
+    private int maxQueuedMessages = DEFAULT_MAX_QUEUED_MESSAGES;
+    private int queueMemoryThreshold = DEFAULT_QUEUE_MEMORY_THRESHOLD;
+    private int writeBatchBytes = DEFAULT_WRITE_BATCH_BYTES;
+    private long writeCoalesceMicros = DEFAULT_WRITE_COALESCE_MICROS;
+    private final HashedWheelTimer timer = new HashedWheelTimer("broker-timer", 100, TimeUnit.MILLISECONDS, 512);
+    private Path dataDirectory;
+    private volatile MessageLog messageLog;
+    private final LogCompaction logCompaction = new LogCompaction();
+    private volatile int compactedSegments;
+
+    /**
+     * Broker 생성자.
+     *
+     * @param port 브로커가 수신 대기할 포트 번호
+     */
+    public Broker(int port) {
+        // TODO: 수정하세요.
+        this.port = port;
+    }
+
+    /**
+     * 연결 처리 방식을 설정합니다. 브로커를 시작하기 전에 호출해야 합니다.
+     *
+     * @param mode 연결 처리 방식
+     * @throws IllegalArgumentException mode가 null인 경우
+     */
+    public void setMode(Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode는 null일 수 없습니다.");
+        }
+        this.mode = mode;
+    }
+
+    /**
+     * 연결 처리 방식을 반환합니다.
+     *
+     * @return 연결 처리 방식
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 논블로킹 모드에서 사용할 Reactor 스레드 수를 설정합니다.
+     *
+     * @param reactorCount Reactor 스레드 수 (1 이상)
+     * @throws IllegalArgumentException reactorCount가 1보다 작은 경우
+     */
+    public void setReactorCount(int reactorCount) {
+        if (reactorCount < 1) {
+            throw new IllegalArgumentException("reactorCount는 1 이상이어야 합니다.");
+        }
+        this.reactorCount = reactorCount;
+    }
+
+    /**
+     * 논블로킹 모드에서 사용할 Reactor 스레드 수를 반환합니다.
+     *
+     * @return Reactor 스레드 수
+     */
+    public int getReactorCount() {
+        return reactorCount;
+    }
+
+    /**
+     * 구독자별 전송 대기열에 쌓아 둘 수 있는 발행 메시지 수를 설정합니다.
+     *
+     * @param outboundQueueCapacity 발행 메시지 수 (1 이상)
+     * @throws IllegalArgumentException outboundQueueCapacity가 1보다 작은 경우
+     */
+    public void setOutboundQueueCapacity(int outboundQueueCapacity) {
+        if (outboundQueueCapacity < 1) {
+            throw new IllegalArgumentException("outboundQueueCapacity는 1 이상이어야 합니다.");
+        }
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
+
+    /**
+     * 구독자별 전송 대기열에 쌓아 둘 수 있는 발행 메시지 수를 반환합니다.
+     *
+     * @return 발행 메시지 수
+     */
+    public int getOutboundQueueCapacity() {
+        return outboundQueueCapacity;
+    }
+
+    /**
+     * 전송 대기열이 가득 찼을 때의 처리 방식을 설정합니다.
+     *
+     * @param overflowPolicy 처리 방식
+     * @throws IllegalArgumentException overflowPolicy가 null인 경우
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy는 null일 수 없습니다.");
+        }
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * 전송 대기열이 가득 찼을 때의 처리 방식을 반환합니다.
+     *
+     * @return 처리 방식
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * 공유 구독 그룹에서 메시지를 받을 구성원을 선택하는 방식을 설정합니다.
+     *
+     * @param shareStrategy 선택 방식
+     * @throws IllegalArgumentException shareStrategy가 null인 경우
+     */
+    public void setShareStrategy(ShareStrategy shareStrategy) {
+        if (shareStrategy == null) {
+            throw new IllegalArgumentException("shareStrategy는 null일 수 없습니다.");
+        }
+        this.shareStrategy = shareStrategy;
+        sharedSubscriptions.setStrategy(shareStrategy);
+    }
+
+    /**
+     * 공유 구독 그룹에서 메시지를 받을 구성원을 선택하는 방식을 반환합니다.
+     *
+     * @return 선택 방식
+     */
+    public ShareStrategy getShareStrategy() {
+        return shareStrategy;
+    }
+
+    /**
+     * 구독자마다 동시에 응답을 기다릴 수 있는 QoS 1, 2 메시지 수를 설정합니다.
+     *
+     * @param maxInflight 메시지 수 (1 이상 65535 이하)
+     * @throws IllegalArgumentException maxInflight가 범위를 벗어난 경우
+     */
+    public void setMaxInflight(int maxInflight) {
+        if ((maxInflight < 1) || (maxInflight > 0xFFFF)) {
+            throw new IllegalArgumentException("maxInflight는 1 이상 65535 이하여야 합니다.");
+        }
+        this.maxInflight = maxInflight;
+    }
+
+    /**
+     * 구독자마다 동시에 응답을 기다릴 수 있는 QoS 1, 2 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    public int getMaxInflight() {
+        return maxInflight;
+    }
+
+    /**
+     * 응답이 없는 QoS 1, 2 메시지를 재전송할 간격을 설정합니다.
+     *
+     * @param retryInterval 재전송 간격 (밀리초, 1 이상)
+     * @throws IllegalArgumentException retryInterval이 1보다 작은 경우
+     */
+    public void setRetryInterval(long retryInterval) {
+        if (retryInterval < 1) {
+            throw new IllegalArgumentException("retryInterval은 1 이상이어야 합니다.");
+        }
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * 응답이 없는 QoS 1, 2 메시지를 재전송할 간격을 반환합니다.
+     *
+     * @return 재전송 간격 (밀리초)
+     */
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    /**
+     * 연결이 끊긴 지속 세션마다 보관할 수 있는 QoS 1, 2 메시지 수를 설정합니다.
+     *
+     * @param maxQueuedMessages 메시지 수 (1 이상)
+     * @throws IllegalArgumentException maxQueuedMessages가 1보다 작은 경우
+     */
+    public void setMaxQueuedMessages(int maxQueuedMessages) {
+        if (maxQueuedMessages < 1) {
+            throw new IllegalArgumentException("maxQueuedMessages는 1 이상이어야 합니다.");
+        }
+        this.maxQueuedMessages = maxQueuedMessages;
+    }
+
+    /**
+     * 연결이 끊긴 지속 세션마다 보관할 수 있는 QoS 1, 2 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    public int getMaxQueuedMessages() {
+        return maxQueuedMessages;
+    }
+
+    /**
+     * 오프라인 대기열에서 힙에 보관할 메시지 수를 설정합니다. 넘는 메시지는 파일에 기록합니다.
+     *
+     * @param queueMemoryThreshold 메시지 수 (0 이상)
+     * @throws IllegalArgumentException queueMemoryThreshold가 0보다 작은 경우
+     */
+    public void setQueueMemoryThreshold(int queueMemoryThreshold) {
+        if (queueMemoryThreshold < 0) {
+            throw new IllegalArgumentException("queueMemoryThreshold는 0 이상이어야 합니다.");
+        }
+        this.queueMemoryThreshold = queueMemoryThreshold;
+    }
+
+    /**
+     * 오프라인 대기열에서 힙에 보관할 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    public int getQueueMemoryThreshold() {
+        return queueMemoryThreshold;
+    }
+
+    /**
+     * 연결마다 한 번의 쓰기로 묶어 보낼 최대 바이트 수를 설정합니다.
+     *
+     * @param writeBatchBytes 바이트 수 (1 이상)
+     * @throws IllegalArgumentException writeBatchBytes가 1보다 작은 경우
+     */
+    public void setWriteBatchBytes(int writeBatchBytes) {
+        if (writeBatchBytes < 1) {
+            throw new IllegalArgumentException("writeBatchBytes는 1 이상이어야 합니다.");
+        }
+        this.writeBatchBytes = writeBatchBytes;
+    }
+
+    /**
+     * 연결마다 한 번의 쓰기로 묶어 보낼 최대 바이트 수를 반환합니다.
+     *
+     * @return 바이트 수
+     */
+    public int getWriteBatchBytes() {
+        return writeBatchBytes;
+    }
+
+    /**
+     * 블로킹 모드에서 메시지가 몰려 도착할 때 더 모으기 위해 기다릴 최대 시간을 설정합니다.
+     * 메시지가 드문드문 도착하면 기다리지 않고 바로 보냅니다.
+     *
+     * @param writeCoalesceMicros 대기 시간 (마이크로초, 0이면 기다리지 않음)
+     * @throws IllegalArgumentException writeCoalesceMicros가 음수인 경우
+     */
+    public void setWriteCoalesceMicros(long writeCoalesceMicros) {
+        if (writeCoalesceMicros < 0) {
+            throw new IllegalArgumentException("writeCoalesceMicros는 0 이상이어야 합니다.");
+        }
+        this.writeCoalesceMicros = writeCoalesceMicros;
+    }
+
+    /**
+     * 블로킹 모드에서 메시지가 몰려 도착할 때 더 모으기 위해 기다릴 최대 시간을 반환합니다.
+     *
+     * @return 대기 시간 (마이크로초)
+     */
+    public long getWriteCoalesceMicros() {
+        return writeCoalesceMicros;
+    }
+
+    /**
+     * 발행 메시지를 구독자에게 전달할 파티션 수를 설정합니다.
+     * 파티션을 사용하면 토픽의 해시로 고른 파티션의 전달 스레드가 전달하므로, 토픽별 순서를 지키면서 서로 다른
+     * 토픽의 전달을 여러 코어에서 나란히 처리합니다. 0이면 메시지를 받은 스레드가 바로 전달합니다.
+     *
+     * @param dispatchPartitions 파티션 수 (0이면 사용하지 않음)
+     * @throws IllegalArgumentException dispatchPartitions가 음수인 경우
+     */
+    public void setDispatchPartitions(int dispatchPartitions) {
+        if (dispatchPartitions < 0) {
+            throw new IllegalArgumentException("dispatchPartitions는 0 이상이어야 합니다.");
+        }
+        this.dispatchPartitions = dispatchPartitions;
+    }
+
+    /**
+     * 발행 메시지를 구독자에게 전달할 파티션 수를 반환합니다.
+     *
+     * @return 파티션 수 (0이면 사용하지 않음)
+     */
+    public int getDispatchPartitions() {
+        return dispatchPartitions;
+    }
+
+    /**
+     * 브로커 지표를 '$SYS/broker/...' 토픽으로 발행할 주기를 설정합니다.
+     *
+     * @param sysInterval 발행 주기 (초, 0이면 발행하지 않음)
+     * @throws IllegalArgumentException sysInterval이 음수인 경우
+     */
+    public void setSysInterval(long sysInterval) {
+        if (sysInterval < 0) {
+            throw new IllegalArgumentException("sysInterval은 0 이상이어야 합니다.");
+        }
+        this.sysInterval = sysInterval;
+    }
+
+    /**
+     * 브로커 지표를 '$SYS/broker/...' 토픽으로 발행할 주기를 반환합니다.
+     *
+     * @return 발행 주기 (초)
+     */
+    public long getSysInterval() {
+        return sysInterval;
+    }
+
+    /**
+     * 브로커 지표를 텍스트로 보여 줄 HTTP 포트를 설정합니다. 설정하지 않으면 엔드포인트를 열지 않습니다.
+     *
+     * @param metricsPort 포트 번호 (0이면 임의의 포트, -1이면 사용하지 않음)
+     * @throws IllegalArgumentException metricsPort가 -1부터 65535 사이가 아닌 경우
+     */
+    public void setMetricsPort(int metricsPort) {
+        if ((metricsPort < -1) || (metricsPort > 65535)) {
+            throw new IllegalArgumentException("metricsPort는 -1부터 65535 사이여야 합니다.");
+        }
+        this.metricsPort = metricsPort;
+    }
+
+    /**
+     * 브로커 지표를 텍스트로 보여 주는 HTTP 포트를 반환합니다.
+     *
+     * @return 포트 번호. 브로커가 시작되어 엔드포인트가 열려 있으면 실제 포트, 사용하지 않으면 -1
+     */
+    public int getMetricsPort() {
+        MetricsEndpoint endpoint = metricsEndpoint;
+
+        return (endpoint != null) ? endpoint.getPort() : metricsPort;
+    }
+
+    /**
+     * 브로커 지표를 반환합니다.
+     *
+     * @return 브로커 지표
+     */
+    public BrokerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 브로커 상태를 기록할 디렉터리를 설정합니다. 설정하지 않으면 상태를 디스크에 남기지 않습니다.
+     *
+     * @param dataDirectory 메시지 로그 디렉터리. null이면 사용하지 않습니다.
+     */
+    public void setDataDirectory(Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+    }
+
+    /**
+     * 브로커 상태를 기록할 디렉터리를 반환합니다.
+     *
+     * @return 메시지 로그 디렉터리. 사용하지 않으면 null
+     */
+    public Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * retained 메시지 본문을 메모리에 보관할 최대 크기를 설정합니다.
+     * 넘으면 가장 오래 사용하지 않은 본문부터 버리며, 데이터 디렉터리가 설정되어 있으면 필요할 때 로그에서 다시 읽습니다.
+     *
+     * @param retainedMemoryLimit 최대 크기 (바이트, 1 이상)
+     * @throws IllegalArgumentException retainedMemoryLimit이 1보다 작은 경우
+     */
+    public void setRetainedMemoryLimit(long retainedMemoryLimit) {
+        retainedStore.setMaxMemory(retainedMemoryLimit);
+    }
+
+    /**
+     * retained 메시지 저장소를 반환합니다.
+     *
+     * @return retained 메시지 저장소
+     */
+    RetainedStore getRetainedStore() {
+        return retainedStore;
+    }
+
+    /**
+     * 브로커가 사용 중인 메시지 로그를 반환합니다.
+     *
+     * @return 메시지 로그. 데이터 디렉터리를 설정하지 않았거나 브로커가 시작되기 전이면 null
+     */
+    MessageLog getMessageLog() {
+        return messageLog;
+    }
+
+    /**
+     * 메시지 로그를 압축합니다. 메시지 로그가 없으면 오프라인 대기열의 임시 spool 로그를 압축합니다.
+     * 살아 있는 retained 메시지, 지속 세션의 구독 목록, 오프라인 대기열의 메시지를 로그의 끝에 다시 기록한 뒤,
+     * 그보다 앞의 레코드만 담고 있는 세그먼트를 삭제합니다.
+     *
+     * @return 삭제한 세그먼트 수
+     */
+    int compactLog() {
+        MessageLog current = (messageLog != null) ? messageLog : spoolLog;
+        if (current == null) {
+            return 0;
+        }
+
+        long cutoff = current.getNextOffset();
+        int retained = retainedStore.compact(cutoff);
+        int sessions = sessionRegistry.compact(cutoff);
+        int deleted = current.deleteBefore(cutoff);
+        compactedSegments = current.getSegmentCount();
+        log.info("Message log compacted: {} retained, {} sessions rewritten, {} segments deleted", retained, sessions,
+                deleted);
+
+        return deleted;
+    }
+
+    /**
+     * 현재 설정으로 세션의 in-flight 창을 생성합니다.
+     *
+     * @param sender 버퍼 목록을 클라이언트에게 전송하는 함수
+     * @return in-flight 창
+     */
+    InflightWindow createInflightWindow(BiConsumer<ByteBuffer[], Payload> sender) {
+        return new InflightWindow(timer, sender, maxInflight, retryInterval, outboundQueueCapacity, overflowPolicy);
+    }
+
+    /**
+     * 현재 설정으로 지속 세션의 오프라인 대기열을 생성합니다.
+     * 메시지 로그가 있으면 모든 메시지를 메시지 로그에 기록하여 재시작 후 복원하고,
+     * 없으면 힙에 두지 않는 메시지만 모든 세션이 함께 쓰는 임시 spool 로그에 기록합니다.
+     *
+     * @param clientId 세션의 클라이언트 식별자
+     * @return 오프라인 대기열
+     * @throws UncheckedIOException 임시 spool 로그를 만들 수 없는 경우
+     */
+    OfflineQueue createOfflineQueue(String clientId) {
+        MessageLog durableLog = messageLog;
+        MessageLog spool = (durableLog != null) ? durableLog : openSpool();
+
+        return new OfflineQueue(clientId, maxQueuedMessages, queueMemoryThreshold, spool, durableLog != null,
+                overflowPolicy);
+    }
+
+    private synchronized MessageLog openSpool() {
+        if (spoolLog == null) {
+            try {
+                spoolDirectory = Files.createTempDirectory("smqtt-spool-");
+                spoolLog = new MessageLog(spoolDirectory, MessageLog.DEFAULT_SEGMENT_SIZE,
+                        MessageLog.DEFAULT_INDEX_INTERVAL, SPOOL_FLUSH_INTERVAL);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compactedSegments = 1;
+            timer.schedule(logCompaction, LOG_COMPACTION_INTERVAL, TimeUnit.SECONDS);
+        }
+
+        return spoolLog;
+    }
+
+    private synchronized void closeSpool() {
+        if (spoolLog == null) {
+            return;
+        }
+
+        spoolLog.close();
+        spoolLog = null;
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(spoolDirectory);
+        } catch (IOException e) {
+            log.warn("spool 디렉터리를 삭제할 수 없습니다: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 발행 메시지를 전달할 peer 브로커를 추가합니다. 브로커를 시작하기 전에 호출해야 합니다.
+     * 브리지로 받은 메시지는 다른 peer로 다시 전달하지 않으므로, 모든 브로커가 서로를 peer로 추가해야 합니다.
+     *
+     * @param host peer 브로커의 호스트 주소
+     * @param port peer 브로커의 포트 번호
+     * @throws IllegalArgumentException host가 비어 있거나 port가 범위를 벗어난 경우
+     */
+    public void addBridge(String host, int port) {
+        if ((host == null) || host.isEmpty()) {
+            throw new IllegalArgumentException("host는 비어 있을 수 없습니다.");
+        }
+        if ((port < 1) || (port > 0xFFFF)) {
+            throw new IllegalArgumentException("port는 1 이상 65535 이하여야 합니다.");
+        }
+        bridgePeers.add(InetSocketAddress.createUnresolved(host, port));
+    }
+
+    /**
+     * peer 브로커 목록을 반환합니다.
+     *
+     * @return peer 브로커 주소 목록
+     */
+    public List<InetSocketAddress> getBridges() {
+        return Collections.unmodifiableList(bridgePeers);
+    }
+
+    /**
+     * peer에 연결할 때 사용할 이름을 설정합니다. peer에서는 '$bridge/{name}' 클라이언트로 보입니다.
+     *
+     * @param bridgeName 브리지 이름
+     * @throws IllegalArgumentException bridgeName이 비어 있거나 너무 긴 경우
+     */
+    public void setBridgeName(String bridgeName) {
+        if ((bridgeName == null) || bridgeName.isEmpty() || (bridgeName.length() > MAX_BRIDGE_NAME_LENGTH)) {
+            throw new IllegalArgumentException("bridgeName은 1자 이상 " + MAX_BRIDGE_NAME_LENGTH + "자 이하여야 합니다.");
+        }
+        this.bridgeName = bridgeName;
+    }
+
+    /**
+     * peer에 연결할 때 사용할 이름을 반환합니다.
+     *
+     * @return 브리지 이름. 설정하지 않았으면 'broker-{port}'
+     */
+    public String getBridgeName() {
+        return (bridgeName != null) ? bridgeName : "broker-" + port;
+    }
+
+    /**
+     * peer 브로커로 전달할 토픽 필터를 등록한 브리지 구독 트리를 반환합니다.
+     *
+     * @return 브리지 구독 트리
+     */
+    TopicTree getBridgeSubscribers() {
+        return bridgeSubscribers;
+    }
+
+    /**
+     * 세션 상태 목록을 반환합니다.
+     *
+     * @return 세션 상태 목록
+     */
+    SessionRegistry getSessionRegistry() {
+        return sessionRegistry;
+    }
+
+    /**
+     * 연결의 수신 디코더를 생성합니다. 모든 연결이 브로커의 토픽 intern 테이블과 본문 버퍼 풀을 공유하고, 토픽 별칭을 허용합니다.
+     *
+     * @return 메시지 디코더
+     */
+    MessageDecoder createDecoder() {
+        return new MessageDecoder(MessageDecoder.MAX_REMAINING_LENGTH, topicTable, payloadPool);
+    }
+
+    /**
+     * 수신한 PUBLISH 본문을 담는 버퍼 풀을 반환합니다.
+     *
+     * @return 본문 버퍼 풀
+     */
+    PayloadPool getPayloadPool() {
+        return payloadPool;
+    }
+
+    /**
+     * 현재 설정으로 세션의 전송 대기열을 생성합니다.
+     *
+     * @return 전송 대기열
+     */
+    OutboundQueue createOutboundQueue() {
+        return new OutboundQueue(outboundQueueCapacity, overflowPolicy);
+    }
+
+    /**
+     * 브로커를 시작하여 클라이언트 연결을 수신 대기합니다.
+     * 클라이언트가 연결되면 설정된 방식에 따라 ClientHandler 또는 Reactor를 통해 처리합니다.
+     */
+    @Override
+    public void run() {
+        if (dataDirectory != null) {
+            try {
+                messageLog = new MessageLog(dataDirectory);
+                retainedStore.attach(messageLog);
+                for (SessionState state : sessionRegistry.attach(messageLog)) {
+                    for (Map.Entry<String, Integer> subscription : state.getSubscriptions().entrySet()) {
+                        subscribeFilter(state, subscription.getKey(), subscription.getValue());
+                    }
+                }
+                compactedSegments = messageLog.getSegmentCount();
+                timer.schedule(logCompaction, LOG_COMPACTION_INTERVAL, TimeUnit.SECONDS);
+            } catch (IOException e) {
+                log.error("메시지 로그를 열 수 없습니다: {}", e.getMessage());
+                return;
+            }
+        }
+
+        startPipeline();
+        startMetrics();
+        startBridges();
+        try {
+            if (mode == Mode.NON_BLOCKING) {
+                runNonBlocking();
+            } else {
+                runBlocking();
+            }
+        } finally {
+            stopBridges();
+            stopMetrics();
+            stopPipeline();
+            timer.cancel(logCompaction);
+            closeSpool();
+            if (messageLog != null) {
+                messageLog.close();
+            }
+        }
+    }
+
+    private void startPipeline() {
+        if (dispatchPartitions > 0) {
+            PublishPipeline started = new PublishPipeline(dispatchPartitions,
+                    PublishPipeline.DEFAULT_PARTITION_CAPACITY, this::dispatch);
+            started.start();
+            metrics.setPipeline(started);
+            pipeline = started;
+        }
+    }
+
+    private void stopPipeline() {
+        PublishPipeline stopped = pipeline;
+        pipeline = null;
+        if (stopped != null) {
+            stopped.stop();
+        }
+    }
+
+    private void startMetrics() {
+        if (metricsPort >= 0) {
+            try {
+                metricsEndpoint = new MetricsEndpoint(metrics, metricsPort);
+                metricsEndpoint.start();
+            } catch (IOException e) {
+                log.warn("지표 엔드포인트를 열 수 없습니다: {}", e.getMessage());
+            }
+        }
+        if (sysInterval > 0) {
+            timer.schedule(sysReport, sysInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    private void stopMetrics() {
+        timer.cancel(sysReport);
+        if (metricsEndpoint != null) {
+            metricsEndpoint.stop();
+        }
+    }
+
+    private void startBridges() {
+        for (InetSocketAddress peer : bridgePeers) {
+            Thread thread = new Thread(() -> runBridge(peer), "bridge-" + peer.getHostString() + ":" + peer.getPort());
+            thread.setDaemon(true);
+            thread.start();
+            bridgeThreads.add(thread);
+        }
+    }
+
+    private void stopBridges() {
+        for (Thread thread : bridgeThreads) {
+            thread.interrupt();
+        }
+        for (BridgeLink link : bridgeLinks) {
+            link.close();
+        }
+    }
+
+    /**
+     * peer 브로커와의 브리지 연결을 유지합니다. 연결이 끊기면 일정 시간 후 다시 연결합니다.
+     *
+     * @param peer peer 브로커 주소
+     */
+    private void runBridge(InetSocketAddress peer) {
+        // 응답을 받지 못한 QoS 1, 2 프레임은 다음 링크가 넘겨받아 다시 보냅니다.
+        BridgeLink previous = null;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                BridgeLink link = new BridgeLink(peer.getHostString(), peer.getPort(), getBridgeName(),
+                        bridgeSubscribers, BridgeLink.DEFAULT_QUEUE_CAPACITY);
+                if (previous != null) {
+                    link.resend(previous);
+                }
+                previous = link;
+                bridgeLinks.add(link);
+                try {
+                    if (Thread.currentThread().isInterrupted()) {
+                        link.close();
+                    }
+                    link.run();
+                } finally {
+                    bridgeLinks.remove(link);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("브리지에 연결할 수 없습니다: {} ({})", peer, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(BRIDGE_RETRY_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (previous != null) {
+            previous.discardUnacked();
+        }
+    }
+
+    private void runBlocking() {
+        if (mode == Mode.VIRTUAL_THREAD) {
+            if (!VirtualThreads.isSupported()) {
+                log.warn("가상 스레드를 지원하지 않는 런타임입니다. 연결마다 플랫폼 스레드를 사용합니다.");
+            }
+            executorService = VirtualThreads.newExecutor("client-handler");
+        } else {
+            executorService = Executors.newFixedThreadPool(BLOCKING_POOL_SIZE);
+        }
+
+        // 연결을 채널로 받아 두어야 전송 스레드가 gathering write를 사용할 수 있습니다.
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+            log.info("MQTT Broker started on port: {} ({})", port, mode);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket clientSocket = serverChannel.accept().socket();
+                executorService.submit(new ClientHandler(clientSocket));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("유효하지 않음 포트입니다: " + port);
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+        } finally {
+            executorService.shutdownNow();
+            timer.close();
+        }
+    }
+
+    private void runNonBlocking() {
+        ExecutorService reactorService = Executors.newFixedThreadPool(reactorCount);
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+
+            Reactor[] reactors = new Reactor[reactorCount];
+            for (int i = 0; i < reactors.length; i++) {
+                reactors[i] = new Reactor(this);
+                reactorService.submit(reactors[i]);
+            }
+            log.info("MQTT Broker started on port: {} ({} reactors)", port, reactorCount);
+
+            int next = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                SocketChannel channel = serverChannel.accept();
+                reactors[next].register(channel);
+                next = (next + 1) % reactors.length;
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("유효하지 않음 포트입니다: " + port);
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+        } finally {
+            reactorService.shutdownNow();
+            timer.close();
+        }
+    }
+
+    /**
+     * 클라이언트로부터 수신한 메시지를 처리합니다.
+     * 메시지 유형에 따라 적절한 응답을 전송합니다.
+     *
+     * @param session 메시지를 보낸 클라이언트
+     * @param message 수신한 메시지
+     */
+    void handle(Session session, Message message) {
+        log.debug("Received: {}", message);
+
+        switch (message.getType()) {
+            case CONNECT: {
+                connect(session, (CONNECT) message);
+                break;
+            }
+
+            case PUBLISH: {
+                PUBLISH publish = (PUBLISH) message;
+                Payload payload = publish.getPayload();
+                try {
+                    handlePublish(session, publish, payload);
+                } finally {
+                    // 구독자의 전송 대기열은 각자 참조를 잡아 두므로, 디코더가 준 참조는 여기서 돌려줍니다.
+                    payload.release();
+                }
+                break;
+            }
 
-    private final Map<String, List<ClientHandler>> topicSubscribers = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
-    private int port;
+            case PUBACK: {
+                if (session.getInflightWindow().acknowledge(((PUBACK) message).getPacketId())) {
+                    resume(session);
+                }
+                break;
+            }
+
+            case PUBREC: {
+                session.getInflightWindow().release(((PUBREC) message).getPacketId());
+                break;
+            }
+
+            case PUBREL: {
+                int packetId = ((PUBREL) message).getPacketId();
+                session.getInflightWindow().releaseReceived(packetId);
+                session.send(new PUBCOMP(packetId));
+                break;
+            }
+
+            case PUBCOMP: {
+                if (session.getInflightWindow().acknowledge(((PUBCOMP) message).getPacketId())) {
+                    resume(session);
+                }
+                break;
+            }
+
+            case SUBSCRIBE: {
+                SUBSCRIBE subscribe = (SUBSCRIBE) message;
+                byte returnCode = (byte) Math.min(subscribe.getQoS(), 2);
+                try {
+                    subscribe(session, subscribe.getTopic(), returnCode);
+                } catch (IllegalArgumentException e) {
+                    log.warn("{}: {}", subscribe.getTopic(), e.getMessage());
+                    returnCode = (byte) 0x80;
+                }
+                session.send(new SUBACK(subscribe.getPacketId(), returnCode));
+                if (returnCode != (byte) 0x80) {
+                    deliverRetained(session, subscribe.getTopic(), returnCode);
+                    if (BridgeLink.DIGEST_TOPIC.equals(subscribe.getTopic())) {
+                        session.sendPublish(PublishFrame.encode(BridgeLink.DIGEST_TOPIC, getDigest()), 0);
+                    }
+                }
+                break;
+            }
+
+            case UNSUBSCRIBE: {
+                UNSUBSCRIBE unsubscribe = (UNSUBSCRIBE) message;
+                for (String topic : unsubscribe.getTopics()) {
+                    unsubscribe(session, topic);
+                }
+                session.send(new UNSUBACK(unsubscribe.getPacketId()));
+                break;
+            }
+
+            case PINGREQ: {
+                session.send(new PINGRESP());
+                break;
+            }
+
+            case DISCONNECT: {
+                log.info("Client disconnected: {}", session);
+                session.close();
+                break;
+            }
+
+            default: {
+                log.warn("지원하지 않는 명령입니다: {}", message);
+            }
+        }
+    }
 
     /**
-     * Broker 생성자.
+     * PUBLISH를 처리합니다. retained 메시지는 본문을 복사하여 보관하고, 구독자에게는 본문을 복사하지 않고 전달합니다.
      *
-     * @param port 브로커가 수신 대기할 포트 번호
+     * @param session 메시지를 보낸 클라이언트
+     * @param publish 수신한 PUBLISH 메시지
+     * @param payload 수신한 본문
      */
-    public Broker(int port) {
-        // TODO: 수정하세요.
-        this.port = port;
+    private void handlePublish(Session session, PUBLISH publish, Payload payload) {
+        metrics.messageReceived(publish.getTopic());
+        if (publish.isRetained()) {
+            retainedStore.put(publish.getTopic(), payload.toByteArray(), publish.getQoS());
+        }
+        if (publish.getQoS() == 2) {
+            // PUBREL을 받기 전에 다시 도착한 PUBLISH는 전달하지 않습니다.
+            if (session.getInflightWindow().markReceived(publish.getPacketId())) {
+                publish(session, publish.getTopic(), payload, 2, !isBridge(session));
+            }
+            session.send(new PUBREC(publish.getPacketId()));
+        } else {
+            publish(session, publish.getTopic(), payload, publish.getQoS(), !isBridge(session));
+            if (publish.getQoS() == 1) {
+                session.send(new PUBACK(publish.getPacketId()));
+            }
+        }
     }
 
     /**
-     * 브로커를 시작하여 클라이언트 연결을 수신 대기합니다.
-     * 클라이언트가 연결되면 ClientHandler를 통해 처리합니다.
+     * CONNECT를 처리합니다.
+     * 같은 clientId로 연결된 이전 연결이 있으면 종료하고, 지속 세션이면 이전 구독을 복원한 뒤
+     * 연결이 끊긴 동안 쌓인 메시지를 전송합니다.
+     *
+     * @param session 연결한 클라이언트
+     * @param connect 수신한 CONNECT 메시지
      */
-    @Override
-    public void run() {
-        try (ServerSocket serverSocket = new ServerSocket(port)) {
-            log.info("MQTT Broker started on port: {}", port);
+    void connect(Session session, CONNECT connect) {
+        session.setClientId(connect.getClientId());
+        metrics.connected(session);
 
-            while (!Thread.currentThread().isInterrupted()) {
-                Socket clientSocket = serverSocket.accept();
-                executorService.submit(new ClientHandler(clientSocket));
+        SessionState existing = sessionRegistry.get(connect.getClientId());
+        Session previous = (existing != null) ? existing.getSession() : null;
+        if ((previous != null) && (previous != session)) {
+            log.info("같은 클라이언트 식별자로 다시 연결되어 이전 연결을 종료합니다: {}", previous);
+            previous.close();
+        }
+
+        SessionRegistry.Connection connection = sessionRegistry.connect(session, connect.getCleanSession());
+        if (connection.getDiscarded() != null) {
+            unsubscribeAll(connection.getDiscarded());
+            connection.getDiscarded().close();
+        }
+        session.send(new CONNACK(connection.isPresent(), 0));
+
+        if (connect.getKeepAlive() > 0) {
+            KeepAlive keepAlive = new KeepAlive(timer, session, connect.getKeepAlive());
+            keepAlive.start();
+            session.setKeepAlive(keepAlive);
+        }
+
+        if (connection.isPresent()) {
+            SessionState state = connection.getState();
+            // 새 연결을 먼저 구독시킨 뒤 세션 상태를 해제하여, 그 사이에 발행된 메시지를 놓치지 않도록 합니다.
+            for (Map.Entry<String, Integer> subscription : state.getSubscriptions().entrySet()) {
+                subscribeFilter(session, subscription.getKey(), subscription.getValue());
             }
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("유효하지 않음 포트입니다: " + port);
-        } catch (IOException e) {
-            log.warn(e.getMessage());
-        } finally {
-            executorService.shutdownNow();
+            unsubscribeAll(state);
+            resume(session);
+        }
+    }
+
+    /**
+     * 지속 세션의 오프라인 대기열에 남은 메시지를 in-flight 창에 자리가 있는 만큼 전송합니다.
+     * 나머지는 응답이 도착하여 자리가 날 때마다 이어서 전송합니다.
+     *
+     * @param session 연결된 클라이언트
+     */
+    void resume(Session session) {
+        SessionState state = sessionRegistry.find(session);
+        if ((state == null) || (state.getQueuedCount() == 0)) {
+            return;
+        }
+
+        InflightWindow inflight = session.getInflightWindow();
+        state.drainTo(session, maxInflight - inflight.size() - inflight.getBacklogSize());
+    }
+
+    /**
+     * 연결이 종료된 클라이언트의 모든 구독을 해제합니다.
+     * 지속 세션이면 세션 상태가 구독을 이어받고, 전달이 확인되지 않은 메시지를 오프라인 대기열로 옮깁니다.
+     *
+     * @param session 연결이 종료된 클라이언트
+     */
+    void removeSession(Session session) {
+        metrics.disconnected(session);
+        SessionState state = sessionRegistry.disconnect(session);
+        if (state != null) {
+            for (Map.Entry<String, Integer> subscription : state.getSubscriptions().entrySet()) {
+                subscribeFilter(state, subscription.getKey(), subscription.getValue());
+            }
+        }
+        unsubscribeAll(session);
+
+        if (state != null) {
+            // 응답을 받지 못한 메시지는 그사이 대기열에 들어온 메시지보다 먼저 전달합니다.
+            List<Map.Entry<PublishFrame, Integer>> pending = new ArrayList<>();
+            session.getInflightWindow().forEachUnacknowledged((frame, qos) -> {
+                if (qos > 0) {
+                    pending.add(Map.entry(frame, qos));
+                }
+            });
+            state.restore(pending);
         }
     }
 
     /**
      * 클라이언트를 특정 토픽에 구독시킵니다.
+     * 토픽에는 '+'와 '#' 와일드카드를 사용할 수 있습니다.
+     * '$share/{group}/{filter}' 형식이면 공유 구독 그룹에 참여하여, 일치하는 메시지를 그룹 구성원 중 하나만 받습니다.
      *
      * @param client 구독할 클라이언트
-     * @param topic  구독할 토픽
+     * @param topic  구독할 토픽 필터
+     * @param qos    허용된 QoS
+     * @throws IllegalArgumentException 토픽 필터 형식이 올바르지 않은 경우
+     */
+    void subscribe(Session client, String topic, int qos) {
+        subscribeFilter(client, topic, qos);
+
+        SessionState state = sessionRegistry.find(client);
+        if (state != null) {
+            state.addSubscription(topic, qos);
+            sessionRegistry.save(state);
+        }
+        log.info("Client subscribed to topic: {} (QoS {})", topic, qos);
+    }
+
+    private void subscribeFilter(Session session, String filter, int qos) {
+        if (SharedSubscriptions.isShared(filter)) {
+            sharedSubscriptions.subscribe(session, filter, qos);
+        } else {
+            topicSubscribers.subscribe(session, filter, qos);
+        }
+        scheduleDigestUpdate();
+    }
+
+    private void unsubscribeAll(Session session) {
+        topicSubscribers.unsubscribeAll(session);
+        sharedSubscriptions.unsubscribeAll(session);
+        scheduleDigestUpdate();
+    }
+
+    private static boolean isBridge(Session session) {
+        String clientId = session.getClientId();
+
+        return (clientId != null) && clientId.startsWith(BridgeLink.CLIENT_ID_PREFIX);
+    }
+
+    /**
+     * 로컬 클라이언트들이 구독 중인 토픽 필터 목록(다이제스트)을 만듭니다.
+     * 공유 구독은 그룹의 토픽 필터로 포함하고, peer 브로커가 구독한 '$bridge/' 토픽은 제외합니다.
+     *
+     * @return 줄바꿈으로 구분된 토픽 필터 목록
+     */
+    String getDigest() {
+        StringJoiner digest = new StringJoiner(BridgeLink.DIGEST_SEPARATOR);
+        for (String filter : topicSubscribers.getAllFilters()) {
+            if (!filter.startsWith(BridgeLink.CLIENT_ID_PREFIX)) {
+                digest.add(filter);
+            }
+        }
+
+        return digest.toString();
+    }
+
+    /**
+     * 구독이 바뀌었음을 알립니다. 짧은 시간 동안의 변경을 모아 한 번만 다이제스트를 보냅니다.
+     */
+    private void scheduleDigestUpdate() {
+        if (!timer.isScheduled(digestUpdate)) {
+            timer.schedule(digestUpdate, DIGEST_UPDATE_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 다이제스트가 바뀌었으면 연결된 peer 브로커들에게 보내는 타이머 항목입니다.
+     */
+    private final class DigestUpdate extends HashedWheelTimer.Timeout {
+        private String last;
+
+        @Override
+        protected void expire() {
+            if (topicSubscribers.match(BridgeLink.DIGEST_TOPIC).isEmpty()) {
+                last = null;
+                return;
+            }
+
+            String digest = getDigest();
+            // 파티션이 가득 차 버려졌으면 다음 주기에 다시 보냅니다.
+            if (!digest.equals(last) && publishPeriodic(BridgeLink.DIGEST_TOPIC, Payload.of(digest))) {
+                last = digest;
+            }
+        }
+    }
+
+    /**
+     * 브로커 지표를 주기적으로 '$SYS/broker/...' 토픽에 발행하는 타이머 항목입니다.
+     * 로컬 클라이언트만 받도록 peer 브로커로는 전달하지 않습니다.
+     */
+    private final class SysReport extends HashedWheelTimer.Timeout {
+        @Override
+        protected void expire() {
+            metrics.updateRates();
+            for (Map.Entry<String, String> value : metrics.snapshot().entrySet()) {
+                publishPeriodic(BrokerMetrics.SYS_PREFIX + value.getKey(), Payload.of(value.getValue()));
+            }
+            timer.schedule(this, sysInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 마지막 압축 이후 세그먼트 수가 두 배가 되면 메시지 로그를 압축합니다.
+     * 압축은 살아 있는 레코드를 모두 다시 기록하므로, 로그가 충분히 자랐을 때만 수행하여 비용을 분산합니다.
+     */
+    private final class LogCompaction extends HashedWheelTimer.Timeout {
+        @Override
+        protected void expire() {
+            MessageLog current = (messageLog != null) ? messageLog : spoolLog;
+            if ((current == null)
+                    || (current.getSegmentCount() < Math.max(MIN_COMPACTION_SEGMENTS, 2 * compactedSegments))) {
+                timer.schedule(this, LOG_COMPACTION_INTERVAL, TimeUnit.SECONDS);
+                return;
+            }
+
+            // 압축은 디스크를 읽고 쓰므로 타이머 스레드를 막지 않도록 별도 스레드에서 수행합니다.
+            Thread thread = new Thread(() -> {
+                try {
+                    compactLog();
+                } catch (RuntimeException e) {
+                    log.warn("메시지 로그를 압축할 수 없습니다: {}", e.getMessage());
+                } finally {
+                    timer.schedule(this, LOG_COMPACTION_INTERVAL, TimeUnit.SECONDS);
+                }
+            }, "message-log-compactor");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * 구독 필터와 일치하는 retained 메시지를 새 구독자에게 전달합니다.
+     * QoS 0으로 전달할 메시지는 하나로 묶어 한 번의 쓰기로 내보내고,
+     * QoS 1, 2로 전달할 메시지는 응답을 추적해야 하므로 in-flight 창을 거칩니다.
+     * 공유 구독은 그룹 전체가 하나의 구독자이므로, 구성원이 참여할 때 retained 메시지를 전달하지 않습니다.
+     *
+     * @param session 구독한 클라이언트
+     * @param filter  구독 토픽 필터
+     * @param qos     허용된 QoS
      */
-    public void subscribe(ClientHandler client, String topic) {
-        topicSubscribers.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(client);
-        log.info("Client subscribed to topic: {}", topic);
+    void deliverRetained(Session session, String filter, int qos) {
+        if (SharedSubscriptions.isShared(filter)) {
+            return;
+        }
+
+        List<RetainedStore.Retained> retained = retainedStore.match(filter);
+        if (retained.isEmpty()) {
+            return;
+        }
+
+        List<PublishFrame> batch = new ArrayList<>(retained.size());
+        for (RetainedStore.Retained message : retained) {
+            int deliveryQoS = Math.min(message.getQoS(), qos);
+            if (deliveryQoS == 0) {
+                batch.add(message.getFrame());
+            } else {
+                session.sendPublish(message.getFrame(), deliveryQoS);
+            }
+        }
+        session.sendPublish(batch);
     }
 
     /**
@@ -76,24 +1284,137 @@ public class Broker extends Thread {
      * @param client 구독 해제할 클라이언트
      * @param topic  구독 해제할 토픽
      */
-    public void unsubscribe(ClientHandler client, String topic) {
-        topicSubscribers.getOrDefault(topic, new ArrayList<>()).remove(client);
+    void unsubscribe(Session client, String topic) {
+        if (SharedSubscriptions.isShared(topic)) {
+            sharedSubscriptions.unsubscribe(client, topic);
+        } else {
+            topicSubscribers.unsubscribe(client, topic);
+        }
+        scheduleDigestUpdate();
+
+        SessionState state = sessionRegistry.find(client);
+        if ((state != null) && state.removeSubscription(topic)) {
+            sessionRegistry.save(state);
+        }
         log.info("Client unsubscribed from topic: {}", topic);
     }
 
     /**
-     * 특정 토픽에 메시지를 발행합니다.
-     * 해당 토픽을 구독 중인 모든 클라이언트에게 메시지를 전송합니다.
+     * 특정 토픽에 QoS 0으로 메시지를 발행합니다.
+     * 해당 토픽과 일치하는 필터를 구독 중인 모든 클라이언트에게 메시지를 전송합니다.
      *
      * @param topic   메시지를 발행할 토픽
      * @param message 발행할 메시지
      */
     public void publish(String topic, String message) {
-        List<ClientHandler> subscribers = topicSubscribers.get(topic);
-        if (subscribers != null) {
-            for (ClientHandler subscriber : subscribers) {
-                subscriber.sendPublish(topic, message);
-            }
+        publish(topic, message, 0);
+    }
+
+    /**
+     * 특정 토픽에 메시지를 발행합니다.
+     * 구독자마다 발행 QoS와 구독 시 허용된 QoS 중 낮은 값으로 전달합니다.
+     * 토픽을 구독 중인 peer 브로커가 있으면 브리지로도 전달합니다.
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param message 발행할 메시지
+     * @param qos     발행 QoS
+     */
+    public void publish(String topic, String message, int qos) {
+        publish(topic, Payload.of(message), qos, true);
+    }
+
+    /**
+     * 특정 토픽에 바이너리 메시지를 발행합니다. 본문은 복사하지 않으므로, 호출한 뒤에 배열을 변경하면 안 됩니다.
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param message 발행할 메시지 본문
+     * @param qos     발행 QoS
+     */
+    public void publish(String topic, byte[] message, int qos) {
+        publish(topic, Payload.wrap(message), qos, true);
+    }
+
+    /**
+     * 특정 토픽에 메시지를 발행합니다.
+     * peer 브로커에게서 받은 메시지는 다시 peer로 전달하면 브로커 사이를 돌게 되므로 로컬 구독자에게만 전달합니다.
+     * 본문을 보관하는 구독자는 각자 참조를 늘리므로, 호출한 쪽은 반환된 뒤에 자신의 참조를 돌려주면 됩니다.
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param payload 발행할 메시지 본문
+     * @param qos     발행 QoS
+     * @param forward peer 브로커로 전달할지 여부
+     */
+    private void publish(String topic, Payload payload, int qos, boolean forward) {
+        publish(null, topic, payload, qos, forward);
+    }
+
+    /**
+     * 클라이언트에게서 받은 메시지를 발행합니다.
+     * 파이프라인의 파티션이 가득 차면 메시지를 보낸 연결이 자신의 방식대로 수신을 늦춥니다.
+     *
+     * @param session 메시지를 보낸 클라이언트. 공개 API로 직접 발행하면 null이며, 이때는 파티션에 자리가 날 때까지 기다립니다.
+     * @param topic   메시지를 발행할 토픽
+     * @param payload 발행할 메시지 본문
+     * @param qos     발행 QoS
+     * @param forward peer 브로커로 전달할지 여부
+     */
+    private void publish(Session session, String topic, Payload payload, int qos, boolean forward) {
+        PublishPipeline current = pipeline;
+        if (current == null) {
+            dispatch(topic, payload, qos, forward);
+        } else if (session != null) {
+            // 파이프라인이 전달을 마칠 때까지 본문을 보관하므로 참조를 하나 넘겨줍니다.
+            session.submit(current, topic, payload.retain(), qos, forward);
+        } else {
+            current.submit(topic, payload.retain(), qos, forward);
+        }
+    }
+
+    /**
+     * 타이머 스레드에서 $SYS 지표나 다이제스트처럼 주기적으로 갱신되는 값을 QoS 0으로 발행합니다.
+     * 타이머 스레드가 멈추면 Keep Alive 만료와 재전송까지 함께 밀리므로, 파티션이 가득 차면 기다리지 않고 버리며
+     * 버린 수는 파이프라인 지표로 셉니다. peer 브로커로는 전달하지 않습니다.
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param payload 발행할 메시지 본문
+     * @return 발행했으면 true, 파티션이 가득 차 버렸으면 false
+     */
+    private boolean publishPeriodic(String topic, Payload payload) {
+        PublishPipeline current = pipeline;
+        if (current == null) {
+            dispatch(topic, payload, 0, false);
+            return true;
+        }
+
+        return current.offerOrDrop(topic, payload.retain(), 0, false);
+    }
+
+    /**
+     * 발행 메시지를 토픽과 일치하는 구독자와 peer 브로커에게 전달합니다.
+     * 파이프라인을 사용하면 토픽의 파티션 스레드가, 사용하지 않으면 메시지를 받은 스레드가 호출합니다.
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param payload 발행할 메시지 본문
+     * @param qos     발행 QoS
+     * @param forward peer 브로커로 전달할지 여부
+     */
+    private void dispatch(String topic, Payload payload, int qos, boolean forward) {
+        List<TopicTree.Subscription> subscriptions = topicSubscribers.match(topic);
+        List<TopicTree.Subscription> bridges = (forward && !bridgePeers.isEmpty())
+                ? bridgeSubscribers.match(topic)
+                : Collections.emptyList();
+        metrics.delivered(subscriptions.size());
+        if (subscriptions.isEmpty() && bridges.isEmpty()) {
+            return;
+        }
+
+        // 프레임은 한 번만 인코딩하고, 본문까지 모든 구독자가 공유합니다.
+        PublishFrame frame = PublishFrame.encode(topic, payload, false);
+        for (TopicTree.Subscription subscription : subscriptions) {
+            subscription.getSession().sendPublish(frame, Math.min(qos, subscription.getQoS()));
+        }
+        for (TopicTree.Subscription bridge : bridges) {
+            bridge.getSession().sendPublish(frame, qos);
         }
     }
 
@@ -101,12 +1422,19 @@ public class Broker extends Thread {
      * 클라이언트와의 연결을 처리하는 클래스입니다.
      * 각 클라이언트는 별도의 스레드에서 처리됩니다.
      */
-    class ClientHandler implements Runnable {
+    class ClientHandler implements Runnable, Session {
         private final Socket socket;
         private DataInputStream input;
         private DataOutputStream output;
-        private boolean connected = false;
+        private volatile boolean connected = true;
+        private volatile String clientId;
+        private final OutboundQueue outbound = createOutboundQueue();
+        private final InflightWindow inflight = createInflightWindow(outbound::addControl);
         private int remotePort;
+        private final MessageDecoder decoder = createDecoder();
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+        private final FlushPolicy flushPolicy = new FlushPolicy(TimeUnit.MICROSECONDS.toNanos(writeCoalesceMicros));
+        private volatile KeepAlive keepAlive;
 
         /**
          * ClientHandler 생성자.
@@ -123,83 +1451,121 @@ public class Broker extends Thread {
 
             this.socket = socket;
             input = new DataInputStream(socket.getInputStream());
-            output = new DataOutputStream(socket.getOutputStream());
+            output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        @Override
+        public String getClientId() {
+            return clientId;
+        }
+
+        @Override
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return outbound;
+        }
+
+        @Override
+        public InflightWindow getInflightWindow() {
+            return inflight;
+        }
+
+        @Override
+        public void setKeepAlive(KeepAlive keepAlive) {
+            KeepAlive previous = this.keepAlive;
+            this.keepAlive = keepAlive;
+            if (previous != null) {
+                previous.stop();
+            }
+            if (!connected) {
+                keepAlive.stop();
+            }
         }
 
         /**
          * 클라이언트로부터 메시지를 수신하고 처리합니다.
-         * 메시지 유형에 따라 적절한 응답을 전송합니다.
+         * 메시지 유형에 따른 응답은 Broker가 처리합니다.
+         * 전송은 연결마다 하나씩 두는 쓰기 스레드가 전송 대기열을 비우며 수행합니다.
          */
         @Override
         public void run() {
             log.info("Start : {}", remotePort);
+            if (mode == Mode.VIRTUAL_THREAD) {
+                executorService.execute(this::drain);
+            } else {
+                // 고정 크기 풀에서는 쓰기 작업이 다른 연결의 자리를 차지하지 않도록 별도 스레드를 사용합니다.
+                Thread writer = new Thread(this::drain, "writer-" + remotePort);
+                writer.setDaemon(true);
+                writer.start();
+            }
+
             try {
-                while (!Thread.currentThread().isInterrupted()) {
+                while (connected && !Thread.currentThread().isInterrupted()) {
                     Message message = receive();
                     log.info("Received: {}", message.toString());
 
-                    switch (message.getType()) {
-                        case CONNECT: {
-                            // TODO: CONNECT 메시지를 확인하고, CONNACK를 반환합니다.
-                            new CONNACK(message.toByteArray());
-                            break;
-                        }
-
-                        case PUBLISH: {
-                            // TODO: PUBLISH 메시지를 확인하고, subscriber에게 해당 메시지를 전송합니다.
-                            send(new PUBLISH(message.toByteArray()));
-                        }
-
-                        case SUBSCRIBE: {
-                            // TODO: SUBSCRIBE 메시지를 확인하고, 토픽 등록 후 SUBACK를 전송합니다.
-                            send(new SUBACK(message.toByteArray()));
-                            break;
-                        }
-
-                        case UNSUBSCRIBE: {
-                            // TODO: UNSUBSCRIBE 메시지를 확인하고, 해당 토픽을 제거 합니다.
-                            
-                            break;
-                        }
-
-                        case PINGREQ: {
-                            // TODO: PINGREG 메시지를 확인하고, PINGRESP를 전송합니다.
-                            break;
-                        }
-
-                        case DISCONNECT: {
-                            log.info("Client disconnected.");
-                            socket.close();
-                            Thread.currentThread().interrupt();
-                            break;
-                        }
-
-                        default: {
-                            log.warn("지원하지 않는 명령입니다: {}", message.toString());
-                        }
-                    }
+                    handle(this, message);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                if (connected) {
+                    log.warn(e.getMessage());
                 }
-            } catch (IOException e) {
-                log.warn(e.getMessage());
-                Thread.currentThread().interrupt();
             } finally {
-                closeConnection();
+                close();
                 log.info("Finished : {}", remotePort);
             }
         }
 
         /**
          * 클라이언트에게 발행 메시지를 전송합니다.
+         * 전송 대기열에 넣기만 하므로 느린 구독자가 발행자 스레드를 막지 않습니다.
          *
-         * @param topic   발행할 토픽
-         * @param message 발행할 메시지
+         * @param frame 한 번 인코딩된 PUBLISH 프레임
+         * @param qos   전달 QoS
          */
-        public void sendPublish(String topic, String message) {
-            try {
-                output.write(new PUBLISH(topic, message).toByteArray());
-            } catch (IOException e) {
-                e.printStackTrace();
+        @Override
+        public void sendPublish(PublishFrame frame, int qos) {
+            boolean accepted = (qos > 0) ? inflight.offer(frame, qos)
+                    : outbound.offer(frame.toBuffers(0, inflight.nextPacketId()), frame.retain());
+            if (!accepted) {
+                log.warn("전송 대기열이 가득 차 연결을 종료합니다: {}", this);
+                close();
+            }
+        }
+
+        @Override
+        public void sendPublish(List<PublishFrame> frames) {
+            if (frames.isEmpty()) {
+                return;
+            }
+
+            if (!outbound.offer(NioSession.toBatch(frames, inflight))) {
+                log.warn("전송 대기열이 가득 차 연결을 종료합니다: {}", this);
+                close();
+            }
+        }
+
+        /**
+         * 클라이언트와의 연결을 종료하고 구독을 정리합니다.
+         */
+        @Override
+        public void close() {
+            if (!connected) {
+                return;
+            }
+
+            connected = false;
+            removeSession(this);
+            if (keepAlive != null) {
+                keepAlive.stop();
             }
+            inflight.close();
+            outbound.close();
+            closeConnection();
         }
 
         /**
@@ -227,42 +1593,106 @@ public class Broker extends Thread {
 
         /**
          * 클라이언트로부터 메시지를 수신합니다.
-         * 메시지의 헤더와 본문을 읽어 파싱합니다.
+         * 재사용하는 읽기 버퍼에 소켓 데이터를 채우고, 디코더가 프레임을 완성할 때까지 반복합니다.
+         * 연결의 읽기 스레드만 호출하므로 잠금을 사용하지 않습니다. 가상 스레드가 모니터를 잡은 채 소켓을 읽으면
+         * 캐리어 스레드가 고정되어 다른 가상 스레드를 실행하지 못합니다.
          *
          * @return 수신한 메시지 객체
          * @throws IOException 입출력 예외 발생 시
          */
-        protected synchronized Message receive() throws IOException {
-            byte[] header = new byte[5];
-            input.readFully(header, 0, 2);
-
-            int lengthFieldCount = 1;
-            int length = header[lengthFieldCount] & 0x7F;
-            while ((lengthFieldCount < 4) && ((header[lengthFieldCount] & 0x80) == 0x80)) {
-                lengthFieldCount++;
-                input.readFully(header, lengthFieldCount, 1);
-                length += (int) ((header[lengthFieldCount] & 0x7F) * Math.pow(128, lengthFieldCount - 1.0));
+        protected Message receive() throws IOException {
+            Message message;
+            long start = System.nanoTime();
+            while ((message = decoder.decode(readBuffer)) == null) {
+                readBuffer.compact();
+                int count = input.read(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(),
+                        readBuffer.remaining());
+                if (count < 0) {
+                    throw new EOFException("연결이 종료되었습니다: " + remotePort);
+                }
+                metrics.bytesReceived(count);
+                KeepAlive current = keepAlive;
+                if (current != null) {
+                    current.touch();
+                }
+                readBuffer.position(readBuffer.position() + count);
+                readBuffer.flip();
+                start = System.nanoTime();
             }
+            metrics.decoded(System.nanoTime() - start);
 
-            byte[] buffer = Arrays.copyOf(header, 1 + lengthFieldCount + length);
-            input.readFully(buffer, 1 + lengthFieldCount, length);
-
-            return Message.parsing(buffer);
+            return message;
         }
 
         /**
          * 클라이언트에게 메시지를 전송합니다.
+         * 제어 메시지는 전송 대기열의 한도와 관계없이 발행 메시지보다 먼저 전송됩니다.
          *
          * @param message 전송할 메시지 객체
          */
+        @Override
         public void send(Message message) {
+            outbound.addControl(new ByteBuffer[] { ByteBuffer.wrap(message.toByteArray()) });
+        }
+
+        /**
+         * 전송 대기열의 메시지를 모아 소켓에 기록합니다.
+         * 첫 메시지를 꺼낸 뒤 대기열에 쌓인 메시지를 writeBatchBytes까지 이어 붙여 한 번의 gathering write로 보냅니다.
+         * 메시지가 몰려 도착하는 동안에는 FlushPolicy가 정한 시간만큼 다음 메시지를 더 기다립니다.
+         * 채널이 없는 소켓이면 출력 스트림에 차례로 쓰고 묶음마다 한 번 flush합니다.
+         */
+        private void drain() {
+            SocketChannel socketChannel = socket.getChannel();
+            WritableByteChannel channel = (socketChannel != null) ? socketChannel : Channels.newChannel(output);
+            List<ByteBuffer> batch = new ArrayList<>();
             try {
-                output.write(message.toByteArray());
-                output.flush();
+                while (connected) {
+                    ByteBuffer[] first = outbound.take(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+
+                    batch.clear();
+                    Collections.addAll(batch, first);
+                    int messages = 1 + outbound.drainTo(batch, writeBatchBytes, MAX_WRITE_BUFFERS,
+                            flushPolicy.lingerNanos());
+                    flushPolicy.record(messages);
+
+                    if (socketChannel != null) {
+                        // 어느 버퍼든 남은 바이트가 있으면 다시 써야 하므로, 마지막 버퍼가 아니라 남은 총량으로 판단합니다.
+                        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+                        long remaining = NioSession.remaining(buffers);
+                        while (remaining > 0) {
+                            long written = socketChannel.write(buffers);
+                            metrics.bytesSent(written);
+                            remaining -= written;
+                        }
+                    } else {
+                        for (ByteBuffer buffer : batch) {
+                            while (buffer.hasRemaining()) {
+                                metrics.bytesSent(channel.write(buffer));
+                            }
+                        }
+                        output.flush();
+                    }
+                    outbound.complete();
+                }
             } catch (IOException e) {
-                e.printStackTrace();
+                if (connected) {
+                    log.warn(e.getMessage());
+                    close();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // 쓰다 멈춘 묶음의 본문은 다시 쓸 스레드가 없으므로 여기서 참조를 돌려줍니다.
+                outbound.complete();
             }
         }
 
+        @Override
+        public String toString() {
+            return (clientId != null) ? clientId : String.valueOf(remotePort);
+        }
     }
 }
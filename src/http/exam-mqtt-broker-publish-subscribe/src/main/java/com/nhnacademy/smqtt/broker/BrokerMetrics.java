@@ -0,0 +1,358 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import com.nhnacademy.smqtt.utils.LatencyHistogram;
+
+/**
+ * 브로커의 동작 지표를 수집합니다.
+ *
+ * <p>
+ * 카운터는 스레드마다 나뉜 셀에 더하는 LongAdder를 사용하므로, 여러 Reactor가 동시에 기록해도 서로 경합하지 않습니다.
+ * 분포는 스레드별로 나뉜 고정 크기 배열에 기록하는 LatencyHistogram을 사용합니다. 따라서 발행 경로에서는 잠금을 잡거나 객체를 만들지 않습니다.
+ * 토픽별 카운터는 처음 보는 토픽에 대해서만 항목을 만들며, MAX_TOPICS개를 넘는 토픽은 하나의 카운터로 합산합니다.
+ * 값을 읽는 쪽(주기적인 $SYS 발행과 텍스트 엔드포인트)에서만 합계를 계산합니다.
+ * </p>
+ */
+public final class BrokerMetrics {
+    static final String SYS_PREFIX = "$SYS/broker/";
+    static final int MAX_TOPICS = 1000;
+    static final long MAX_FAN_OUT = 1 << 20;
+    static final long MAX_DECODE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String OTHER_TOPICS = "(other)";
+
+    private final IntSupplier subscriptionCount;
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LongAdder otherTopics = new LongAdder();
+    private final LatencyHistogram fanOut = new LatencyHistogram(MAX_FAN_OUT);
+    private final LatencyHistogram decodeLatency = new LatencyHistogram(MAX_DECODE_NANOS);
+    private final Map<String, LongAdder> topicCounters = new ConcurrentHashMap<>();
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private volatile PublishPipeline pipeline;
+    private long lastUpdateNanos = System.nanoTime();
+    private long lastConnects;
+    private long lastDisconnects;
+    private long lastReceived;
+    private long lastSent;
+    private volatile double connectRate;
+    private volatile double disconnectRate;
+    private volatile double receiveRate;
+    private volatile double sendRate;
+
+    /**
+     * BrokerMetrics 생성자.
+     *
+     * @param subscriptionCount 현재 구독 수를 계산하는 함수
+     */
+    BrokerMetrics(IntSupplier subscriptionCount) {
+        this.subscriptionCount = subscriptionCount;
+    }
+
+    /**
+     * 클라이언트로부터 PUBLISH를 받았음을 기록합니다.
+     *
+     * @param topic 발행 토픽
+     */
+    void messageReceived(String topic) {
+        messagesReceived.increment();
+
+        LongAdder counter = topicCounters.get(topic);
+        if (counter == null) {
+            counter = (topicCounters.size() < MAX_TOPICS)
+                    ? topicCounters.computeIfAbsent(topic, k -> new LongAdder())
+                    : otherTopics;
+        }
+        counter.increment();
+    }
+
+    /**
+     * 발행 메시지 하나를 구독자들에게 전달했음을 기록합니다.
+     *
+     * @param subscribers 메시지를 전달한 구독자 수
+     */
+    void delivered(int subscribers) {
+        messagesSent.add(subscribers);
+        fanOut.record(subscribers);
+    }
+
+    /**
+     * 소켓에서 읽은 바이트 수를 기록합니다.
+     *
+     * @param bytes 바이트 수
+     */
+    void bytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    /**
+     * 소켓에 쓴 바이트 수를 기록합니다.
+     *
+     * @param bytes 바이트 수
+     */
+    void bytesSent(long bytes) {
+        bytesSent.add(bytes);
+    }
+
+    /**
+     * 프레임 하나를 해석하는 데 걸린 시간을 기록합니다.
+     *
+     * @param nanos 걸린 시간 (나노초)
+     */
+    void decoded(long nanos) {
+        decodeLatency.record(nanos);
+    }
+
+    /**
+     * 클라이언트가 CONNECT로 연결되었음을 기록합니다.
+     *
+     * @param session 연결된 클라이언트
+     */
+    void connected(Session session) {
+        if (sessions.add(session)) {
+            connects.increment();
+        }
+    }
+
+    /**
+     * 클라이언트의 연결이 종료되었음을 기록합니다. CONNECT 전에 종료된 연결은 세지 않습니다.
+     *
+     * @param session 연결이 종료된 클라이언트
+     */
+    void disconnected(Session session) {
+        if (sessions.remove(session)) {
+            disconnects.increment();
+        }
+    }
+
+    /**
+     * 직전 호출 이후의 초당 처리량을 계산합니다. 주기적인 보고 스레드 하나에서만 호출합니다.
+     */
+    synchronized void updateRates() {
+        long now = System.nanoTime();
+        double seconds = Math.max(now - lastUpdateNanos, 1) / 1_000_000_000.0;
+
+        long currentConnects = connects.sum();
+        long currentDisconnects = disconnects.sum();
+        long currentReceived = messagesReceived.sum();
+        long currentSent = messagesSent.sum();
+        connectRate = (currentConnects - lastConnects) / seconds;
+        disconnectRate = (currentDisconnects - lastDisconnects) / seconds;
+        receiveRate = (currentReceived - lastReceived) / seconds;
+        sendRate = (currentSent - lastSent) / seconds;
+
+        lastUpdateNanos = now;
+        lastConnects = currentConnects;
+        lastDisconnects = currentDisconnects;
+        lastReceived = currentReceived;
+        lastSent = currentSent;
+    }
+
+    /**
+     * 파티션별 대기열 깊이를 보고할 발행 파이프라인을 설정합니다.
+     *
+     * @param pipeline 발행 파이프라인. 사용하지 않으면 null
+     */
+    void setPipeline(PublishPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * 브로커 전체 지표를 이름과 값의 목록으로 반환합니다. 이름은 '$SYS/broker/' 아래의 토픽 경로입니다.
+     *
+     * @return 지표 이름과 값
+     */
+    Map<String, String> snapshot() {
+        long queued = 0;
+        long maxDepth = 0;
+        long dropped = 0;
+        for (Session session : sessions) {
+            OutboundQueue outbound = session.getOutboundQueue();
+            if (outbound != null) {
+                int depth = outbound.size();
+                queued += depth;
+                maxDepth = Math.max(maxDepth, depth);
+                dropped += outbound.getDroppedCount();
+            }
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("clients/connected", String.valueOf(sessions.size()));
+        values.put("clients/connects", String.valueOf(connects.sum()));
+        values.put("clients/disconnects", String.valueOf(disconnects.sum()));
+        values.put("messages/received", String.valueOf(messagesReceived.sum()));
+        values.put("messages/sent", String.valueOf(messagesSent.sum()));
+        values.put("bytes/received", String.valueOf(bytesReceived.sum()));
+        values.put("bytes/sent", String.valueOf(bytesSent.sum()));
+        values.put("load/connects", rate(connectRate));
+        values.put("load/disconnects", rate(disconnectRate));
+        values.put("load/messages/received", rate(receiveRate));
+        values.put("load/messages/sent", rate(sendRate));
+        values.put("subscriptions/count", String.valueOf(subscriptionCount.getAsInt()));
+        values.put("fanout/p50", String.valueOf(fanOut.getValueAtPercentile(50)));
+        values.put("fanout/p99", String.valueOf(fanOut.getValueAtPercentile(99)));
+        values.put("fanout/max", String.valueOf(fanOut.getMax()));
+        values.put("decode/p50_ns", String.valueOf(decodeLatency.getValueAtPercentile(50)));
+        values.put("decode/p99_ns", String.valueOf(decodeLatency.getValueAtPercentile(99)));
+        values.put("decode/max_ns", String.valueOf(decodeLatency.getMax()));
+        values.put("queue/depth", String.valueOf(queued));
+        values.put("queue/max_depth", String.valueOf(maxDepth));
+        values.put("queue/dropped", String.valueOf(dropped));
+
+        PublishPipeline current = pipeline;
+        if (current != null) {
+            long depth = 0;
+            long partitionMaxDepth = 0;
+            for (int i = 0; i < current.getPartitionCount(); i++) {
+                int partitionDepth = current.getDepth(i);
+                depth += partitionDepth;
+                partitionMaxDepth = Math.max(partitionMaxDepth, partitionDepth);
+            }
+            values.put("dispatch/partitions", String.valueOf(current.getPartitionCount()));
+            values.put("dispatch/depth", String.valueOf(depth));
+            values.put("dispatch/max_depth", String.valueOf(partitionMaxDepth));
+            values.put("dispatch/dropped", String.valueOf(current.getDroppedCount()));
+        }
+
+        return values;
+    }
+
+    /**
+     * 모든 지표를 한 줄에 하나씩 'smqtt_{이름} {값}' 형식의 텍스트로 만듭니다.
+     * 토픽별 수신 수와 세션별 전송 대기열, 발행 파이프라인의 파티션별 지표는 레이블을 붙여 함께 출력합니다.
+     *
+     * @return 지표 텍스트
+     */
+    String toText() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, String> value : snapshot().entrySet()) {
+            text.append("smqtt_").append(value.getKey().replace('/', '_')).append(' ').append(value.getValue())
+                    .append('\n');
+        }
+
+        for (Map.Entry<String, LongAdder> topic : topicCounters.entrySet()) {
+            line(text, "smqtt_topic_messages_received", "topic", topic.getKey(), topic.getValue().sum());
+        }
+        if (otherTopics.sum() > 0) {
+            line(text, "smqtt_topic_messages_received", "topic", OTHER_TOPICS, otherTopics.sum());
+        }
+
+        for (Session session : sessions) {
+            OutboundQueue outbound = session.getOutboundQueue();
+            if (outbound == null) {
+                continue;
+            }
+            String clientId = String.valueOf(session.getClientId());
+            line(text, "smqtt_session_queue_depth", "client", clientId, outbound.size());
+            line(text, "smqtt_session_queue_max_depth", "client", clientId, outbound.getMaxDepth());
+            line(text, "smqtt_session_enqueued", "client", clientId, outbound.getEnqueuedCount());
+            line(text, "smqtt_session_dropped", "client", clientId, outbound.getDroppedCount());
+        }
+
+        PublishPipeline current = pipeline;
+        if (current != null) {
+            for (int i = 0; i < current.getPartitionCount(); i++) {
+                String partition = String.valueOf(i);
+                line(text, "smqtt_dispatch_queue_depth", "partition", partition, current.getDepth(i));
+                line(text, "smqtt_dispatch_messages", "partition", partition, current.getDispatchedCount(i));
+            }
+        }
+
+        return text.toString();
+    }
+
+    private static void line(StringBuilder text, String name, String label, String value, long count) {
+        text.append(name).append('{').append(label).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append("\"} ").append(count).append('\n');
+    }
+
+    private static String rate(double value) {
+        return String.format("%.2f", value);
+    }
+
+    /**
+     * 연결된 클라이언트 수를 반환합니다.
+     *
+     * @return 클라이언트 수
+     */
+    public int getConnectedCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 지금까지 받은 PUBLISH 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    public long getMessagesReceived() {
+        return messagesReceived.sum();
+    }
+
+    /**
+     * 지금까지 구독자에게 전달한 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    public long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    /**
+     * 지금까지 소켓에서 읽은 바이트 수를 반환합니다.
+     *
+     * @return 바이트 수
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * 지금까지 소켓에 쓴 바이트 수를 반환합니다.
+     *
+     * @return 바이트 수
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * 토픽별로 받은 PUBLISH 수를 반환합니다.
+     *
+     * @param topic 발행 토픽
+     * @return 메시지 수. 기록되지 않은 토픽이면 0
+     */
+    public long getMessagesReceived(String topic) {
+        LongAdder counter = topicCounters.get(topic);
+
+        return (counter != null) ? counter.sum() : 0;
+    }
+
+    /**
+     * 발행 메시지 하나를 전달한 구독자 수의 분포를 반환합니다.
+     *
+     * @return 구독자 수 히스토그램
+     */
+    public LatencyHistogram getFanOut() {
+        return fanOut;
+    }
+
+    /**
+     * 프레임 해석 시간의 분포를 반환합니다.
+     *
+     * @return 해석 시간 히스토그램 (나노초)
+     */
+    public LatencyHistogram getDecodeLatency() {
+        return decodeLatency;
+    }
+}
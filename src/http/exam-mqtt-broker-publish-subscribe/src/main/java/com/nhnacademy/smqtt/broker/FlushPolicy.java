@@ -0,0 +1,60 @@
+package com.nhnacademy.smqtt.broker;
+
+/**
+ * 전송 스레드가 메시지를 모아 보낼 때 다음 메시지를 얼마나 더 기다릴지 정하는 정책입니다.
+ *
+ * <p>
+ * 최근 한 번의 쓰기로 보낸 메시지 수를 지수 이동 평균으로 기록합니다.
+ * 평균이 기준보다 작으면 메시지가 드문드문 도착하는 낮은 부하이므로 기다리지 않고 바로 보내 지연 시간을 줄이고,
+ * 기준 이상이면 메시지가 몰려 도착하는 중이므로 최대 coalesceNanos까지 기다려 더 많은 메시지를 한 번에 보냅니다.
+ * 전송 스레드 하나만 사용하므로 동기화하지 않습니다.
+ * </p>
+ */
+final class FlushPolicy {
+    static final double BATCHING_THRESHOLD = 2.0;
+    static final double SMOOTHING = 0.25;
+
+    private final long coalesceNanos;
+    private double averageBatch = 1.0;
+
+    /**
+     * FlushPolicy 생성자.
+     *
+     * @param coalesceNanos 부하가 높을 때 메시지를 모으기 위해 기다릴 최대 시간. 0이면 기다리지 않습니다.
+     * @throws IllegalArgumentException coalesceNanos가 음수인 경우
+     */
+    FlushPolicy(long coalesceNanos) {
+        if (coalesceNanos < 0) {
+            throw new IllegalArgumentException("coalesceNanos는 0 이상이어야 합니다.");
+        }
+
+        this.coalesceNanos = coalesceNanos;
+    }
+
+    /**
+     * 큐가 비었을 때 다음 메시지를 기다릴 시간을 반환합니다.
+     *
+     * @return 기다릴 시간 (나노초)
+     */
+    long lingerNanos() {
+        return (averageBatch >= BATCHING_THRESHOLD) ? coalesceNanos : 0;
+    }
+
+    /**
+     * 한 번의 쓰기로 보낸 메시지 수를 기록합니다.
+     *
+     * @param messages 메시지 수
+     */
+    void record(int messages) {
+        averageBatch += (messages - averageBatch) * SMOOTHING;
+    }
+
+    /**
+     * 최근 쓰기의 평균 메시지 수를 반환합니다.
+     *
+     * @return 평균 메시지 수
+     */
+    double getAverageBatch() {
+        return averageBatch;
+    }
+}
@@ -0,0 +1,331 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import com.nhnacademy.smqtt.message.PUBREL;
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.utils.HashedWheelTimer;
+import com.nhnacademy.smqtt.utils.IntObjectMap;
+
+/**
+ * 세션 하나에서 QoS 1, 2로 전송한 뒤 응답을 기다리는 메시지(in-flight)를 관리하는 클래스입니다.
+ *
+ * <p>
+ * 패킷 식별자를 키로 하는 IntObjectMap에 전송한 프레임을 보관하고, 응답이 오지 않으면
+ * 브로커가 공유하는 HashedWheelTimer로 DUP 플래그를 설정해 재전송합니다.
+ * 동시에 응답을 기다리는 메시지 수는 maxInflight로 제한하며, 초과한 메시지는 대기열에 두었다가
+ * 응답이 도착해 자리가 나면 전송합니다. 대기열의 크기와 초과 시 처리 방식은 전송 대기열과 같은 설정을 따릅니다.
+ * </p>
+ *
+ * <p>
+ * QoS 2로 수신한 PUBLISH의 패킷 식별자도 PUBREL을 받을 때까지 보관하여 중복 전달을 막습니다.
+ * </p>
+ *
+ * <p>
+ * 보관하는 프레임마다 본문의 참조를 하나씩 잡아 두었다가 응답을 받거나 버릴 때 돌려줍니다.
+ * 프레임을 보낼 때는 전송 대기열이 쓸 참조를 하나 더 늘려 버퍼와 함께 sender에 넘깁니다.
+ * </p>
+ */
+class InflightWindow {
+    private final HashedWheelTimer timer;
+    private final BiConsumer<ByteBuffer[], Payload> sender;
+    private final int maxInflight;
+    private final long retryInterval;
+    private final int backlogCapacity;
+    private final Broker.OverflowPolicy policy;
+    private final IntObjectMap<Entry> inflight;
+    private final IntObjectMap<Boolean> received = new IntObjectMap<>();
+    private final Deque<Entry> backlog = new ArrayDeque<>();
+    private int nextPacketId = 1;
+    private long sequence;
+    private long retransmitted;
+    private long dropped;
+    private boolean closed;
+
+    /**
+     * InflightWindow 생성자.
+     *
+     * @param timer           재전송에 사용할 타이머
+     * @param sender          버퍼 목록과 버퍼가 가리키는 본문의 참조를 받아 클라이언트에게 전송하는 함수
+     * @param maxInflight     동시에 응답을 기다릴 수 있는 최대 메시지 수
+     * @param retryInterval   재전송 간격 (밀리초)
+     * @param backlogCapacity 자리가 나기를 기다릴 수 있는 최대 메시지 수
+     * @param policy          대기열이 가득 찼을 때의 처리 방식
+     * @throws IllegalArgumentException 설정 값이 올바르지 않은 경우
+     */
+    InflightWindow(HashedWheelTimer timer, BiConsumer<ByteBuffer[], Payload> sender, int maxInflight,
+            long retryInterval, int backlogCapacity, Broker.OverflowPolicy policy) {
+        if ((timer == null) || (sender == null) || (policy == null)) {
+            throw new IllegalArgumentException();
+        }
+        if ((maxInflight < 1) || (maxInflight > 0xFFFF) || (retryInterval < 1) || (backlogCapacity < 1)) {
+            throw new IllegalArgumentException("in-flight 설정 값이 올바르지 않습니다.");
+        }
+
+        this.timer = timer;
+        this.sender = sender;
+        this.maxInflight = maxInflight;
+        this.retryInterval = retryInterval;
+        this.backlogCapacity = backlogCapacity;
+        this.policy = policy;
+        this.inflight = new IntObjectMap<>(maxInflight);
+    }
+
+    /**
+     * 다음 패킷 식별자를 할당합니다. 응답을 기다리는 식별자는 건너뜁니다.
+     *
+     * @return 1부터 65535 사이의 패킷 식별자
+     */
+    synchronized int nextPacketId() {
+        int packetId;
+        do {
+            packetId = nextPacketId;
+            nextPacketId = (nextPacketId % 0xFFFF) + 1;
+        } while (inflight.containsKey(packetId));
+
+        return packetId;
+    }
+
+    /**
+     * QoS 1 또는 2의 발행 메시지를 전송합니다. 응답을 기다리는 메시지가 가득 찬 경우 대기열에 둡니다.
+     *
+     * @param frame 한 번 인코딩된 PUBLISH 프레임
+     * @param qos   전달 QoS (1 또는 2)
+     * @return 메시지를 받아들였거나 정책에 따라 버렸으면 true, DISCONNECT 정책으로 연결을 끊어야 하면 false
+     * @throws IllegalArgumentException qos가 1 또는 2가 아닌 경우
+     */
+    synchronized boolean offer(PublishFrame frame, int qos) {
+        if ((qos != 1) && (qos != 2)) {
+            throw new IllegalArgumentException("in-flight 메시지의 QoS는 1 또는 2여야 합니다: " + qos);
+        }
+        if (closed) {
+            return true;
+        }
+
+        if (inflight.size() < maxInflight) {
+            frame.retain();
+            transmit(new Entry(frame, qos));
+            return true;
+        }
+
+        if (backlog.size() >= backlogCapacity) {
+            switch (policy) {
+                case DROP_NEWEST:
+                    dropped++;
+                    return true;
+
+                case DROP_OLDEST:
+                    backlog.poll().frame.release();
+                    dropped++;
+                    break;
+
+                case DISCONNECT:
+                default:
+                    dropped++;
+                    return false;
+            }
+        }
+        frame.retain();
+        backlog.add(new Entry(frame, qos));
+
+        return true;
+    }
+
+    private void transmit(Entry entry) {
+        entry.sequence = sequence++;
+        entry.packetId = nextPacketId();
+        inflight.put(entry.packetId, entry);
+        sender.accept(entry.frame.toBuffers(entry.qos, entry.packetId), entry.frame.retain());
+        timer.schedule(entry, retryInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * PUBACK(QoS 1) 또는 PUBCOMP(QoS 2)를 받아 전송을 완료합니다.
+     *
+     * @param packetId 응답의 패킷 식별자
+     * @return 응답을 기다리던 메시지였으면 true
+     */
+    synchronized boolean acknowledge(int packetId) {
+        Entry entry = inflight.remove(packetId);
+        if (entry == null) {
+            return false;
+        }
+
+        timer.cancel(entry);
+        entry.frame.release();
+        while (!closed && (inflight.size() < maxInflight) && !backlog.isEmpty()) {
+            transmit(backlog.poll());
+        }
+
+        return true;
+    }
+
+    /**
+     * QoS 2 메시지에 대한 PUBREC을 받아 PUBREL을 전송합니다.
+     * 이후에는 PUBCOMP를 받을 때까지 PUBLISH 대신 PUBREL을 재전송합니다.
+     *
+     * @param packetId PUBREC의 패킷 식별자
+     * @return 응답을 기다리던 QoS 2 메시지였으면 true
+     */
+    synchronized boolean release(int packetId) {
+        Entry entry = inflight.get(packetId);
+        boolean known = (entry != null) && (entry.qos == 2);
+        if (known) {
+            entry.released = true;
+            timer.schedule(entry, retryInterval, TimeUnit.MILLISECONDS);
+        }
+
+        if (!closed) {
+            sender.accept(new ByteBuffer[] { ByteBuffer.wrap(new PUBREL(packetId).toByteArray()) }, null);
+        }
+
+        return known;
+    }
+
+    /**
+     * QoS 2로 수신한 PUBLISH의 패킷 식별자를 기록합니다.
+     *
+     * @param packetId 수신한 PUBLISH의 패킷 식별자
+     * @return 처음 수신한 식별자이면 true, PUBREL을 받기 전에 다시 수신한 경우 false
+     */
+    synchronized boolean markReceived(int packetId) {
+        return received.put(packetId, Boolean.TRUE) == null;
+    }
+
+    /**
+     * PUBREL을 받아 QoS 2로 수신한 패킷 식별자를 해제합니다.
+     *
+     * @param packetId PUBREL의 패킷 식별자
+     */
+    synchronized void releaseReceived(int packetId) {
+        received.remove(packetId);
+    }
+
+    private synchronized void retransmit(Entry entry) {
+        if (closed || (inflight.get(entry.packetId) != entry)) {
+            return;
+        }
+
+        if (entry.released) {
+            sender.accept(new ByteBuffer[] { ByteBuffer.wrap(new PUBREL(entry.packetId).toByteArray()) }, null);
+        } else {
+            sender.accept(entry.frame.toBuffers(entry.qos, entry.packetId, true), entry.frame.retain());
+        }
+        retransmitted++;
+        timer.schedule(entry, retryInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 아직 전달이 확인되지 않은 메시지를 전송 순서대로 넘겨줍니다.
+     * PUBREC을 받은 QoS 2 메시지는 이미 전달되었으므로 제외합니다.
+     * 지속 세션의 연결이 끊길 때 메시지를 오프라인 대기열로 옮기기 위해 사용합니다.
+     *
+     * @param consumer 프레임과 전달 QoS를 받을 함수. 잠금 밖에서 호출됩니다.
+     */
+    void forEachUnacknowledged(BiConsumer<PublishFrame, Integer> consumer) {
+        List<Entry> entries = new ArrayList<>();
+        synchronized (this) {
+            inflight.forEachValue(entry -> {
+                if (!entry.released) {
+                    entries.add(entry);
+                }
+            });
+            entries.sort(Comparator.comparingLong(entry -> entry.sequence));
+            entries.addAll(backlog);
+            // 잠금 밖에서 응답이 도착해도 본문이 풀로 돌아가지 않도록 참조를 잡아 둡니다.
+            for (Entry entry : entries) {
+                entry.frame.retain();
+            }
+        }
+
+        for (Entry entry : entries) {
+            try {
+                consumer.accept(entry.frame, entry.qos);
+            } finally {
+                entry.frame.release();
+            }
+        }
+    }
+
+    /**
+     * 응답을 기다리는 메시지 수를 반환합니다.
+     *
+     * @return in-flight 메시지 수
+     */
+    synchronized int size() {
+        return inflight.size();
+    }
+
+    /**
+     * 자리가 나기를 기다리는 메시지 수를 반환합니다.
+     *
+     * @return 대기 중인 메시지 수
+     */
+    synchronized int getBacklogSize() {
+        return backlog.size();
+    }
+
+    /**
+     * 재전송한 횟수를 반환합니다.
+     *
+     * @return 재전송 횟수
+     */
+    synchronized long getRetransmittedCount() {
+        return retransmitted;
+    }
+
+    /**
+     * 대기열이 가득 차서 버린 메시지 수를 반환합니다.
+     *
+     * @return 버린 메시지 수
+     */
+    synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * 모든 재전송 타이머를 취소하고 보관 중인 메시지를 버립니다.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        inflight.forEachValue(entry -> {
+            timer.cancel(entry);
+            entry.frame.release();
+        });
+        for (Entry entry : backlog) {
+            entry.frame.release();
+        }
+        inflight.clear();
+        received.clear();
+        backlog.clear();
+    }
+
+    private final class Entry extends HashedWheelTimer.Timeout {
+        private final PublishFrame frame;
+        private final int qos;
+        private int packetId;
+        private long sequence;
+        private boolean released;
+
+        Entry(PublishFrame frame, int qos) {
+            this.frame = frame;
+            this.qos = qos;
+        }
+
+        @Override
+        protected void expire() {
+            retransmit(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.concurrent.TimeUnit;
+
+import com.nhnacademy.smqtt.utils.HashedWheelTimer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CONNECT의 Keep Alive 값으로 연결을 감시하는 타이머 항목입니다.
+ *
+ * <p>
+ * 패킷을 받을 때마다 타이머를 다시 예약하지 않고 마지막 수신 시각만 기록하므로, 수신 경로의 비용은
+ * volatile 쓰기 한 번입니다. 타이머가 만료되면 마지막 수신 이후 지난 시간을 확인하여,
+ * Keep Alive의 1.5배를 넘지 않았으면 남은 시간만큼 다시 예약하고 넘었으면 연결을 종료합니다.
+ * 항목 자체가 휠의 노드이므로 연결마다 별도의 작업 객체를 만들지 않습니다.
+ * </p>
+ */
+@Slf4j
+final class KeepAlive extends HashedWheelTimer.Timeout {
+    static final double GRACE_FACTOR = 1.5;
+
+    private final HashedWheelTimer timer;
+    private final Session session;
+    private final long timeoutNanos;
+    private volatile long lastActivity;
+
+    /**
+     * KeepAlive 생성자.
+     *
+     * @param timer     브로커가 공유하는 타이머
+     * @param session   감시할 연결
+     * @param keepAlive CONNECT의 Keep Alive 값 (초, 1 이상)
+     * @throws IllegalArgumentException keepAlive가 1보다 작은 경우
+     */
+    KeepAlive(HashedWheelTimer timer, Session session, int keepAlive) {
+        if (keepAlive < 1) {
+            throw new IllegalArgumentException("keepAlive는 1 이상이어야 합니다.");
+        }
+
+        this.timer = timer;
+        this.session = session;
+        this.timeoutNanos = (long) (TimeUnit.SECONDS.toNanos(keepAlive) * GRACE_FACTOR);
+    }
+
+    /**
+     * 감시를 시작합니다.
+     */
+    void start() {
+        touch();
+        timer.schedule(this, timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 클라이언트로부터 데이터를 받았음을 기록합니다.
+     */
+    void touch() {
+        lastActivity = System.nanoTime();
+    }
+
+    /**
+     * 감시를 중단합니다.
+     */
+    void stop() {
+        timer.cancel(this);
+    }
+
+    @Override
+    protected void expire() {
+        long idle = System.nanoTime() - lastActivity;
+        if (idle < timeoutNanos) {
+            timer.schedule(this, timeoutNanos - idle, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        log.info("Keep Alive 시간 안에 수신한 패킷이 없어 연결을 종료합니다: {}", session);
+        session.close();
+    }
+}
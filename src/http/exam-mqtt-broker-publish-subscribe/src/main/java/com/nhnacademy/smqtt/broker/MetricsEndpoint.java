@@ -0,0 +1,81 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 브로커 지표를 일반 텍스트로 보여 주는 HTTP 엔드포인트입니다.
+ *
+ * <p>
+ * JDK에 포함된 HttpServer를 사용하며, GET /metrics 요청에 BrokerMetrics의 텍스트를 응답합니다.
+ * 요청은 HttpServer의 스레드 하나가 처리하므로 브로커의 Reactor나 클라이언트 스레드에 영향을 주지 않습니다.
+ * </p>
+ */
+@Slf4j
+final class MetricsEndpoint {
+    static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private final BrokerMetrics metrics;
+    private final HttpServer server;
+
+    /**
+     * MetricsEndpoint 생성자. 포트를 열기만 하고 요청은 start()를 호출한 뒤부터 처리합니다.
+     *
+     * @param metrics 보여 줄 브로커 지표
+     * @param port    수신 대기할 포트 번호. 0이면 임의의 포트를 사용합니다.
+     * @throws IOException 포트를 열 수 없는 경우
+     */
+    MetricsEndpoint(BrokerMetrics metrics, int port) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(PATH, this::handle);
+    }
+
+    /**
+     * 요청 처리를 시작합니다.
+     */
+    void start() {
+        server.start();
+        log.info("Metrics endpoint started on port: {}", getPort());
+    }
+
+    /**
+     * 요청 처리를 중단하고 포트를 닫습니다.
+     */
+    void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * 수신 대기 중인 포트 번호를 반환합니다.
+     *
+     * @return 포트 번호
+     */
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = metrics.toText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.MessageDecoder;
+import com.nhnacademy.smqtt.message.Payload;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 논블로킹 모드에서 하나의 클라이언트 연결을 나타내는 클래스입니다.
+ * 수신한 바이트는 연결별 MessageDecoder가 프레임 단위로 이어서 해석하고,
+ * 전송할 메시지는 전송 대기열에 넣은 뒤 Reactor가 쓰기 가능할 때 gathering write로 내보냅니다.
+ * 발행 파이프라인의 파티션이 가득 차면 Reactor를 멈추지 않고 이 연결의 수신만 멈추며,
+ * 넣지 못한 메시지 하나를 보관하였다가 파티션에 자리가 나면 넣고 다시 읽습니다.
+ */
+@Slf4j
+class NioSession implements Session {
+    private final Broker broker;
+    private final BrokerMetrics metrics;
+    private final Reactor reactor;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final OutboundQueue outbound;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(Broker.READ_BUFFER_SIZE);
+    private final MessageDecoder decoder;
+    private final InflightWindow inflight;
+    private final List<ByteBuffer> batch = new ArrayList<>();
+    private ByteBuffer[] pending;
+    private long pendingBytes;
+    private final Runnable resumer;
+    private PublishPipeline stalledPipeline;
+    private String stalledTopic;
+    private Payload stalledPayload;
+    private int stalledQoS;
+    private boolean stalledForward;
+    private volatile KeepAlive keepAlive;
+    private volatile String clientId;
+
+    /**
+     * NioSession 생성자.
+     *
+     * @param broker  수신한 메시지를 처리할 브로커
+     * @param reactor 이 연결을 담당하는 Reactor
+     * @param channel 클라이언트와의 소켓 채널
+     * @param key     Selector에 등록된 키
+     */
+    NioSession(Broker broker, Reactor reactor, SocketChannel channel, SelectionKey key) {
+        this.broker = broker;
+        this.metrics = broker.getMetrics();
+        this.reactor = reactor;
+        this.channel = channel;
+        this.key = key;
+        this.outbound = broker.createOutboundQueue();
+        this.decoder = broker.createDecoder();
+        this.inflight = broker.createInflightWindow(this::sendControl);
+        this.resumer = () -> reactor.resume(this);
+    }
+
+    @Override
+    public String getClientId() {
+        return clientId;
+    }
+
+    @Override
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    @Override
+    public OutboundQueue getOutboundQueue() {
+        return outbound;
+    }
+
+    @Override
+    public InflightWindow getInflightWindow() {
+        return inflight;
+    }
+
+    @Override
+    public void setKeepAlive(KeepAlive keepAlive) {
+        KeepAlive previous = this.keepAlive;
+        this.keepAlive = keepAlive;
+        if (previous != null) {
+            previous.stop();
+        }
+        if (closed.get()) {
+            keepAlive.stop();
+        }
+    }
+
+    /**
+     * 채널에서 읽을 수 있는 데이터를 읽고, 완성된 프레임을 브로커에 전달합니다.
+     *
+     * @throws IOException 입출력 예외 발생 시
+     */
+    void onReadable() throws IOException {
+        int count = channel.read(readBuffer);
+        if (count < 0) {
+            close();
+            return;
+        }
+        metrics.bytesReceived(count);
+
+        KeepAlive current = keepAlive;
+        if (current != null) {
+            current.touch();
+        }
+
+        process();
+    }
+
+    private void process() {
+        readBuffer.flip();
+        while (!closed.get() && (stalledPayload == null)) {
+            long start = System.nanoTime();
+            Message message = decoder.decode(readBuffer);
+            if (message == null) {
+                break;
+            }
+            metrics.decoded(System.nanoTime() - start);
+            broker.handle(this, message);
+        }
+        readBuffer.compact();
+    }
+
+    @Override
+    public synchronized void submit(PublishPipeline pipeline, String topic, Payload payload, int qos,
+            boolean forward) {
+        if (pipeline.offer(topic, payload, qos, forward, resumer)) {
+            return;
+        }
+
+        stalledPipeline = pipeline;
+        stalledTopic = topic;
+        stalledPayload = payload;
+        stalledQoS = qos;
+        stalledForward = forward;
+        try {
+            key.interestOpsAnd(~SelectionKey.OP_READ);
+        } catch (CancelledKeyException ignore) {
+            // 수신을 멈추는 도중 연결이 닫혔습니다.
+        }
+        log.debug("발행 파이프라인이 가득 차 수신을 멈춥니다: {}", this);
+    }
+
+    /**
+     * 파티션에 자리가 났을 때 Reactor 스레드에서 호출됩니다.
+     * 보관한 메시지를 파이프라인에 넣고, 넣었으면 읽어 둔 나머지 프레임을 처리한 뒤 수신을 다시 시작합니다.
+     *
+     * @throws IOException 입출력 예외 발생 시
+     */
+    void onResumed() throws IOException {
+        synchronized (this) {
+            if (closed.get() || (stalledPayload == null)
+                    || !stalledPipeline.offer(stalledTopic, stalledPayload, stalledQoS, stalledForward, resumer)) {
+                return;
+            }
+            clearStalled();
+        }
+
+        key.interestOpsOr(SelectionKey.OP_READ);
+        process();
+    }
+
+    private void clearStalled() {
+        stalledPipeline = null;
+        stalledTopic = null;
+        stalledPayload = null;
+    }
+
+    @Override
+    public void send(Message message) {
+        if (closed.get()) {
+            return;
+        }
+
+        sendControl(new ByteBuffer[] { ByteBuffer.wrap(message.toByteArray()) }, null);
+    }
+
+    private void sendControl(ByteBuffer[] buffers, Payload owner) {
+        outbound.addControl(buffers, owner);
+        requestWrite();
+    }
+
+    @Override
+    public void sendPublish(PublishFrame frame, int qos) {
+        if (closed.get()) {
+            return;
+        }
+
+        boolean accepted = (qos > 0) ? inflight.offer(frame, qos)
+                : outbound.offer(frame.toBuffers(0, inflight.nextPacketId()), frame.retain());
+        if (!accepted) {
+            log.warn("전송 대기열이 가득 차 연결을 종료합니다: {}", this);
+            close();
+            return;
+        }
+        requestWrite();
+    }
+
+    @Override
+    public void sendPublish(List<PublishFrame> frames) {
+        if (closed.get() || frames.isEmpty()) {
+            return;
+        }
+
+        if (!outbound.offer(toBatch(frames, inflight))) {
+            log.warn("전송 대기열이 가득 차 연결을 종료합니다: {}", this);
+            close();
+            return;
+        }
+        requestWrite();
+    }
+
+    /**
+     * 여러 프레임의 버퍼를 QoS 0으로 이어 붙여 전송 대기열의 항목 하나로 만듭니다.
+     * retained 메시지처럼 힙에 인코딩된 프레임에만 사용하므로 본문의 참조를 넘기지 않습니다.
+     *
+     * @param frames   PUBLISH 프레임 목록
+     * @param inflight 패킷 식별자를 할당할 in-flight 창
+     * @return gathering write에 사용할 버퍼 배열
+     */
+    static ByteBuffer[] toBatch(List<PublishFrame> frames, InflightWindow inflight) {
+        List<ByteBuffer> batch = new ArrayList<>(frames.size() * 4);
+        for (PublishFrame frame : frames) {
+            Collections.addAll(batch, frame.toBuffers(0, inflight.nextPacketId()));
+        }
+
+        return batch.toArray(new ByteBuffer[0]);
+    }
+
+    private void requestWrite() {
+        try {
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+            reactor.wakeup();
+        } catch (CancelledKeyException ignore) {
+            // 전송 도중 연결이 닫혔습니다.
+        }
+    }
+
+    /**
+     * 전송 대기열에 쌓인 메시지를 소켓 버퍼가 허용하는 만큼 전송합니다.
+     * 쌓인 메시지를 writeBatchBytes까지 모아 한 번의 gathering write로 보내며,
+     * Reactor 스레드를 멈출 수 없으므로 더 기다리지는 않습니다.
+     * 일부만 전송된 묶음은 대기열에서 꺼내 따로 보관하므로, 대기열의 정책에 의해 버려지지 않습니다.
+     *
+     * @throws IOException 입출력 예외 발생 시
+     */
+    void onWritable() throws IOException {
+        while ((pending != null) || ((pending = nextBatch()) != null)) {
+            long written = channel.write(pending);
+            metrics.bytesSent(written);
+            pendingBytes -= written;
+            if (pendingBytes > 0) {
+                return;
+            }
+            pending = null;
+            outbound.complete();
+        }
+
+        key.interestOpsAnd(~SelectionKey.OP_WRITE);
+        if (!outbound.isEmpty()) {
+            key.interestOpsOr(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private ByteBuffer[] nextBatch() {
+        ByteBuffer[] first = outbound.poll();
+        if (first == null) {
+            return null;
+        }
+
+        batch.clear();
+        Collections.addAll(batch, first);
+        try {
+            outbound.drainTo(batch, broker.getWriteBatchBytes(), Broker.MAX_WRITE_BUFFERS, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        pendingBytes = remaining(buffers);
+
+        return buffers;
+    }
+
+    /**
+     * 버퍼 목록에 남은 바이트 수의 합을 반환합니다.
+     * gathering write는 일부만 쓰고 돌아올 수 있으므로, 묶음 전체를 보냈는지는 이 값으로 판단합니다.
+     *
+     * @param buffers 버퍼 목록
+     * @return 남은 바이트 수
+     */
+    static long remaining(ByteBuffer[] buffers) {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+
+        return remaining;
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        broker.removeSession(this);
+        if (keepAlive != null) {
+            keepAlive.stop();
+        }
+        inflight.close();
+        outbound.close();
+        synchronized (this) {
+            if (stalledPayload != null) {
+                stalledPayload.release();
+                clearStalled();
+            }
+        }
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+        }
+        // 논블로킹 채널은 진행 중인 쓰기가 끝난 뒤에 닫히므로, 이후에는 쓰다 만 묶음의 본문을 돌려주어도 됩니다.
+        outbound.complete();
+        log.info("Disconnected: {}", this);
+    }
+
+    @Override
+    public String toString() {
+        return (clientId != null) ? clientId : String.valueOf(channel);
+    }
+}
@@ -0,0 +1,357 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.store.LogRecord;
+import com.nhnacademy.smqtt.store.MessageLog;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 연결이 끊긴 지속 세션에 전달할 QoS 1, 2 메시지를 보관하는 대기열입니다.
+ *
+ * <p>
+ * 메시지는 [QoS 1][토픽 길이 2][토픽][메시지] 형식의 바이트 배열로 보관합니다.
+ * 처음 memoryThreshold개까지는 힙에 두고, 그 이후의 메시지는 모든 세션이 함께 쓰는 spool 로그에 QUEUE 레코드로 기록한 뒤
+ * 오프셋만 남기므로, 오프라인 클라이언트가 많아져도 힙 사용량이 세션당 memoryThreshold개로 묶이고 파일도 세션 수와 관계없이
+ * 로그 하나만 엽니다. 로그에 기록된 메시지가 남아 있는 동안에는 새 메시지도 로그에 이어서 기록하므로 순서가 유지됩니다.
+ * 다 꺼낸 레코드가 차지하던 공간은 {@link #compact(long)}로 남은 메시지를 로그 끝으로 옮긴 뒤 세그먼트를 삭제하여 돌려받습니다.
+ * </p>
+ *
+ * <p>
+ * durable 대기열은 힙에 둔 메시지도 모두 로그에 기록하고, 꺼낸 메시지는 DEQUEUE 레코드로 남겨 재시작 후
+ * {@link #recover(Collection)}로 복원할 수 있도록 합니다. DEQUEUE 레코드의 값은 마지막으로 꺼낸 QUEUE 레코드의 오프셋이며,
+ * 빈 QUEUE 레코드는 그때까지 기록된 이 세션의 메시지를 모두 버린다는 뜻입니다.
+ * </p>
+ *
+ * <p>
+ * 세션당 보관할 수 있는 메시지 수는 capacity로 제한하며, 넘으면 DROP_OLDEST 정책일 때는 가장 오래된 메시지를,
+ * 그 밖의 정책에서는 새 메시지를 버립니다. 연결이 없으므로 DISCONNECT 정책은 DROP_NEWEST와 같게 처리합니다.
+ * </p>
+ */
+@Slf4j
+class OfflineQueue {
+    private static final byte[] RESET = new byte[0];
+
+    private final String clientId;
+    private final int capacity;
+    private final int memoryThreshold;
+    private final MessageLog spool;
+    private final boolean durable;
+    private final Broker.OverflowPolicy policy;
+    // 앞에서부터 memory.size()개의 메시지는 본문을 힙에 둡니다.
+    private final Deque<byte[]> memory = new ArrayDeque<>();
+    // 메시지마다 QUEUE 레코드의 오프셋. 로그에 기록하지 않은 메시지는 -1입니다.
+    private long[] offsets = new long[16];
+    private int head;
+    private int size;
+    private long dropped;
+    private long spilled;
+
+    /**
+     * OfflineQueue 생성자.
+     *
+     * @param clientId        세션의 클라이언트 식별자. 로그 레코드의 키로 사용합니다.
+     * @param capacity        보관할 수 있는 최대 메시지 수
+     * @param memoryThreshold 힙에 보관할 최대 메시지 수. 넘는 메시지는 로그에 기록합니다.
+     * @param spool           메시지를 기록할 로그
+     * @param durable         모든 메시지를 로그에 기록하여 재시작 후 복원할지 여부
+     * @param policy          한도를 넘었을 때의 처리 방식
+     * @throws IllegalArgumentException 설정 값이 올바르지 않은 경우
+     */
+    OfflineQueue(String clientId, int capacity, int memoryThreshold, MessageLog spool, boolean durable,
+            Broker.OverflowPolicy policy) {
+        if ((clientId == null) || (capacity < 1) || (memoryThreshold < 0) || (spool == null) || (policy == null)) {
+            throw new IllegalArgumentException("오프라인 대기열 설정 값이 올바르지 않습니다.");
+        }
+
+        this.clientId = clientId;
+        this.capacity = capacity;
+        this.memoryThreshold = memoryThreshold;
+        this.spool = spool;
+        this.durable = durable;
+        this.policy = policy;
+    }
+
+    /**
+     * 로그에서 복원한 메시지의 오프셋으로 대기열을 채웁니다. 본문은 전달할 때 로그에서 읽어 옵니다.
+     *
+     * @param recovered 전달 순서대로 정렬된 QUEUE 레코드 오프셋 목록
+     */
+    synchronized void recover(Collection<Long> recovered) {
+        for (long offset : recovered) {
+            addLast(offset);
+        }
+    }
+
+    /**
+     * 메시지를 대기열에 추가합니다.
+     *
+     * @param topic   발행 토픽
+     * @param message 발행 메시지
+     * @param qos     전달 QoS
+     * @return 메시지를 보관했으면 true, 한도를 넘어 버렸으면 false
+     */
+    boolean offer(String topic, String message, int qos) {
+        return offer(topic, toBytes(message), qos);
+    }
+
+    /**
+     * 본문을 바이트 그대로 대기열에 추가합니다.
+     *
+     * @param topic   발행 토픽
+     * @param message 발행 메시지 본문
+     * @param qos     전달 QoS
+     * @return 메시지를 보관했으면 true, 한도를 넘어 버렸으면 false
+     */
+    synchronized boolean offer(String topic, byte[] message, int qos) {
+        if (size >= capacity) {
+            dropped++;
+            if (policy != Broker.OverflowPolicy.DROP_OLDEST) {
+                return false;
+            }
+            poll();
+            dequeued();
+        }
+
+        byte[] element = encode(topic, message, qos);
+        long offset = -1;
+        if ((memory.size() == size) && (memory.size() < memoryThreshold)) {
+            memory.add(element);
+            if (durable) {
+                offset = spool.append(LogRecord.Type.QUEUE, clientId, element);
+            }
+        } else {
+            offset = spool.append(LogRecord.Type.QUEUE, clientId, element);
+            spilled++;
+        }
+        addLast(offset);
+
+        return true;
+    }
+
+    /**
+     * 메시지들을 대기열의 맨 앞에 추가합니다.
+     * 연결이 끊긴 세션에서 응답을 받지 못한 메시지를 옮길 때 사용하며, 이미 전달하기로 한 메시지이므로 한도를 적용하지 않습니다.
+     * durable 대기열이면 순서를 지키기 위해 대기열 전체를 로그에 다시 기록합니다.
+     *
+     * @param pending 전송 순서대로 정렬된 메시지와 QoS의 목록
+     */
+    synchronized void offerFirst(List<Map.Entry<PublishFrame, Integer>> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            PublishFrame frame = pending.get(i).getKey();
+            memory.addFirst(encode(frame.getTopic(), frame.getPayload().toByteArray(), pending.get(i).getValue()));
+            addFirst(-1);
+        }
+        if (durable) {
+            rewrite();
+        }
+    }
+
+    private byte[] poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        byte[] element = memory.poll();
+        long offset = offsets[head];
+        head = (head + 1) % offsets.length;
+        size--;
+        if (element != null) {
+            return element;
+        }
+
+        LogRecord logRecord = spool.read(offset);
+        if ((logRecord == null) || (logRecord.getValue().length == 0)) {
+            log.warn("오프라인 메시지를 로그에서 읽을 수 없습니다: {}@{}", clientId, offset);
+            return RESET;
+        }
+
+        return logRecord.getValue();
+    }
+
+    /**
+     * durable 대기열이면, 마지막으로 꺼낸 메시지까지 전달이 끝났음을 DEQUEUE 레코드로 기록합니다.
+     */
+    private void dequeued() {
+        if (!durable) {
+            return;
+        }
+
+        long last = offsets[(head + offsets.length - 1) % offsets.length];
+        if (size == 0) {
+            // 모두 꺼냈으면 다음 압축에서 옮길 메시지가 없도록 대기열을 비웠음을 기록합니다.
+            spool.append(LogRecord.Type.QUEUE, clientId, RESET);
+        } else {
+            spool.append(LogRecord.Type.DEQUEUE, clientId, ByteBuffer.allocate(8).putLong(last).array());
+        }
+    }
+
+    /**
+     * 보관 중인 메시지를 오래된 순서대로 최대 limit개 세션에 전송합니다.
+     *
+     * @param session 메시지를 받을 세션
+     * @param limit   전송할 최대 메시지 수
+     * @return 전송한 메시지 수
+     */
+    synchronized int drainTo(Session session, int limit) {
+        int count = 0;
+        byte[] element;
+        while ((count < limit) && ((element = poll()) != null)) {
+            count++;
+            if (element.length == 0) {
+                continue;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(element);
+            int qos = buffer.get();
+            byte[] topic = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(topic);
+            byte[] message = new byte[buffer.remaining()];
+            buffer.get(message);
+
+            session.sendPublish(PublishFrame.encode(new String(topic, StandardCharsets.UTF_8), Payload.wrap(message),
+                    false), qos);
+        }
+        if (count > 0) {
+            dequeued();
+        }
+
+        return count;
+    }
+
+    /**
+     * cutoff보다 앞에 기록된 메시지가 남아 있으면 남은 메시지를 로그의 끝에 다시 기록합니다.
+     * 호출한 뒤에는 cutoff 앞의 레코드를 읽지 않으므로, 해당 세그먼트를 삭제해도 됩니다.
+     *
+     * @param cutoff 이 오프셋보다 앞의 레코드를 다시 기록합니다.
+     * @return 다시 기록했으면 true
+     */
+    synchronized boolean compact(long cutoff) {
+        for (int i = 0; i < size; i++) {
+            long offset = offsets[(head + i) % offsets.length];
+            if ((offset >= 0) && (offset < cutoff)) {
+                rewrite();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 남은 메시지를 순서대로 로그의 끝에 다시 기록합니다.
+     * durable 대기열은 이전 기록을 버리는 빈 QUEUE 레코드를 먼저 남기고 모든 메시지를 기록하며,
+     * 그렇지 않으면 힙에 없는 메시지만 기록합니다.
+     */
+    private void rewrite() {
+        if (durable) {
+            spool.append(LogRecord.Type.QUEUE, clientId, RESET);
+        }
+
+        Iterator<byte[]> resident = memory.iterator();
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % offsets.length;
+            byte[] element;
+            if (resident.hasNext()) {
+                element = resident.next();
+                if (!durable) {
+                    continue;
+                }
+            } else {
+                LogRecord logRecord = spool.read(offsets[index]);
+                element = (logRecord != null) ? logRecord.getValue() : RESET;
+            }
+            offsets[index] = spool.append(LogRecord.Type.QUEUE, clientId, element);
+        }
+    }
+
+    private void addLast(long offset) {
+        grow();
+        offsets[(head + size) % offsets.length] = offset;
+        size++;
+    }
+
+    private void addFirst(long offset) {
+        grow();
+        head = (head + offsets.length - 1) % offsets.length;
+        offsets[head] = offset;
+        size++;
+    }
+
+    private void grow() {
+        if (size < offsets.length) {
+            return;
+        }
+
+        long[] grown = Arrays.copyOf(offsets, offsets.length * 2);
+        if (head > 0) {
+            System.arraycopy(offsets, 0, grown, offsets.length, head);
+        }
+        offsets = grown;
+    }
+
+    private static byte[] toBytes(String message) {
+        return (message != null) ? message.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static byte[] encode(String topic, byte[] messageBytes, int qos) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(1 + 2 + topicBytes.length + messageBytes.length)
+                .put((byte) qos)
+                .putShort((short) topicBytes.length)
+                .put(topicBytes)
+                .put(messageBytes)
+                .array();
+    }
+
+    /**
+     * 보관 중인 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 한도를 넘어 버린 메시지 수를 반환합니다.
+     *
+     * @return 버린 메시지 수
+     */
+    synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * 힙 한도를 넘어 로그에 기록한 메시지 수를 반환합니다.
+     *
+     * @return 로그에 기록한 메시지 수
+     */
+    synchronized long getSpilledCount() {
+        return spilled;
+    }
+
+    /**
+     * 남은 메시지를 버립니다. 로그에 남은 레코드는 다음 압축 때 정리됩니다.
+     */
+    synchronized void close() {
+        memory.clear();
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,381 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.nhnacademy.smqtt.message.Payload;
+
+/**
+ * 세션 하나의 전송 대기열입니다.
+ *
+ * <p>
+ * 발행 메시지는 정해진 개수까지만 쌓이고, 초과하면 설정된 OverflowPolicy에 따라 처리합니다.
+ * CONNACK, SUBACK과 같은 제어 메시지는 버려지면 프로토콜이 깨지므로 한도와 관계없이 별도의 큐에 넣고,
+ * 발행 메시지보다 먼저 꺼냅니다. 큐 깊이와 버린 메시지 수는 세션별 지표로 제공합니다.
+ * </p>
+ *
+ * <p>
+ * 버퍼가 풀의 본문을 가리키면 항목과 함께 본문의 참조(owner)를 넘겨받습니다. 꺼낸 항목의 참조는 쓰기를 마친 쪽이
+ * complete()를 호출할 때 돌려주고, 버리거나 닫을 때 남아 있는 항목의 참조는 바로 돌려줍니다.
+ * </p>
+ */
+class OutboundQueue {
+    private final int capacity;
+    private final Broker.OverflowPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Deque<Entry> controls = new ArrayDeque<>();
+    private final Deque<Entry> publishes = new ArrayDeque<>();
+    private final List<Payload> written = new ArrayList<>();
+    private boolean closed;
+    private long enqueued;
+    private long dropped;
+    private int maxDepth;
+
+    /**
+     * OutboundQueue 생성자.
+     *
+     * @param capacity 쌓아 둘 수 있는 발행 메시지의 최대 개수
+     * @param policy   한도를 넘었을 때의 처리 방식
+     * @throws IllegalArgumentException capacity가 1보다 작거나 policy가 null인 경우
+     */
+    OutboundQueue(int capacity, Broker.OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity는 1 이상이어야 합니다.");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy는 null일 수 없습니다.");
+        }
+
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * 제어 메시지를 추가합니다. 제어 메시지는 버려지지 않습니다.
+     *
+     * @param entry 전송할 버퍼 목록
+     */
+    void addControl(ByteBuffer[] entry) {
+        addControl(entry, null);
+    }
+
+    /**
+     * 풀의 본문을 가리키는 제어 메시지를 추가합니다. in-flight 창이 발행 메시지를 보낼 때 사용합니다.
+     *
+     * @param entry 전송할 버퍼 목록
+     * @param owner 버퍼가 가리키는 본문의 참조. 없으면 null
+     */
+    void addControl(ByteBuffer[] entry, Payload owner) {
+        lock.lock();
+        try {
+            if (closed) {
+                release(owner);
+                return;
+            }
+
+            controls.add(new Entry(entry, owner));
+            enqueued++;
+            updateMaxDepth();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 발행 메시지를 추가합니다. 큐가 가득 찬 경우 정책에 따라 메시지를 버립니다.
+     *
+     * @param entry 전송할 버퍼 목록
+     * @return 메시지를 받아들였거나 정책에 따라 버렸으면 true, DISCONNECT 정책으로 연결을 끊어야 하면 false
+     */
+    boolean offer(ByteBuffer[] entry) {
+        return offer(entry, null);
+    }
+
+    /**
+     * 풀의 본문을 가리키는 발행 메시지를 추가합니다. 메시지를 버리면 본문의 참조도 바로 돌려줍니다.
+     *
+     * @param entry 전송할 버퍼 목록
+     * @param owner 버퍼가 가리키는 본문의 참조. 없으면 null
+     * @return 메시지를 받아들였거나 정책에 따라 버렸으면 true, DISCONNECT 정책으로 연결을 끊어야 하면 false
+     */
+    boolean offer(ByteBuffer[] entry, Payload owner) {
+        lock.lock();
+        try {
+            if (closed) {
+                release(owner);
+                return true;
+            }
+
+            if (publishes.size() >= capacity) {
+                switch (policy) {
+                    case DROP_NEWEST:
+                        dropped++;
+                        release(owner);
+                        return true;
+
+                    case DROP_OLDEST:
+                        release(publishes.poll().owner);
+                        dropped++;
+                        break;
+
+                    case DISCONNECT:
+                    default:
+                        dropped++;
+                        release(owner);
+                        return false;
+                }
+            }
+
+            publishes.add(new Entry(entry, owner));
+            enqueued++;
+            updateMaxDepth();
+            notEmpty.signal();
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다음에 전송할 메시지를 꺼냅니다.
+     *
+     * @return 전송할 버퍼 목록. 큐가 비어 있으면 null
+     */
+    ByteBuffer[] poll() {
+        lock.lock();
+        try {
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 전송할 메시지가 생길 때까지 기다렸다가 꺼냅니다.
+     *
+     * @param timeout 최대 대기 시간
+     * @param unit    대기 시간 단위
+     * @return 전송할 버퍼 목록. 시간이 초과되었거나 큐가 닫힌 경우 null
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    ByteBuffer[] take(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+
+        lock.lockInterruptibly();
+        try {
+            ByteBuffer[] entry;
+            while (((entry = next()) == null) && !closed) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 쌓여 있는 메시지를 여러 개 꺼내 버퍼 목록에 이어 붙입니다. 한 번의 gathering write로 보내기 위해 사용합니다.
+     * 메시지는 나누지 않으므로, 다음 메시지를 붙이면 maxBuffers를 넘는 경우 거기서 멈춥니다.
+     * 모은 크기가 maxBytes에 못 미치고 큐가 비면 lingerNanos 동안 다음 메시지를 기다립니다.
+     *
+     * @param target      버퍼를 이어 붙일 목록
+     * @param maxBytes    모을 최대 바이트 수
+     * @param maxBuffers  목록에 담을 수 있는 최대 버퍼 수
+     * @param lingerNanos 큐가 비었을 때 더 기다릴 시간. 0이면 기다리지 않습니다.
+     * @return 꺼낸 메시지 수
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    int drainTo(List<ByteBuffer> target, int maxBytes, int maxBuffers, long lingerNanos)
+            throws InterruptedException {
+        long bytes = 0;
+        for (ByteBuffer buffer : target) {
+            bytes += buffer.remaining();
+        }
+
+        int count = 0;
+        long nanos = lingerNanos;
+        lock.lockInterruptibly();
+        try {
+            while ((bytes < maxBytes) && !closed) {
+                Deque<Entry> source = !controls.isEmpty() ? controls : publishes;
+                Entry entry = source.peek();
+                if (entry == null) {
+                    if (nanos <= 0) {
+                        break;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                    continue;
+                }
+                if (target.size() + entry.buffers.length > maxBuffers) {
+                    break;
+                }
+
+                source.poll();
+                dequeued(entry);
+                for (ByteBuffer buffer : entry.buffers) {
+                    target.add(buffer);
+                    bytes += buffer.remaining();
+                }
+                count++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return count;
+    }
+
+    private ByteBuffer[] next() {
+        Entry entry = controls.poll();
+        if (entry == null) {
+            entry = publishes.poll();
+        }
+
+        return (entry != null) ? dequeued(entry) : null;
+    }
+
+    private ByteBuffer[] dequeued(Entry entry) {
+        if (entry.owner != null) {
+            written.add(entry.owner);
+        }
+
+        return entry.buffers;
+    }
+
+    /**
+     * 지금까지 꺼낸 메시지의 쓰기가 끝났음을 알리고, 메시지가 가리키던 본문의 참조를 돌려줍니다.
+     * 꺼낸 버퍼를 소켓에 모두 쓴 뒤에 호출해야 합니다.
+     */
+    void complete() {
+        lock.lock();
+        try {
+            for (Payload owner : written) {
+                owner.release();
+            }
+            written.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void release(Payload owner) {
+        if (owner != null) {
+            owner.release();
+        }
+    }
+
+    private void updateMaxDepth() {
+        maxDepth = Math.max(maxDepth, controls.size() + publishes.size());
+    }
+
+    /**
+     * 큐를 닫고 남은 메시지를 버립니다. 대기 중인 take()는 null을 반환합니다.
+     * 이미 꺼낸 메시지는 다른 스레드가 아직 쓰고 있을 수 있으므로, 그 본문의 참조는 complete()에서 돌려줍니다.
+     * 쓰는 쪽은 쓰기에 실패하거나 멈출 때에도 complete()를 호출해야 합니다.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (Entry entry : controls) {
+                release(entry.owner);
+            }
+            for (Entry entry : publishes) {
+                release(entry.owner);
+            }
+            controls.clear();
+            publishes.clear();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 전송을 기다리는 메시지가 없는지 확인합니다.
+     *
+     * @return 비어 있으면 true
+     */
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 현재 큐 깊이를 반환합니다.
+     *
+     * @return 전송을 기다리는 메시지 수
+     */
+    int size() {
+        lock.lock();
+        try {
+            return controls.size() + publishes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 지금까지 큐에 들어간 메시지 수를 반환합니다.
+     *
+     * @return 추가된 메시지 수
+     */
+    long getEnqueuedCount() {
+        lock.lock();
+        try {
+            return enqueued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 한도를 넘어 버려진 발행 메시지 수를 반환합니다.
+     *
+     * @return 버린 메시지 수
+     */
+    long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 지금까지 관측된 가장 큰 큐 깊이를 반환합니다.
+     *
+     * @return 최대 큐 깊이
+     */
+    int getMaxDepth() {
+        lock.lock();
+        try {
+            return maxDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        final ByteBuffer[] buffers;
+        final Payload owner;
+
+        Entry(ByteBuffer[] buffers, Payload owner) {
+            this.buffers = buffers;
+            this.owner = owner;
+        }
+    }
+}
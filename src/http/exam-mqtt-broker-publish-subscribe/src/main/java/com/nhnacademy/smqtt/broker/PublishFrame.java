@@ -0,0 +1,195 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.nhnacademy.smqtt.message.Payload;
+
+/**
+ * 한 번 인코딩한 PUBLISH 프레임을 여러 구독자에게 공유하기 위한 클래스입니다.
+ *
+ * <p>
+ * 토픽은 발행 시 한 번만 UTF-8로 인코딩하여 읽기 전용으로 보관하고, 본문은 수신한 Payload를 복사하지 않고 참조합니다.
+ * 구독자마다 달라지는 고정 헤더의 첫 바이트(QoS 비트)와 패킷 식별자만 별도의 작은 버퍼로 만들고,
+ * 나머지는 공유 버퍼의 뷰를 그대로 사용하여 gathering write로 전송합니다.
+ * </p>
+ *
+ * <p>
+ * 본문이 풀의 버퍼를 사용하면, 프레임의 버퍼를 전송 대기열이나 in-flight 창에 보관하는 쪽은 retain()으로
+ * 본문의 참조를 늘리고 전송이나 응답이 끝나면 release()로 돌려줍니다.
+ * </p>
+ */
+final class PublishFrame {
+    private static final int HEADER = 0x30;
+
+    private final String topic;
+    private final Payload payload;
+    private final boolean retained;
+    private final ByteBuffer head;
+
+    private PublishFrame(String topic, Payload payload, boolean retained, byte[] head) {
+        this.topic = topic;
+        this.payload = payload;
+        this.retained = retained;
+        this.head = ByteBuffer.wrap(head).asReadOnlyBuffer();
+    }
+
+    /**
+     * 토픽과 메시지를 PUBLISH 프레임으로 인코딩합니다.
+     * 패킷 식별자 자리는 비워 두고, 구독자에게 전송할 때 채웁니다.
+     *
+     * @param topic   발행 토픽
+     * @param message 발행 메시지
+     * @return 인코딩된 프레임
+     * @throws IllegalArgumentException 토픽이 비어 있거나 프레임이 너무 큰 경우
+     */
+    static PublishFrame encode(String topic, String message) {
+        return encode(topic, message, false);
+    }
+
+    /**
+     * 토픽과 메시지를 PUBLISH 프레임으로 인코딩합니다.
+     * 구독 시점에 전달하는 retained 메시지는 고정 헤더의 RETAIN 비트를 설정합니다.
+     *
+     * @param topic    발행 토픽
+     * @param message  발행 메시지
+     * @param retained RETAIN 비트 설정 여부
+     * @return 인코딩된 프레임
+     * @throws IllegalArgumentException 토픽이 비어 있거나 프레임이 너무 큰 경우
+     */
+    static PublishFrame encode(String topic, String message, boolean retained) {
+        return encode(topic, Payload.of(message), retained);
+    }
+
+    /**
+     * 토픽과 본문을 PUBLISH 프레임으로 인코딩합니다. 본문은 복사하지 않고 참조하며, 참조 카운트도 바꾸지 않습니다.
+     * 프레임을 사용하는 동안에는 호출한 쪽이 본문의 참조를 유지해야 합니다.
+     *
+     * @param topic    발행 토픽
+     * @param payload  발행 메시지 본문
+     * @param retained RETAIN 비트 설정 여부
+     * @return 인코딩된 프레임
+     * @throws IllegalArgumentException 토픽이 비어 있거나 프레임이 너무 큰 경우
+     */
+    static PublishFrame encode(String topic, Payload payload, boolean retained) {
+        if ((topic == null) || topic.isEmpty()) {
+            throw new IllegalArgumentException("Topic은 비어 있을 수 없습니다.");
+        }
+
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        if (topicBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Topic이 너무 깁니다: " + topicBytes.length);
+        }
+
+        int remainingLength = 2 + topicBytes.length + 2 + payload.size();
+        int lengthFieldSize = remainingLengthFieldSize(remainingLength);
+
+        // 고정 헤더의 첫 바이트는 구독자마다 따로 만들므로, 남은 길이부터 토픽까지만 보관합니다.
+        ByteBuffer buffer = ByteBuffer.allocate(lengthFieldSize + 2 + topicBytes.length);
+        int value = remainingLength;
+        do {
+            int encodedByte = value % 128;
+            value /= 128;
+            buffer.put((byte) ((value > 0) ? (encodedByte | 0x80) : encodedByte));
+        } while (value > 0);
+        buffer.putShort((short) topicBytes.length);
+        buffer.put(topicBytes);
+
+        return new PublishFrame(topic, payload, retained, buffer.array());
+    }
+
+    private static int remainingLengthFieldSize(int remainingLength) {
+        if (remainingLength < 128) {
+            return 1;
+        } else if (remainingLength < 16_384) {
+            return 2;
+        } else if (remainingLength < 2_097_152) {
+            return 3;
+        } else if (remainingLength < 268_435_456) {
+            return 4;
+        }
+
+        throw new IllegalArgumentException("Remaining Length 값이 너무 큽니다: " + remainingLength);
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    String getMessage() {
+        return payload.toString();
+    }
+
+    Payload getPayload() {
+        return payload;
+    }
+
+    boolean isRetained() {
+        return retained;
+    }
+
+    /**
+     * 전송 시 프레임의 전체 크기를 반환합니다.
+     *
+     * @return 프레임 크기 (바이트)
+     */
+    int size() {
+        return 1 + head.capacity() + 2 + payload.size();
+    }
+
+    /**
+     * 본문의 참조를 하나 늘립니다. 프레임의 버퍼를 보관하는 쪽이 호출합니다.
+     *
+     * @return 참조를 늘린 본문
+     */
+    Payload retain() {
+        return payload.retain();
+    }
+
+    /**
+     * 본문의 참조를 하나 줄입니다.
+     */
+    void release() {
+        payload.release();
+    }
+
+    /**
+     * 구독자 한 명에게 보낼 버퍼 목록을 만듭니다.
+     * 토픽과 본문은 공유 버퍼의 뷰이므로 복사되지 않습니다.
+     *
+     * @param qos      전달 QoS
+     * @param packetId 구독자 연결에서 사용할 패킷 식별자
+     * @return gathering write에 사용할 버퍼 배열
+     */
+    ByteBuffer[] toBuffers(int qos, int packetId) {
+        return toBuffers(qos, packetId, false);
+    }
+
+    /**
+     * 구독자 한 명에게 보낼 버퍼 목록을 만듭니다. 재전송할 때는 DUP 플래그를 설정합니다.
+     *
+     * @param qos        전달 QoS
+     * @param packetId   구독자 연결에서 사용할 패킷 식별자
+     * @param duplicated 재전송 여부
+     * @return gathering write에 사용할 버퍼 배열
+     */
+    ByteBuffer[] toBuffers(int qos, int packetId, boolean duplicated) {
+        ByteBuffer header = ByteBuffer.wrap(new byte[] { header(qos, duplicated) });
+        ByteBuffer packetIdBuffer = ByteBuffer.allocate(2).putShort(0, (short) packetId);
+
+        // 빈 본문은 버퍼 목록에 넣지 않아 모든 버퍼가 1바이트 이상이 되도록 합니다.
+        if (payload.size() == 0) {
+            return new ByteBuffer[] { header, head.duplicate(), packetIdBuffer };
+        }
+
+        return new ByteBuffer[] { header, head.duplicate(), packetIdBuffer, payload.buffer() };
+    }
+
+    private byte header(int qos, boolean duplicated) {
+        if ((qos < 0) || (qos > 2)) {
+            throw new IllegalArgumentException("valid : 0 < qos < 3");
+        }
+
+        return (byte) (HEADER | (duplicated ? 0x08 : 0) | (qos << 1) | (retained ? 0x01 : 0));
+    }
+}
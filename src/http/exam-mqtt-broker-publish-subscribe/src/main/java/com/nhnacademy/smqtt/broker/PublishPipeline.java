@@ -0,0 +1,345 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.utils.MpscRingBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 발행 메시지를 토픽별로 나눈 파티션에서 구독자에게 전달하는 단계입니다.
+ *
+ * <p>
+ * 토픽의 해시로 파티션을 하나 고르고, 파티션마다 하나씩 둔 전달 스레드가 자신의 MpscRingBuffer에서
+ * 메시지를 꺼내 구독자에게 전달합니다. 링 버퍼의 칸은 미리 만들어 두고 제자리에서 채우므로 발행할 때 객체를 만들지 않습니다.
+ * 같은 토픽은 항상 같은 파티션을 거치므로 발행 순서가 유지되고,
+ * 서로 다른 토픽의 전달은 여러 코어에서 나란히 실행됩니다. 수신 스레드는 링 버퍼에 넣기만 하므로
+ * 구독자가 많은 토픽이 수신 스레드를 붙잡지 않습니다.
+ * </p>
+ *
+ * <p>
+ * 링 버퍼가 가득 차도 메시지를 버리지 않으므로 순서와 QoS가 지켜지고, 전달이 밀리는 만큼 발행자의 수신이 늦어져 발행 속도가 조절됩니다.
+ * 연결마다 스레드가 있는 블로킹 모드는 submit()으로 자리가 날 때까지 기다리고, 여러 연결을 함께 처리하는 Reactor는
+ * offer()가 실패하면 그 연결의 수신만 멈춘 뒤 파티션이 절반 이하로 비워졌을 때 알림을 받아 다시 읽습니다.
+ * 파티션마다 쌓인 메시지 수는 지표로 제공하여 특정 파티션에 토픽이 몰리는지 확인할 수 있습니다.
+ * </p>
+ */
+@Slf4j
+class PublishPipeline {
+    static final int DEFAULT_PARTITION_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int SPIN_LIMIT = 100;
+
+    private final Partition[] partitions;
+    private final Dispatcher dispatcher;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running;
+
+    /**
+     * 파티션에서 메시지를 구독자에게 전달하는 함수입니다.
+     */
+    @FunctionalInterface
+    interface Dispatcher {
+        /**
+         * 메시지를 구독자에게 전달합니다.
+         *
+         * @param topic   발행 토픽
+         * @param payload 발행 메시지 본문
+         * @param qos     발행 QoS
+         * @param forward peer 브로커로 전달할지 여부
+         */
+        void dispatch(String topic, Payload payload, int qos, boolean forward);
+    }
+
+    /**
+     * PublishPipeline 생성자.
+     *
+     * @param partitionCount 파티션 수
+     * @param capacity       파티션마다 쌓아 둘 수 있는 최대 메시지 수
+     * @param dispatcher     메시지를 구독자에게 전달하는 함수
+     * @throws IllegalArgumentException partitionCount나 capacity가 1보다 작거나 dispatcher가 null인 경우
+     */
+    PublishPipeline(int partitionCount, int capacity, Dispatcher dispatcher) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount는 1 이상이어야 합니다.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity는 1 이상이어야 합니다.");
+        }
+        if (dispatcher == null) {
+            throw new IllegalArgumentException("dispatcher는 null일 수 없습니다.");
+        }
+
+        this.dispatcher = dispatcher;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, capacity);
+        }
+    }
+
+    /**
+     * 파티션마다 전달 스레드를 시작합니다.
+     */
+    void start() {
+        running = true;
+        for (Partition partition : partitions) {
+            partition.thread.start();
+        }
+    }
+
+    /**
+     * 전달 스레드를 멈춥니다. 아직 전달하지 않은 메시지는 버리고 본문의 참조를 돌려줍니다.
+     */
+    void stop() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.thread);
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!partition.thread.isAlive()) {
+                partition.discard();
+            }
+        }
+    }
+
+    /**
+     * 메시지를 토픽의 파티션에 넣습니다. 파티션이 가득 차면 자리가 날 때까지 호출한 스레드가 기다립니다.
+     * 본문의 참조는 파이프라인이 넘겨받아 전달이 끝나면 돌려줍니다.
+     *
+     * @param topic   발행 토픽
+     * @param payload 발행 메시지 본문. 호출한 쪽이 늘려 둔 참조를 넘겨받습니다.
+     * @param qos     발행 QoS
+     * @param forward peer 브로커로 전달할지 여부
+     */
+    void submit(String topic, Payload payload, int qos, boolean forward) {
+        Partition partition = partitions[partitionOf(topic)];
+
+        int spins = 0;
+        while (!partition.offer(topic, payload, qos, forward)) {
+            if (!running) {
+                payload.release();
+                return;
+            }
+            if (spins++ < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * 메시지를 기다리지 않고 토픽의 파티션에 넣습니다.
+     * 파티션이 가득 차면 메시지를 넘겨받지 않고, 파티션이 절반 이하로 비워졌을 때 onSpace를 한 번 호출합니다.
+     * onSpace는 전달 스레드에서 호출될 수 있으므로 오래 걸리는 일을 하면 안 됩니다.
+     *
+     * @param topic   발행 토픽
+     * @param payload 발행 메시지 본문. 넣었으면 호출한 쪽이 늘려 둔 참조를 넘겨받습니다.
+     * @param qos     발행 QoS
+     * @param forward peer 브로커로 전달할지 여부
+     * @param onSpace 파티션에 자리가 났을 때 호출할 함수
+     * @return 넣었으면 true, 가득 찼으면 false
+     */
+    boolean offer(String topic, Payload payload, int qos, boolean forward, Runnable onSpace) {
+        Partition partition = partitions[partitionOf(topic)];
+        if (partition.offer(topic, payload, qos, forward)) {
+            return true;
+        }
+
+        partition.waiters.add(onSpace);
+        // 등록하는 사이에 파티션이 비워졌으면 알려 줄 전달 스레드가 없으므로 직접 알립니다.
+        if (partition.hasSpace() && partition.waiters.remove(onSpace)) {
+            onSpace.run();
+        }
+
+        return false;
+    }
+
+    /**
+     * 메시지를 기다리지 않고 토픽의 파티션에 넣고, 파티션이 가득 차면 버립니다.
+     * 다음 주기에 새 값을 다시 발행하는 브로커 내부 메시지처럼, 기다리는 것보다 버리는 편이 나은 경우에 사용합니다.
+     *
+     * @param topic   발행 토픽
+     * @param payload 발행 메시지 본문. 넣었는지와 관계없이 호출한 쪽이 늘려 둔 참조를 넘겨받습니다.
+     * @param qos     발행 QoS
+     * @param forward peer 브로커로 전달할지 여부
+     * @return 넣었으면 true, 버렸으면 false
+     */
+    boolean offerOrDrop(String topic, Payload payload, int qos, boolean forward) {
+        if (partitions[partitionOf(topic)].offer(topic, payload, qos, forward)) {
+            return true;
+        }
+
+        payload.release();
+        dropped.increment();
+
+        return false;
+    }
+
+    /**
+     * 토픽을 담당하는 파티션 번호를 반환합니다.
+     *
+     * @param topic 발행 토픽
+     * @return 0부터 파티션 수 - 1 사이의 번호
+     */
+    int partitionOf(String topic) {
+        int hash = topic.hashCode();
+        hash ^= hash >>> 16;
+
+        return (hash & 0x7FFFFFFF) % partitions.length;
+    }
+
+    /**
+     * 파티션 수를 반환합니다.
+     *
+     * @return 파티션 수
+     */
+    int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * 파티션에 쌓여 전달을 기다리는 메시지 수를 반환합니다.
+     *
+     * @param partition 파티션 번호
+     * @return 메시지 수
+     */
+    int getDepth(int partition) {
+        return partitions[partition].ring.size();
+    }
+
+    /**
+     * 파티션이 가득 차 offerOrDrop()에서 버린 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 파티션에서 지금까지 전달한 메시지 수를 반환합니다.
+     *
+     * @param partition 파티션 번호
+     * @return 메시지 수
+     */
+    long getDispatchedCount(int partition) {
+        return partitions[partition].dispatched;
+    }
+
+    private final class Partition implements Runnable {
+        private final MpscRingBuffer<Slot> ring;
+        private final Queue<Runnable> waiters = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+        private volatile boolean idle;
+        private volatile long dispatched;
+
+        Partition(int index, int capacity) {
+            this.ring = new MpscRingBuffer<>(capacity, Slot::new);
+            this.thread = new Thread(this, "dispatch-" + index);
+            thread.setDaemon(true);
+        }
+
+        boolean offer(String topic, Payload payload, int qos, boolean forward) {
+            long sequence = ring.claim();
+            if (sequence < 0) {
+                return false;
+            }
+
+            Slot slot = ring.get(sequence);
+            slot.topic = topic;
+            slot.payload = payload;
+            slot.qos = qos;
+            slot.forward = forward;
+            ring.publish(sequence);
+
+            if (idle) {
+                LockSupport.unpark(thread);
+            }
+
+            return true;
+        }
+
+        boolean hasSpace() {
+            return ring.size() <= ring.capacity() / 2;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                Slot slot = ring.peek();
+                if (slot == null) {
+                    // 잠들기 전에 한 번 더 확인하여, 그사이 넣은 생산자가 깨우지 못하는 경우를 막습니다.
+                    idle = true;
+                    slot = ring.peek();
+                    if (slot == null) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                        idle = false;
+                        continue;
+                    }
+                    idle = false;
+                }
+
+                // 칸을 먼저 돌려주어, 전달하는 동안에도 생산자가 칸을 쓸 수 있게 합니다.
+                String topic = slot.topic;
+                Payload payload = slot.payload;
+                int qos = slot.qos;
+                boolean forward = slot.forward;
+                slot.clear();
+                ring.release();
+
+                try {
+                    dispatcher.dispatch(topic, payload, qos, forward);
+                } catch (RuntimeException e) {
+                    log.warn("{}: 메시지를 전달하지 못하였습니다: {}", topic, e.getMessage());
+                } finally {
+                    payload.release();
+                }
+                dispatched++;
+
+                if (!waiters.isEmpty() && hasSpace()) {
+                    Runnable waiter;
+                    while ((waiter = waiters.poll()) != null) {
+                        waiter.run();
+                    }
+                }
+            }
+        }
+
+        void discard() {
+            Slot slot;
+            while ((slot = ring.peek()) != null) {
+                slot.payload.release();
+                slot.clear();
+                ring.release();
+            }
+        }
+    }
+
+    /**
+     * 링 버퍼의 칸입니다. 생산자가 제자리에서 채우고, 전달 스레드가 읽은 뒤 비웁니다.
+     */
+    private static final class Slot {
+        String topic;
+        Payload payload;
+        int qos;
+        boolean forward;
+
+        void clear() {
+            topic = null;
+            payload = null;
+        }
+    }
+}
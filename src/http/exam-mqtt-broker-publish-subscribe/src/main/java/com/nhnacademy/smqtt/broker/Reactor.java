@@ -0,0 +1,141 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 논블로킹 모드에서 하나의 Selector로 여러 연결의 입출력을 처리하는 이벤트 루프입니다.
+ * Broker는 코어 수만큼 Reactor를 생성하고, 수락한 연결을 순서대로 나누어 등록합니다.
+ */
+@Slf4j
+class Reactor implements Runnable {
+    private final Broker broker;
+    private final Selector selector;
+    private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+    private final Queue<NioSession> resumedSessions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Reactor 생성자.
+     *
+     * @param broker 수신한 메시지를 처리할 브로커
+     * @throws IOException Selector를 열 수 없는 경우
+     */
+    Reactor(Broker broker) throws IOException {
+        this.broker = broker;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * 새로 수락한 연결을 등록합니다.
+     * 실제 등록은 Reactor 스레드에서 수행되므로 다른 스레드에서 호출해도 안전합니다.
+     *
+     * @param channel 수락한 소켓 채널
+     */
+    void register(SocketChannel channel) {
+        pendingChannels.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * 수신을 멈췄던 연결을 Reactor 스레드에서 다시 읽도록 요청합니다. 다른 스레드에서 호출해도 안전합니다.
+     *
+     * @param session 수신을 다시 시작할 연결
+     */
+    void resume(NioSession session) {
+        resumedSessions.add(session);
+        selector.wakeup();
+    }
+
+    /**
+     * select() 대기 중인 Reactor 스레드를 깨웁니다.
+     */
+    void wakeup() {
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select();
+                registerPendingChannels();
+                resumeSessions();
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+
+                    NioSession session = (NioSession) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            session.onReadable();
+                        }
+
+                        if (key.isValid() && key.isWritable()) {
+                            session.onWritable();
+                        }
+                    } catch (IOException | IllegalArgumentException e) {
+                        log.warn("{}: {}", session, e.getMessage());
+                        session.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void registerPendingChannels() {
+        SocketChannel channel;
+        while ((channel = pendingChannels.poll()) != null) {
+            try {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioSession(broker, this, channel, key));
+            } catch (IOException e) {
+                log.warn(e.getMessage());
+                try {
+                    channel.close();
+                } catch (IOException ignore) {
+                    // 이미 닫힌 채널입니다.
+                }
+            }
+        }
+    }
+
+    private void resumeSessions() {
+        NioSession session;
+        while ((session = resumedSessions.poll()) != null) {
+            try {
+                session.onResumed();
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("{}: {}", session, e.getMessage());
+                session.close();
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioSession session) {
+                session.close();
+            }
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+        }
+    }
+}
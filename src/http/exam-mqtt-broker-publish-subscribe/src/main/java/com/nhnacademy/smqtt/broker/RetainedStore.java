@@ -0,0 +1,426 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.store.LogRecord;
+import com.nhnacademy.smqtt.store.MessageLog;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 토픽마다 마지막 retained 메시지를 보관하는 클래스입니다.
+ *
+ * <p>
+ * 토픽을 레벨('/') 단위의 트리로 보관하므로, 구독 필터의 '+'와 '#'은 트리를 따라 내려가며
+ * 일치하는 가지만 방문합니다. 메시지 본문은 RETAIN 비트를 설정한 PublishFrame으로 한 번 인코딩해 두고
+ * 구독할 때마다 그대로 공유합니다.
+ * </p>
+ *
+ * <p>
+ * 메모리에 둘 수 있는 본문의 총 크기는 maxMemory로 제한하며, 넘으면 가장 오래 사용하지 않은 본문부터 버립니다.
+ * 메시지 로그가 연결되어 있으면 본문만 버리고 로그의 오프셋을 남겨 두었다가 다시 필요할 때 로그에서 읽어 오고,
+ * 로그가 없으면 해당 토픽의 retained 메시지 자체를 버립니다.
+ * </p>
+ */
+@Slf4j
+class RetainedStore {
+    static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+
+    private final Node root = new Node(null, null);
+    private final Map<Node, Node> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxMemory;
+    private long memory;
+    private int count;
+    private long evicted;
+    private MessageLog messageLog;
+
+    RetainedStore() {
+        this(DEFAULT_MAX_MEMORY);
+    }
+
+    /**
+     * RetainedStore 생성자.
+     *
+     * @param maxMemory 메모리에 보관할 본문의 최대 크기 (바이트)
+     * @throws IllegalArgumentException maxMemory가 1보다 작은 경우
+     */
+    RetainedStore(long maxMemory) {
+        setMaxMemory(maxMemory);
+    }
+
+    /**
+     * 메모리에 보관할 본문의 최대 크기를 설정합니다.
+     *
+     * @param maxMemory 최대 크기 (바이트)
+     * @throws IllegalArgumentException maxMemory가 1보다 작은 경우
+     */
+    synchronized void setMaxMemory(long maxMemory) {
+        if (maxMemory < 1) {
+            throw new IllegalArgumentException("maxMemory는 1 이상이어야 합니다.");
+        }
+
+        this.maxMemory = maxMemory;
+        evict();
+    }
+
+    /**
+     * 메시지 로그를 연결하고, 로그에 기록된 retained 메시지를 복구합니다.
+     * 복구한 메시지의 본문은 처음 구독될 때 로그에서 읽어 옵니다.
+     *
+     * @param messageLog 메시지 로그
+     */
+    synchronized void attach(MessageLog messageLog) {
+        this.messageLog = messageLog;
+
+        messageLog.replay(messageLog.getStartOffset(), logRecord -> {
+            if (logRecord.getType() != LogRecord.Type.RETAIN) {
+                return;
+            }
+
+            if (logRecord.getValue().length == 0) {
+                remove(logRecord.getKey());
+            } else {
+                Node node = node(logRecord.getKey());
+                setFrame(node, null);
+                node.qos = logRecord.getValue()[0];
+                node.offset = logRecord.getOffset();
+            }
+        });
+        log.info("Retained messages recovered: {}", count);
+    }
+
+    /**
+     * cutoff보다 앞에 기록된 retained 메시지를 로그의 끝에 다시 기록합니다.
+     * 호출한 뒤에는 cutoff 앞의 RETAIN 레코드를 읽지 않으므로, 해당 세그먼트를 삭제해도 됩니다.
+     *
+     * @param cutoff 이 오프셋보다 앞의 레코드를 다시 기록합니다.
+     * @return 다시 기록한 메시지 수
+     */
+    synchronized int compact(long cutoff) {
+        if (messageLog == null) {
+            return 0;
+        }
+
+        List<Node> nodes = new ArrayList<>();
+        collectAll(root, nodes);
+
+        int rewritten = 0;
+        for (Node node : nodes) {
+            if ((node.offset < 0) || (node.offset >= cutoff)) {
+                continue;
+            }
+
+            byte[] value;
+            if (node.frame != null) {
+                value = encodeValue(node.qos, node.frame.getPayload().toByteArray());
+            } else {
+                LogRecord logRecord = messageLog.read(node.offset);
+                if ((logRecord == null) || (logRecord.getValue().length == 0)) {
+                    log.warn("retained 메시지를 로그에서 읽을 수 없습니다: {}", node.topic());
+                    detach(node);
+                    continue;
+                }
+                value = logRecord.getValue();
+            }
+            node.offset = messageLog.append(LogRecord.Type.RETAIN, node.topic(), value);
+            rewritten++;
+        }
+
+        return rewritten;
+    }
+
+    /**
+     * 토픽의 retained 메시지를 교체합니다. 메시지가 비어 있으면 retained 메시지를 삭제합니다.
+     *
+     * @param topic   발행 토픽
+     * @param message 발행 메시지
+     * @param qos     발행 QoS
+     * @throws IllegalArgumentException 토픽이 비어 있거나 와일드카드를 포함한 경우
+     */
+    void put(String topic, String message, int qos) {
+        put(topic, (message != null) ? message.getBytes(StandardCharsets.UTF_8) : new byte[0], qos);
+    }
+
+    /**
+     * 토픽의 retained 메시지를 본문 바이트 그대로 교체합니다. 본문이 비어 있으면 retained 메시지를 삭제합니다.
+     * 본문은 복사하지 않고 그대로 보관하므로, 호출한 뒤에 배열을 변경하면 안 됩니다.
+     *
+     * @param topic   발행 토픽
+     * @param message 발행 메시지 본문
+     * @param qos     발행 QoS
+     * @throws IllegalArgumentException 토픽이 비어 있거나 와일드카드를 포함한 경우
+     */
+    synchronized void put(String topic, byte[] message, int qos) {
+        String[] levels = TopicTree.split(topic);
+        for (String level : levels) {
+            if (level.contains(TopicTree.SINGLE_LEVEL_WILDCARD) || level.contains(TopicTree.MULTI_LEVEL_WILDCARD)) {
+                throw new IllegalArgumentException("발행 토픽에는 와일드카드를 사용할 수 없습니다: " + topic);
+            }
+        }
+
+        if ((message == null) || (message.length == 0)) {
+            if (remove(topic) && (messageLog != null)) {
+                messageLog.append(LogRecord.Type.RETAIN, topic, new byte[0]);
+            }
+            return;
+        }
+
+        Node node = node(topic);
+        node.qos = Math.min(qos, 2);
+        node.offset = -1;
+        if (messageLog != null) {
+            node.offset = messageLog.append(LogRecord.Type.RETAIN, topic, encodeValue(node.qos, message));
+        }
+        setFrame(node, PublishFrame.encode(topic, Payload.wrap(message), true));
+        evict();
+    }
+
+    private static byte[] encodeValue(int qos, byte[] body) {
+        return ByteBuffer.allocate(1 + body.length).put((byte) qos).put(body).array();
+    }
+
+    /**
+     * 토픽 필터와 일치하는 retained 메시지를 모두 찾습니다.
+     *
+     * @param filter 구독 토픽 필터
+     * @return 일치하는 retained 메시지 목록
+     * @throws IllegalArgumentException 토픽 필터 형식이 올바르지 않은 경우
+     */
+    synchronized List<Retained> match(String filter) {
+        String[] levels = TopicTree.split(filter);
+        TopicTree.validateFilter(levels);
+
+        List<Node> nodes = new ArrayList<>();
+        collect(root, levels, 0, nodes);
+
+        List<Retained> matched = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            PublishFrame frame = load(node);
+            if (frame != null) {
+                matched.add(new Retained(frame, node.qos));
+            }
+        }
+        evict();
+
+        return matched;
+    }
+
+    private void collect(Node node, String[] levels, int index, List<Node> matched) {
+        if (index == levels.length) {
+            if (node.hasMessage()) {
+                matched.add(node);
+            }
+            return;
+        }
+
+        // '$'로 시작하는 토픽은 첫 레벨의 와일드카드와 일치하지 않습니다.
+        String level = levels[index];
+        if (level.equals(TopicTree.MULTI_LEVEL_WILDCARD)) {
+            if (node.hasMessage()) {
+                matched.add(node);
+            }
+            for (Node child : node.children.values()) {
+                if ((index > 0) || !child.level.startsWith("$")) {
+                    collectAll(child, matched);
+                }
+            }
+        } else if (level.equals(TopicTree.SINGLE_LEVEL_WILDCARD)) {
+            for (Node child : node.children.values()) {
+                if ((index > 0) || !child.level.startsWith("$")) {
+                    collect(child, levels, index + 1, matched);
+                }
+            }
+        } else {
+            Node child = node.children.get(level);
+            if (child != null) {
+                collect(child, levels, index + 1, matched);
+            }
+        }
+    }
+
+    private void collectAll(Node node, List<Node> matched) {
+        if (node.hasMessage()) {
+            matched.add(node);
+        }
+        for (Node child : node.children.values()) {
+            collectAll(child, matched);
+        }
+    }
+
+    private PublishFrame load(Node node) {
+        if (node.frame != null) {
+            resident.get(node);
+            return node.frame;
+        }
+
+        LogRecord logRecord = (messageLog != null) ? messageLog.read(node.offset) : null;
+        if ((logRecord == null) || (logRecord.getValue().length == 0)) {
+            log.warn("retained 메시지를 로그에서 읽을 수 없습니다: {}", node.topic());
+            setFrame(node, null);
+            detach(node);
+            return null;
+        }
+
+        byte[] value = logRecord.getValue();
+        byte[] message = Arrays.copyOfRange(value, 1, value.length);
+        setFrame(node, PublishFrame.encode(logRecord.getKey(), Payload.wrap(message), true));
+
+        return node.frame;
+    }
+
+    private Node node(String topic) {
+        Node node = root;
+        for (String level : TopicTree.split(topic)) {
+            Node parent = node;
+            node = parent.children.computeIfAbsent(level, k -> new Node(parent, k));
+        }
+
+        if (!node.hasMessage()) {
+            count++;
+        }
+
+        return node;
+    }
+
+    private boolean remove(String topic) {
+        Node node = root;
+        for (String level : TopicTree.split(topic)) {
+            node = node.children.get(level);
+            if (node == null) {
+                return false;
+            }
+        }
+        if (!node.hasMessage()) {
+            return false;
+        }
+
+        setFrame(node, null);
+        detach(node);
+
+        return true;
+    }
+
+    private void detach(Node node) {
+        node.offset = -1;
+        count--;
+
+        // 메시지도 자식도 없는 노드는 트리에서 떼어 냅니다.
+        while ((node.parent != null) && !node.hasMessage() && node.children.isEmpty()) {
+            node.parent.children.remove(node.level);
+            node = node.parent;
+        }
+    }
+
+    private void setFrame(Node node, PublishFrame frame) {
+        if (node.frame != null) {
+            memory -= node.frame.size();
+            resident.remove(node);
+        }
+
+        node.frame = frame;
+        if (frame != null) {
+            memory += frame.size();
+            resident.put(node, node);
+        }
+    }
+
+    private void evict() {
+        Iterator<Node> iterator = resident.keySet().iterator();
+        while ((memory > maxMemory) && iterator.hasNext()) {
+            Node node = iterator.next();
+            iterator.remove();
+            memory -= node.frame.size();
+            node.frame = null;
+            evicted++;
+
+            if (node.offset < 0) {
+                // 로그가 없으면 다시 읽어 올 수 없으므로 메시지를 버립니다.
+                detach(node);
+            }
+        }
+    }
+
+    /**
+     * 보관 중인 retained 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    synchronized int size() {
+        return count;
+    }
+
+    /**
+     * 메모리에 있는 본문의 총 크기를 반환합니다.
+     *
+     * @return 본문 크기 (바이트)
+     */
+    synchronized long getMemoryUsage() {
+        return memory;
+    }
+
+    /**
+     * 메모리 한도 때문에 버린 본문 수를 반환합니다.
+     *
+     * @return 버린 본문 수
+     */
+    synchronized long getEvictedCount() {
+        return evicted;
+    }
+
+    /**
+     * 구독 시 전달할 retained 메시지 하나를 나타냅니다.
+     */
+    static final class Retained {
+        private final PublishFrame frame;
+        private final int qos;
+
+        Retained(PublishFrame frame, int qos) {
+            this.frame = frame;
+            this.qos = qos;
+        }
+
+        PublishFrame getFrame() {
+            return frame;
+        }
+
+        int getQoS() {
+            return qos;
+        }
+    }
+
+    private static final class Node {
+        final Node parent;
+        final String level;
+        final Map<String, Node> children = new HashMap<>();
+        PublishFrame frame;
+        long offset = -1;
+        int qos;
+
+        Node(Node parent, String level) {
+            this.parent = parent;
+            this.level = level;
+        }
+
+        boolean hasMessage() {
+            return (frame != null) || (offset >= 0);
+        }
+
+        String topic() {
+            StringBuilder builder = new StringBuilder(level);
+            for (Node node = parent; node.parent != null; node = node.parent) {
+                builder.insert(0, TopicTree.LEVEL_SEPARATOR).insert(0, node.level);
+            }
+
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.List;
+
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.Payload;
+
+/**
+ * 브로커에 연결된 클라이언트 하나를 나타내는 인터페이스입니다.
+ * 블로킹 모드의 ClientHandler와 논블로킹 모드의 NioSession이 구현하며,
+ * Broker는 연결 방식과 관계없이 이 인터페이스로 메시지를 전송합니다.
+ */
+interface Session {
+    /**
+     * 클라이언트 식별자를 반환합니다.
+     *
+     * @return CONNECT 메시지로 전달된 클라이언트 식별자. CONNECT 전이면 null
+     */
+    String getClientId();
+
+    /**
+     * 클라이언트 식별자를 설정합니다.
+     *
+     * @param clientId 클라이언트 식별자
+     */
+    void setClientId(String clientId);
+
+    /**
+     * 클라이언트에게 메시지를 전송합니다.
+     *
+     * @param message 전송할 메시지 객체
+     */
+    void send(Message message);
+
+    /**
+     * 클라이언트에게 발행 메시지를 전송합니다.
+     * 프레임은 여러 구독자가 공유하므로, 연결별 패킷 식별자와 QoS만 채워서 전송합니다.
+     *
+     * @param frame 한 번 인코딩된 PUBLISH 프레임
+     * @param qos   전달 QoS
+     */
+    void sendPublish(PublishFrame frame, int qos);
+
+    /**
+     * 여러 발행 메시지를 QoS 0으로 한 번에 전송합니다.
+     * 프레임들을 전송 대기열의 항목 하나로 묶으므로 하나의 gathering write로 내보내집니다.
+     *
+     * @param frames 한 번 인코딩된 PUBLISH 프레임 목록
+     */
+    void sendPublish(List<PublishFrame> frames);
+
+    /**
+     * 이 연결에서 받은 발행 메시지를 파이프라인에 넣습니다.
+     * 기본 구현은 연결마다 스레드가 있다고 보고, 파티션이 가득 차면 자리가 날 때까지 호출한 스레드에서 기다립니다.
+     *
+     * @param pipeline 발행 파이프라인
+     * @param topic    발행 토픽
+     * @param payload  발행 메시지 본문. 호출한 쪽이 늘려 둔 참조를 넘겨받습니다.
+     * @param qos      발행 QoS
+     * @param forward  peer 브로커로 전달할지 여부
+     */
+    default void submit(PublishPipeline pipeline, String topic, Payload payload, int qos, boolean forward) {
+        pipeline.submit(topic, payload, qos, forward);
+    }
+
+    /**
+     * 클라이언트의 전송 대기열을 반환합니다. 큐 깊이와 버린 메시지 수를 확인할 때 사용합니다.
+     *
+     * @return 전송 대기열
+     */
+    OutboundQueue getOutboundQueue();
+
+    /**
+     * 클라이언트의 in-flight 창을 반환합니다. QoS 1, 2 응답을 처리할 때 사용합니다.
+     *
+     * @return in-flight 창
+     */
+    InflightWindow getInflightWindow();
+
+    /**
+     * CONNECT의 Keep Alive 값으로 연결 감시를 설정합니다. 연결이 종료되면 감시도 중단해야 합니다.
+     *
+     * @param keepAlive 연결 감시 타이머 항목
+     */
+    void setKeepAlive(KeepAlive keepAlive);
+
+    /**
+     * 클라이언트와의 연결을 종료합니다.
+     */
+    void close();
+}
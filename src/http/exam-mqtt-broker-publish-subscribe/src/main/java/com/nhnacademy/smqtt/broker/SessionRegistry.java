@@ -0,0 +1,307 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.nhnacademy.smqtt.store.LogRecord;
+import com.nhnacademy.smqtt.store.MessageLog;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * clientId별 세션 상태를 관리하는 클래스입니다.
+ *
+ * <p>
+ * 연결과 해제는 드물게 일어나므로 상태 변경은 하나의 잠금으로 직렬화하고,
+ * 발행 경로에서 사용하는 조회는 ConcurrentHashMap으로 잠금 없이 처리합니다.
+ * 메시지 로그가 연결되어 있으면 지속 세션의 구독 목록을 SESSION 레코드로 기록하고,
+ * 오프라인 대기열이 남긴 QUEUE, DEQUEUE 레코드와 함께 재시작 후 복원합니다.
+ * </p>
+ */
+@Slf4j
+class SessionRegistry {
+    private static final byte RECORD_FORMAT = 1;
+
+    private final Map<String, SessionState> states = new ConcurrentHashMap<>();
+    private final Function<String, OfflineQueue> queueFactory;
+    private MessageLog messageLog;
+
+    /**
+     * SessionRegistry 생성자.
+     *
+     * @param queueFactory clientId로 오프라인 대기열을 만드는 함수
+     */
+    SessionRegistry(Function<String, OfflineQueue> queueFactory) {
+        this.queueFactory = queueFactory;
+    }
+
+    /**
+     * 메시지 로그를 연결하고, 기록된 지속 세션을 연결이 끊긴 상태로 복원합니다.
+     * 오프라인 대기열에 남아 있던 메시지는 오프셋만 복원하고 본문은 전달할 때 로그에서 읽어 옵니다.
+     *
+     * @param messageLog 메시지 로그
+     * @return 복원한 세션 목록
+     */
+    synchronized Collection<SessionState> attach(MessageLog messageLog) {
+        this.messageLog = messageLog;
+
+        Map<String, Deque<Long>> queued = new HashMap<>();
+        messageLog.replay(messageLog.getStartOffset(), logRecord -> {
+            switch (logRecord.getType()) {
+                case SESSION:
+                    replaySession(logRecord, queued);
+                    break;
+                case QUEUE:
+                    if (logRecord.getValue().length == 0) {
+                        queued.remove(logRecord.getKey());
+                    } else {
+                        queued.computeIfAbsent(logRecord.getKey(), k -> new ArrayDeque<>()).add(logRecord.getOffset());
+                    }
+                    break;
+                case DEQUEUE:
+                    Deque<Long> offsets = queued.get(logRecord.getKey());
+                    long last = ByteBuffer.wrap(logRecord.getValue()).getLong();
+                    while ((offsets != null) && !offsets.isEmpty() && (offsets.peek() <= last)) {
+                        offsets.poll();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        });
+
+        int messages = 0;
+        for (Map.Entry<String, Deque<Long>> entry : queued.entrySet()) {
+            SessionState state = states.get(entry.getKey());
+            if ((state != null) && !entry.getValue().isEmpty()) {
+                state.openOfflineQueue().recover(entry.getValue());
+                messages += entry.getValue().size();
+            }
+        }
+        log.info("Sessions recovered: {} ({} queued messages)", states.size(), messages);
+
+        return new ArrayList<>(states.values());
+    }
+
+    private void replaySession(LogRecord logRecord, Map<String, Deque<Long>> queued) {
+        if (logRecord.getValue().length == 0) {
+            states.remove(logRecord.getKey());
+            queued.remove(logRecord.getKey());
+            return;
+        }
+
+        SessionState state = new SessionState(logRecord.getKey(), false, queueFactory);
+        ByteBuffer buffer = ByteBuffer.wrap(logRecord.getValue(), 1, logRecord.getValue().length - 1);
+        while (buffer.hasRemaining()) {
+            int qos = buffer.get();
+            byte[] filter = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(filter);
+            state.addSubscription(new String(filter, StandardCharsets.UTF_8), qos);
+        }
+        states.put(state.getClientId(), state);
+    }
+
+    /**
+     * 클라이언트의 세션 상태를 찾습니다.
+     *
+     * @param clientId 클라이언트 식별자. null이면 찾지 않습니다.
+     * @return 세션 상태. 없으면 null
+     */
+    SessionState get(String clientId) {
+        return (clientId != null) ? states.get(clientId) : null;
+    }
+
+    /**
+     * 연결된 세션의 상태를 찾습니다.
+     *
+     * @param session 연결된 세션
+     * @return 이 세션이 현재 연결로 등록된 세션 상태. 없으면 null
+     */
+    SessionState find(Session session) {
+        SessionState state = get(session.getClientId());
+
+        return ((state != null) && (state.getSession() == session)) ? state : null;
+    }
+
+    /**
+     * 새 연결을 세션 상태에 연결합니다.
+     * cleanSession이 true이거나 이전 상태가 clean 세션이었으면 이전 상태를 버리고 새로 만듭니다.
+     *
+     * @param session      새 연결
+     * @param cleanSession CONNECT의 cleanSession 플래그
+     * @return 연결된 세션 상태와 이전 상태 복원 여부
+     */
+    synchronized Connection connect(Session session, boolean cleanSession) {
+        String clientId = session.getClientId();
+        SessionState previous = states.get(clientId);
+        SessionState discarded = null;
+        if ((previous != null) && (cleanSession || previous.isCleanSession())) {
+            states.remove(clientId);
+            discarded = previous;
+            if (!previous.isCleanSession()) {
+                save(clientId, null);
+            }
+            previous = null;
+        }
+
+        SessionState state = previous;
+        if (state == null) {
+            state = new SessionState(clientId, cleanSession, queueFactory);
+            states.put(clientId, state);
+            save(state);
+        }
+        state.setSession(session);
+
+        return new Connection(state, previous != null, discarded);
+    }
+
+    /**
+     * 연결이 끊긴 세션을 상태에서 분리합니다.
+     * clean 세션의 상태는 삭제하고, 지속 세션의 상태는 다시 연결될 때까지 보관합니다.
+     *
+     * @param session 연결이 끊긴 세션
+     * @return 보관하게 된 지속 세션 상태. 삭제했거나 현재 연결이 아니었으면 null
+     */
+    synchronized SessionState disconnect(Session session) {
+        SessionState state = find(session);
+        if (state == null) {
+            return null;
+        }
+
+        state.setSession(null);
+        if (state.isCleanSession()) {
+            states.remove(state.getClientId());
+            state.close();
+            return null;
+        }
+
+        return state;
+    }
+
+    /**
+     * 지속 세션의 구독 목록을 메시지 로그에 기록합니다.
+     *
+     * @param state 세션 상태
+     */
+    synchronized void save(SessionState state) {
+        if (!state.isCleanSession()) {
+            save(state.getClientId(), state.getSubscriptions());
+        }
+    }
+
+    /**
+     * 모든 지속 세션의 구독 목록과, cutoff보다 앞에 기록된 메시지가 남은 오프라인 대기열을 로그의 끝에 다시 기록합니다.
+     * 호출한 뒤에는 cutoff 앞의 레코드를 읽지 않으므로, 해당 세그먼트를 삭제해도 됩니다.
+     *
+     * @param cutoff 이 오프셋보다 앞의 레코드를 다시 기록합니다.
+     * @return 다시 기록한 세션 수
+     */
+    synchronized int compact(long cutoff) {
+        int rewritten = 0;
+        for (SessionState state : states.values()) {
+            boolean saved = !state.isCleanSession();
+            if (saved) {
+                save(state.getClientId(), state.getSubscriptions());
+            }
+            OfflineQueue queue = state.getOfflineQueue();
+            if (((queue != null) && queue.compact(cutoff)) || saved) {
+                rewritten++;
+            }
+        }
+
+        return rewritten;
+    }
+
+    private void save(String clientId, Map<String, Integer> subscriptions) {
+        if (messageLog == null) {
+            return;
+        }
+
+        // 값은 [형식 1]([QoS 1][필터 길이 2][필터])* 입니다. 빈 값은 세션 삭제를 뜻합니다.
+        byte[] value = new byte[0];
+        if (subscriptions != null) {
+            int size = 1;
+            for (String filter : subscriptions.keySet()) {
+                size += 1 + 2 + filter.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(size).put(RECORD_FORMAT);
+            for (Map.Entry<String, Integer> subscription : subscriptions.entrySet()) {
+                byte[] filter = subscription.getKey().getBytes(StandardCharsets.UTF_8);
+                buffer.put(subscription.getValue().byteValue()).putShort((short) filter.length).put(filter);
+            }
+            value = buffer.array();
+        }
+        messageLog.append(LogRecord.Type.SESSION, clientId, value);
+    }
+
+    /**
+     * 등록된 세션 수를 반환합니다.
+     *
+     * @return 세션 수
+     */
+    int size() {
+        return states.size();
+    }
+
+    /**
+     * 연결이 끊긴 채 보관 중인 지속 세션 수를 반환합니다.
+     *
+     * @return 세션 수
+     */
+    int getOfflineCount() {
+        int count = 0;
+        for (SessionState state : states.values()) {
+            if (state.getSession() == null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * connect()의 결과입니다.
+     */
+    static final class Connection {
+        private final SessionState state;
+        private final boolean present;
+        private final SessionState discarded;
+
+        Connection(SessionState state, boolean present, SessionState discarded) {
+            this.state = state;
+            this.present = present;
+            this.discarded = discarded;
+        }
+
+        SessionState getState() {
+            return state;
+        }
+
+        /**
+         * 이전 세션 상태를 이어서 사용하는지 여부를 반환합니다. CONNACK의 sessionPresent 값입니다.
+         *
+         * @return 이전 상태를 복원했으면 true
+         */
+        boolean isPresent() {
+            return present;
+        }
+
+        /**
+         * 새 상태로 교체되어 버려진 이전 상태를 반환합니다.
+         *
+         * @return 버려진 상태. 없으면 null
+         */
+        SessionState getDiscarded() {
+            return discarded;
+        }
+    }
+}
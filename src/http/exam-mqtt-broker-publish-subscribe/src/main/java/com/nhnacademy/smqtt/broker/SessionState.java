@@ -0,0 +1,206 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.nhnacademy.smqtt.message.Message;
+
+/**
+ * CONNECT의 clientId로 식별되는 클라이언트 세션의 상태입니다.
+ *
+ * <p>
+ * 구독 목록과 오프라인 대기열을 연결과 별도로 보관하여, cleanSession이 false인 클라이언트가 다시 연결하면
+ * 이전 구독을 복원하고 그동안 쌓인 QoS 1, 2 메시지를 전달할 수 있도록 합니다.
+ * 연결이 끊긴 동안에는 이 객체가 TopicTree에서 클라이언트를 대신하여, 전달되는 QoS 1, 2 메시지를
+ * 오프라인 대기열에 넣습니다. QoS 0 메시지는 보관하지 않습니다.
+ * </p>
+ */
+class SessionState implements Session {
+    private final String clientId;
+    private final boolean cleanSession;
+    private final Function<String, OfflineQueue> queueFactory;
+    private final Map<String, Integer> subscriptions = new LinkedHashMap<>();
+    private OfflineQueue queue;
+    private volatile Session session;
+
+    /**
+     * SessionState 생성자.
+     *
+     * @param clientId     클라이언트 식별자
+     * @param cleanSession 연결이 끊기면 상태를 버리는지 여부
+     * @param queueFactory 오프라인 대기열이 처음 필요할 때 clientId로 대기열을 만드는 함수
+     */
+    SessionState(String clientId, boolean cleanSession, Function<String, OfflineQueue> queueFactory) {
+        this.clientId = clientId;
+        this.cleanSession = cleanSession;
+        this.queueFactory = queueFactory;
+    }
+
+    @Override
+    public String getClientId() {
+        return clientId;
+    }
+
+    @Override
+    public void setClientId(String clientId) {
+        throw new UnsupportedOperationException("세션 상태의 클라이언트 식별자는 변경할 수 없습니다.");
+    }
+
+    boolean isCleanSession() {
+        return cleanSession;
+    }
+
+    /**
+     * 현재 연결된 세션을 반환합니다.
+     *
+     * @return 연결된 세션. 연결이 끊겼으면 null
+     */
+    Session getSession() {
+        return session;
+    }
+
+    void setSession(Session session) {
+        this.session = session;
+    }
+
+    /**
+     * 구독을 기록합니다.
+     *
+     * @param filter 토픽 필터
+     * @param qos    허용된 QoS
+     */
+    synchronized void addSubscription(String filter, int qos) {
+        subscriptions.put(filter, qos);
+    }
+
+    /**
+     * 구독 기록을 삭제합니다.
+     *
+     * @param filter 토픽 필터
+     * @return 기록되어 있었으면 true
+     */
+    synchronized boolean removeSubscription(String filter) {
+        return subscriptions.remove(filter) != null;
+    }
+
+    /**
+     * 기록된 구독 목록의 복사본을 반환합니다.
+     *
+     * @return 토픽 필터와 QoS의 목록
+     */
+    synchronized Map<String, Integer> getSubscriptions() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(subscriptions));
+    }
+
+    /**
+     * 오프라인 대기열에 쌓인 메시지를 연결된 세션에 전송합니다.
+     *
+     * @param target 메시지를 받을 세션
+     * @param limit  전송할 최대 메시지 수
+     * @return 전송한 메시지 수
+     */
+    int drainTo(Session target, int limit) {
+        OfflineQueue current;
+        synchronized (this) {
+            current = queue;
+        }
+
+        return ((current != null) && (limit > 0)) ? current.drainTo(target, limit) : 0;
+    }
+
+    /**
+     * 오프라인 대기열에 쌓인 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수
+     */
+    synchronized int getQueuedCount() {
+        return (queue != null) ? queue.size() : 0;
+    }
+
+    /**
+     * 오프라인 대기열을 반환합니다.
+     *
+     * @return 오프라인 대기열. 아직 사용하지 않았으면 null
+     */
+    synchronized OfflineQueue getOfflineQueue() {
+        return queue;
+    }
+
+    /**
+     * 오프라인 대기열을 반환합니다. 아직 없으면 만듭니다.
+     *
+     * @return 오프라인 대기열
+     */
+    synchronized OfflineQueue openOfflineQueue() {
+        if (queue == null) {
+            queue = queueFactory.apply(clientId);
+        }
+
+        return queue;
+    }
+
+    @Override
+    public void send(Message message) {
+        // 연결이 없으므로 제어 메시지는 보내지 않습니다.
+    }
+
+    @Override
+    public void sendPublish(PublishFrame frame, int qos) {
+        if (qos == 0) {
+            return;
+        }
+
+        openOfflineQueue().offer(frame.getTopic(), frame.getPayload().toByteArray(), qos);
+    }
+
+    /**
+     * 이전 연결에서 응답을 받지 못한 메시지를 오프라인 대기열의 맨 앞에 넣습니다.
+     * 상태가 TopicTree에 먼저 등록되어 그사이 도착한 메시지가 있더라도, 옮긴 메시지가 먼저 전달됩니다.
+     *
+     * @param pending 전송 순서대로 정렬된 메시지와 QoS의 목록
+     */
+    void restore(List<Map.Entry<PublishFrame, Integer>> pending) {
+        if (!pending.isEmpty()) {
+            openOfflineQueue().offerFirst(pending);
+        }
+    }
+
+    @Override
+    public void sendPublish(List<PublishFrame> frames) {
+        // QoS 0 메시지는 보관하지 않습니다.
+    }
+
+    @Override
+    public OutboundQueue getOutboundQueue() {
+        return null;
+    }
+
+    @Override
+    public InflightWindow getInflightWindow() {
+        return null;
+    }
+
+    @Override
+    public void setKeepAlive(KeepAlive keepAlive) {
+        // 연결이 없으므로 감시할 대상이 없습니다.
+    }
+
+    /**
+     * 오프라인 대기열을 닫고 남은 메시지를 버립니다.
+     */
+    @Override
+    public synchronized void close() {
+        if (queue != null) {
+            queue.close();
+            queue = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return clientId + ((session != null) ? "" : " (offline)");
+    }
+}
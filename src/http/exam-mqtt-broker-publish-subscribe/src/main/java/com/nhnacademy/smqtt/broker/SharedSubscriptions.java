@@ -0,0 +1,334 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nhnacademy.smqtt.message.Message;
+
+/**
+ * '$share/{group}/{filter}' 형식의 공유 구독을 관리합니다.
+ *
+ * <p>
+ * 같은 그룹과 필터로 구독한 클라이언트들은 하나의 SharedGroup으로 묶여 TopicTree에 구독자 하나로 등록됩니다.
+ * 발행 메시지는 그룹마다 한 번 전달되며, 그룹은 전달할 때마다 구성원 중 하나를 골라 넘겨줍니다.
+ * 매칭 결과 캐시에는 그룹만 보관되므로, 구성원은 캐시와 관계없이 발행할 때마다 새로 선택됩니다.
+ * </p>
+ */
+class SharedSubscriptions {
+    static final String SHARE_PREFIX = "$share/";
+
+    private final TopicTree topicTree;
+    private final Map<String, SharedGroup> groups = new HashMap<>();
+    private volatile Broker.ShareStrategy strategy = Broker.ShareStrategy.ROUND_ROBIN;
+
+    /**
+     * SharedSubscriptions 생성자.
+     *
+     * @param topicTree 그룹을 구독자로 등록할 토픽 트리
+     */
+    SharedSubscriptions(TopicTree topicTree) {
+        this.topicTree = topicTree;
+    }
+
+    /**
+     * 구성원을 선택하는 방식을 설정합니다.
+     *
+     * @param strategy 선택 방식
+     */
+    void setStrategy(Broker.ShareStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * 토픽 필터가 공유 구독 형식인지 확인합니다.
+     *
+     * @param filter 토픽 필터
+     * @return '$share/'로 시작하면 true
+     */
+    static boolean isShared(String filter) {
+        return filter.startsWith(SHARE_PREFIX);
+    }
+
+    /**
+     * 클라이언트를 공유 구독 그룹에 추가합니다. 같은 그룹에 이미 있으면 QoS만 변경합니다.
+     *
+     * @param session     구독할 클라이언트
+     * @param shareFilter '$share/{group}/{filter}' 형식의 토픽 필터
+     * @param qos         허용된 QoS
+     * @throws IllegalArgumentException 공유 구독 형식이나 토픽 필터, QoS가 올바르지 않은 경우
+     */
+    synchronized void subscribe(Session session, String shareFilter, int qos) {
+        if ((qos < 0) || (qos > 2)) {
+            throw new IllegalArgumentException("valid : 0 < qos < 3");
+        }
+
+        String[] parsed = parse(shareFilter);
+        SharedGroup group = groups.get(shareFilter);
+        if (group == null) {
+            group = new SharedGroup(parsed[0], parsed[1]);
+        }
+
+        group.put(session, qos);
+        topicTree.subscribe(group, group.filter, group.getMaxQoS());
+        groups.put(shareFilter, group);
+    }
+
+    /**
+     * 클라이언트를 공유 구독 그룹에서 제거합니다. 구성원이 남지 않은 그룹은 토픽 트리에서도 제거합니다.
+     *
+     * @param session     구독 해제할 클라이언트
+     * @param shareFilter 구독 시 사용한 토픽 필터
+     * @return 제거되었으면 true, 그룹에 속해 있지 않았다면 false
+     */
+    synchronized boolean unsubscribe(Session session, String shareFilter) {
+        SharedGroup group = groups.get(shareFilter);
+        if ((group == null) || !group.remove(session)) {
+            return false;
+        }
+
+        update(shareFilter, group);
+        return true;
+    }
+
+    /**
+     * 클라이언트를 모든 공유 구독 그룹에서 제거합니다.
+     *
+     * @param session 연결이 종료된 클라이언트
+     */
+    synchronized void unsubscribeAll(Session session) {
+        for (Map.Entry<String, SharedGroup> entry : new ArrayList<>(groups.entrySet())) {
+            if (entry.getValue().remove(session)) {
+                update(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 공유 구독 그룹의 구성원 목록을 반환합니다.
+     *
+     * @param shareFilter '$share/{group}/{filter}' 형식의 토픽 필터
+     * @return 구독 순서대로 정렬된 구성원 목록. 그룹이 없으면 빈 목록
+     */
+    synchronized List<Session> getMembers(String shareFilter) {
+        SharedGroup group = groups.get(shareFilter);
+        if (group == null) {
+            return Collections.emptyList();
+        }
+
+        List<Session> sessions = new ArrayList<>();
+        for (Member member : group.members) {
+            sessions.add(member.session);
+        }
+        return sessions;
+    }
+
+    private void update(String shareFilter, SharedGroup group) {
+        if (group.members.length == 0) {
+            topicTree.unsubscribe(group, group.filter);
+            groups.remove(shareFilter);
+        } else {
+            topicTree.subscribe(group, group.filter, group.getMaxQoS());
+        }
+    }
+
+    /**
+     * 공유 구독 필터를 그룹 이름과 토픽 필터로 나눕니다.
+     *
+     * @param shareFilter '$share/{group}/{filter}' 형식의 토픽 필터
+     * @return 그룹 이름과 토픽 필터
+     * @throws IllegalArgumentException 그룹 이름이나 토픽 필터가 없거나 올바르지 않은 경우
+     */
+    static String[] parse(String shareFilter) {
+        if (!isShared(shareFilter)) {
+            throw new IllegalArgumentException("공유 구독은 '$share/'로 시작해야 합니다.");
+        }
+
+        String rest = shareFilter.substring(SHARE_PREFIX.length());
+        int separator = rest.indexOf(TopicTree.LEVEL_SEPARATOR);
+        if (separator <= 0) {
+            throw new IllegalArgumentException("공유 구독의 그룹 이름이 없습니다.");
+        }
+
+        String group = rest.substring(0, separator);
+        if (group.contains(TopicTree.SINGLE_LEVEL_WILDCARD) || group.contains(TopicTree.MULTI_LEVEL_WILDCARD)) {
+            throw new IllegalArgumentException("공유 구독의 그룹 이름에는 와일드카드를 사용할 수 없습니다.");
+        }
+
+        String filter = rest.substring(separator + 1);
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("공유 구독의 토픽 필터가 없습니다.");
+        }
+        TopicTree.validateFilter(TopicTree.split(filter));
+
+        return new String[] { group, filter };
+    }
+
+    private static final class Member {
+        final Session session;
+        final int qos;
+
+        Member(Session session, int qos) {
+            this.session = session;
+            this.qos = qos;
+        }
+    }
+
+    /**
+     * 같은 그룹과 필터로 구독한 클라이언트들을 TopicTree에서 대신하는 구독자입니다.
+     * 구성원 배열은 변경할 때마다 새로 만들어, 발행 스레드가 잠금 없이 읽고 할당 없이 선택할 수 있도록 합니다.
+     */
+    private final class SharedGroup implements Session {
+        private final String name;
+        private final String filter;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private volatile Member[] members = new Member[0];
+
+        SharedGroup(String name, String filter) {
+            this.name = name;
+            this.filter = filter;
+        }
+
+        void put(Session session, int qos) {
+            List<Member> updated = new ArrayList<>(Arrays.asList(members));
+            updated.removeIf(member -> member.session == session);
+            updated.add(new Member(session, qos));
+            members = updated.toArray(new Member[0]);
+        }
+
+        boolean remove(Session session) {
+            List<Member> updated = new ArrayList<>(Arrays.asList(members));
+            if (!updated.removeIf(member -> member.session == session)) {
+                return false;
+            }
+            members = updated.toArray(new Member[0]);
+            return true;
+        }
+
+        int getMaxQoS() {
+            int max = 0;
+            for (Member member : members) {
+                max = Math.max(max, member.qos);
+            }
+            return max;
+        }
+
+        /**
+         * 메시지를 전달할 구성원을 선택합니다.
+         * 연결된 구성원을 우선하고, 모두 연결이 끊긴 지속 세션이면 그중에서 선택하여 오프라인 대기열에 보관되도록 합니다.
+         * 발행마다 호출되므로 후보 목록을 만들지 않고 구성원 배열에서 바로 고릅니다.
+         */
+        private Member select() {
+            Member[] current = members;
+            if (current.length == 0) {
+                return null;
+            }
+
+            if (strategy == Broker.ShareStrategy.ROUND_ROBIN) {
+                int connected = 0;
+                for (Member member : current) {
+                    if (member.session.getOutboundQueue() != null) {
+                        connected++;
+                    }
+                }
+                if (connected == 0) {
+                    return current[Math.floorMod(cursor.getAndIncrement(), current.length)];
+                }
+
+                int index = Math.floorMod(cursor.getAndIncrement(), connected);
+                for (Member member : current) {
+                    if ((member.session.getOutboundQueue() != null) && (index-- == 0)) {
+                        return member;
+                    }
+                }
+                // 그사이 연결이 끊긴 구성원이 있으면 첫 구성원에게 전달합니다.
+                return current[0];
+            }
+
+            // 대기열 깊이가 같으면 순서를 돌아가며 선택하도록 시작 위치를 옮겨 가며 비교합니다.
+            // 연결이 끊긴 구성원의 부하는 연결된 구성원보다 크게 계산하므로 연결된 구성원이 먼저 선택됩니다.
+            int start = Math.floorMod(cursor.getAndIncrement(), current.length);
+            Member selected = null;
+            int minLoad = Integer.MAX_VALUE;
+            for (int i = 0; i < current.length; i++) {
+                Member member = current[(start + i) % current.length];
+                int load = load(member.session);
+                if (load < minLoad) {
+                    selected = member;
+                    minLoad = load;
+                }
+            }
+            return selected;
+        }
+
+        private int load(Session session) {
+            OutboundQueue outbound = session.getOutboundQueue();
+            if (outbound == null) {
+                return Integer.MAX_VALUE - 1;
+            }
+
+            InflightWindow inflight = session.getInflightWindow();
+            return outbound.size() + ((inflight != null) ? inflight.size() + inflight.getBacklogSize() : 0);
+        }
+
+        @Override
+        public String getClientId() {
+            return SHARE_PREFIX + name + TopicTree.LEVEL_SEPARATOR + filter;
+        }
+
+        @Override
+        public void setClientId(String clientId) {
+            throw new UnsupportedOperationException("공유 구독 그룹의 식별자는 변경할 수 없습니다.");
+        }
+
+        @Override
+        public void send(Message message) {
+            // 그룹은 연결이 아니므로 제어 메시지는 보내지 않습니다.
+        }
+
+        @Override
+        public void sendPublish(PublishFrame frame, int qos) {
+            Member member = select();
+            if (member != null) {
+                member.session.sendPublish(frame, Math.min(qos, member.qos));
+            }
+        }
+
+        @Override
+        public void sendPublish(List<PublishFrame> frames) {
+            Member member = select();
+            if (member != null) {
+                member.session.sendPublish(frames);
+            }
+        }
+
+        @Override
+        public OutboundQueue getOutboundQueue() {
+            return null;
+        }
+
+        @Override
+        public InflightWindow getInflightWindow() {
+            return null;
+        }
+
+        @Override
+        public void setKeepAlive(KeepAlive keepAlive) {
+            // 그룹은 연결이 아니므로 감시할 대상이 없습니다.
+        }
+
+        @Override
+        public void close() {
+            // 구성원의 연결은 각자 종료됩니다.
+        }
+
+        @Override
+        public String toString() {
+            return getClientId();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.nhnacademy.smqtt.broker;
 
+import java.nio.file.Paths;
+
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -16,6 +18,23 @@ public class SimpleMQTTBroker {
         Options options = new Options();
         options.addOption("h", "host", true, "host");
         options.addOption("p", "port", true, "port");
+        options.addOption("n", "non-blocking", false, "non-blocking (selector) mode");
+        options.addOption("v", "virtual-threads", false, "blocking mode with a virtual thread per connection");
+        options.addOption("r", "reactors", true, "reactor thread count for non-blocking mode");
+        options.addOption("q", "queue-size", true, "outbound queue capacity per subscriber");
+        options.addOption("o", "overflow", true, "overflow policy (DROP_OLDEST, DROP_NEWEST, DISCONNECT)");
+        options.addOption("g", "share-strategy", true, "shared subscription strategy (ROUND_ROBIN, LEAST_LOADED)");
+        options.addOption("i", "max-inflight", true, "max in-flight QoS 1/2 messages per subscriber");
+        options.addOption("d", "data-dir", true, "directory for the durable message log");
+        options.addOption("m", "retained-memory", true, "max bytes of retained payloads kept in memory");
+        options.addOption("s", "session-queue", true, "max queued QoS 1/2 messages per offline session");
+        options.addOption("w", "write-batch", true, "max bytes coalesced into one write per connection");
+        options.addOption("c", "coalesce", true, "max microseconds to wait for more messages under load (blocking modes)");
+        options.addOption("b", "bridge", true, "comma separated peer brokers to bridge with (host:port,...)");
+        options.addOption("N", "bridge-name", true, "name used when connecting to peer brokers");
+        options.addOption("S", "sys-interval", true, "seconds between $SYS metric publications (0 disables)");
+        options.addOption("M", "metrics-port", true, "port of the plain-text metrics endpoint (GET /metrics)");
+        options.addOption("P", "dispatch-partitions", true, "per-topic dispatch partitions for fan-out (0 disables)");
 
         try {
             CommandLineParser parser = new DefaultParser();
@@ -24,6 +43,62 @@ public class SimpleMQTTBroker {
             int port = Integer.parseInt(cmd.getOptionValue("p", DEFAULT_PORT));
 
             Broker broker = new Broker(port);
+            if (cmd.hasOption("n")) {
+                broker.setMode(Broker.Mode.NON_BLOCKING);
+            } else if (cmd.hasOption("v")) {
+                broker.setMode(Broker.Mode.VIRTUAL_THREAD);
+            }
+            if (cmd.hasOption("r")) {
+                broker.setReactorCount(Integer.parseInt(cmd.getOptionValue("r")));
+            }
+            if (cmd.hasOption("q")) {
+                broker.setOutboundQueueCapacity(Integer.parseInt(cmd.getOptionValue("q")));
+            }
+            if (cmd.hasOption("o")) {
+                broker.setOverflowPolicy(Broker.OverflowPolicy.valueOf(cmd.getOptionValue("o").toUpperCase()));
+            }
+            if (cmd.hasOption("g")) {
+                broker.setShareStrategy(Broker.ShareStrategy.valueOf(cmd.getOptionValue("g").toUpperCase()));
+            }
+            if (cmd.hasOption("i")) {
+                broker.setMaxInflight(Integer.parseInt(cmd.getOptionValue("i")));
+            }
+            if (cmd.hasOption("d")) {
+                broker.setDataDirectory(Paths.get(cmd.getOptionValue("d")));
+            }
+            if (cmd.hasOption("m")) {
+                broker.setRetainedMemoryLimit(Long.parseLong(cmd.getOptionValue("m")));
+            }
+            if (cmd.hasOption("s")) {
+                broker.setMaxQueuedMessages(Integer.parseInt(cmd.getOptionValue("s")));
+            }
+            if (cmd.hasOption("w")) {
+                broker.setWriteBatchBytes(Integer.parseInt(cmd.getOptionValue("w")));
+            }
+            if (cmd.hasOption("c")) {
+                broker.setWriteCoalesceMicros(Long.parseLong(cmd.getOptionValue("c")));
+            }
+            if (cmd.hasOption("b")) {
+                for (String peer : cmd.getOptionValue("b").split(",")) {
+                    int separator = peer.lastIndexOf(':');
+                    if (separator < 1) {
+                        throw new ParseException("peer는 host:port 형식이어야 합니다: " + peer);
+                    }
+                    broker.addBridge(peer.substring(0, separator), Integer.parseInt(peer.substring(separator + 1)));
+                }
+            }
+            if (cmd.hasOption("N")) {
+                broker.setBridgeName(cmd.getOptionValue("N"));
+            }
+            if (cmd.hasOption("S")) {
+                broker.setSysInterval(Long.parseLong(cmd.getOptionValue("S")));
+            }
+            if (cmd.hasOption("M")) {
+                broker.setMetricsPort(Integer.parseInt(cmd.getOptionValue("M")));
+            }
+            if (cmd.hasOption("P")) {
+                broker.setDispatchPartitions(Integer.parseInt(cmd.getOptionValue("P")));
+            }
 
             broker.start();
         } catch (ParseException e) {
@@ -0,0 +1,382 @@
+package com.nhnacademy.smqtt.broker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.nhnacademy.smqtt.utils.TopicFilter;
+
+/**
+ * 토픽 필터를 레벨('/') 단위의 트리로 관리하여 '+'와 '#' 와일드카드 구독을 지원하는 클래스입니다.
+ * 구독마다 허용된 QoS를 함께 보관합니다.
+ *
+ * <p>
+ * 발행 토픽별 매칭 결과는 캐시에 보관합니다. 구독이나 구독 해제가 일어나면 세대(generation)를
+ * 증가시켜 이전 세대에서 계산된 캐시 항목을 모두 무효화하고, 무효가 된 항목은 다음 조회 때 다시 계산합니다.
+ * 캐시가 가득 차면 한 항목만 내보냅니다. 이전 세대의 항목이나 마지막 검사 이후 조회되지 않은 항목을 먼저 고르므로
+ * (second chance) 자주 발행되는 토픽은 캐시에 남습니다.
+ * </p>
+ *
+ * <p>
+ * 구독을 해제하여 구독자와 자식이 모두 없어진 노드는 트리에서 제거하므로, 토픽이 계속 바뀌어도 트리가 커지지 않습니다.
+ * 구독과 구독 해제는 이 객체로 잠가 순서대로 처리하고, 매칭은 잠그지 않습니다.
+ * </p>
+ */
+class TopicTree {
+    static final String LEVEL_SEPARATOR = TopicFilter.LEVEL_SEPARATOR;
+    static final String SINGLE_LEVEL_WILDCARD = TopicFilter.SINGLE_LEVEL_WILDCARD;
+    static final String MULTI_LEVEL_WILDCARD = TopicFilter.MULTI_LEVEL_WILDCARD;
+    private static final int DEFAULT_MAX_CACHE_SIZE = 100_000;
+
+    private final Node root = new Node();
+    private final Map<Session, Set<String>> sessionFilters = new ConcurrentHashMap<>();
+    private final Map<String, CacheEntry> matchCache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxCacheSize;
+
+    TopicTree() {
+        this(DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * TopicTree 생성자.
+     *
+     * @param maxCacheSize 매칭 결과를 보관할 최대 토픽 수
+     */
+    TopicTree(int maxCacheSize) {
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * 클라이언트를 QoS 0으로 토픽 필터에 구독시킵니다.
+     *
+     * @param session 구독할 클라이언트
+     * @param filter  토픽 필터. '+'와 '#' 와일드카드를 사용할 수 있습니다.
+     * @throws IllegalArgumentException 토픽 필터 형식이 올바르지 않은 경우
+     */
+    void subscribe(Session session, String filter) {
+        subscribe(session, filter, 0);
+    }
+
+    /**
+     * 클라이언트를 토픽 필터에 구독시킵니다. 이미 구독 중인 필터라면 QoS만 갱신합니다.
+     *
+     * @param session 구독할 클라이언트
+     * @param filter  토픽 필터. '+'와 '#' 와일드카드를 사용할 수 있습니다.
+     * @param qos     허용된 QoS
+     * @throws IllegalArgumentException 토픽 필터 형식이나 QoS가 올바르지 않은 경우
+     */
+    synchronized void subscribe(Session session, String filter, int qos) {
+        if ((qos < 0) || (qos > 2)) {
+            throw new IllegalArgumentException("valid : 0 < qos < 3");
+        }
+
+        String[] levels = split(filter);
+        validateFilter(levels);
+
+        Node node = root;
+        for (String level : levels) {
+            node = node.children.computeIfAbsent(level, k -> new Node());
+        }
+
+        Integer previous = node.subscribers.put(session, qos);
+        if ((previous == null) || (previous != qos)) {
+            sessionFilters.computeIfAbsent(session, k -> ConcurrentHashMap.newKeySet()).add(filter);
+            invalidate();
+        }
+    }
+
+    /**
+     * 클라이언트를 토픽 필터에서 구독 해제합니다.
+     *
+     * @param session 구독 해제할 클라이언트
+     * @param filter  구독 시 사용한 토픽 필터
+     * @return 구독이 해제되었으면 true, 구독하고 있지 않았다면 false
+     */
+    synchronized boolean unsubscribe(Session session, String filter) {
+        if (!remove(session, filter)) {
+            return false;
+        }
+
+        Set<String> filters = sessionFilters.get(session);
+        if (filters != null) {
+            filters.remove(filter);
+            if (filters.isEmpty()) {
+                sessionFilters.remove(session);
+            }
+        }
+        invalidate();
+
+        return true;
+    }
+
+    /**
+     * 클라이언트의 모든 구독을 해제합니다.
+     *
+     * @param session 구독을 해제할 클라이언트
+     */
+    synchronized void unsubscribeAll(Session session) {
+        Set<String> filters = sessionFilters.remove(session);
+        if (filters == null) {
+            return;
+        }
+
+        for (String filter : filters) {
+            remove(session, filter);
+        }
+        invalidate();
+    }
+
+    /**
+     * 클라이언트가 구독 중인 토픽 필터 목록을 반환합니다.
+     *
+     * @param session 클라이언트
+     * @return 구독 중인 토픽 필터 목록
+     */
+    Set<String> getFilters(Session session) {
+        Set<String> filters = sessionFilters.get(session);
+
+        return (filters != null) ? Collections.unmodifiableSet(filters) : Collections.emptySet();
+    }
+
+    /**
+     * 모든 클라이언트가 구독 중인 토픽 필터 목록을 반환합니다.
+     *
+     * @return 정렬된 토픽 필터 목록
+     */
+    Set<String> getAllFilters() {
+        Set<String> filters = new TreeSet<>();
+        for (Set<String> sessionFilter : sessionFilters.values()) {
+            filters.addAll(sessionFilter);
+        }
+
+        return filters;
+    }
+
+    /**
+     * 루트를 제외한 트리의 노드 수를 반환합니다.
+     *
+     * @return 노드 수
+     */
+    int getNodeCount() {
+        return count(root) - 1;
+    }
+
+    private static int count(Node node) {
+        int count = 1;
+        for (Node child : node.children.values()) {
+            count += count(child);
+        }
+
+        return count;
+    }
+
+    /**
+     * 모든 클라이언트의 구독 수를 반환합니다. 같은 필터를 여러 클라이언트가 구독하면 각각 셉니다.
+     *
+     * @return 구독 수
+     */
+    int getSubscriptionCount() {
+        int count = 0;
+        for (Set<String> sessionFilter : sessionFilters.values()) {
+            count += sessionFilter.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * 발행 토픽과 일치하는 구독 목록을 반환합니다.
+     * 여러 필터로 같은 토픽을 구독한 클라이언트는 한 번만 포함되며, 그중 가장 높은 QoS를 사용합니다.
+     *
+     * @param topic 발행 토픽
+     * @return 구독 목록 (수정 불가)
+     */
+    List<Subscription> match(String topic) {
+        long currentGeneration = generation.get();
+        CacheEntry entry = matchCache.get(topic);
+        if ((entry != null) && (entry.generation == currentGeneration)) {
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.subscribers;
+        }
+
+        Map<Session, Integer> matched = new LinkedHashMap<>();
+        String[] levels = split(topic);
+        collect(root, levels, 0, matched);
+
+        List<Subscription> subscribers = new ArrayList<>(matched.size());
+        for (Map.Entry<Session, Integer> subscriber : matched.entrySet()) {
+            subscribers.add(new Subscription(subscriber.getKey(), subscriber.getValue()));
+        }
+        subscribers = Collections.unmodifiableList(subscribers);
+        if ((entry == null) && (matchCache.size() >= maxCacheSize)) {
+            evict(currentGeneration);
+        }
+        matchCache.put(topic, new CacheEntry(currentGeneration, subscribers));
+
+        return subscribers;
+    }
+
+    private void collect(Node node, String[] levels, int index, Map<Session, Integer> matched) {
+        Node multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+        boolean systemTopic = (index == 0) && levels[0].startsWith("$");
+
+        // "a/#"는 "a"와도 일치합니다.
+        if ((multiLevel != null) && !systemTopic) {
+            merge(multiLevel, matched);
+        }
+
+        if (index == levels.length) {
+            merge(node, matched);
+            return;
+        }
+
+        Node exact = node.children.get(levels[index]);
+        if (exact != null) {
+            collect(exact, levels, index + 1, matched);
+        }
+
+        Node singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+        if ((singleLevel != null) && !systemTopic) {
+            collect(singleLevel, levels, index + 1, matched);
+        }
+    }
+
+    private static void merge(Node node, Map<Session, Integer> matched) {
+        for (Map.Entry<Session, Integer> entry : node.subscribers.entrySet()) {
+            matched.merge(entry.getKey(), entry.getValue(), Math::max);
+        }
+    }
+
+    /**
+     * 캐시 항목 하나를 내보냅니다. 이전 세대의 항목이나 참조 표시가 없는 항목을 고르고,
+     * 지나치는 항목의 참조 표시는 지웁니다. 모든 항목이 참조되었으면 처음 지나친 항목을 내보냅니다.
+     *
+     * @param currentGeneration 현재 세대
+     */
+    private void evict(long currentGeneration) {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = matchCache.entrySet().iterator();
+        String first = null;
+        while (iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> candidate = iterator.next();
+            CacheEntry entry = candidate.getValue();
+            if ((entry.generation != currentGeneration) || !entry.referenced) {
+                iterator.remove();
+                return;
+            }
+            entry.referenced = false;
+            if (first == null) {
+                first = candidate.getKey();
+            }
+        }
+
+        if (first != null) {
+            matchCache.remove(first);
+        }
+    }
+
+    /**
+     * 필터의 노드에서 구독자를 제거하고, 구독자와 자식이 없어진 노드를 아래에서부터 제거합니다.
+     *
+     * @param session 구독을 해제할 클라이언트
+     * @param filter  토픽 필터
+     * @return 구독자를 제거하였으면 true
+     */
+    private boolean remove(Session session, String filter) {
+        String[] levels = split(filter);
+        Node[] path = new Node[levels.length + 1];
+        path[0] = root;
+        for (int i = 0; i < levels.length; i++) {
+            path[i + 1] = path[i].children.get(levels[i]);
+            if (path[i + 1] == null) {
+                return false;
+            }
+        }
+
+        if (path[levels.length].subscribers.remove(session) == null) {
+            return false;
+        }
+
+        for (int i = levels.length; i > 0; i--) {
+            Node node = path[i];
+            if (!node.subscribers.isEmpty() || !node.children.isEmpty()) {
+                break;
+            }
+            path[i - 1].children.remove(levels[i - 1], node);
+        }
+
+        return true;
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * TopicFilter#validate(String[])와 같습니다.
+     */
+    static void validateFilter(String[] levels) {
+        TopicFilter.validate(levels);
+    }
+
+    /**
+     * TopicFilter#matches(String, String)와 같습니다.
+     */
+    static boolean matches(String filter, String topic) {
+        return TopicFilter.matches(filter, topic);
+    }
+
+    /**
+     * TopicFilter#split(String)와 같습니다.
+     */
+    static String[] split(String topic) {
+        return TopicFilter.split(topic);
+    }
+
+    /**
+     * 발행 토픽과 일치한 구독 하나를 나타냅니다.
+     */
+    static final class Subscription {
+        private final Session session;
+        private final int qos;
+
+        Subscription(Session session, int qos) {
+            this.session = session;
+            this.qos = qos;
+        }
+
+        Session getSession() {
+            return session;
+        }
+
+        int getQoS() {
+            return qos;
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new ConcurrentHashMap<>();
+        final Map<Session, Integer> subscribers = new ConcurrentHashMap<>();
+    }
+
+    private static final class CacheEntry {
+        final long generation;
+        final List<Subscription> subscribers;
+        // 마지막으로 내보낼 항목을 고른 후 조회되었는지 여부. 경합해도 내보내는 순서만 달라집니다.
+        boolean referenced;
+
+        CacheEntry(long generation, List<Subscription> subscribers) {
+            this.generation = generation;
+            this.subscribers = subscribers;
+        }
+    }
+}
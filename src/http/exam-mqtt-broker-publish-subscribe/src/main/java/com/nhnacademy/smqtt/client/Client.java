@@ -5,6 +5,9 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Socket;
 import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -12,17 +15,51 @@ import com.nhnacademy.smqtt.message.CONNACK;
 import com.nhnacademy.smqtt.message.CONNECT;
 import com.nhnacademy.smqtt.message.DISCONNECT;
 import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBACK;
+import com.nhnacademy.smqtt.message.PUBCOMP;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.SUBACK;
+import com.nhnacademy.smqtt.message.SUBSCRIBE;
+import com.nhnacademy.smqtt.message.UNSUBACK;
+import com.nhnacademy.smqtt.message.UNSUBSCRIBE;
+import com.nhnacademy.smqtt.utils.PacketIdAllocator;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * MQTT 클라이언트의 추상 클래스입니다. 이 클래스는 MQTT 브로커와의 연결을 관리하고
  * 메시지를 전송 및 수신하는 기능을 제공합니다.
+ *
+ * <p>
+ * 패킷 식별자는 클라이언트가 가진 PacketIdAllocator에서 받습니다. QoS 1, 2 PUBLISH와 SUBSCRIBE, UNSUBSCRIBE를 보낼 때
+ * 식별자를 할당하고, PUBACK, PUBCOMP, SUBACK, UNSUBACK을 받으면 반납하므로 여러 스레드가 한 연결로 보내도 응답을 기다리는
+ * 식별자가 겹치지 않습니다. 끊어진 연결의 응답은 오지 않으므로, 다시 연결하기 전에 응답을 기다리던 식별자를 모두 반납해
+ * 새 연결은 비어 있는 할당기로 시작합니다. 전송은 연결 단위로 직렬화하므로 여러 스레드가 동시에 send()를 호출해도
+ * 프레임이 섞이지 않습니다.
+ * </p>
+ *
+ * <p>
+ * 재연결을 설정하면 연결이 끊어져도 종료하지 않고, 지수적으로 늘어나는 대기 시간에 무작위 값을 섞어(jitter) 기다린 후
+ * 다시 연결합니다. 브로커가 재시작될 때 여러 클라이언트가 같은 순간에 몰려 접속하지 않도록 하기 위함입니다.
+ * 다시 연결하면 connectionEstablished()와 processing()을 다시 호출하므로, 하위 클래스는 구독이나 보내지 못한 메시지를
+ * 이어서 처리할 수 있습니다.
+ * </p>
  */
 @Slf4j
 public abstract class Client implements Runnable {
-    private static final ThreadLocal<Integer> packetId = ThreadLocal.withInitial(() -> 0);
+    private static final AtomicInteger sequence = new AtomicInteger();
+    private final PacketIdAllocator packetIds = new PacketIdAllocator();
+    public static final long DEFAULT_RECONNECT_DELAY = 100;
+    public static final long DEFAULT_MAX_RECONNECT_DELAY = 30_000;
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
     private final String clientId;
+    private String brokerHost;
+    private int brokerPort;
+    private boolean reconnect;
+    private long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+    private long maxReconnectDelay = DEFAULT_MAX_RECONNECT_DELAY;
+    private boolean sessionPresent;
     private Socket socket;
     private DataInputStream input;
     private DataOutputStream output;
@@ -47,11 +84,10 @@ public abstract class Client implements Runnable {
             throw new IllegalArgumentException("invalid : brokerHost or brokerPort or clientId");
         }
 
-        socket = new Socket(brokerHost, brokerPort);
-        input = new DataInputStream(socket.getInputStream());
-        output = new DataOutputStream(socket.getOutputStream());
-        log.info("Connected to MQTT Broker at {}:{}", brokerHost, brokerPort);
+        this.brokerHost = brokerHost;
+        this.brokerPort = brokerPort;
         this.clientId = clientId;
+        open();
     }
 
     /**
@@ -93,6 +129,56 @@ public abstract class Client implements Runnable {
         return cleanSession;
     }
 
+    /**
+     * 연결이 끊어졌을 때 다시 연결할지 설정합니다.
+     *
+     * @param reconnect 다시 연결하려면 true
+     * @throws IllegalStateException 브로커 주소 없이 소켓으로 생성한 클라이언트인 경우
+     */
+    public void setReconnect(boolean reconnect) {
+        if (reconnect && (brokerHost == null)) {
+            throw new IllegalStateException("브로커 주소로 생성한 클라이언트만 다시 연결할 수 있습니다.");
+        }
+        this.reconnect = reconnect;
+    }
+
+    /**
+     * 연결이 끊어졌을 때 다시 연결하는지 반환합니다.
+     *
+     * @return 다시 연결하면 true
+     */
+    public boolean isReconnect() {
+        return reconnect;
+    }
+
+    /**
+     * 재연결 대기 시간을 설정합니다. n번째 시도의 대기 시간은 delay * 2^n과 maxDelay 중 작은 값의 절반부터 그 값 사이에서
+     * 무작위로 정합니다.
+     *
+     * @param delay    첫 재연결 대기 시간 (밀리초)
+     * @param maxDelay 최대 대기 시간 (밀리초)
+     * @throws IllegalArgumentException delay가 1보다 작거나 maxDelay가 delay보다 작은 경우
+     */
+    public void setReconnectDelay(long delay, long maxDelay) {
+        if (delay < 1) {
+            throw new IllegalArgumentException("delay는 1 이상이어야 합니다.");
+        }
+        if (maxDelay < delay) {
+            throw new IllegalArgumentException("maxDelay는 delay 이상이어야 합니다.");
+        }
+        this.reconnectDelay = delay;
+        this.maxReconnectDelay = maxDelay;
+    }
+
+    /**
+     * 마지막 CONNACK에서 브로커가 이전 세션을 이어서 사용한다고 알렸는지 반환합니다.
+     *
+     * @return 이전 세션이 남아 있으면 true
+     */
+    public boolean isSessionPresent() {
+        return sessionPresent;
+    }
+
     /**
      * QoS 설정.
      *
@@ -122,26 +208,109 @@ public abstract class Client implements Runnable {
      * 이 메서드는 스레드가 실행될 때 호출됩니다.
      */
     public void run() {
+        int attempt = 0;
+
         try {
-            packetId.set(0);
+            while (true) {
+                try {
+                    // 1. CONNECT 메시지 전송
+                    sendConnect();
+
+                    // 2️. CONNACK 메시지 수신
+                    receiveConnAck();
+                    attempt = 0;
+                    connectionEstablished();
+
+                    processing();
+
+                    // 6. DISCONNECT 메시지 전송 및 종료
+                    sendDisconnect();
+                    return;
+                } catch (IOException e) {
+                    if (!reconnect) {
+                        return;
+                    }
+                    log.warn("브로커와의 연결이 끊어졌습니다: {}", e.getMessage());
+                    connectionLost();
+                    releasePacketIds();
+                }
+
+                if (!reopen(attempt++)) {
+                    return;
+                }
+            }
+        } finally {
+            closeConnection();
+        }
+    }
+
+    /**
+     * 대기 시간만큼 기다린 후 브로커에 다시 연결합니다. 연결하지 못하면 대기 시간을 늘려 가며 다시 시도합니다.
+     *
+     * @param attempt 지금까지 실패한 재연결 횟수
+     * @return 연결하였으면 true, 기다리는 중 인터럽트가 발생하였으면 false
+     */
+    private boolean reopen(int attempt) {
+        closeQuietly();
+        while (true) {
+            long delay = nextReconnectDelay(attempt++);
+            log.info("{}ms 후 다시 연결합니다.", delay);
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+                open();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (IOException e) {
+                log.debug("다시 연결하지 못하였습니다: {}", e.getMessage());
+            }
+        }
+    }
 
-            // 1. CONNECT 메시지 전송
-            sendConnect();
+    /**
+     * n번째 재연결 시도 전에 기다릴 시간을 반환합니다.
+     *
+     * @param attempt 지금까지 실패한 재연결 횟수
+     * @return 대기 시간 (밀리초)
+     */
+    long nextReconnectDelay(int attempt) {
+        long limit = Math.min(maxReconnectDelay, reconnectDelay << Math.min(attempt, MAX_BACKOFF_SHIFT));
 
-            // 2️. CONNACK 메시지 수신
-            receiveConnAck();
+        return ThreadLocalRandom.current().nextLong(limit / 2, limit + 1);
+    }
 
-            processing();
+    private void open() throws IOException {
+        Socket opened = new Socket(brokerHost, brokerPort);
+        socket = opened;
+        input = new DataInputStream(opened.getInputStream());
+        output = new DataOutputStream(opened.getOutputStream());
+        log.info("Connected to MQTT Broker at {}:{}", brokerHost, brokerPort);
+    }
 
-            // 6. DISCONNECT 메시지 전송 및 종료
-            sendDisconnect();
+    private void closeQuietly() {
+        try {
+            socket.close();
         } catch (IOException e) {
-        } finally {
-            closeConnection();
-            packetId.remove();
+            log.debug("소켓을 닫지 못하였습니다: {}", e.getMessage());
         }
     }
 
+    /**
+     * CONNACK을 받은 후 processing() 전에 호출됩니다. 다시 연결할 때마다 호출됩니다.
+     *
+     * @throws IOException 메시지 전송 또는 수신 중 오류가 발생한 경우
+     */
+    protected void connectionEstablished() throws IOException {
+    }
+
+    /**
+     * 재연결을 설정한 클라이언트의 연결이 끊어진 후, 다시 연결하기 전에 호출됩니다.
+     * 반환하면 응답을 기다리던 패킷 식별자를 모두 반납하므로, 하위 클래스는 여기서 보내는 스레드와 받는 스레드를 멈춰야 합니다.
+     */
+    protected void connectionLost() {
+    }
+
     /**
      * MQTT CONNECT 메시지를 전송합니다.
      *
@@ -149,7 +318,9 @@ public abstract class Client implements Runnable {
      */
     void sendConnect() throws IOException {
         // TODO: CONNECT 메시지를 생성해 전송합니다.
-        send(new CONNECT(clientId));
+        CONNECT connect = new CONNECT(clientId);
+        connect.setCleanSession(cleanSession);
+        send(connect);
 
         log.info("Sent CONNECT: " + clientId);
     }
@@ -160,10 +331,16 @@ public abstract class Client implements Runnable {
      * @throws IOException 메시지 수신 실패 시 발생
      */
     void receiveConnAck() throws IOException {
-        log.info("Sent CONNECT: " + clientId);
-        // TODO: CONNACK 메시지를 수신하여 검증합니다. 메시지를 유효하지 않을 경우, 연결을 끊습니다.
-        
-        throw new IllegalArgumentException();
+        Message message = receive();
+        if (!(message instanceof CONNACK connAck)) {
+            throw new IllegalArgumentException("유효하지 않은 메시지를 수신 하였습니다.");
+        }
+
+        if (connAck.getReturnCode() != 0) {
+            throw new IllegalArgumentException("연결이 거부되었습니다: " + connAck.getReturnCode());
+        }
+        sessionPresent = connAck.isSessionPresent();
+        log.info("Received CONNACK: " + clientId);
     }
 
     /**
@@ -186,13 +363,20 @@ public abstract class Client implements Runnable {
     }
 
     /**
-     * 주어진 메시지를 전송합니다.
+     * 주어진 메시지를 전송합니다. 여러 스레드에서 호출해도 됩니다.
      *
      * @param message 전송할 메시지 객체
      * @throws IOException 메시지 전송 실패 시 발생
      */
-    protected void send(Message message) throws IOException {
+    protected synchronized void send(Message message) throws IOException {
         message.setQoS(qos);
+        if ((message instanceof PUBLISH publish) && (qos > 0) && (publish.getPacketId() == 0)) {
+            publish.setPacketId(packetIds.allocate());
+        } else if ((message instanceof SUBSCRIBE subscribe) && (subscribe.getPacketId() == 0)) {
+            subscribe.setPacketId(packetIds.allocate());
+        } else if ((message instanceof UNSUBSCRIBE unsubscribe) && (unsubscribe.getPacketId() == 0)) {
+            unsubscribe.setPacketId(packetIds.allocate());
+        }
 
         // TODO: 소켓을 통해 메시지를 전송합니다.
         output.write(message.toByteArray());
@@ -201,6 +385,18 @@ public abstract class Client implements Runnable {
         log.debug("output.write:{}", message.toString().getBytes());
     }
 
+    /**
+     * 이미 인코딩된 프레임을 그대로 전송합니다.
+     * 여러 프레임을 이어 붙여 한 번의 쓰기로 보낼 때 사용합니다. 여러 스레드에서 호출해도 됩니다.
+     *
+     * @param frames 인코딩된 프레임들을 이어 붙인 바이트 배열
+     * @throws IOException 메시지 전송 실패 시 발생
+     */
+    protected synchronized void send(byte[] frames) throws IOException {
+        output.write(frames);
+        output.flush();
+    }
+
     /**
      * 연결을 종료합니다.
      */
@@ -216,6 +412,16 @@ public abstract class Client implements Runnable {
         }
     }
 
+    /**
+     * 연결의 수신 방향을 닫습니다.
+     * 다른 스레드에서 receive()로 대기 중인 클라이언트를 깨우는 데 사용하며, 이후 receive()는 EOFException을 발생시킵니다.
+     *
+     * @throws IOException 소켓을 닫을 수 없는 경우
+     */
+    protected void shutdownInput() throws IOException {
+        socket.shutdownInput();
+    }
+
     /**
      * 메시지를 수신합니다.
      *
@@ -223,28 +429,93 @@ public abstract class Client implements Runnable {
      * @throws IOException 메시지 수신 실패 시 발생
      */
     protected Message receive() throws IOException {
-        byte[] buffer = input.readAllBytes();
+        // 고정 헤더와 Remaining Length 필드를 먼저 읽고, 그 길이만큼 본문을 읽습니다.
+        byte[] header = new byte[5];
+        input.readFully(header, 0, 2);
+
+        int lengthFieldCount = 1;
+        int length = header[1] & 0x7F;
+        int multiplier = 128;
+        while ((header[lengthFieldCount] & 0x80) == 0x80) {
+            if (lengthFieldCount == 4) {
+                throw new IllegalArgumentException("유효하지 않은 메시지를 수신 하였습니다.");
+            }
+            lengthFieldCount++;
+            input.readFully(header, lengthFieldCount, 1);
+            length += (header[lengthFieldCount] & 0x7F) * multiplier;
+            multiplier *= 128;
+        }
+
+        byte[] buffer = new byte[1 + lengthFieldCount + length];
+        System.arraycopy(header, 0, buffer, 0, 1 + lengthFieldCount);
+        input.readFully(buffer, 1 + lengthFieldCount, length);
 
         log.debug("byte[] buffer:{}", Arrays.toString(buffer));
 
-        // TODO: 데이터를 받아 기본 메시지 형식이 맞는지 확인합니다. fixed header 정보만 이용합니다.
-        // if (buffer[0] == null || buffer[1] == null) {
-            
-        // }
-        
-        return Message.parsing(buffer);
+        Message message = Message.parsing(buffer);
+        if (message instanceof PUBACK pubAck) {
+            releasePacketId(pubAck.getPacketId());
+        } else if (message instanceof PUBCOMP pubComp) {
+            releasePacketId(pubComp.getPacketId());
+        } else if (message instanceof SUBACK subAck) {
+            releasePacketId(subAck.getPacketId());
+        } else if (message instanceof UNSUBACK unsubAck) {
+            releasePacketId(unsubAck.getPacketId());
+        }
+
+        return message;
+    }
+
+    /**
+     * 이 연결에서 사용하지 않는 패킷 식별자를 할당합니다.
+     * 인코딩된 프레임을 send(byte[])로 직접 보낼 때 사용하며, 응답을 받으면 receive()에서 반납됩니다.
+     *
+     * @return 1부터 65535 사이의 패킷 식별자
+     * @throws IllegalStateException 모든 식별자가 응답을 기다리는 중인 경우
+     */
+    protected int allocatePacketId() {
+        return packetIds.allocate();
+    }
+
+    /**
+     * 패킷 식별자를 반납합니다. 할당하지 않았거나 이미 반납한 식별자는 무시합니다.
+     *
+     * @param packetId 반납할 패킷 식별자
+     */
+    protected void releasePacketId(int packetId) {
+        if ((packetId > 0) && (packetId <= PacketIdAllocator.MAX_PACKET_ID)) {
+            packetIds.release(packetId);
+        }
+    }
+
+    /**
+     * 응답을 기다리던 패킷 식별자를 모두 반납합니다. 하위 클래스가 식별자와 함께 보관한 상태도 정리하도록
+     * 식별자마다 releasePacketId()를 호출하며, connectionLost()가 수신 스레드를 멈춘 뒤에 호출합니다.
+     */
+    private void releasePacketIds() {
+        for (int packetId = 1; packetId <= PacketIdAllocator.MAX_PACKET_ID; packetId++) {
+            if (packetIds.isInUse(packetId)) {
+                releasePacketId(packetId);
+            }
+        }
+    }
+
+    /**
+     * 응답을 기다리는 패킷 식별자 수를 반환합니다.
+     *
+     * @return 식별자 수
+     */
+    int getPendingPacketIdCount() {
+        return packetIds.getInUseCount();
     }
 
     /**
-     * 패킷 ID를 반환합니다.
+     * 연결과 관계없이 호출할 때마다 1씩 증가하는 번호를 반환합니다.
+     * 응답을 추적하지 않는 메시지에만 사용하며, 응답을 기다리는 메시지는 연결의 할당기에서 식별자를 받습니다.
      *
      * @return 패킷 ID
      */
     public static int getPacketId() {
-        // TODO: 패킷 아이디 호출 할때마다 증가합니다.
-        int currentPacketId = packetId.get();
-        int increasePacketId = currentPacketId + 1;
-        packetId.set(increasePacketId);
-        return currentPacketId;
+        return sequence.getAndIncrement() & PacketIdAllocator.MAX_PACKET_ID;
     }
 }
@@ -1,6 +1,11 @@
 package com.nhnacademy.smqtt.exception;
 
-public class InvalidMessageFormatException extends RuntimeException {
+/**
+ * 프로토콜에서 허용하지 않는 형식의 메시지를 받았을 때 발생하는 예외입니다.
+ * 잘못된 인자로 메시지를 해석하지 못한 경우와 같이 처리되도록 IllegalArgumentException을 상속하므로,
+ * 연결을 처리하는 쪽은 따로 잡지 않아도 연결을 닫습니다.
+ */
+public class InvalidMessageFormatException extends IllegalArgumentException {
     public InvalidMessageFormatException() {
         super();
     }
@@ -0,0 +1,70 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import java.io.IOException;
+
+import com.nhnacademy.smqtt.client.Client;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 부하 생성기의 발행자와 구독자가 공통으로 사용하는 클라이언트입니다.
+ * 연결과 준비가 끝나면 LoadContext에 알리고, 연결 중에 실패하면 실패로 기록합니다.
+ */
+@Slf4j
+abstract class LoadClient extends Client {
+    protected final LoadContext context;
+    private boolean ready;
+
+    /**
+     * LoadClient 생성자.
+     *
+     * @param brokerHost 브로커의 호스트 주소
+     * @param brokerPort 브로커의 포트 번호
+     * @param clientId   클라이언트 식별자
+     * @param qos        사용할 QoS
+     * @param context    공유 상태
+     * @throws IOException 브로커에 연결할 수 없는 경우
+     */
+    LoadClient(String brokerHost, int brokerPort, String clientId, int qos, LoadContext context) throws IOException {
+        super(brokerHost, brokerPort, clientId);
+        setQoS(qos);
+        this.context = context;
+    }
+
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } catch (RuntimeException e) {
+            log.warn("부하 생성 클라이언트가 종료되었습니다: {}", e.getMessage());
+        } finally {
+            if (!ready) {
+                context.ready(false);
+            }
+        }
+    }
+
+    @Override
+    protected final void processing() throws IOException {
+        prepare();
+        ready = true;
+        context.ready(true);
+
+        execute();
+    }
+
+    /**
+     * 준비를 알리기 전에 실행할 작업입니다.
+     *
+     * @throws IOException 메시지 전송 또는 수신 중 오류가 발생한 경우
+     */
+    protected void prepare() throws IOException {
+    }
+
+    /**
+     * 부하를 생성합니다.
+     *
+     * @throws IOException 메시지 전송 또는 수신 중 오류가 발생한 경우
+     */
+    protected abstract void execute() throws IOException;
+}
@@ -0,0 +1,167 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nhnacademy.smqtt.utils.LatencyHistogram;
+
+/**
+ * 한 번의 부하 생성에 참여하는 클라이언트들이 공유하는 상태입니다.
+ *
+ * <p>
+ * 발행자는 전송 예정 시각(System.nanoTime)을 메시지 앞에 기록하고, 구독자는 수신 시각과의 차이를 히스토그램에 기록합니다.
+ * 발행자와 구독자가 같은 프로세스에서 실행되므로 두 시각을 그대로 비교할 수 있습니다.
+ * 실제 전송 시각이 아닌 예정 시각을 기록하므로, 발행이 밀린 시간도 지연 시간에 포함됩니다.
+ * </p>
+ */
+class LoadContext {
+    static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    static final char STAMP_SEPARATOR = ' ';
+
+    private final LatencyHistogram histogram = new LatencyHistogram(MAX_LATENCY);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder expected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final CountDownLatch ready;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final Queue<LoadSubscriber> subscribers = new ConcurrentLinkedQueue<>();
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private volatile boolean stopping;
+
+    /**
+     * LoadContext 생성자.
+     *
+     * @param clientCount 준비를 기다릴 클라이언트 수
+     */
+    LoadContext(int clientCount) {
+        this.ready = new CountDownLatch(clientCount);
+    }
+
+    /**
+     * 클라이언트가 연결을 마쳤거나 연결에 실패했음을 알립니다.
+     *
+     * @param success 연결에 성공했으면 true
+     */
+    void ready(boolean success) {
+        if (!success) {
+            failed.increment();
+        }
+        ready.countDown();
+    }
+
+    /**
+     * 모든 클라이언트가 준비될 때까지 기다립니다.
+     *
+     * @param timeout 최대 대기 시간
+     * @param unit    시간 단위
+     * @return 모든 클라이언트가 준비되었으면 true
+     * @throws InterruptedException 대기 중 인터럽트가 발생한 경우
+     */
+    boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    /**
+     * 발행을 시작합니다.
+     *
+     * @param durationNanos 발행을 계속할 시간
+     */
+    void begin(long durationNanos) {
+        startNanos = System.nanoTime();
+        endNanos = startNanos + durationNanos;
+        started.countDown();
+    }
+
+    /**
+     * 발행 시작을 기다립니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생한 경우
+     */
+    void awaitStart() throws InterruptedException {
+        started.await();
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getEndNanos() {
+        return endNanos;
+    }
+
+    /**
+     * 발행한 메시지를 기록합니다.
+     *
+     * @param fanOut 이 메시지를 받을 구독자 수
+     */
+    void sent(int fanOut) {
+        sent.increment();
+        expected.add(fanOut);
+    }
+
+    /**
+     * 수신한 메시지의 지연 시간을 기록합니다.
+     *
+     * @param payload 발행 시각이 기록된 메시지
+     */
+    void received(String payload) {
+        long now = System.nanoTime();
+        received.increment();
+
+        int separator = payload.indexOf(STAMP_SEPARATOR);
+        try {
+            long stamp = Long.parseLong((separator < 0) ? payload : payload.substring(0, separator));
+            histogram.record(now - stamp);
+        } catch (NumberFormatException ignore) {
+            // 부하 생성기가 보내지 않은 메시지입니다.
+        }
+    }
+
+    LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    long getSentCount() {
+        return sent.sum();
+    }
+
+    long getReceivedCount() {
+        return received.sum();
+    }
+
+    long getExpectedCount() {
+        return expected.sum();
+    }
+
+    long getFailedCount() {
+        return failed.sum();
+    }
+
+    void register(LoadSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    boolean isStopping() {
+        return stopping;
+    }
+
+    /**
+     * 수신 대기 중인 구독자를 깨워 종료하도록 합니다.
+     */
+    void stop() {
+        stopping = true;
+        for (LoadSubscriber subscriber : subscribers) {
+            try {
+                subscriber.stop();
+            } catch (IOException ignore) {
+                // 이미 연결이 끊긴 구독자입니다.
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.nhnacademy.smqtt.utils.LatencyHistogram;
+import com.nhnacademy.smqtt.utils.VirtualThreads;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 발행자와 구독자 연결로 브로커에 부하를 주고 종단 간 지연 시간을 측정하는 부하 생성기입니다.
+ *
+ * <p>
+ * 발행자와 구독자는 topicCount개의 토픽에 번갈아 배정되며, 각 토픽에는 초당 rate개의 메시지가 발행됩니다.
+ * 클라이언트마다 스레드 하나를 사용하며, Java 21 이상에서는 가상 스레드를 사용하므로 수천 개의 연결도 열 수 있습니다.
+ * 측정 결과는 reportInterval마다 한 줄씩 CSV로 기록하고, 마지막 줄에 전체 구간의 결과를 기록합니다.
+ * 지연 시간의 단위는 마이크로초입니다.
+ * </p>
+ */
+@Slf4j
+public class LoadGenerator {
+    static final String CSV_HEADER = "time_s,sent,received,p50_us,p90_us,p99_us,p999_us,max_us";
+    static final long READY_TIMEOUT = 30_000;
+    static final long DRAIN_TIMEOUT = 5_000;
+
+    private final String brokerHost;
+    private final int brokerPort;
+    private int publisherCount = 1;
+    private int subscriberCount = 1;
+    private int topicCount = 1;
+    private double rate = 100;
+    private long duration = 10_000;
+    private long reportInterval = 1_000;
+    private int payloadSize = 64;
+    private int qos = 0;
+    private String topicPrefix = "loadgen";
+    private LoadContext context;
+
+    /**
+     * LoadGenerator 생성자.
+     *
+     * @param brokerHost 브로커의 호스트 주소
+     * @param brokerPort 브로커의 포트 번호
+     * @throws IllegalArgumentException 잘못된 인자가 전달된 경우
+     */
+    public LoadGenerator(String brokerHost, int brokerPort) {
+        if (StringUtils.isEmpty(brokerHost) || (brokerPort < 0)) {
+            throw new IllegalArgumentException("invalid : brokerHost or brokerPort");
+        }
+
+        this.brokerHost = brokerHost;
+        this.brokerPort = brokerPort;
+    }
+
+    /**
+     * 발행자 연결 수를 설정합니다.
+     *
+     * @param publisherCount 발행자 수 (1 이상)
+     * @throws IllegalArgumentException publisherCount가 1보다 작은 경우
+     */
+    public void setPublisherCount(int publisherCount) {
+        if (publisherCount < 1) {
+            throw new IllegalArgumentException("publisherCount는 1 이상이어야 합니다.");
+        }
+
+        this.publisherCount = publisherCount;
+    }
+
+    /**
+     * 구독자 연결 수를 설정합니다.
+     *
+     * @param subscriberCount 구독자 수 (0 이상)
+     * @throws IllegalArgumentException subscriberCount가 음수인 경우
+     */
+    public void setSubscriberCount(int subscriberCount) {
+        if (subscriberCount < 0) {
+            throw new IllegalArgumentException("subscriberCount는 0 이상이어야 합니다.");
+        }
+
+        this.subscriberCount = subscriberCount;
+    }
+
+    /**
+     * 토픽 수를 설정합니다.
+     *
+     * @param topicCount 토픽 수 (1 이상)
+     * @throws IllegalArgumentException topicCount가 1보다 작은 경우
+     */
+    public void setTopicCount(int topicCount) {
+        if (topicCount < 1) {
+            throw new IllegalArgumentException("topicCount는 1 이상이어야 합니다.");
+        }
+
+        this.topicCount = topicCount;
+    }
+
+    /**
+     * 토픽당 초당 발행 메시지 수를 설정합니다.
+     *
+     * @param rate 초당 메시지 수 (0보다 커야 합니다)
+     * @throws IllegalArgumentException rate가 0 이하인 경우
+     */
+    public void setRate(double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("rate는 0보다 커야 합니다.");
+        }
+
+        this.rate = rate;
+    }
+
+    /**
+     * 발행을 계속할 시간을 설정합니다.
+     *
+     * @param duration 시간 (밀리초, 1 이상)
+     * @throws IllegalArgumentException duration이 1보다 작은 경우
+     */
+    public void setDuration(long duration) {
+        if (duration < 1) {
+            throw new IllegalArgumentException("duration은 1 이상이어야 합니다.");
+        }
+
+        this.duration = duration;
+    }
+
+    /**
+     * CSV에 결과를 기록하는 간격을 설정합니다.
+     *
+     * @param reportInterval 간격 (밀리초, 1 이상)
+     * @throws IllegalArgumentException reportInterval이 1보다 작은 경우
+     */
+    public void setReportInterval(long reportInterval) {
+        if (reportInterval < 1) {
+            throw new IllegalArgumentException("reportInterval은 1 이상이어야 합니다.");
+        }
+
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * 메시지 크기를 설정합니다. 발행 시각을 기록하는 데 필요한 크기보다 작으면 그 크기로 보냅니다.
+     *
+     * @param payloadSize 메시지 크기 (바이트, 0 이상)
+     * @throws IllegalArgumentException payloadSize가 음수인 경우
+     */
+    public void setPayloadSize(int payloadSize) {
+        if (payloadSize < 0) {
+            throw new IllegalArgumentException("payloadSize는 0 이상이어야 합니다.");
+        }
+
+        this.payloadSize = payloadSize;
+    }
+
+    /**
+     * 발행과 구독에 사용할 QoS를 설정합니다.
+     *
+     * @param qos QoS 레벨 (0, 1, 2)
+     * @throws IllegalArgumentException 잘못된 QoS 레벨이 전달된 경우
+     */
+    public void setQoS(int qos) {
+        if ((qos < 0) || (qos > 2)) {
+            throw new IllegalArgumentException("qos는 0, 1, 2 중 하나여야 합니다.");
+        }
+
+        this.qos = qos;
+    }
+
+    /**
+     * 토픽 이름의 접두사를 설정합니다. 토픽은 "접두사/번호" 형식입니다.
+     *
+     * @param topicPrefix 토픽 접두사
+     * @throws IllegalArgumentException topicPrefix가 비어 있거나 와일드카드를 포함한 경우
+     */
+    public void setTopicPrefix(String topicPrefix) {
+        if (StringUtils.isEmpty(topicPrefix) || StringUtils.containsAny(topicPrefix, '+', '#')) {
+            throw new IllegalArgumentException("topicPrefix가 올바르지 않습니다.");
+        }
+
+        this.topicPrefix = topicPrefix;
+    }
+
+    /**
+     * 부하를 생성하고 결과를 CSV로 기록합니다.
+     * 설정한 시간 동안 발행한 후, 전송 중인 메시지를 최대 DRAIN_TIMEOUT 동안 더 기다립니다.
+     *
+     * @param csv 결과를 기록할 출력
+     * @return 전체 구간의 지연 시간 히스토그램 (나노초)
+     * @throws InterruptedException 대기 중 인터럽트가 발생한 경우
+     */
+    public LatencyHistogram run(PrintWriter csv) throws InterruptedException {
+        context = new LoadContext(subscriberCount + publisherCount);
+        String clientPrefix = String.format("lg%06x-", ThreadLocalRandom.current().nextInt(0x1000000));
+        ExecutorService executor = VirtualThreads.newExecutor("loadgen");
+
+        try {
+            for (int i = 0; i < subscriberCount; i++) {
+                String clientId = clientPrefix + "s" + i;
+                String topic = topicName(i % topicCount);
+                launch(executor, () -> new LoadSubscriber(brokerHost, brokerPort, clientId, qos, context, topic));
+            }
+
+            for (int i = 0; i < publisherCount; i++) {
+                String clientId = clientPrefix + "p" + i;
+                int topicIndex = i % topicCount;
+                int publishersOnTopic = share(publisherCount, topicIndex);
+                long interval = (long) (TimeUnit.SECONDS.toNanos(1) * publishersOnTopic / rate);
+                long offset = interval * (i / topicCount) / publishersOnTopic;
+                int fanOut = share(subscriberCount, topicIndex);
+                launch(executor, () -> new LoadPublisher(brokerHost, brokerPort, clientId, qos, context,
+                        topicName(topicIndex), interval, offset, fanOut, payloadSize));
+            }
+
+            if (!context.awaitReady(READY_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn("일부 클라이언트가 제한 시간 안에 연결되지 않았습니다.");
+            }
+            log.info("Load started: {} publishers, {} subscribers, {} topics, {} failed",
+                    publisherCount, subscriberCount, topicCount, context.getFailedCount());
+
+            return report(csv);
+        } finally {
+            context.stop();
+            executor.shutdown();
+            if (!executor.awaitTermination(DRAIN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private LatencyHistogram report(PrintWriter csv) throws InterruptedException {
+        LatencyHistogram total = new LatencyHistogram(LoadContext.MAX_LATENCY);
+        csv.println(CSV_HEADER);
+
+        context.begin(TimeUnit.MILLISECONDS.toNanos(duration));
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(reportInterval);
+        long next = context.getStartNanos() + intervalNanos;
+        long lastSent = 0;
+        long lastReceived = 0;
+        long now;
+        while ((now = System.nanoTime()) < context.getEndNanos()) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(next, context.getEndNanos()) - now);
+            if (System.nanoTime() < next) {
+                continue;
+            }
+
+            long sent = context.getSentCount();
+            long received = context.getReceivedCount();
+            LatencyHistogram interval = context.getHistogram().snapshotAndReset();
+            total.add(interval);
+            writeRow(csv, String.format(Locale.ROOT, "%.3f", (System.nanoTime() - context.getStartNanos()) / 1e9),
+                    sent - lastSent, received - lastReceived, interval);
+            lastSent = sent;
+            lastReceived = received;
+            next += intervalNanos;
+        }
+
+        // 발행이 끝난 후 전달 중인 메시지를 기다립니다.
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DRAIN_TIMEOUT);
+        while ((context.getReceivedCount() < context.getExpectedCount()) && (System.nanoTime() < drainDeadline)) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        LatencyHistogram rest = context.getHistogram().snapshotAndReset();
+        total.add(rest);
+        writeRow(csv, "total", context.getSentCount(), context.getReceivedCount(), total);
+        csv.flush();
+
+        log.info("Load finished: sent={}, received={}, expected={}, p99={}us",
+                context.getSentCount(), context.getReceivedCount(), context.getExpectedCount(),
+                TimeUnit.NANOSECONDS.toMicros(total.getValueAtPercentile(99)));
+
+        return total;
+    }
+
+    private static void writeRow(PrintWriter csv, String time, long sent, long received, LatencyHistogram histogram) {
+        csv.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%d%n", time, sent, received,
+                TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(50)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(90)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(99)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(99.9)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getMax()));
+        csv.flush();
+    }
+
+    private void launch(ExecutorService executor, ClientFactory factory) {
+        executor.submit(() -> {
+            LoadClient client;
+            try {
+                client = factory.create();
+            } catch (IOException | RuntimeException e) {
+                log.warn("브로커에 연결할 수 없습니다: {}", e.getMessage());
+                context.ready(false);
+                return;
+            }
+            client.run();
+        });
+    }
+
+    private String topicName(int index) {
+        return topicPrefix + "/" + index;
+    }
+
+    /**
+     * count개의 클라이언트를 토픽에 번갈아 배정했을 때 index번째 토픽에 배정되는 수를 반환합니다.
+     */
+    private int share(int count, int index) {
+        return (count / topicCount) + ((index < count % topicCount) ? 1 : 0);
+    }
+
+    /**
+     * 발행한 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수. 실행하지 않았으면 0
+     */
+    public long getSentCount() {
+        return (context != null) ? context.getSentCount() : 0;
+    }
+
+    /**
+     * 구독자가 수신한 메시지 수를 반환합니다.
+     *
+     * @return 메시지 수. 실행하지 않았으면 0
+     */
+    public long getReceivedCount() {
+        return (context != null) ? context.getReceivedCount() : 0;
+    }
+
+    /**
+     * 연결 또는 구독에 실패한 클라이언트 수를 반환합니다.
+     *
+     * @return 클라이언트 수. 실행하지 않았으면 0
+     */
+    public long getFailedCount() {
+        return (context != null) ? context.getFailedCount() : 0;
+    }
+
+    @FunctionalInterface
+    private interface ClientFactory {
+        LoadClient create() throws IOException;
+    }
+}
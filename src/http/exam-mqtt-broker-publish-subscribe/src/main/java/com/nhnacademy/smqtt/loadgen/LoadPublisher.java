@@ -0,0 +1,99 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+import com.nhnacademy.smqtt.message.PUBACK;
+import com.nhnacademy.smqtt.message.PUBCOMP;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.PUBREC;
+import com.nhnacademy.smqtt.message.PUBREL;
+
+/**
+ * 정해진 간격으로 한 토픽에 메시지를 발행하는 부하 생성 클라이언트입니다.
+ *
+ * <p>
+ * 전송 시각은 시작 시각부터 interval 간격으로 미리 정해 두며, 전송이 밀리면 쉬지 않고 이어서 보냅니다.
+ * QoS 1, 2에서는 PublishClient와 같이 응답을 받은 후 다음 메시지를 보냅니다.
+ * </p>
+ */
+class LoadPublisher extends LoadClient {
+    private final String topic;
+    private final long intervalNanos;
+    private final long offsetNanos;
+    private final int fanOut;
+    private final String padding;
+
+    /**
+     * LoadPublisher 생성자.
+     *
+     * @param brokerHost    브로커의 호스트 주소
+     * @param brokerPort    브로커의 포트 번호
+     * @param clientId      클라이언트 식별자
+     * @param qos           발행 QoS
+     * @param context       공유 상태
+     * @param topic         발행할 토픽
+     * @param intervalNanos 발행 간격
+     * @param offsetNanos   같은 토픽의 발행자끼리 전송 시각이 겹치지 않도록 미루는 시간
+     * @param fanOut        이 토픽을 구독하는 구독자 수
+     * @param payloadSize   메시지 크기 (바이트)
+     * @throws IOException 브로커에 연결할 수 없는 경우
+     */
+    LoadPublisher(String brokerHost, int brokerPort, String clientId, int qos, LoadContext context, String topic,
+            long intervalNanos, long offsetNanos, int fanOut, int payloadSize) throws IOException {
+        super(brokerHost, brokerPort, clientId, qos, context);
+
+        this.topic = topic;
+        this.intervalNanos = intervalNanos;
+        this.offsetNanos = offsetNanos;
+        this.fanOut = fanOut;
+        this.padding = "x".repeat(payloadSize);
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        try {
+            context.awaitStart();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long next = context.getStartNanos() + offsetNanos;
+        while (next < context.getEndNanos()) {
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            PUBLISH publish = new PUBLISH(topic, stamp(next));
+            send(publish);
+            context.sent(fanOut);
+            acknowledge(publish.getPacketId());
+
+            next += intervalNanos;
+        }
+    }
+
+    private String stamp(long nanos) {
+        String stamp = Long.toString(nanos) + LoadContext.STAMP_SEPARATOR;
+
+        return stamp + padding.substring(0, Math.max(0, padding.length() - stamp.length()));
+    }
+
+    private void acknowledge(int packetId) throws IOException {
+        if (getQoS() == 1) {
+            if (!(receive() instanceof PUBACK pubAck) || (pubAck.getPacketId() != packetId)) {
+                throw new IOException("유효하지 않은 메시지를 수신 하였습니다.");
+            }
+        } else if (getQoS() == 2) {
+            if (!(receive() instanceof PUBREC pubRec) || (pubRec.getPacketId() != packetId)) {
+                throw new IOException("유효하지 않은 메시지를 수신 하였습니다.");
+            }
+            send(new PUBREL(packetId));
+            if (!(receive() instanceof PUBCOMP pubComp) || (pubComp.getPacketId() != packetId)) {
+                throw new IOException("유효하지 않은 메시지를 수신 하였습니다.");
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBACK;
+import com.nhnacademy.smqtt.message.PUBCOMP;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.PUBREC;
+import com.nhnacademy.smqtt.message.PUBREL;
+import com.nhnacademy.smqtt.message.SUBACK;
+import com.nhnacademy.smqtt.message.SUBSCRIBE;
+
+/**
+ * 한 토픽을 구독하여 수신한 메시지의 지연 시간을 기록하는 부하 생성 클라이언트입니다.
+ * LoadContext.stop()이 수신 방향을 닫을 때까지 메시지를 받습니다.
+ */
+class LoadSubscriber extends LoadClient {
+    private final String topic;
+
+    /**
+     * LoadSubscriber 생성자.
+     *
+     * @param brokerHost 브로커의 호스트 주소
+     * @param brokerPort 브로커의 포트 번호
+     * @param clientId   클라이언트 식별자
+     * @param qos        구독 QoS
+     * @param context    공유 상태
+     * @param topic      구독할 토픽
+     * @throws IOException 브로커에 연결할 수 없는 경우
+     */
+    LoadSubscriber(String brokerHost, int brokerPort, String clientId, int qos, LoadContext context, String topic)
+            throws IOException {
+        super(brokerHost, brokerPort, clientId, qos, context);
+
+        this.topic = topic;
+    }
+
+    @Override
+    protected void prepare() throws IOException {
+        send(new SUBSCRIBE(topic));
+        if (!(receive() instanceof SUBACK subAck) || (subAck.getReturnCode() == 0x80)) {
+            throw new IOException("구독에 실패하였습니다: " + topic);
+        }
+        context.register(this);
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        while (true) {
+            Message message;
+            try {
+                message = receive();
+            } catch (EOFException e) {
+                if (context.isStopping()) {
+                    return;
+                }
+                throw e;
+            }
+
+            if (message instanceof PUBLISH publish) {
+                context.received(publish.getMessage());
+                if (publish.getQoS() == 1) {
+                    send(new PUBACK(publish.getPacketId()));
+                } else if (publish.getQoS() == 2) {
+                    send(new PUBREC(publish.getPacketId()));
+                }
+            } else if (message instanceof PUBREL pubRel) {
+                send(new PUBCOMP(pubRel.getPacketId()));
+            }
+        }
+    }
+
+    /**
+     * 수신을 중단합니다.
+     *
+     * @throws IOException 연결을 닫을 수 없는 경우
+     */
+    void stop() throws IOException {
+        shutdownInput();
+    }
+}
@@ -0,0 +1,89 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class SimpleMQTTLoadGenerator {
+    static final String DEFAULT_BROCKER_HOST = "localhost";
+    static final int DEFAULT_BROCKER_PORT = 1883;
+
+    public static void main(String[] args) {
+        Options options = new Options();
+        options.addOption("h", "host", true, "host");
+        options.addOption("p", "port", true, "port");
+        options.addOption("P", "publishers", true, "publisher connection count");
+        options.addOption("S", "subscribers", true, "subscriber connection count");
+        options.addOption("t", "topics", true, "topic count");
+        options.addOption("T", "topic-prefix", true, "topic name prefix");
+        options.addOption("r", "rate", true, "messages per second per topic");
+        options.addOption("d", "duration", true, "publishing duration in seconds");
+        options.addOption("i", "interval", true, "report interval in milliseconds");
+        options.addOption("s", "size", true, "payload size in bytes");
+        options.addOption("q", "qos", true, "QoS level (0, 1, 2)");
+        options.addOption("o", "output", true, "CSV output file (default: stdout)");
+
+        try {
+            CommandLineParser parser = new DefaultParser();
+            CommandLine cmd = parser.parse(options, args);
+
+            String host = cmd.getOptionValue("h", DEFAULT_BROCKER_HOST);
+            int port = Integer.parseInt(cmd.getOptionValue("p", String.valueOf(DEFAULT_BROCKER_PORT)));
+
+            LoadGenerator generator = new LoadGenerator(host, port);
+            if (cmd.hasOption("P")) {
+                generator.setPublisherCount(Integer.parseInt(cmd.getOptionValue("P")));
+            }
+            if (cmd.hasOption("S")) {
+                generator.setSubscriberCount(Integer.parseInt(cmd.getOptionValue("S")));
+            }
+            if (cmd.hasOption("t")) {
+                generator.setTopicCount(Integer.parseInt(cmd.getOptionValue("t")));
+            }
+            if (cmd.hasOption("T")) {
+                generator.setTopicPrefix(cmd.getOptionValue("T"));
+            }
+            if (cmd.hasOption("r")) {
+                generator.setRate(Double.parseDouble(cmd.getOptionValue("r")));
+            }
+            if (cmd.hasOption("d")) {
+                generator.setDuration(Long.parseLong(cmd.getOptionValue("d")) * 1000);
+            }
+            if (cmd.hasOption("i")) {
+                generator.setReportInterval(Long.parseLong(cmd.getOptionValue("i")));
+            }
+            if (cmd.hasOption("s")) {
+                generator.setPayloadSize(Integer.parseInt(cmd.getOptionValue("s")));
+            }
+            if (cmd.hasOption("q")) {
+                generator.setQoS(Integer.parseInt(cmd.getOptionValue("q")));
+            }
+
+            if (cmd.hasOption("o")) {
+                try (PrintWriter csv = new PrintWriter(new OutputStreamWriter(
+                        new FileOutputStream(cmd.getOptionValue("o")), StandardCharsets.UTF_8))) {
+                    generator.run(csv);
+                }
+            } else {
+                generator.run(new PrintWriter(System.out, true));
+            }
+        } catch (IOException e) {
+            log.warn(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ParseException ignore) {
+            System.err.println("인수가 잘못되었습니다.");
+        }
+    }
+}
@@ -74,9 +74,8 @@ public class CONNECT extends Message {
 
             // 3. Connect Flags 및 Keep Alive 읽기
             byte flags = buffer.get();
-            boolean connectFlag = (flags & (1 << 7)) != 0;
-            this.cleanSession = connectFlag;
-            log.debug("connectFlag:{}", connectFlag);
+            this.cleanSession = (flags & (1 << 1)) != 0;
+            log.debug("cleanSession:{}", this.cleanSession);
             
             this.keepAlive = (short) buffer.getShort();
             log.debug("keepAlive:{}", this.keepAlive);
@@ -1,17 +1,9 @@
 package com.nhnacademy.smqtt.message;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 
-import org.reflections.Reflections;
-
 import lombok.extern.slf4j.Slf4j;
 
 // TODO: Message 클래스는 인스턴스 생성이 불가능합니다.
@@ -27,7 +19,7 @@ abstract public class Message {
         PUBLISH(3, true),
         PUBACK(4),
         PUBREC(5),
-        PUBREL(6),
+        PUBREL(6, true),
         PUBCOMP(7),
         SUBSCRIBE(8, true),
         SUBACK(9),
@@ -61,26 +53,44 @@ abstract public class Message {
         }
     }
 
+    /**
+     * 본문을 해석하여 메시지를 만드는 함수입니다. 메시지 클래스의 (byte[], Integer, Integer) 생성자를 참조로 넘길 수 있습니다.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        /**
+         * 본문을 해석하여 메시지를 만듭니다.
+         *
+         * @param bytes  가변 헤더와 페이로드를 담은 바이트 배열
+         * @param offset 본문이 시작되는 위치
+         * @param length 본문 길이
+         * @return 생성된 메시지
+         * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+         */
+        Message create(byte[] bytes, Integer offset, Integer length);
+    }
+
     // TODO: 각 필드에 초기값이 필요한 경우 초기화합니다.
-    private static final Map<Type, Class<? extends Message>> messageMap = new ConcurrentHashMap<>();
+    /*
+     * 타입별 메시지 생성 함수. 기본 메시지는 여기서 직접 등록하여, 시작할 때 클래스패스를 검색하지 않습니다.
+     */
+    private static final Map<Type, Factory> factories = new ConcurrentHashMap<>();
 
     static {
-        /*
-         * Reflections을 이용해 메시지 클래스를 검색해 등록합니다.
-         */
-        Reflections reflections = new Reflections(Message.class.getPackageName());
-        Set<Class<? extends Message>> classes = reflections.getSubTypesOf(Message.class);
-
-        for (Class<? extends Message> clazz : classes) {
-            try {
-                if (Message.class != clazz) {
-                    messageMap.put(Type.valueOf(clazz.getSimpleName()), clazz);
-                }
-
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
+        factories.put(Type.CONNECT, CONNECT::new);
+        factories.put(Type.CONNACK, CONNACK::new);
+        factories.put(Type.PUBLISH, PUBLISH::new);
+        factories.put(Type.PUBACK, PUBACK::new);
+        factories.put(Type.PUBREC, PUBREC::new);
+        factories.put(Type.PUBREL, PUBREL::new);
+        factories.put(Type.PUBCOMP, PUBCOMP::new);
+        factories.put(Type.SUBSCRIBE, SUBSCRIBE::new);
+        factories.put(Type.SUBACK, SUBACK::new);
+        factories.put(Type.UNSUBSCRIBE, UNSUBSCRIBE::new);
+        factories.put(Type.UNSUBACK, UNSUBACK::new);
+        factories.put(Type.PINGREQ, PINGREQ::new);
+        factories.put(Type.PINGRESP, PINGRESP::new);
+        factories.put(Type.DISCONNECT, DISCONNECT::new);
     }
 
     Type type;
@@ -225,10 +235,8 @@ abstract public class Message {
                 | (type.applyQoS() ? (getQoS() << 1) : 0)
                 | ((isRetained()) ? 1 : 0)));
 
-        // 2. Remaining Length (2바이트 고정)
-        for (int i = remainingLengthFieldSize - 1; i >= 0; i--) {
-            buffer.put(remainingLengthFields[i]);
-        }
+        // 2. Remaining Length (하위 7비트 그룹부터 기록)
+        buffer.put(remainingLengthFields, 0, remainingLengthFieldSize);
 
         return buffer;
     }
@@ -251,41 +259,16 @@ abstract public class Message {
      */
     public static Message parsing(byte[] bytes) {
         // TODO: 인수를 검증하고, 메시지를 생성합니다.
-        if (bytes == null || bytes.length < 3) {
+        if (bytes == null || bytes.length < 2) {
             throw new IllegalArgumentException();
         }
 
-        Type type = Message.Type.values()[(bytes[0] >> 4) & 0x0F];
-        log.debug("type:{}", type);
-
-        // for (Entry<Type, Class<? extends Message>> entry : messageMap.entrySet()) {
-        //     log.debug("type:{} / class:{}", entry.getKey(), entry.getValue());
-        // }
-
-        if (!messageMap.containsKey(type)) {
-            log.warn("유효하지 않은 메시지를 수신 하였습니다: {}", Arrays.toString(bytes));
-            throw new IllegalArgumentException("유효하지 않은 메시지를 수신 하였습니다.");
-        }
-
-        try {
-            log.debug("messageMap.get(type):", messageMap.get(type));
-
-            Class<? extends Message> clazz = messageMap.get(type);
-            Constructor<? extends Message> constructor = clazz.getDeclaredConstructor(
-                    byte[].class);
-            log.debug("class: ", constructor);
-
-            return constructor.newInstance(bytes);
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
-
-            log.warn(e.getMessage());
-            throw new IllegalArgumentException(e.getMessage());
-        }
+        return parsing(bytes, 0, bytes.length);
     }
 
     /**
      * 주어진 바이트 배열을 파싱하여 메시지를 생성합니다.
+     * 고정 헤더의 타입 값으로 메시지 클래스를 선택하며, 프레임은 MessageDecoder와 같은 규칙으로 해석합니다.
      *
      * @param bytes  바이트 배열
      * @param offset 오프셋
@@ -294,42 +277,69 @@ abstract public class Message {
      * @throws IllegalArgumentException 잘못된 인자가 전달된 경우
      */
     public static Message parsing(byte[] bytes, int offset, int length) {
-        if ((bytes == null) || (length < 2) || (bytes.length < offset + length)) {
-            throw new IllegalArgumentException();
-        }
+        return MessageDecoder.decodeFrame(bytes, offset, length);
+    }
 
-        int remainingLengthFieldSize = 0;
-        int remainingLength = 0;
-        /*
-         * TODO: remaining length와 remaining length를 위해 사용된 바이트 수를 계산합니다.
-         */
-        
+    /**
+     * 메시지 타입의 생성 함수를 등록합니다. 모든 메시지 타입에 기본 생성 함수가 등록되어 있으므로,
+     * 기본 메시지를 다른 클래스로 해석하려면 {@link #register(Type, Factory, boolean)}로 교체해야 합니다.
+     *
+     * @param type    메시지 타입
+     * @param factory 본문을 해석하여 메시지를 만드는 함수
+     * @throws IllegalArgumentException type이나 factory가 null이거나, 등록할 수 없는 타입인 경우
+     * @throws IllegalStateException    이미 생성 함수가 등록된 타입인 경우
+     */
+    public static void register(Type type, Factory factory) {
+        register(type, factory, false);
+    }
 
-        if (length < (1 + remainingLengthFieldSize + remainingLength)) {
-            throw new IllegalArgumentException();
+    /**
+     * 메시지 타입의 생성 함수를 등록하거나 교체합니다.
+     * 등록한 생성 함수는 기본 메시지와 같은 표에 들어가므로 parsing()과 MessageDecoder가 그대로 사용합니다.
+     * PUBLISH는 MessageDecoder가 연결의 토픽 테이블과 버퍼 풀을 넘겨 직접 생성하므로 교체할 수 없습니다.
+     *
+     * @param type    메시지 타입
+     * @param factory 본문을 해석하여 메시지를 만드는 함수
+     * @param replace 이미 등록된 생성 함수를 교체하려면 true
+     * @return 교체된 이전 생성 함수. 등록된 함수가 없었으면 null
+     * @throws IllegalArgumentException type이나 factory가 null이거나, UNKNOWN, RESERVED, PUBLISH인 경우
+     * @throws IllegalStateException    replace가 false인데 이미 생성 함수가 등록된 타입인 경우
+     */
+    public static Factory register(Type type, Factory factory, boolean replace) {
+        if ((type == null) || (factory == null)) {
+            throw new IllegalArgumentException("type과 factory는 null일 수 없습니다.");
+        }
+        if ((type == Type.UNKNOWN) || (type == Type.RESERVED) || (type == Type.PUBLISH)) {
+            throw new IllegalArgumentException("생성 함수를 등록할 수 없는 메시지 타입입니다: " + type);
+        }
+        if (replace) {
+            return factories.put(type, factory);
+        }
+        if (factories.putIfAbsent(type, factory) != null) {
+            throw new IllegalStateException("이미 등록된 메시지 타입입니다: " + type);
         }
 
-        Type type = Message.Type.values()[(bytes[offset] >> 4) & 0x0F];
+        return null;
+    }
 
-        if (!messageMap.containsKey(type)) {
-            log.warn("유효하지 않은 메시지를 수신 하였습니다: {}", Arrays.toString(bytes));
+    /**
+     * 타입에 등록된 생성 함수로 메시지를 생성합니다. MessageDecoder는 PUBLISH를 제외한 모든 타입을 이 함수로 생성합니다.
+     *
+     * @param type   메시지 타입
+     * @param bytes  가변 헤더와 페이로드를 담은 바이트 배열
+     * @param offset 본문이 시작되는 위치
+     * @param length 본문 길이
+     * @return 생성된 메시지
+     * @throws IllegalArgumentException 등록되지 않은 타입이거나 생성에 실패한 경우
+     */
+    static Message create(Type type, byte[] bytes, int offset, int length) {
+        Factory factory = factories.get(type);
+        if (factory == null) {
+            log.warn("유효하지 않은 메시지를 수신 하였습니다: {}", type);
             throw new IllegalArgumentException("유효하지 않은 메시지를 수신 하였습니다.");
         }
 
-        try {
-            Class<? extends Message> clazz = messageMap.get(type);
-            Constructor<? extends Message> constructor = clazz.getDeclaredConstructor(
-                    byte[].class,
-                    Integer.class,
-                    Integer.class);
-
-            return constructor.newInstance(bytes, offset + remainingLengthFieldSize + 1, remainingLength);
-        } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-                | NoSuchMethodException | SecurityException e) {
-
-            log.warn(e.getMessage());
-            throw new IllegalArgumentException(e.getMessage());
-        }
+        return factory.create(bytes, offset, length);
     }
 
     /**
@@ -0,0 +1,261 @@
+package com.nhnacademy.smqtt.message;
+
+import java.nio.ByteBuffer;
+
+import com.nhnacademy.smqtt.exception.InvalidMessageFormatException;
+import com.nhnacademy.smqtt.utils.IntObjectMap;
+
+/**
+ * 바이트 스트림에서 MQTT 프레임을 점진적으로 분리하여 메시지로 변환하는 디코더입니다.
+ *
+ * <p>
+ * 읽기 버퍼에 프레임의 일부만 도착한 경우 고정 헤더와 Remaining Length, 본문을 읽은 만큼 상태로 보관하고,
+ * 다음 호출에서 이어서 처리합니다. 프레임 전체가 힙 버퍼 안에 있으면 버퍼의 배열에서 바로 메시지를 만들고,
+ * 그렇지 않은 경우에만 재사용하는 본문 배열로 복사합니다.
+ * 연결마다 하나씩 사용하며, 스레드 안전하지 않습니다.
+ * </p>
+ *
+ * <p>
+ * 토픽 intern 테이블을 주고 생성하면 PUBLISH의 토픽을 테이블의 문자열로 해석하고,
+ * 연결이 정의한 토픽 별칭을 기억하여 별칭만 담긴 PUBLISH의 토픽을 복원합니다.
+ * </p>
+ */
+public class MessageDecoder {
+    /** MQTT 3.1.1에서 허용하는 Remaining Length의 최댓값입니다. */
+    public static final int MAX_REMAINING_LENGTH = 268_435_455;
+    private static final int INITIAL_BODY_SIZE = 256;
+    private static final Message.Type[] TYPES = Message.Type.values();
+
+    private enum State {
+        HEADER,
+        LENGTH,
+        BODY
+    }
+
+    private final int maxRemainingLength;
+    private final TopicTable topics;
+    private final IntObjectMap<String> aliases;
+    private final PayloadPool pool;
+    private State state = State.HEADER;
+    private int header;
+    private int remainingLength;
+    private int multiplier;
+    private int lengthFieldCount;
+    private byte[] body = new byte[INITIAL_BODY_SIZE];
+    private int bodyPosition;
+
+    /**
+     * 프로토콜 최대 길이까지 허용하는 디코더를 생성합니다.
+     */
+    public MessageDecoder() {
+        this(MAX_REMAINING_LENGTH);
+    }
+
+    /**
+     * MessageDecoder 생성자.
+     *
+     * @param maxRemainingLength 허용할 Remaining Length의 최댓값
+     * @throws IllegalArgumentException maxRemainingLength가 0보다 작거나 프로토콜 최댓값을 넘는 경우
+     */
+    public MessageDecoder(int maxRemainingLength) {
+        this(maxRemainingLength, null);
+    }
+
+    /**
+     * 토픽 intern 테이블을 사용하는 디코더를 생성합니다. 토픽 별칭을 사용하는 PUBLISH도 해석합니다.
+     *
+     * @param maxRemainingLength 허용할 Remaining Length의 최댓값
+     * @param topics             여러 연결이 공유하는 토픽 intern 테이블. null이면 토픽 별칭도 허용하지 않습니다.
+     * @throws IllegalArgumentException maxRemainingLength가 0보다 작거나 프로토콜 최댓값을 넘는 경우
+     */
+    public MessageDecoder(int maxRemainingLength, TopicTable topics) {
+        this(maxRemainingLength, topics, null);
+    }
+
+    /**
+     * 토픽 intern 테이블과 본문 버퍼 풀을 사용하는 디코더를 생성합니다.
+     * PUBLISH 본문은 풀의 direct 버퍼에 담기므로, 메시지를 다 쓰면 본문의 참조를 돌려주어야 합니다.
+     *
+     * @param maxRemainingLength 허용할 Remaining Length의 최댓값
+     * @param topics             여러 연결이 공유하는 토픽 intern 테이블. null이면 토픽 별칭도 허용하지 않습니다.
+     * @param pool               PUBLISH 본문을 담을 버퍼 풀. null이면 힙 배열에 담습니다.
+     * @throws IllegalArgumentException maxRemainingLength가 0보다 작거나 프로토콜 최댓값을 넘는 경우
+     */
+    public MessageDecoder(int maxRemainingLength, TopicTable topics, PayloadPool pool) {
+        if ((maxRemainingLength < 0) || (maxRemainingLength > MAX_REMAINING_LENGTH)) {
+            throw new IllegalArgumentException("maxRemainingLength 범위가 올바르지 않습니다: " + maxRemainingLength);
+        }
+        this.maxRemainingLength = maxRemainingLength;
+        this.topics = topics;
+        this.aliases = (topics != null) ? new IntObjectMap<>() : null;
+        this.pool = pool;
+    }
+
+    /**
+     * 버퍼에서 프레임 하나가 완성될 때까지 읽어 메시지를 반환합니다.
+     * 완성된 프레임 뒤의 바이트는 버퍼에 남겨 두므로, null이 반환될 때까지 반복해서 호출합니다.
+     *
+     * @param in 읽기 모드(flip)의 입력 버퍼
+     * @return 완성된 메시지. 프레임이 아직 완성되지 않은 경우 null
+     * @throws IllegalArgumentException 메시지 타입이나 Remaining Length가 올바르지 않은 경우
+     * @throws InvalidMessageFormatException PUBLISH의 QoS가 3인 경우
+     */
+    public Message decode(ByteBuffer in) {
+        while (in.hasRemaining()) {
+            switch (state) {
+                case HEADER: {
+                    header = in.get() & 0xFF;
+                    validateHeader(header);
+
+                    remainingLength = 0;
+                    multiplier = 1;
+                    lengthFieldCount = 0;
+                    state = State.LENGTH;
+                    break;
+                }
+
+                case LENGTH: {
+                    byte encodedByte = in.get();
+                    remainingLength += (encodedByte & 0x7F) * multiplier;
+                    multiplier <<= 7;
+                    lengthFieldCount++;
+
+                    if ((encodedByte & 0x80) != 0) {
+                        if (lengthFieldCount >= 4) {
+                            reset();
+                            throw new IllegalArgumentException("Remaining Length 필드가 올바르지 않습니다.");
+                        }
+                        break;
+                    }
+
+                    if (remainingLength > maxRemainingLength) {
+                        int length = remainingLength;
+                        reset();
+                        throw new IllegalArgumentException("허용된 프레임 크기를 초과했습니다: " + length);
+                    }
+
+                    if (remainingLength == 0) {
+                        state = State.HEADER;
+                        return create(header, body, 0, 0, topics, aliases, pool);
+                    }
+
+                    bodyPosition = 0;
+                    state = State.BODY;
+                    break;
+                }
+
+                case BODY: {
+                    if ((bodyPosition == 0) && in.hasArray() && (in.remaining() >= remainingLength)) {
+                        int start = in.arrayOffset() + in.position();
+                        in.position(in.position() + remainingLength);
+                        state = State.HEADER;
+
+                        return create(header, in.array(), start, remainingLength, topics, aliases, pool);
+                    }
+
+                    if (body.length < remainingLength) {
+                        body = new byte[Math.max(remainingLength, body.length * 2)];
+                    }
+
+                    int count = Math.min(in.remaining(), remainingLength - bodyPosition);
+                    in.get(body, bodyPosition, count);
+                    bodyPosition += count;
+
+                    if (bodyPosition == remainingLength) {
+                        state = State.HEADER;
+                        return create(header, body, 0, remainingLength, topics, aliases, pool);
+                    }
+                    break;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 진행 중인 프레임 상태를 버립니다.
+     */
+    public void reset() {
+        state = State.HEADER;
+        bodyPosition = 0;
+    }
+
+    /**
+     * 바이트 배열 안의 완성된 프레임 하나를 메시지로 변환합니다.
+     *
+     * @param bytes  바이트 배열
+     * @param offset 프레임이 시작되는 위치
+     * @param length 프레임이 차지하는 최대 길이
+     * @return 생성된 메시지
+     * @throws IllegalArgumentException 프레임이 완성되지 않았거나 형식이 올바르지 않은 경우
+     */
+    static Message decodeFrame(byte[] bytes, int offset, int length) {
+        if ((bytes == null) || (offset < 0) || (length < 2) || (bytes.length < offset + length)) {
+            throw new IllegalArgumentException();
+        }
+
+        int frameHeader = bytes[offset] & 0xFF;
+        validateHeader(frameHeader);
+
+        int frameRemainingLength = 0;
+        int frameMultiplier = 1;
+        int fieldCount = 0;
+        byte encodedByte;
+        do {
+            if ((fieldCount >= 4) || (1 + fieldCount >= length)) {
+                throw new IllegalArgumentException("Remaining Length 필드가 올바르지 않습니다.");
+            }
+
+            encodedByte = bytes[offset + 1 + fieldCount++];
+            frameRemainingLength += (encodedByte & 0x7F) * frameMultiplier;
+            frameMultiplier <<= 7;
+        } while ((encodedByte & 0x80) != 0);
+
+        if (length < (1 + fieldCount + frameRemainingLength)) {
+            throw new IllegalArgumentException();
+        }
+
+        return create(frameHeader, bytes, offset + 1 + fieldCount, frameRemainingLength, null, null, null);
+    }
+
+    private static void validateHeader(int header) {
+        int type = (header >> 4) & 0x0F;
+        if ((type == Message.Type.UNKNOWN.getValue()) || (type == Message.Type.RESERVED.getValue())) {
+            throw new IllegalArgumentException("유효하지 않은 메시지를 수신 하였습니다.");
+        }
+        // MQTT 3.1.1에서 PUBLISH의 QoS 3은 잘못된 패킷이므로 본문을 읽기 전에 거부하여 연결을 닫게 합니다.
+        if ((type == Message.Type.PUBLISH.getValue()) && (((header >> 1) & 0x03) == 3)) {
+            throw new InvalidMessageFormatException("PUBLISH의 QoS는 3일 수 없습니다.");
+        }
+    }
+
+    /**
+     * 고정 헤더의 타입 값에 따라 메시지를 생성합니다.
+     * PUBLISH는 연결의 토픽 테이블, 별칭, 버퍼 풀을 사용하므로 직접 생성하고,
+     * 나머지 타입은 Message에 등록된 생성 함수 하나의 표에서 찾아 생성합니다.
+     *
+     * @param header  고정 헤더의 첫 번째 바이트
+     * @param body    가변 헤더와 페이로드를 담은 배열
+     * @param offset  본문이 시작되는 위치
+     * @param length  본문 길이 (Remaining Length)
+     * @param topics  토픽 intern 테이블. 없으면 null
+     * @param aliases 연결의 토픽 별칭 목록. 없으면 null
+     * @param pool    PUBLISH 본문을 담을 버퍼 풀. 없으면 null
+     * @return 생성된 메시지
+     */
+    private static Message create(int header, byte[] body, int offset, int length, TopicTable topics,
+            IntObjectMap<String> aliases, PayloadPool pool) {
+        int type = (header >> 4) & 0x0F;
+        if (type != Message.Type.PUBLISH.getValue()) {
+            return Message.create(TYPES[type], body, offset, length);
+        }
+
+        PUBLISH publish = new PUBLISH(body, offset, length, topics, aliases, pool);
+        publish.duplicated = (header & 0x08) != 0;
+        publish.qos = (header >> 1) & 0x03;
+        publish.retained = (header & 0x01) != 0;
+
+        return publish;
+    }
+}
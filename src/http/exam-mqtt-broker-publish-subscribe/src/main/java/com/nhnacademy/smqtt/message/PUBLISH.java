@@ -1,18 +1,24 @@
 package com.nhnacademy.smqtt.message;
 
-import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
-import com.nhnacademy.smqtt.client.Client;
+import com.nhnacademy.smqtt.utils.IntObjectMap;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class PUBLISH extends Message {
+    /** 토픽 별칭의 최댓값입니다. 최상위 비트는 별칭 정의 여부를 나타냅니다. */
+    public static final int MAX_TOPIC_ALIAS = 0x7FFF;
+    private static final int ALIAS_DEFINITION = 0x8000;
+
     private final String topic;
-    private final String message;
-    private final int packetId;
+    private final Payload payload;
+    private int packetId;
+    private int topicAlias;
+    private boolean aliasDefinition;
 
     /**
      * PUBLISH 메시지를 직접 생성하는 생성자.
@@ -28,8 +34,24 @@ public class PUBLISH extends Message {
             throw new IllegalArgumentException("Topic은 비어 있을 수 없습니다.");
         }
         this.topic = topic;
-        this.message = message;
-        packetId = Client.getPacketId();
+        this.payload = Payload.of(message);
+    }
+
+    /**
+     * 바이너리 본문으로 PUBLISH 메시지를 직접 생성하는 생성자. 본문은 복사하지 않습니다.
+     *
+     * @param topic   메시지가 게시될 주제. 주제는 null이거나 비어 있을 수 없습니다.
+     * @param payload 게시할 메시지 본문.
+     * @throws IllegalArgumentException 주제가 비어 있거나 본문이 null인 경우 발생합니다.
+     */
+    public PUBLISH(String topic, byte[] payload) {
+        super(Type.PUBLISH);
+
+        if (topic == null || topic.isEmpty()) {
+            throw new IllegalArgumentException("Topic은 비어 있을 수 없습니다.");
+        }
+        this.topic = topic;
+        this.payload = Payload.wrap(payload);
     }
 
     /**
@@ -43,41 +65,94 @@ public class PUBLISH extends Message {
      *                                  length보다 작을 경우 발생합니다.
      */
     public PUBLISH(byte[] data, Integer offset, Integer length) {
+        this(data, offset, length, null, null, null);
+    }
+
+    /**
+     * 바이트 배열을 받아서 PUBLISH 객체를 생성하는 생성자.
+     * 토픽은 intern 테이블에 등록된 문자열을 사용하고, 토픽 별칭은 연결의 별칭 목록으로 해석합니다.
+     *
+     * @param data    바이트 배열로 표현된 PUBLISH 메시지
+     * @param offset  바이트 배열에서 메시지가 시작되는 위치
+     * @param length  메시지의 길이
+     * @param topics  토픽 intern 테이블. null이면 매번 새 문자열을 만듭니다.
+     * @param aliases 연결의 토픽 별칭 목록. null이면 토픽 별칭을 허용하지 않습니다.
+     * @param pool    본문을 담을 버퍼 풀. null이면 본문을 힙 배열에 복사합니다.
+     * @throws IllegalArgumentException 형식이 올바르지 않거나, 정의되지 않은 토픽 별칭을 사용한 경우
+     */
+    PUBLISH(byte[] data, int offset, int length, TopicTable topics, IntObjectMap<String> aliases,
+            PayloadPool pool) {
         super(Type.PUBLISH);
 
         // TODO: 인수를 검증하고, 패킷을 분석하여 각 필드를 채워 줍니다.
         if ((data == null) || (offset < 0) || (length < 2) || (data.length < offset + length)) {
             throw new IllegalArgumentException("PUBLISH 메시지는 4바이트여야 합니다.");
         }
-        
-        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
-
-        try {
-            // 1. Topic
-            byte[] topicBytes = new byte[buffer.getShort() & 0xFFFF];
-            buffer.get(topicBytes);
-            
-            this.topic = new String(topicBytes);
-            log.debug("topic:{}", this.topic);
 
-            // 2. 패킷 ID
-            this.packetId = buffer.getShort();
-            log.debug("packetId:{}", this.packetId);
+        int end = offset + length;
+        int position = offset;
 
-            // 3. 메시지
-            int position = buffer.position();
+        // 1. Topic (길이가 0이면 토픽 별칭)
+        int topicLength = readShort(data, position, end);
+        position += 2;
+        if (topicLength == 0) {
+            if (aliases == null) {
+                throw new IllegalArgumentException("토픽 별칭을 사용할 수 없는 연결입니다.");
+            }
 
-            byte[] messageBytes = new byte[data.length-position];
+            int alias = readShort(data, position, end);
+            position += 2;
+            this.topicAlias = alias & MAX_TOPIC_ALIAS;
+            if (topicAlias == 0) {
+                throw new IllegalArgumentException("토픽 별칭은 1 이상이어야 합니다.");
+            }
 
-            for (int i = 0; i < data.length-position; i++) {
-                messageBytes[i] = buffer.get();
+            if ((alias & ALIAS_DEFINITION) != 0) {
+                topicLength = readShort(data, position, end);
+                position += 2;
+                if ((topicLength == 0) || (position + topicLength > end)) {
+                    throw new IllegalArgumentException("토픽 별칭의 토픽이 올바르지 않습니다.");
+                }
+                this.topic = intern(topics, data, position, topicLength);
+                position += topicLength;
+                aliases.put(topicAlias, topic);
+            } else {
+                this.topic = aliases.get(topicAlias);
+                if (topic == null) {
+                    throw new IllegalArgumentException("정의되지 않은 토픽 별칭입니다: " + topicAlias);
+                }
+            }
+        } else {
+            if (position + topicLength > end) {
+                throw new IllegalArgumentException();
             }
+            this.topic = intern(topics, data, position, topicLength);
+            position += topicLength;
+        }
+        log.debug("topic:{}", this.topic);
+
+        // 2. 패킷 ID
+        this.packetId = readShort(data, position, end);
+        position += 2;
+        log.debug("packetId:{}", this.packetId);
+
+        // 3. 메시지 (해석하지 않고 바이트 그대로 보관)
+        this.payload = (pool != null) ? pool.allocate(data, position, end - position)
+                : Payload.wrap(Arrays.copyOfRange(data, position, end));
+        log.debug("payload:{} bytes", this.payload.size());
+    }
 
-            this.message = new String(messageBytes);
-            log.debug("message:{}", this.message);
-        } catch (BufferUnderflowException ignore) {
+    private static int readShort(byte[] data, int position, int end) {
+        if (position + 2 > end) {
             throw new IllegalArgumentException();
         }
+
+        return ((data[position] & 0xFF) << 8) | (data[position + 1] & 0xFF);
+    }
+
+    private static String intern(TopicTable topics, byte[] data, int offset, int length) {
+        return (topics != null) ? topics.intern(data, offset, length)
+                : new String(data, offset, length, StandardCharsets.UTF_8);
     }
 
     /**
@@ -100,12 +175,22 @@ public class PUBLISH extends Message {
     }
 
     /**
-     * 메시지 내용을 반환합니다.
+     * 메시지 내용을 UTF-8 문자열로 반환합니다.
      *
      * @return message 게시할 메시지 내용.
      */
     public String getMessage() {
-        return message;
+        return payload.toString();
+    }
+
+    /**
+     * 메시지 본문을 바이트 그대로 반환합니다.
+     * 풀의 버퍼를 사용하는 본문이면, 본문을 계속 보관하려는 쪽이 retain()으로 참조를 늘려야 합니다.
+     *
+     * @return payload 게시할 메시지 본문.
+     */
+    public Payload getPayload() {
+        return payload;
     }
 
     /**
@@ -117,6 +202,45 @@ public class PUBLISH extends Message {
         return packetId;
     }
 
+    /**
+     * 패킷 식별자를 설정합니다. 직접 생성한 메시지의 식별자는 0이며, QoS 1, 2로 전송할 때 연결의 할당기에서 받은 식별자를 설정합니다.
+     *
+     * @param packetId 패킷 식별자 (0부터 65535까지)
+     * @throws IllegalArgumentException packetId가 범위를 벗어난 경우
+     */
+    public void setPacketId(int packetId) {
+        if ((packetId < 0) || (packetId > 0xFFFF)) {
+            throw new IllegalArgumentException("packetId는 0부터 65535 사이여야 합니다.");
+        }
+        this.packetId = packetId;
+    }
+
+    /**
+     * 토픽 대신 보낼 토픽 별칭을 설정합니다.
+     * 별칭을 정의하는 메시지는 토픽과 별칭을 함께 보내고, 이후 메시지는 별칭만 보냅니다.
+     * 토픽 별칭은 이 저장소의 브로커만 해석하는 확장이므로, 브로커가 지원하는 경우에만 사용합니다.
+     *
+     * @param topicAlias 토픽 별칭 (1부터 MAX_TOPIC_ALIAS까지, 0이면 사용하지 않음)
+     * @param definition 이 메시지로 별칭을 정의하는지 여부
+     * @throws IllegalArgumentException topicAlias가 범위를 벗어난 경우
+     */
+    public void setTopicAlias(int topicAlias, boolean definition) {
+        if ((topicAlias < 0) || (topicAlias > MAX_TOPIC_ALIAS)) {
+            throw new IllegalArgumentException("topicAlias는 0부터 " + MAX_TOPIC_ALIAS + " 사이여야 합니다.");
+        }
+        this.topicAlias = topicAlias;
+        this.aliasDefinition = definition;
+    }
+
+    /**
+     * 토픽 별칭을 반환합니다.
+     *
+     * @return 토픽 별칭. 사용하지 않으면 0
+     */
+    public int getTopicAlias() {
+        return topicAlias;
+    }
+
     /**
      * 현재 객체를 MQTT PUBLISH 메시지 형식의 바이트 배열로 변환합니다.
      * 이 메서드는 PUBLISH 메시지를 전송하기 위해 사용됩니다.
@@ -125,11 +249,21 @@ public class PUBLISH extends Message {
      */
     @Override
     public byte[] toByteArray() {
-        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
-        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        byte[] topicBytes = ((topicAlias == 0) || aliasDefinition) ? topic.getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        ByteBuffer messageBytes = payload.buffer();
 
-        ByteBuffer buffer = getByteBuffer(2 + topicBytes.length + 2 + messageBytes.length);
-        buffer.putShort((short) topicBytes.length);
+        int aliasLength = (topicAlias == 0) ? 0 : (aliasDefinition ? 4 : 2);
+        ByteBuffer buffer = getByteBuffer(2 + aliasLength + topicBytes.length + 2 + messageBytes.remaining());
+        if (topicAlias == 0) {
+            buffer.putShort((short) topicBytes.length);
+        } else {
+            buffer.putShort((short) 0);
+            buffer.putShort((short) (aliasDefinition ? (topicAlias | ALIAS_DEFINITION) : topicAlias));
+            if (aliasDefinition) {
+                buffer.putShort((short) topicBytes.length);
+            }
+        }
         buffer.put(topicBytes);
         buffer.putShort((short) packetId);
         buffer.put(messageBytes);
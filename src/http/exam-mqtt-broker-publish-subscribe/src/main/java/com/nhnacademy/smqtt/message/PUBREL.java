@@ -19,6 +19,8 @@ public class PUBREL extends Message {
     public PUBREL(int packetId) {
         super(Type.PUBREL);
         this.packetId = packetId;
+        // 고정 헤더의 예약 비트는 0010이어야 합니다.
+        this.qos = 1;
     }
 
     /**
@@ -0,0 +1,196 @@
+package com.nhnacademy.smqtt.message;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PUBLISH 메시지의 본문을 해석하지 않은 바이트 그대로 보관하는 클래스입니다.
+ *
+ * <p>
+ * 본문은 힙 배열이나 PayloadPool에서 빌린 direct 버퍼에 들어 있으며, 참조 카운트로 수명을 관리합니다.
+ * 만들 때 참조 카운트는 1이고, 본문을 보관하는 쪽마다 retain()으로 늘렸다가 다 쓰면 release()로 줄입니다.
+ * 카운트가 0이 되면 빌린 버퍼를 풀에 돌려주므로, 그 뒤에는 본문에 접근할 수 없습니다.
+ * 힙 배열로 만든 본문은 돌려줄 풀이 없으므로 해제하지 않아도 가비지 컬렉터가 회수합니다.
+ * </p>
+ *
+ * <p>
+ * 기존 코드를 위해 본문을 UTF-8 문자열로 보는 toString()을 제공하며, 처음 호출할 때 한 번만 변환합니다.
+ * </p>
+ */
+public final class Payload {
+    /** 길이가 0인 본문입니다. */
+    public static final Payload EMPTY = new Payload(ByteBuffer.allocate(0), null, "");
+
+    private final ByteBuffer chunk;
+    private final ByteBuffer buffer;
+    private final PayloadPool pool;
+    private final AtomicInteger refCount = new AtomicInteger(1);
+    private volatile String text;
+
+    /**
+     * Payload 생성자.
+     *
+     * @param buffer 본문을 담은 버퍼. position부터 limit까지가 본문입니다.
+     * @param pool   해제할 때 버퍼를 돌려줄 풀. 없으면 null
+     * @param text   본문의 문자열 표현. 모르면 null
+     */
+    Payload(ByteBuffer buffer, PayloadPool pool, String text) {
+        this.chunk = buffer;
+        this.buffer = buffer.slice().asReadOnlyBuffer();
+        this.pool = pool;
+        this.text = text;
+    }
+
+    /**
+     * 바이트 배열을 복사하지 않고 본문으로 사용합니다.
+     *
+     * @param bytes 본문 바이트
+     * @return 본문
+     * @throws IllegalArgumentException bytes가 null인 경우
+     */
+    public static Payload wrap(byte[] bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("bytes는 null일 수 없습니다.");
+        }
+
+        return new Payload(ByteBuffer.wrap(bytes), null, null);
+    }
+
+    /**
+     * 문자열을 UTF-8로 인코딩하여 본문으로 사용합니다.
+     *
+     * @param text 본문 문자열. null이면 빈 본문
+     * @return 본문
+     */
+    public static Payload of(String text) {
+        if ((text == null) || text.isEmpty()) {
+            return EMPTY;
+        }
+
+        return new Payload(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), null, text);
+    }
+
+    /**
+     * 본문 크기를 반환합니다.
+     *
+     * @return 바이트 수
+     */
+    public int size() {
+        return buffer.remaining();
+    }
+
+    /**
+     * 본문을 읽기 전용 버퍼로 반환합니다. 반환된 버퍼는 호출할 때마다 새로 만든 뷰이므로 위치를 바꾸어도 됩니다.
+     * 본문을 복사하지 않으므로, 버퍼를 다 쓸 때까지 참조를 유지해야 합니다.
+     *
+     * @return 본문 버퍼
+     * @throws IllegalStateException 이미 해제된 경우
+     */
+    public ByteBuffer buffer() {
+        ensureAccessible();
+
+        return buffer.duplicate();
+    }
+
+    /**
+     * 본문을 새 바이트 배열로 복사합니다.
+     *
+     * @return 본문 바이트
+     * @throws IllegalStateException 이미 해제된 경우
+     */
+    public byte[] toByteArray() {
+        ByteBuffer view = buffer();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * 참조 카운트를 하나 늘립니다.
+     *
+     * @return 이 본문
+     * @throws IllegalStateException 이미 해제된 경우
+     */
+    public Payload retain() {
+        if (this == EMPTY) {
+            return this;
+        }
+
+        int count;
+        do {
+            count = refCount.get();
+            if (count <= 0) {
+                throw new IllegalStateException("이미 해제된 본문입니다.");
+            }
+        } while (!refCount.compareAndSet(count, count + 1));
+
+        return this;
+    }
+
+    /**
+     * 참조 카운트를 하나 줄입니다. 0이 되면 버퍼를 풀에 돌려줍니다.
+     *
+     * @return 이번 호출로 해제되었으면 true
+     * @throws IllegalStateException 이미 해제된 경우
+     */
+    public boolean release() {
+        if (this == EMPTY) {
+            return false;
+        }
+
+        int count = refCount.decrementAndGet();
+        if (count < 0) {
+            refCount.incrementAndGet();
+            throw new IllegalStateException("이미 해제된 본문입니다.");
+        }
+        if ((count == 0) && (pool != null)) {
+            pool.recycle(chunk);
+        }
+
+        return count == 0;
+    }
+
+    /**
+     * 현재 참조 카운트를 반환합니다.
+     *
+     * @return 참조 카운트
+     */
+    public int refCount() {
+        return refCount.get();
+    }
+
+    /**
+     * 풀에서 빌린 direct 버퍼를 사용하는지 확인합니다.
+     *
+     * @return 풀의 버퍼이면 true
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    private void ensureAccessible() {
+        if ((this != EMPTY) && (refCount.get() <= 0)) {
+            throw new IllegalStateException("이미 해제된 본문입니다.");
+        }
+    }
+
+    /**
+     * 본문을 UTF-8 문자열로 반환합니다.
+     *
+     * @return 본문 문자열
+     * @throws IllegalStateException 문자열로 변환하기 전에 해제된 경우
+     */
+    @Override
+    public String toString() {
+        String current = text;
+        if (current == null) {
+            ByteBuffer view = buffer();
+            current = StandardCharsets.UTF_8.decode(view).toString();
+            text = current;
+        }
+
+        return current;
+    }
+}
@@ -0,0 +1,135 @@
+package com.nhnacademy.smqtt.message;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PUBLISH 본문을 담을 direct 버퍼를 재사용하는 풀입니다.
+ *
+ * <p>
+ * 버퍼는 256바이트부터 64KB까지 2의 거듭제곱 크기로 나누어 보관하며, 본문 크기보다 크거나 같은 가장 작은
+ * 크기의 버퍼를 빌려 줍니다. 빌린 버퍼는 Payload의 참조 카운트가 0이 될 때 돌아옵니다.
+ * 풀에 보관하는 버퍼의 총 크기가 maxPooledBytes에 이르면 돌아온 버퍼를 버리고, 64KB보다 큰 본문은
+ * 풀을 거치지 않고 힙 배열에 담습니다.
+ * </p>
+ *
+ * <p>
+ * 해제되지 않은 본문의 버퍼는 풀로 돌아오지 않을 뿐 가비지 컬렉터가 회수하므로, 참조를 놓쳐도 메모리가 새지는 않습니다.
+ * </p>
+ */
+public final class PayloadPool {
+    public static final int DEFAULT_MAX_POOLED_BYTES = 32 * 1024 * 1024;
+    static final int MIN_CHUNK_SIZE = 256;
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_CHUNK_SIZE);
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_CHUNK_SIZE) - MIN_SHIFT + 1;
+
+    private final Queue<ByteBuffer>[] chunks;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final LongAdder borrowedBytes = new LongAdder();
+    private final long maxPooledBytes;
+
+    /**
+     * 기본 크기의 풀을 생성합니다.
+     */
+    public PayloadPool() {
+        this(DEFAULT_MAX_POOLED_BYTES);
+    }
+
+    /**
+     * PayloadPool 생성자.
+     *
+     * @param maxPooledBytes 풀에 보관할 버퍼의 최대 총 크기 (바이트)
+     * @throws IllegalArgumentException maxPooledBytes가 음수인 경우
+     */
+    @SuppressWarnings("unchecked")
+    public PayloadPool(long maxPooledBytes) {
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("maxPooledBytes는 0 이상이어야 합니다.");
+        }
+        this.maxPooledBytes = maxPooledBytes;
+        this.chunks = new Queue[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            chunks[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * 바이트 배열의 일부를 풀의 버퍼에 복사하여 본문을 만듭니다.
+     *
+     * @param bytes  본문을 담은 바이트 배열
+     * @param offset 본문이 시작되는 위치
+     * @param length 본문 길이 (바이트)
+     * @return 참조 카운트가 1인 본문
+     */
+    public Payload allocate(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return Payload.EMPTY;
+        }
+
+        if (length > MAX_CHUNK_SIZE) {
+            byte[] copy = new byte[length];
+            System.arraycopy(bytes, offset, copy, 0, length);
+
+            return Payload.wrap(copy);
+        }
+
+        int sizeClass = sizeClass(length);
+        ByteBuffer chunk = chunks[sizeClass].poll();
+        if (chunk == null) {
+            chunk = ByteBuffer.allocateDirect(MIN_CHUNK_SIZE << sizeClass);
+        } else {
+            pooledBytes.addAndGet(-chunk.capacity());
+            chunk.clear();
+        }
+        borrowedBytes.add(chunk.capacity());
+        chunk.put(bytes, offset, length);
+        chunk.flip();
+
+        return new Payload(chunk, this, null);
+    }
+
+    /**
+     * 본문이 쓰던 버퍼를 풀로 돌려받습니다.
+     *
+     * @param buffer allocate()에서 빌려 준 버퍼
+     */
+    void recycle(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        borrowedBytes.add(-capacity);
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            return;
+        }
+
+        chunks[sizeClass(capacity)].offer(buffer);
+    }
+
+    /**
+     * 풀에 보관 중인 버퍼의 총 크기를 반환합니다.
+     *
+     * @return 바이트 수
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * 빌려 준 뒤 아직 돌아오지 않은 버퍼의 총 크기를 반환합니다.
+     * 연결이 모두 닫힌 뒤에도 0으로 돌아오지 않으면 본문의 참조를 돌려주지 않은 경로가 있다는 뜻입니다.
+     *
+     * @return 바이트 수
+     */
+    public long getBorrowedBytes() {
+        return borrowedBytes.sum();
+    }
+
+    private static int sizeClass(int length) {
+        int shift = 32 - Integer.numberOfLeadingZeros(length - 1);
+
+        return Math.max(0, shift - MIN_SHIFT);
+    }
+}
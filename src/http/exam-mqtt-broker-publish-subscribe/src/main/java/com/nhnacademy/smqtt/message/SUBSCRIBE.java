@@ -6,8 +6,6 @@ import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.nhnacademy.smqtt.client.Client;
-
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -17,7 +15,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class SUBSCRIBE extends Message {
-    private final int packetId;
+    private int packetId;
     // TODO: topic을 추가하고 관련된 메서드를 수정하세요.
     private String topic;
 
@@ -36,7 +34,6 @@ public class SUBSCRIBE extends Message {
         }
 
         this.topic = topic;
-        this.packetId = Client.getPacketId();
 
         log.debug("생성자 초기화 topic:{}", this.topic);
         log.debug("생성자 초기화 packetId:{}", this.packetId);
@@ -70,8 +67,8 @@ public class SUBSCRIBE extends Message {
             buffer.get(topicBytes);
             setQoS(buffer.get());
 
-            this.topic = new String(topicBytes);
-            log.debug("topicBytes:{}", new String(topicBytes));
+            this.topic = new String(topicBytes, StandardCharsets.UTF_8);
+            log.debug("topicBytes:{}", this.topic);
         } catch (BufferUnderflowException e) {
             throw new IllegalArgumentException();
         }
@@ -97,6 +94,19 @@ public class SUBSCRIBE extends Message {
         return this.packetId;
     }
 
+    /**
+     * 패킷 식별자를 설정합니다. 직접 생성한 메시지의 식별자는 0이며, 전송할 때 연결의 할당기에서 받은 식별자를 설정합니다.
+     *
+     * @param packetId 패킷 식별자 (0부터 65535까지)
+     * @throws IllegalArgumentException packetId가 범위를 벗어난 경우
+     */
+    public void setPacketId(int packetId) {
+        if ((packetId < 0) || (packetId > 0xFFFF)) {
+            throw new IllegalArgumentException("packetId는 0부터 65535 사이여야 합니다.");
+        }
+        this.packetId = packetId;
+    }
+
     /**
      * 구독할 주제를 반환합니다.
      *
@@ -114,14 +124,14 @@ public class SUBSCRIBE extends Message {
      */
     @Override
     public byte[] toByteArray() {
-        byte[] topicBytes = topic.getBytes();
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
 
         ByteBuffer buffer = getByteBuffer(2 + 2 + topicBytes.length + 1);
 
-        // TODO: 패킷을 구성하세요.
-        buffer.put(topicBytes);
-        
         buffer.putShort((short) packetId);
+        buffer.putShort((short) topicBytes.length);
+        buffer.put(topicBytes);
+        buffer.put((byte) getQoS());
 
         return buffer.array();
     }
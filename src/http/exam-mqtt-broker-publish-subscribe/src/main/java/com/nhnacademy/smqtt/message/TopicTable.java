@@ -0,0 +1,133 @@
+package com.nhnacademy.smqtt.message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 수신한 PUBLISH의 토픽 바이트를 하나의 토픽 문자열 객체로 대응시키는 intern 테이블입니다.
+ *
+ * <p>
+ * 프레임의 토픽 바이트에서 바로 해시를 계산하여 버킷을 찾고, 같은 바이트로 등록된 항목이 있으면 그 문자열을 반환합니다.
+ * 따라서 이미 본 토픽을 해석할 때는 바이트 배열이나 문자열을 새로 만들지 않습니다.
+ * 등록할 때 문자열의 hashCode()를 미리 계산해 두므로, 브로커가 같은 토픽 객체로 구독 매칭 캐시나
+ * 토픽별 카운터를 찾을 때도 해시를 다시 계산하지 않습니다.
+ * </p>
+ *
+ * <p>
+ * 버킷은 변경하지 않는 노드의 연결 리스트이며, 새 노드는 CAS로 맨 앞에 붙입니다.
+ * 여러 Reactor가 잠금 없이 동시에 조회하고 등록할 수 있습니다.
+ * 항목 수가 maxSize에 이르면 더 등록하지 않고 매번 새 문자열을 만듭니다.
+ * </p>
+ */
+public final class TopicTable {
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+    private static final int BUCKET_COUNT = 1 << 14;
+
+    private final AtomicReferenceArray<Entry> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    /**
+     * 기본 크기의 테이블을 생성합니다.
+     */
+    public TopicTable() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * TopicTable 생성자.
+     *
+     * @param maxSize 등록할 최대 토픽 수
+     * @throws IllegalArgumentException maxSize가 음수인 경우
+     */
+    public TopicTable(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize는 0 이상이어야 합니다.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 바이트 배열의 일부를 UTF-8 토픽으로 해석하여 등록된 토픽 문자열을 반환합니다.
+     *
+     * @param bytes  토픽을 담은 바이트 배열
+     * @param offset 토픽이 시작되는 위치
+     * @param length 토픽 길이 (바이트)
+     * @return 토픽 문자열. 같은 바이트에 대해서는 항상 같은 객체
+     */
+    public String intern(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int index = hash & (BUCKET_COUNT - 1);
+
+        Entry head = buckets.get(index);
+        String topic = find(head, hash, bytes, offset, length);
+        if (topic != null) {
+            return topic;
+        }
+
+        topic = new String(bytes, offset, length, StandardCharsets.UTF_8);
+        if (size.get() >= maxSize) {
+            return topic;
+        }
+
+        // 문자열이 해시를 보관하므로 등록 전에 한 번 계산해 둡니다.
+        topic.hashCode();
+        Entry entry = new Entry(hash, Arrays.copyOfRange(bytes, offset, offset + length), topic, head);
+        while (!buckets.compareAndSet(index, entry.next, entry)) {
+            Entry current = buckets.get(index);
+            String registered = find(current, hash, bytes, offset, length);
+            if (registered != null) {
+                return registered;
+            }
+            entry = new Entry(hash, entry.bytes, topic, current);
+        }
+        size.incrementAndGet();
+
+        return topic;
+    }
+
+    /**
+     * 등록된 토픽 수를 반환합니다.
+     *
+     * @return 토픽 수
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private static String find(Entry entry, int hash, byte[] bytes, int offset, int length) {
+        for (; entry != null; entry = entry.next) {
+            if ((entry.hash == hash)
+                    && Arrays.equals(entry.bytes, 0, entry.bytes.length, bytes, offset, offset + length)) {
+                return entry.topic;
+            }
+        }
+
+        return null;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry {
+        final int hash;
+        final byte[] bytes;
+        final String topic;
+        final Entry next;
+
+        Entry(int hash, byte[] bytes, String topic, Entry next) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.topic = topic;
+            this.next = next;
+        }
+    }
+}
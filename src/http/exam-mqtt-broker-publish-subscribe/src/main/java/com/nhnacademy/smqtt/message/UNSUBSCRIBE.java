@@ -6,15 +6,13 @@ import java.nio.charset.StandardCharsets;
 import java.util.LinkedList;
 import java.util.List;
 
-import com.nhnacademy.smqtt.client.Client;
-
 /**
  * UNSUBSCRIBE 클래스는 MQTT 프로토콜의 UNSUBSCRIBE 메시지를 나타냅니다.
  * 이 메시지는 클라이언트가 브로커에게 특정 주제에 대한 구독을 취소하기 위해 전송됩니다.
  * 주제는 클라이언트가 더 이상 수신하고 싶지 않은 메시지의 범위를 정의합니다.
  */
 public class UNSUBSCRIBE extends Message {
-    private final int packetId;
+    private int packetId;
     private final List<String> topics = new LinkedList<>();
 
     /**
@@ -74,13 +72,26 @@ public class UNSUBSCRIBE extends Message {
     /**
      * 패킷 식별자를 반환합니다.
      *
-     * @return packetId 패킷 식별자. 이 식별자는 UNSUBSCRIBE 메시지가 응답하는 SUBSCRIBE 메시지의 식별자와
+     * @return packetId 패킷 식별자. 이 식별자는 UNSUBSCRIBE 메시지에 응답하는 UNSUBACK 메시지의 식별자와
      *         동일합니다.
      */
     public int getPacketId() {
         return packetId;
     }
 
+    /**
+     * 패킷 식별자를 설정합니다. 직접 생성한 메시지의 식별자는 0이며, 전송할 때 연결의 할당기에서 받은 식별자를 설정합니다.
+     *
+     * @param packetId 패킷 식별자 (0부터 65535까지)
+     * @throws IllegalArgumentException packetId가 범위를 벗어난 경우
+     */
+    public void setPacketId(int packetId) {
+        if ((packetId < 0) || (packetId > 0xFFFF)) {
+            throw new IllegalArgumentException("packetId는 0부터 65535 사이여야 합니다.");
+        }
+        this.packetId = packetId;
+    }
+
     /**
      * 구독 취소할 주제 목록을 반환합니다.
      *
@@ -124,7 +135,7 @@ public class UNSUBSCRIBE extends Message {
         }
 
         ByteBuffer buffer = getByteBuffer(bufferSize);
-        buffer.putShort((short) Client.getPacketId());
+        buffer.putShort((short) packetId);
         for (String topic : topics) {
             byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
             buffer.putShort((short) topicBytes.length);
@@ -1,32 +1,89 @@
 package com.nhnacademy.smqtt.publish;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import com.nhnacademy.smqtt.client.Client;
 import com.nhnacademy.smqtt.message.Message;
 import com.nhnacademy.smqtt.message.PUBACK;
 import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.utils.FileBackedQueue;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * PublishClient 클래스는 MQTT 프로토콜을 사용하여 메시지를 특정 토픽으로 발행하는 클라이언트입니다.
  * 이 클래스는 Client 클래스를 상속받아 MQTT 브로커와의 연결을 관리하고 메시지를 전송하는 기능을 제공합니다.
+ *
+ * <p>
+ * publishAsync()는 메시지를 전송 대기열에 넣고 바로 CompletableFuture를 반환합니다.
+ * 전송 스레드는 대기열에 쌓인 메시지를 한 번의 쓰기로 묶어 보내고, 수신 스레드는 PUBACK을 받아 해당 메시지의 future를 완료합니다.
+ * QoS 1에서는 응답을 받지 못한 메시지를 최대 maxInflight개까지 보내 두므로, 왕복 시간마다 한 메시지씩 보내지 않고
+ * 연결의 대역폭만큼 보낼 수 있습니다.
+ * </p>
+ *
+ * <p>
+ * setBuffer()로 버퍼 파일을 설정하면 QoS 1 메시지를 PUBACK을 받을 때까지 파일에 보관합니다.
+ * 연결이 끊어진 동안 발행한 메시지도 버퍼에 쌓아 두고, 다시 연결하면 버퍼의 메시지를 처음부터 다시 보낸 후 새 메시지를 보냅니다.
+ * 브로커는 PUBACK을 PUBLISH를 받은 순서대로 보내므로, PUBACK을 받을 때마다 버퍼의 맨 앞 메시지를 지웁니다.
+ * 버퍼는 프로세스를 다시 시작해도 남으므로, 다음 실행에서 보내지 못한 메시지를 이어서 보냅니다.
+ * </p>
  */
 @Slf4j
 public class PublishClient extends Client {
+    public static final int DEFAULT_MAX_INFLIGHT = 32;
+    static final int MAX_BATCH_BYTES = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long POLL_MILLIS = 100;
+
     // TODO: 생성시 주어지는 topic을 관리합니다.
     private String topic;
     InputStream messageIn;
     Map<Integer, PUBLISH> publishMap = new ConcurrentHashMap<>();
+    private final Map<String, Integer> topicAliases = new HashMap<>();
+    private int topicAliasMaximum;
+    private int maxInflight = DEFAULT_MAX_INFLIGHT;
+    private BufferedReader lineReader;
+
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Map<Integer, Request> acknowledgements = new ConcurrentHashMap<>();
+    private Semaphore inflight;
+    private Thread writer;
+    private Thread reader;
+    private volatile boolean stopping;
+    private volatile Throwable failure;
+    private int outstanding;
+
+    // 버퍼에 넣는 순서와 전송 대기열에 넣는 순서를 맞추기 위한 잠금입니다.
+    private final Object orderLock = new Object();
+    // 버퍼의 원소와 같은 순서로 각 메시지의 future를 보관하며, 버퍼와 함께 이 객체로 잠급니다.
+    private final Deque<CompletableFuture<Void>> buffered = new ArrayDeque<>();
+    private FileBackedQueue buffer;
+    private int bufferCapacity;
+    private volatile boolean connected;
 
     /**
      * PublishClient 생성자.
@@ -68,16 +125,129 @@ public class PublishClient extends Client {
         return topic;
     }
 
+    /**
+     * 토픽 별칭을 정의할 최대 개수를 설정합니다.
+     * 설정하면 토픽마다 처음 발행할 때 별칭을 정의하고, 이후에는 토픽 대신 2바이트 별칭만 보냅니다.
+     * 토픽 별칭은 이 저장소의 브로커만 해석하므로, 다른 브로커에 연결할 때는 설정하지 않습니다.
+     *
+     * @param topicAliasMaximum 최대 개수 (0이면 사용하지 않음)
+     * @throws IllegalArgumentException topicAliasMaximum이 0부터 PUBLISH.MAX_TOPIC_ALIAS 사이가 아닌 경우
+     */
+    public void setTopicAliasMaximum(int topicAliasMaximum) {
+        if ((topicAliasMaximum < 0) || (topicAliasMaximum > PUBLISH.MAX_TOPIC_ALIAS)) {
+            throw new IllegalArgumentException("topicAliasMaximum은 0부터 " + PUBLISH.MAX_TOPIC_ALIAS + " 사이여야 합니다.");
+        }
+        this.topicAliasMaximum = topicAliasMaximum;
+    }
+
+    /**
+     * 토픽 별칭을 정의할 최대 개수를 반환합니다.
+     *
+     * @return 최대 개수
+     */
+    public int getTopicAliasMaximum() {
+        return topicAliasMaximum;
+    }
+
+    /**
+     * QoS 1에서 응답을 받지 않은 채 보내 둘 수 있는 최대 메시지 수를 설정합니다.
+     * 0이면 비동기 전송을 사용하지 않고, 메시지마다 PUBACK을 받은 후 다음 메시지를 보냅니다.
+     *
+     * @param maxInflight 최대 메시지 수
+     * @throws IllegalArgumentException maxInflight가 음수이거나 65535보다 큰 경우
+     * @throws IllegalStateException    비동기 전송을 이미 시작한 경우
+     */
+    public synchronized void setMaxInflight(int maxInflight) {
+        if ((maxInflight < 0) || (maxInflight > 0xFFFF)) {
+            throw new IllegalArgumentException("maxInflight는 0부터 65535 사이여야 합니다.");
+        }
+        if (writer != null) {
+            throw new IllegalStateException("비동기 전송을 시작한 후에는 변경할 수 없습니다.");
+        }
+        this.maxInflight = maxInflight;
+    }
+
+    /**
+     * QoS 1에서 응답을 받지 않은 채 보내 둘 수 있는 최대 메시지 수를 반환합니다.
+     *
+     * @return 최대 메시지 수
+     */
+    public int getMaxInflight() {
+        return maxInflight;
+    }
+
+    /**
+     * PUBACK을 받지 않은 QoS 1 메시지를 보관할 버퍼 파일을 설정합니다. 파일에 남은 메시지가 있으면 연결한 후 먼저 보냅니다.
+     * 버퍼는 비동기 전송(maxInflight가 1 이상)에서 사용합니다.
+     *
+     * @param file     버퍼 파일 경로
+     * @param capacity 버퍼에 보관할 최대 메시지 수. 가득 차면 새 메시지를 거부합니다.
+     * @throws IllegalArgumentException file이 null이거나 capacity가 1보다 작은 경우
+     * @throws IllegalStateException    버퍼를 이미 설정한 경우
+     * @throws IOException              버퍼 파일을 열 수 없는 경우
+     */
+    public void setBuffer(Path file, int capacity) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity는 1 이상이어야 합니다.");
+        }
+
+        synchronized (buffered) {
+            if (buffer != null) {
+                throw new IllegalStateException("버퍼를 이미 설정하였습니다.");
+            }
+            buffer = FileBackedQueue.open(file);
+            bufferCapacity = capacity;
+            for (int i = 0; i < buffer.size(); i++) {
+                CompletableFuture<Void> future = new CompletableFuture<>();
+                track(future);
+                buffered.addLast(future);
+            }
+            if (!buffered.isEmpty()) {
+                log.info("버퍼에서 보내지 못한 메시지 {}개를 복구하였습니다: {}", buffered.size(), file);
+            }
+        }
+    }
+
+    /**
+     * 버퍼에 보관 중인 메시지 수를 반환합니다.
+     *
+     * @return PUBACK을 받지 않은 메시지 수. 버퍼를 설정하지 않았으면 0
+     */
+    public int getBufferedCount() {
+        synchronized (buffered) {
+            return buffered.size();
+        }
+    }
+
     /**
      * 메시지를 읽고 PUBLISH 메시지를 전송하며, 필요 시 PUBACK 메시지를 수신합니다.
+     * maxInflight가 1 이상이고 QoS가 0 또는 1이면 publishAsync()로 보내고, 모든 메시지가 완료될 때까지 기다립니다.
+     * 다시 연결한 후에도 호출되며, 이전 연결에서 읽던 다음 줄부터 이어서 보냅니다.
      *
      * @throws IOException 메시지 전송 또는 수신 중 오류가 발생한 경우
      */
     @Override
     public void processing() throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(messageIn));
+        if (lineReader == null) {
+            lineReader = new BufferedReader(new InputStreamReader(messageIn));
+        }
+        BufferedReader reader = lineReader;
         String line;
 
+        if ((maxInflight > 0) && (getQoS() < 2)) {
+            int count = 0;
+            while ((line = reader.readLine()) != null) {
+                publishAsync(topic, line);
+                count++;
+                if (failure != null) {
+                    throw new IOException("메시지를 발행하지 못하였습니다: " + failure.getMessage(), failure);
+                }
+            }
+            flush();
+            log.info("Published {} messages to topic '{}'", count, topic);
+            return;
+        }
+
         while ((line = reader.readLine()) != null) {
             // 1️. PUBLISH 메시지 전송
             sendPublish(topic, line);
@@ -89,6 +259,446 @@ public class PublishClient extends Client {
         }
     }
 
+    /**
+     * 메시지를 비동기로 발행합니다.
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param message 발행할 메시지
+     * @return QoS 0이면 소켓에 쓴 후, QoS 1이면 PUBACK을 받은 후 완료되는 future
+     * @see #publishAsync(String, byte[])
+     */
+    public CompletableFuture<Void> publishAsync(String topic, String message) {
+        return publishAsync(topic, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 메시지를 비동기로 발행합니다. 처음 호출하면 전송 스레드와 수신 스레드를 시작합니다.
+     *
+     * <p>
+     * QoS 1에서 응답을 받지 않은 메시지가 maxInflight개이거나 전송 대기열이 가득 차면 자리가 날 때까지 기다립니다.
+     * 연결에 오류가 발생한 후에는 바로 예외로 완료된 future를 반환합니다. 단, 버퍼를 설정하였으면 QoS 1 메시지는 버퍼에 넣고,
+     * 다시 연결하여 PUBACK을 받으면 future를 완료합니다. 버퍼가 가득 차면 IllegalStateException으로 완료된 future를 반환합니다.
+     * </p>
+     *
+     * @param topic   메시지를 발행할 토픽
+     * @param payload 발행할 메시지 본문
+     * @return QoS 0이면 소켓에 쓴 후, QoS 1이면 PUBACK을 받은 후 완료되는 future
+     * @throws IllegalArgumentException topic이 비어 있거나 payload가 null인 경우
+     * @throws IllegalStateException    QoS가 2이거나 maxInflight가 0인 경우
+     */
+    public CompletableFuture<Void> publishAsync(String topic, byte[] payload) {
+        if ((topic == null) || topic.isEmpty() || (payload == null)) {
+            throw new IllegalArgumentException("topic과 payload는 비어 있을 수 없습니다.");
+        }
+        int qos = getQoS();
+        if (qos > 1) {
+            throw new IllegalStateException("비동기 발행은 QoS 0, 1만 지원합니다.");
+        }
+        if (maxInflight == 0) {
+            throw new IllegalStateException("maxInflight가 0이면 비동기 발행을 사용할 수 없습니다.");
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if ((qos == 1) && (buffer != null)) {
+            return publishBuffered(topic, payload, future);
+        }
+        startPipeline();
+
+        try {
+            if ((qos == 1) && !acquire()) {
+                future.completeExceptionally(failure);
+                return future;
+            }
+
+            track(future);
+            Request request = new Request(topic, payload, qos, future, false);
+            while (!requests.offer(request, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure != null) {
+                    fail(request, failure);
+                    return future;
+                }
+            }
+            if (failure != null) {
+                // 오류를 처리하며 대기열을 비운 후에 넣었을 수 있습니다.
+                requests.remove(request);
+                fail(request, failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     * QoS 1 메시지를 버퍼에 넣고, 연결되어 있으면 전송 대기열에도 넣습니다.
+     */
+    private CompletableFuture<Void> publishBuffered(String topic, byte[] payload, CompletableFuture<Void> future) {
+        synchronized (orderLock) {
+            synchronized (buffered) {
+                if (buffered.size() >= bufferCapacity) {
+                    future.completeExceptionally(new IllegalStateException("버퍼가 가득 찼습니다."));
+                    return future;
+                }
+                buffer.offer(encode(topic, payload));
+                buffered.addLast(future);
+                track(future);
+            }
+
+            if (connected) {
+                try {
+                    // 대기열에 넣지 못하여도 버퍼에 남아 있으므로 다시 연결한 후 보냅니다.
+                    enqueue(new Request(topic, payload, 1, future, true));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * 버퍼에 보관한 메시지를 전송 대기열에 넣습니다.
+     *
+     * @param request 전송할 메시지
+     * @return 넣었으면 true, 연결에 오류가 발생하여 넣지 못하였으면 false
+     * @throws InterruptedException 기다리는 중 인터럽트가 발생한 경우
+     */
+    private boolean enqueue(Request request) throws InterruptedException {
+        if (!acquire()) {
+            return false;
+        }
+        while (!requests.offer(request, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure != null) {
+                inflight.release();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 연결한 후 버퍼에 남은 메시지를 처음부터 다시 보내고, 이후 발행하는 메시지를 바로 보내도록 합니다.
+     *
+     * @throws IOException 버퍼의 메시지를 보내는 중 연결에 오류가 발생한 경우
+     */
+    @Override
+    protected void connectionEstablished() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+
+        synchronized (orderLock) {
+            startPipeline();
+
+            List<byte[]> entries = new ArrayList<>();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            synchronized (buffered) {
+                buffer.forEach(entries::add);
+                futures.addAll(buffered);
+            }
+            if (!entries.isEmpty()) {
+                log.info("버퍼에 남은 메시지 {}개를 다시 보냅니다.", entries.size());
+            }
+
+            Iterator<CompletableFuture<Void>> iterator = futures.iterator();
+            try {
+                for (byte[] entry : entries) {
+                    ByteBuffer decoded = ByteBuffer.wrap(entry);
+                    byte[] topicBytes = new byte[decoded.getShort() & 0xFFFF];
+                    decoded.get(topicBytes);
+                    byte[] payload = new byte[decoded.remaining()];
+                    decoded.get(payload);
+
+                    Request request = new Request(new String(topicBytes, StandardCharsets.UTF_8), payload, 1,
+                            iterator.next(), true);
+                    request.duplicated = true;
+                    if (!enqueue(request)) {
+                        throw new IOException("버퍼의 메시지를 다시 보내지 못하였습니다: " + failure.getMessage(), failure);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("버퍼의 메시지를 보내는 중 인터럽트가 발생하였습니다.");
+            }
+            connected = true;
+        }
+    }
+
+    /**
+     * 전송 스레드와 수신 스레드를 멈추고, 다시 연결할 때 새로 시작하도록 상태를 초기화합니다.
+     * 버퍼에 보관한 메시지는 남겨 두고, 나머지 완료되지 않은 메시지는 예외로 완료합니다.
+     */
+    @Override
+    protected void connectionLost() {
+        connected = false;
+
+        Thread writerThread;
+        Thread readerThread;
+        synchronized (this) {
+            writerThread = writer;
+            readerThread = reader;
+        }
+        if (writerThread != null) {
+            stopping = true;
+            writerThread.interrupt();
+            try {
+                shutdownInput();
+            } catch (IOException e) {
+                log.debug("연결의 수신 방향을 닫지 못하였습니다: {}", e.getMessage());
+            }
+            try {
+                writerThread.join();
+                readerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            failAll(new IOException("브로커와의 연결이 끊어졌습니다."));
+        }
+
+        synchronized (this) {
+            writer = null;
+            reader = null;
+        }
+        failure = null;
+        stopping = false;
+        // 토픽 별칭은 연결마다 새로 정의해야 합니다.
+        topicAliases.clear();
+    }
+
+    private static byte[] encode(String topic, byte[] payload) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+
+        return ByteBuffer.allocate(2 + topicBytes.length + payload.length)
+                .putShort((short) topicBytes.length)
+                .put(topicBytes)
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * 지금까지 발행한 메시지가 모두 완료될 때까지 기다립니다. 기다리는 중 연결에 오류가 발생하면 바로 예외를 발생시킵니다.
+     *
+     * @throws IOException 메시지를 보내지 못하였거나, 기다리는 중 인터럽트가 발생한 경우
+     */
+    public void flush() throws IOException {
+        synchronized (this) {
+            try {
+                while ((outstanding > 0) && (failure == null)) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("발행 완료를 기다리는 중 인터럽트가 발생하였습니다.");
+            }
+        }
+
+        if (failure != null) {
+            throw new IOException("메시지를 발행하지 못하였습니다: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * 전송 스레드와 수신 스레드를 시작합니다.
+     */
+    private synchronized void startPipeline() {
+        if (writer != null) {
+            return;
+        }
+
+        inflight = new Semaphore(maxInflight);
+        writer = new Thread(this::write, "publish-writer");
+        reader = new Thread(this::read, "publish-reader");
+        writer.setDaemon(true);
+        reader.setDaemon(true);
+        writer.start();
+        reader.start();
+    }
+
+    /**
+     * 대기열에 남은 메시지를 보낸 후 전송 스레드와 수신 스레드를 멈춥니다.
+     * DISCONNECT를 보내기 전에 호출하여 쓰기가 겹치지 않도록 합니다.
+     *
+     * @throws IOException 연결의 수신 방향을 닫을 수 없는 경우
+     */
+    private void stopPipeline() throws IOException {
+        Thread writerThread;
+        Thread readerThread;
+        synchronized (this) {
+            if (writer == null) {
+                return;
+            }
+            writerThread = writer;
+            readerThread = reader;
+        }
+
+        stopping = true;
+        try {
+            writerThread.join();
+            shutdownInput();
+            readerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("전송 스레드를 멈추는 중 인터럽트가 발생하였습니다.");
+        }
+    }
+
+    /**
+     * 비동기 전송을 사용하였으면 전송 스레드와 수신 스레드를 멈춘 후 DISCONNECT 메시지를 전송합니다.
+     *
+     * @throws IOException 메시지 전송 실패 시 발생
+     */
+    @Override
+    protected void sendDisconnect() throws IOException {
+        stopPipeline();
+        super.sendDisconnect();
+    }
+
+    /**
+     * 응답을 받지 않은 메시지 수가 maxInflight보다 작아질 때까지 기다립니다.
+     *
+     * @return 자리를 얻었으면 true, 기다리는 중 연결에 오류가 발생하였으면 false
+     * @throws InterruptedException 기다리는 중 인터럽트가 발생한 경우
+     */
+    private boolean acquire() throws InterruptedException {
+        while (!inflight.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure != null) {
+                return false;
+            }
+        }
+        if (failure != null) {
+            inflight.release();
+            return false;
+        }
+
+        return true;
+    }
+
+    private synchronized void track(CompletableFuture<Void> future) {
+        outstanding++;
+        future.whenComplete((result, e) -> {
+            synchronized (this) {
+                outstanding--;
+                notifyAll();
+            }
+        });
+    }
+
+    /**
+     * 전송 스레드. 대기열에 쌓인 메시지를 MAX_BATCH_BYTES까지 이어 붙여 한 번에 씁니다.
+     * QoS 1 메시지는 연결의 할당기에서 패킷 식별자를 받고, 수신 스레드가 PUBACK을 받으면 반납됩니다.
+     */
+    private void write() {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(MAX_BATCH_BYTES);
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+
+        try {
+            while (!stopping || !requests.isEmpty()) {
+                Request request = requests.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (request == null) {
+                    continue;
+                }
+
+                batch.reset();
+                written.clear();
+                do {
+                    PUBLISH publish = new PUBLISH(request.topic, request.payload);
+                    publish.setQoS(request.qos);
+                    publish.setDuplicated(request.duplicated);
+                    applyTopicAlias(publish);
+                    if (request.qos == 1) {
+                        publish.setPacketId(allocatePacketId());
+                        acknowledgements.put(publish.getPacketId(), request);
+                    } else {
+                        written.add(request.future);
+                    }
+                    batch.write(publish.toByteArray());
+                } while ((batch.size() < MAX_BATCH_BYTES) && ((request = requests.poll()) != null));
+
+                send(batch.toByteArray());
+                for (CompletableFuture<Void> future : written) {
+                    future.complete(null);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failAll(e);
+            written.forEach(future -> future.completeExceptionally(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(e);
+        }
+    }
+
+    /**
+     * 수신 스레드. PUBACK을 받아 해당 메시지의 future를 완료하고 자리를 돌려줍니다.
+     */
+    private void read() {
+        try {
+            while (true) {
+                Message message = receive();
+                if (message instanceof PUBACK pubAck) {
+                    Request request = acknowledgements.remove(pubAck.getPacketId());
+                    if (request != null) {
+                        inflight.release();
+                        if (request.buffered) {
+                            synchronized (buffered) {
+                                buffer.poll();
+                                buffered.pollFirst();
+                            }
+                        }
+                        request.future.complete(null);
+                    }
+                } else {
+                    log.debug("Ignored {} while publishing", message.getType());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!stopping || !acknowledgements.isEmpty()) {
+                failAll(e);
+            }
+        }
+    }
+
+    /**
+     * 연결 오류를 기록하고, 완료되지 않은 메시지를 모두 예외로 완료합니다.
+     * 버퍼에 보관한 메시지는 다시 연결한 후 보내므로 완료하지 않습니다.
+     *
+     * @param cause 오류
+     */
+    private void failAll(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+            log.warn("메시지를 발행하지 못하였습니다: {}", cause.getMessage());
+        }
+
+        Request request;
+        while ((request = requests.poll()) != null) {
+            fail(request, cause);
+        }
+        for (Integer packetId : acknowledgements.keySet()) {
+            request = acknowledgements.remove(packetId);
+            if (request != null) {
+                releasePacketId(packetId);
+                fail(request, cause);
+            }
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    private void fail(Request request, Throwable cause) {
+        if (request.qos == 1) {
+            inflight.release();
+        }
+        if (!request.buffered) {
+            request.future.completeExceptionally(cause);
+        }
+    }
+
     /**
      * MQTT PUBLISH 메시지를 전송합니다.
      *
@@ -98,12 +708,34 @@ public class PublishClient extends Client {
      */
     void sendPublish(String topic, String message) throws IOException {
         PUBLISH publish = new PUBLISH(topic, message);
+        applyTopicAlias(publish);
         send(publish);
 
         publishMap.put(publish.getPacketId(), publish);
         log.info("Published message to topic '" + topic + "': " + message);
     }
 
+    /**
+     * 토픽에 정의한 별칭이 있으면 별칭으로 보내도록 설정합니다.
+     * 처음 보는 토픽이면 남은 별칭이 있을 때 새 별칭을 정의하고, 다 썼으면 토픽을 그대로 보냅니다.
+     *
+     * @param publish 전송할 PUBLISH 메시지
+     */
+    private void applyTopicAlias(PUBLISH publish) {
+        if (topicAliasMaximum == 0) {
+            return;
+        }
+
+        Integer alias = topicAliases.get(publish.getTopic());
+        if (alias != null) {
+            publish.setTopicAlias(alias, false);
+        } else if (topicAliases.size() < topicAliasMaximum) {
+            alias = topicAliases.size() + 1;
+            topicAliases.put(publish.getTopic(), alias);
+            publish.setTopicAlias(alias, true);
+        }
+    }
+
     /**
      * MQTT PUBACK 메시지를 수신하고 검증합니다.
      *
@@ -120,4 +752,20 @@ public class PublishClient extends Client {
         }
     }
 
+    private static final class Request {
+        final String topic;
+        final byte[] payload;
+        final int qos;
+        final CompletableFuture<Void> future;
+        final boolean buffered;
+        boolean duplicated;
+
+        Request(String topic, byte[] payload, int qos, CompletableFuture<Void> future, boolean buffered) {
+            this.topic = topic;
+            this.payload = payload;
+            this.qos = qos;
+            this.future = future;
+            this.buffered = buffered;
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.nhnacademy.smqtt.publish;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -19,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 public class SimpleMQTTPublishClient {
     static final String DEFAULT_BROCKER_HOST = "localhost";
     static final int DEFAULT_BROCKER_PORT = 1883;
+    static final int DEFAULT_BUFFER_SIZE = 10_000;
 
     public static void main(String[] args) {
         Options options = new Options();
@@ -28,6 +30,11 @@ public class SimpleMQTTPublishClient {
         options.addOption("c", "client_id", true, "client id");
         options.addOption(Option.builder("t").longOpt("topic").hasArg().build());
         options.addOption(Option.builder("m").longOpt("message").hasArg().build());
+        options.addOption("a", "topic-alias", true, "max topic aliases to define (smqtt broker only)");
+        options.addOption("w", "max-inflight", true, "max unacknowledged messages in flight (0: wait for each PUBACK)");
+        options.addOption("r", "reconnect", false, "reconnect with backoff when the connection is lost");
+        options.addOption("b", "buffer", true, "file to keep unacknowledged messages in until they are delivered");
+        options.addOption("s", "buffer-size", true, "max messages kept in the buffer file");
 
         try {
             CommandLineParser parser = new DefaultParser();
@@ -51,6 +58,19 @@ public class SimpleMQTTPublishClient {
 
             PublishClient client = new PublishClient(host, port, clientId, topic, inputStream);
             client.setQoS(1);
+            if (cmd.hasOption("a")) {
+                client.setTopicAliasMaximum(Integer.parseInt(cmd.getOptionValue("a")));
+            }
+            if (cmd.hasOption("w")) {
+                client.setMaxInflight(Integer.parseInt(cmd.getOptionValue("w")));
+            }
+            if (cmd.hasOption("r")) {
+                client.setReconnect(true);
+            }
+            if (cmd.hasOption("b")) {
+                client.setBuffer(Paths.get(cmd.getOptionValue("b")),
+                        Integer.parseInt(cmd.getOptionValue("s", String.valueOf(DEFAULT_BUFFER_SIZE))));
+            }
 
             client.run();
 
@@ -0,0 +1,114 @@
+package com.nhnacademy.smqtt.store;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MessageLog에 기록되는 레코드 하나를 나타내는 클래스입니다.
+ * 레코드는 종류, 키, 값으로 구성되며 값의 해석은 레코드를 기록한 쪽이 담당합니다.
+ */
+public final class LogRecord {
+    /**
+     * 레코드 종류입니다. 값은 로그 파일에 기록되므로 변경해서는 안 됩니다.
+     * 연결 중인 세션의 in-flight 메시지는 따로 기록하지 않고, 연결이 끊길 때 오프라인 대기열로 옮겨 QUEUE 레코드로 남깁니다.
+     */
+    public enum Type {
+        /** 토픽의 retained 메시지. 값이 비어 있으면 삭제를 뜻합니다. */
+        RETAIN(1),
+        /** 연결이 끊긴 지속 세션에 쌓인 메시지 */
+        QUEUE(4),
+        /** QUEUE 레코드의 전달 완료 */
+        DEQUEUE(5),
+        /** 지속 세션의 구독 정보 */
+        SESSION(6);
+
+        private final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        int getCode() {
+            return code;
+        }
+
+        static Type valueOf(int code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+
+            throw new IllegalArgumentException("알 수 없는 레코드 종류입니다: " + code);
+        }
+    }
+
+    private final long offset;
+    private final Type type;
+    private final String key;
+    private final byte[] value;
+
+    /**
+     * LogRecord 생성자.
+     *
+     * @param offset 로그 안에서의 위치
+     * @param type   레코드 종류
+     * @param key    레코드 키
+     * @param value  레코드 값
+     */
+    LogRecord(long offset, Type type, String key, byte[] value) {
+        this.offset = offset;
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * 로그 안에서의 위치를 반환합니다.
+     *
+     * @return 0부터 시작하는 레코드 오프셋
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 레코드 종류를 반환합니다.
+     *
+     * @return 레코드 종류
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 레코드 키를 반환합니다.
+     *
+     * @return 레코드 키
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * 레코드 값을 반환합니다.
+     *
+     * @return 레코드 값
+     */
+    public byte[] getValue() {
+        return value;
+    }
+
+    /**
+     * 레코드 값을 UTF-8 문자열로 반환합니다.
+     *
+     * @return 레코드 값
+     */
+    public String getValueAsString() {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return offset + ":" + type + ":" + key;
+    }
+}
@@ -0,0 +1,305 @@
+package com.nhnacademy.smqtt.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * MessageLog를 구성하는 세그먼트 파일 하나를 나타내는 클래스입니다.
+ *
+ * <p>
+ * 데이터 파일은 정해진 크기로 미리 만들어 메모리에 매핑하고, 레코드를 앞에서부터 이어서 기록합니다.
+ * 레코드 형식은 [길이 4][CRC32 4][종류 1][키 길이 2][키][값]이며, 길이가 0이면 기록의 끝입니다.
+ * 인덱스 파일에는 indexInterval 바이트마다 (상대 오프셋, 위치) 쌍을 기록하여,
+ * 특정 오프셋을 찾거나 마지막 세그먼트의 끝을 찾을 때 처음부터 읽지 않도록 합니다.
+ * 스레드 안전하지 않으므로 MessageLog가 동기화합니다.
+ * </p>
+ */
+class LogSegment {
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+    static final int RECORD_HEADER_SIZE = 4 + 4 + 1 + 2;
+    private static final int INDEX_ENTRY_SIZE = 8;
+
+    private final long baseOffset;
+    private final Path logPath;
+    private final Path indexPath;
+    private final int indexInterval;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private int position;
+    private int count;
+    private int indexEntries;
+    private int lastIndexedPosition;
+
+    private LogSegment(Path directory, long baseOffset, int segmentSize, int indexInterval) throws IOException {
+        this.baseOffset = baseOffset;
+        this.logPath = directory.resolve(fileName(baseOffset, LOG_SUFFIX));
+        this.indexPath = directory.resolve(fileName(baseOffset, INDEX_SUFFIX));
+        this.indexInterval = indexInterval;
+
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            this.data = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        }
+
+        int indexSize = (int) ((data.capacity() / (long) indexInterval + 1) * INDEX_ENTRY_SIZE);
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), indexSize));
+        }
+    }
+
+    /**
+     * 새 세그먼트를 생성합니다.
+     *
+     * @param directory     로그 디렉터리
+     * @param baseOffset    세그먼트의 첫 레코드 오프셋
+     * @param segmentSize   데이터 파일 크기
+     * @param indexInterval 인덱스 항목 사이의 최소 바이트 수
+     * @return 생성된 세그먼트
+     * @throws IOException 파일을 만들 수 없는 경우
+     */
+    static LogSegment create(Path directory, long baseOffset, int segmentSize, int indexInterval) throws IOException {
+        return new LogSegment(directory, baseOffset, segmentSize, indexInterval);
+    }
+
+    /**
+     * 기존 세그먼트를 열고 기록된 끝을 찾습니다. 마지막 인덱스 항목부터 읽으며,
+     * CRC가 맞지 않는 레코드를 만나면 그 이후는 완료되지 않은 기록으로 보고 지웁니다.
+     *
+     * @param directory     로그 디렉터리
+     * @param baseOffset    세그먼트의 첫 레코드 오프셋
+     * @param segmentSize   데이터 파일 크기
+     * @param indexInterval 인덱스 항목 사이의 최소 바이트 수
+     * @return 열린 세그먼트
+     * @throws IOException 파일을 열 수 없는 경우
+     */
+    static LogSegment open(Path directory, long baseOffset, int segmentSize, int indexInterval) throws IOException {
+        LogSegment segment = new LogSegment(directory, baseOffset, segmentSize, indexInterval);
+        segment.recover();
+
+        return segment;
+    }
+
+    private void recover() {
+        int entries = 0;
+        while ((entries + 1) * INDEX_ENTRY_SIZE <= index.capacity()
+                && index.getInt(entries * INDEX_ENTRY_SIZE + 4) != 0) {
+            entries++;
+        }
+
+        // 인덱스가 데이터보다 앞서 기록되었을 수 있으므로, 유효한 레코드를 가리키는 항목까지 되돌아갑니다.
+        while (entries > 0 && !isValid(index.getInt((entries - 1) * INDEX_ENTRY_SIZE + 4))) {
+            entries--;
+        }
+
+        int recoveredCount = 0;
+        int recoveredPosition = 0;
+        if (entries > 0) {
+            recoveredCount = index.getInt((entries - 1) * INDEX_ENTRY_SIZE);
+            recoveredPosition = index.getInt((entries - 1) * INDEX_ENTRY_SIZE + 4);
+        }
+
+        while (isValid(recoveredPosition)) {
+            recoveredPosition += 8 + data.getInt(recoveredPosition);
+            recoveredCount++;
+        }
+
+        position = recoveredPosition;
+        count = recoveredCount;
+        indexEntries = entries;
+        lastIndexedPosition = (entries > 0) ? index.getInt((entries - 1) * INDEX_ENTRY_SIZE + 4) : 0;
+
+        for (int i = entries * INDEX_ENTRY_SIZE; i < index.capacity(); i++) {
+            index.put(i, (byte) 0);
+        }
+
+        if ((position + 4 <= data.capacity()) && (data.getInt(position) != 0)) {
+            for (int i = position; i < data.capacity(); i++) {
+                data.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private boolean isValid(int recordPosition) {
+        if (recordPosition + RECORD_HEADER_SIZE > data.capacity()) {
+            return false;
+        }
+
+        int size = data.getInt(recordPosition);
+        int end = recordPosition + 8 + size;
+        if ((size < 3) || (end > data.capacity()) || (end < 0)) {
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data.slice(recordPosition + 8, size));
+
+        return (int) crc.getValue() == data.getInt(recordPosition + 4);
+    }
+
+    /**
+     * 레코드를 기록합니다.
+     *
+     * @param type  레코드 종류
+     * @param key   UTF-8로 인코딩된 키
+     * @param value 레코드 값
+     * @return 기록된 레코드의 오프셋. 공간이 부족하면 -1
+     */
+    long append(LogRecord.Type type, byte[] key, byte[] value) {
+        int size = 1 + 2 + key.length + value.length;
+        if (position + 8L + size + 4 > data.capacity()) {
+            return -1;
+        }
+
+        int body = position + 8;
+        data.put(body, (byte) type.getCode());
+        data.putShort(body + 1, (short) key.length);
+        data.put(body + 3, key);
+        data.put(body + 3 + key.length, value);
+
+        CRC32 crc = new CRC32();
+        crc.update(data.slice(body, size));
+        data.putInt(position + 4, (int) crc.getValue());
+        // 길이를 마지막에 기록하여, 중간에 멈춘 기록은 끝으로 취급되도록 합니다.
+        data.putInt(position, size);
+
+        if ((position - lastIndexedPosition >= indexInterval)
+                && ((indexEntries + 1) * INDEX_ENTRY_SIZE <= index.capacity())) {
+            index.putInt(indexEntries * INDEX_ENTRY_SIZE, count);
+            index.putInt(indexEntries * INDEX_ENTRY_SIZE + 4, position);
+            indexEntries++;
+            lastIndexedPosition = position;
+        }
+
+        position += 8 + size;
+
+        return baseOffset + count++;
+    }
+
+    /**
+     * 주어진 오프셋부터 세그먼트 끝까지 레코드를 읽습니다.
+     *
+     * @param fromOffset 읽기 시작할 오프셋
+     * @param consumer   레코드를 받을 함수
+     */
+    void read(long fromOffset, Consumer<LogRecord> consumer) {
+        int relative = (int) Math.max(0, fromOffset - baseOffset);
+        long located = locate(relative);
+        int recordCount = (int) (located >>> 32);
+        int recordPosition = (int) located;
+
+        while ((recordCount < count) && (recordPosition < position)) {
+            int size = data.getInt(recordPosition);
+            if (recordCount >= relative) {
+                consumer.accept(readRecord(recordPosition, recordCount));
+            }
+            recordPosition += 8 + size;
+            recordCount++;
+        }
+    }
+
+    /**
+     * 주어진 오프셋의 레코드 하나를 읽습니다.
+     *
+     * @param offset 읽을 레코드의 오프셋
+     * @return 레코드. 세그먼트에 없는 오프셋이면 null
+     */
+    LogRecord read(long offset) {
+        if ((offset < baseOffset) || (offset >= getNextOffset())) {
+            return null;
+        }
+
+        int relative = (int) (offset - baseOffset);
+        long located = locate(relative);
+        int recordCount = (int) (located >>> 32);
+        int recordPosition = (int) located;
+        while (recordCount < relative) {
+            recordPosition += 8 + data.getInt(recordPosition);
+            recordCount++;
+        }
+
+        return readRecord(recordPosition, recordCount);
+    }
+
+    /**
+     * 인덱스에서 relative 이하인 가장 큰 항목을 이진 탐색합니다.
+     *
+     * @param relative 세그먼트 안에서의 상대 오프셋
+     * @return 상위 32비트에 항목의 상대 오프셋, 하위 32비트에 위치를 담은 값
+     */
+    private long locate(int relative) {
+        int recordPosition = 0;
+        int recordCount = 0;
+
+        int low = 0;
+        int high = indexEntries - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entryOffset = index.getInt(mid * INDEX_ENTRY_SIZE);
+            if (entryOffset <= relative) {
+                recordCount = entryOffset;
+                recordPosition = index.getInt(mid * INDEX_ENTRY_SIZE + 4);
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return ((long) recordCount << 32) | (recordPosition & 0xFFFFFFFFL);
+    }
+
+    private LogRecord readRecord(int recordPosition, int recordCount) {
+        int size = data.getInt(recordPosition);
+        int body = recordPosition + 8;
+        int keyLength = data.getShort(body + 1) & 0xFFFF;
+        byte[] key = new byte[keyLength];
+        byte[] value = new byte[size - 3 - keyLength];
+        data.get(body + 3, key);
+        data.get(body + 3 + keyLength, value);
+
+        return new LogRecord(baseOffset + recordCount, LogRecord.Type.valueOf(data.get(body)),
+                new String(key, StandardCharsets.UTF_8), value);
+    }
+
+    /**
+     * 매핑된 내용을 디스크에 기록합니다.
+     */
+    void force() {
+        data.force();
+        index.force();
+    }
+
+    /**
+     * 세그먼트 파일을 삭제합니다.
+     *
+     * @throws IOException 파일을 삭제할 수 없는 경우
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(logPath);
+        Files.deleteIfExists(indexPath);
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getNextOffset() {
+        return baseOffset + count;
+    }
+
+    int getSize() {
+        return position;
+    }
+
+    static String fileName(long baseOffset, String suffix) {
+        return String.format("%020d%s", baseOffset, suffix);
+    }
+}
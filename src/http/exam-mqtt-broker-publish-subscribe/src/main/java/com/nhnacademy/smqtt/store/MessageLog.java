@@ -0,0 +1,400 @@
+package com.nhnacademy.smqtt.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 브로커의 상태를 재시작 후에도 유지하기 위한 추가 전용(append-only) 로그입니다.
+ *
+ * <p>
+ * 로그는 디렉터리 안의 여러 세그먼트 파일로 나뉘며, 각 세그먼트는 메모리에 매핑되어 있어
+ * 기록은 시스템 호출 없이 메모리 복사로 끝납니다. 디스크 동기화(fsync)는 별도의 스레드가
+ * flushInterval마다 한 번씩 모아서 수행하고(group commit), {@link #sync(long)}를 호출한 스레드는
+ * 자신의 레코드가 포함된 동기화가 끝날 때까지 기다립니다.
+ * </p>
+ *
+ * <p>
+ * 재시작 시에는 세그먼트마다 인덱스의 마지막 항목부터 읽어 기록의 끝을 찾으므로,
+ * 레코드 수와 관계없이 로그를 빠르게 열 수 있습니다.
+ * </p>
+ */
+@Slf4j
+public class MessageLog implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_INDEX_INTERVAL = 4096;
+    public static final long DEFAULT_FLUSH_INTERVAL = 10;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int indexInterval;
+    private final long flushInterval;
+    private final List<LogSegment> segments = new ArrayList<>();
+    private final List<LogSegment> dirtySegments = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private final Thread flusher;
+    private long flushedOffset;
+    private boolean closed;
+
+    /**
+     * 기본 설정으로 로그를 엽니다.
+     *
+     * @param directory 로그 디렉터리. 없으면 생성합니다.
+     * @throws IOException 로그를 열 수 없는 경우
+     */
+    public MessageLog(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_INDEX_INTERVAL, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * MessageLog 생성자.
+     *
+     * @param directory     로그 디렉터리. 없으면 생성합니다.
+     * @param segmentSize   세그먼트 파일 크기 (바이트)
+     * @param indexInterval 인덱스 항목 사이의 최소 바이트 수
+     * @param flushInterval 디스크 동기화 간격 (밀리초)
+     * @throws IOException              로그를 열 수 없는 경우
+     * @throws IllegalArgumentException 설정 값이 올바르지 않은 경우
+     */
+    public MessageLog(Path directory, int segmentSize, int indexInterval, long flushInterval) throws IOException {
+        if ((directory == null) || (segmentSize < 64) || (indexInterval < 1) || (flushInterval < 1)) {
+            throw new IllegalArgumentException("MessageLog 설정 값이 올바르지 않습니다.");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.indexInterval = indexInterval;
+        this.flushInterval = flushInterval;
+
+        Files.createDirectories(directory);
+        for (long baseOffset : findBaseOffsets()) {
+            segments.add(LogSegment.open(directory, baseOffset, segmentSize, indexInterval));
+        }
+        if (segments.isEmpty()) {
+            segments.add(LogSegment.create(directory, 0, segmentSize, indexInterval));
+        }
+        flushedOffset = active().getNextOffset();
+
+        log.info("Message log opened: {} ({} segments, offsets {}..{})", directory, segments.size(),
+                getStartOffset(), getNextOffset());
+
+        flusher = new Thread(this::flushLoop, "message-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private List<Long> findBaseOffsets() throws IOException {
+        List<Long> baseOffsets = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(LogSegment.LOG_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            baseOffsets.add(Long.parseLong(
+                                    name.substring(0, name.length() - LogSegment.LOG_SUFFIX.length())));
+                        } catch (NumberFormatException e) {
+                            log.warn("세그먼트 파일이 아닙니다: {}", name);
+                        }
+                    });
+        }
+        baseOffsets.sort(null);
+
+        return baseOffsets;
+    }
+
+    private LogSegment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * 레코드를 추가합니다. 디스크 동기화를 기다리지 않습니다.
+     *
+     * @param type  레코드 종류
+     * @param key   레코드 키
+     * @param value 레코드 값
+     * @return 추가된 레코드의 오프셋
+     * @throws IllegalArgumentException 레코드가 세그먼트보다 크거나 키가 너무 긴 경우
+     * @throws IllegalStateException    로그가 닫힌 경우
+     * @throws UncheckedIOException     새 세그먼트를 만들 수 없는 경우
+     */
+    public long append(LogRecord.Type type, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("키가 너무 깁니다: " + keyBytes.length);
+        }
+        if (LogSegment.RECORD_HEADER_SIZE + 4L + keyBytes.length + value.length > segmentSize) {
+            throw new IllegalArgumentException("레코드가 세그먼트보다 큽니다: " + value.length);
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("닫힌 로그입니다: " + directory);
+            }
+
+            long offset = active().append(type, keyBytes, value);
+            if (offset < 0) {
+                markDirty(active());
+                segments.add(LogSegment.create(directory, active().getNextOffset(), segmentSize, indexInterval));
+                offset = active().append(type, keyBytes, value);
+            }
+            markDirty(active());
+            flushRequested.signal();
+
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 레코드를 추가하고 디스크에 동기화될 때까지 기다립니다.
+     * 같은 시점에 호출한 여러 스레드의 레코드는 한 번의 동기화로 함께 기록됩니다.
+     *
+     * @param type  레코드 종류
+     * @param key   레코드 키
+     * @param value 레코드 값
+     * @return 추가된 레코드의 오프셋
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    public long appendAndSync(LogRecord.Type type, String key, byte[] value) throws InterruptedException {
+        long offset = append(type, key, value);
+        sync(offset);
+
+        return offset;
+    }
+
+    private void markDirty(LogSegment segment) {
+        if (!dirtySegments.contains(segment)) {
+            dirtySegments.add(segment);
+        }
+    }
+
+    /**
+     * 주어진 오프셋까지의 레코드가 디스크에 동기화될 때까지 기다립니다.
+     *
+     * @param offset 기다릴 레코드의 오프셋
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    public void sync(long offset) throws InterruptedException {
+        lock.lock();
+        try {
+            while (!closed && (flushedOffset <= offset)) {
+                flushed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<LogSegment> targets;
+            long target;
+
+            lock.lock();
+            try {
+                while (!closed && dirtySegments.isEmpty()) {
+                    flushRequested.await();
+                }
+                if (closed) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // 그동안 추가되는 레코드를 한 번의 동기화로 함께 기록하기 위해 잠시 기다립니다.
+            try {
+                TimeUnit.MILLISECONDS.sleep(flushInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                targets = new ArrayList<>(dirtySegments);
+                dirtySegments.clear();
+                target = active().getNextOffset();
+            } finally {
+                lock.unlock();
+            }
+
+            for (LogSegment segment : targets) {
+                segment.force();
+            }
+
+            lock.lock();
+            try {
+                flushedOffset = Math.max(flushedOffset, target);
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 주어진 오프셋부터 마지막 레코드까지 차례로 읽습니다.
+     * 시작 위치는 세그먼트 인덱스로 찾으므로 앞부분을 모두 읽지 않습니다.
+     *
+     * @param fromOffset 읽기 시작할 오프셋
+     * @param consumer   레코드를 받을 함수
+     */
+    public void replay(long fromOffset, Consumer<LogRecord> consumer) {
+        lock.lock();
+        try {
+            for (int i = 0; i < segments.size(); i++) {
+                LogSegment segment = segments.get(i);
+                if (segment.getNextOffset() > fromOffset) {
+                    segment.read(fromOffset, consumer);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 주어진 오프셋의 레코드 하나를 읽습니다.
+     *
+     * @param offset 읽을 레코드의 오프셋
+     * @return 레코드. 삭제되었거나 아직 기록되지 않은 오프셋이면 null
+     */
+    public LogRecord read(long offset) {
+        lock.lock();
+        try {
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                LogSegment segment = segments.get(i);
+                if (segment.getBaseOffset() <= offset) {
+                    return segment.read(offset);
+                }
+            }
+
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 주어진 오프셋보다 앞의 레코드만 담고 있는 세그먼트를 삭제합니다.
+     * 현재 기록 중인 세그먼트는 삭제하지 않습니다.
+     *
+     * @param offset 유지해야 하는 가장 작은 오프셋
+     * @return 삭제한 세그먼트 수
+     * @throws UncheckedIOException 파일을 삭제할 수 없는 경우
+     */
+    public int deleteBefore(long offset) {
+        lock.lock();
+        try {
+            int deleted = 0;
+            while ((segments.size() > 1) && (segments.get(0).getNextOffset() <= offset)) {
+                LogSegment segment = segments.remove(0);
+                dirtySegments.remove(segment);
+                segment.delete();
+                deleted++;
+            }
+
+            return deleted;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 로그에 남아 있는 첫 레코드의 오프셋을 반환합니다.
+     *
+     * @return 첫 레코드 오프셋
+     */
+    public long getStartOffset() {
+        lock.lock();
+        try {
+            return segments.get(0).getBaseOffset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 다음에 추가될 레코드의 오프셋을 반환합니다.
+     *
+     * @return 다음 오프셋
+     */
+    public long getNextOffset() {
+        lock.lock();
+        try {
+            return active().getNextOffset();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 세그먼트 수를 반환합니다.
+     *
+     * @return 세그먼트 수
+     */
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 남은 레코드를 디스크에 동기화하고 로그를 닫습니다.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            for (LogSegment segment : segments) {
+                segment.force();
+            }
+            dirtySegments.clear();
+            flushedOffset = active().getNextOffset();
+            flushRequested.signalAll();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
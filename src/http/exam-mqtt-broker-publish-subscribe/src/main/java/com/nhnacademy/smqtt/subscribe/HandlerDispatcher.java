@@ -0,0 +1,171 @@
+package com.nhnacademy.smqtt.subscribe;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.utils.TopicFilter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 받은 PUBLISH 메시지를 토픽 필터별 핸들러에 나누어 전달합니다.
+ *
+ * <p>
+ * 필터마다 대기열(lane)을 하나씩 두고, 수신 스레드는 일치하는 필터의 대기열에 메시지를 넣기만 합니다.
+ * 대기열은 한 번에 하나의 작업으로만 executor에 제출하므로 같은 필터의 메시지는 받은 순서대로 처리되고,
+ * 서로 다른 필터는 executor의 여러 스레드에서 나란히 처리됩니다. 한 작업은 최대 BATCH_SIZE개를 처리한 후
+ * 다시 제출하여 바쁜 필터가 스레드를 오래 붙잡지 않도록 합니다.
+ * </p>
+ *
+ * <p>
+ * 대기열에 쌓을 수 있는 메시지 수는 capacity로 제한합니다. 가득 찬 대기열에 넣으려는 수신 스레드는 자리가 날 때까지
+ * 기다리므로 소켓에서 더 읽지 않게 되고, TCP 흐름 제어로 브로커의 전송 속도가 조절됩니다. 느린 핸들러는 자신의 대기열이
+ * 찰 때까지는 다른 필터의 수신을 막지 않습니다.
+ * </p>
+ */
+@Slf4j
+class HandlerDispatcher {
+    static final int DEFAULT_CAPACITY = 1024;
+    static final int BATCH_SIZE = 64;
+
+    private final List<Lane> lanes = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    private final int capacity;
+
+    /**
+     * HandlerDispatcher 생성자.
+     *
+     * @param executor 핸들러를 실행할 executor
+     * @param capacity 필터마다 쌓아 둘 수 있는 최대 메시지 수
+     * @throws IllegalArgumentException executor가 null이거나 capacity가 1보다 작은 경우
+     */
+    HandlerDispatcher(Executor executor, int capacity) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor는 null일 수 없습니다.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity는 1 이상이어야 합니다.");
+        }
+
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 토픽 필터에 핸들러를 등록합니다.
+     *
+     * @param filter  토픽 필터
+     * @param handler 필터와 일치하는 메시지를 받을 핸들러
+     * @throws IllegalArgumentException 필터 형식이 올바르지 않거나 handler가 null인 경우
+     */
+    void register(String filter, MessageHandler handler) {
+        TopicFilter.validate(TopicFilter.split(filter));
+        if (handler == null) {
+            throw new IllegalArgumentException("handler는 null일 수 없습니다.");
+        }
+
+        lanes.add(new Lane(filter, handler));
+    }
+
+    /**
+     * 등록한 핸들러가 있는지 확인합니다.
+     *
+     * @return 하나라도 있으면 true
+     */
+    boolean hasHandlers() {
+        return !lanes.isEmpty();
+    }
+
+    /**
+     * 메시지를 일치하는 모든 필터의 대기열에 넣습니다. 가득 찬 대기열이 있으면 자리가 날 때까지 기다립니다.
+     *
+     * @param message 받은 메시지
+     * @return 메시지를 넣은 대기열 수
+     * @throws InterruptedException 기다리는 중 인터럽트가 발생한 경우
+     */
+    int dispatch(PUBLISH message) throws InterruptedException {
+        int matched = 0;
+        for (Lane lane : lanes) {
+            if (TopicFilter.matches(lane.filter, message.getTopic())) {
+                lane.offer(message);
+                matched++;
+            }
+        }
+
+        return matched;
+    }
+
+    /**
+     * 모든 대기열에 쌓여 처리를 기다리는 메시지 수를 반환합니다.
+     *
+     * @return 대기 중인 메시지 수
+     */
+    int getBacklog() {
+        int backlog = 0;
+        for (Lane lane : lanes) {
+            backlog += lane.size();
+        }
+
+        return backlog;
+    }
+
+    /**
+     * 토픽 필터 하나의 대기열입니다. scheduled가 true인 동안에는 executor에 제출한 작업이 하나 있습니다.
+     */
+    private final class Lane implements Runnable {
+        private final String filter;
+        private final MessageHandler handler;
+        private final ArrayDeque<PUBLISH> queue = new ArrayDeque<>();
+        private boolean scheduled;
+
+        Lane(String filter, MessageHandler handler) {
+            this.filter = filter;
+            this.handler = handler;
+        }
+
+        void offer(PUBLISH message) throws InterruptedException {
+            synchronized (this) {
+                while (queue.size() >= capacity) {
+                    wait();
+                }
+                queue.addLast(message);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+
+            executor.execute(this);
+        }
+
+        synchronized int size() {
+            return queue.size();
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                PUBLISH message;
+                synchronized (this) {
+                    message = queue.pollFirst();
+                    if (message == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    notifyAll();
+                }
+
+                try {
+                    handler.onMessage(message);
+                } catch (RuntimeException e) {
+                    log.warn("핸들러가 {} 메시지를 처리하지 못하였습니다: {}", message.getTopic(), e.getMessage());
+                }
+            }
+
+            executor.execute(this);
+        }
+    }
+}
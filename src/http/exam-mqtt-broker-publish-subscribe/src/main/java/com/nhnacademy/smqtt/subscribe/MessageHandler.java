@@ -0,0 +1,17 @@
+package com.nhnacademy.smqtt.subscribe;
+
+import com.nhnacademy.smqtt.message.PUBLISH;
+
+/**
+ * 토픽 필터에 등록하여 필터와 일치하는 PUBLISH 메시지를 받는 핸들러입니다.
+ * 같은 필터에 등록한 핸들러는 받은 순서대로 한 번에 하나씩 호출되지만, 호출하는 스레드는 매번 다를 수 있습니다.
+ */
+@FunctionalInterface
+public interface MessageHandler {
+    /**
+     * 메시지를 처리합니다. 발생한 예외는 기록만 하고, 다음 메시지를 계속 전달합니다.
+     *
+     * @param message 받은 PUBLISH 메시지
+     */
+    void onMessage(PUBLISH message);
+}
@@ -26,6 +26,7 @@ public class SimpleMQTTSubscribeClient {
         options.addOption("c", "client_id", true, "client id");
         options.addOption(Option.builder("t").longOpt("topic").desc("Subscribe to topics").hasArgs().build());
         options.addOption("v", "verbose", false, "Verbose");
+        options.addOption("r", "reconnect", false, "reconnect with backoff and subscribe again when the connection is lost");
 
         try {
             CommandLineParser parser = new DefaultParser();
@@ -48,6 +49,7 @@ public class SimpleMQTTSubscribeClient {
 
             client.setQoS(1);
             client.setVerbose(verbose);
+            client.setReconnect(cmd.hasOption("r"));
 
             client.run();
         } catch (IOException e) {
@@ -3,29 +3,53 @@ package com.nhnacademy.smqtt.subscribe;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import com.nhnacademy.smqtt.broker.Broker;
 import com.nhnacademy.smqtt.client.Client;
 import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBACK;
+import com.nhnacademy.smqtt.message.PUBCOMP;
 import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.PUBREC;
+import com.nhnacademy.smqtt.message.PUBREL;
 import com.nhnacademy.smqtt.message.SUBACK;
 import com.nhnacademy.smqtt.message.SUBSCRIBE;
+import com.nhnacademy.smqtt.utils.TopicFilter;
+import com.nhnacademy.smqtt.utils.VirtualThreads;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * SubscribeClient 클래스는 MQTT 프로토콜을 사용하여 특정 토픽을 구독하는 클라이언트입니다.
  * 이 클래스는 Client 클래스를 상속받아 MQTT 브로커와의 연결을 관리하고 메시지를 수신하는 기능을 제공합니다.
+ *
+ * <p>
+ * addHandler()로 토픽 필터마다 핸들러를 등록하면, 수신 스레드는 메시지를 해석하여 일치하는 필터의 대기열에 넣고
+ * 핸들러는 executor에서 실행됩니다. 같은 필터의 메시지는 받은 순서대로 처리되며, 필터의 대기열이 가득 차면
+ * 수신 스레드가 기다리므로 브로커의 전송 속도가 조절됩니다. 핸들러를 등록하지 않으면 받은 메시지를 터미널로 출력합니다.
+ * QoS 1, 2 메시지의 응답은 대기열에 넣은 후 보냅니다.
+ * </p>
  */
 @Slf4j
 public class SubscribeClient extends Client {
 
     private final List<String> topics = new LinkedList<>();
     private boolean verbose = false;
+    private Executor executor;
+    private ExecutorService ownedExecutor;
+    private int backlog = HandlerDispatcher.DEFAULT_CAPACITY;
+    private HandlerDispatcher dispatcher;
+    private final Map<String, List<MessageHandler>> handlers = new LinkedHashMap<>();
 
     /**
      * SubscribeClient 생성자.
@@ -108,18 +132,103 @@ public class SubscribeClient extends Client {
         return topics.size();
     }
 
+    /**
+     * 토픽 필터에 핸들러를 등록하고, 필터를 구독할 토픽에 추가합니다.
+     * 한 메시지가 여러 필터와 일치하면 각 필터의 핸들러가 모두 받습니다.
+     *
+     * @param filter  토픽 필터
+     * @param handler 필터와 일치하는 메시지를 받을 핸들러
+     * @throws IllegalArgumentException 필터 형식이 올바르지 않거나 handler가 null인 경우
+     * @throws IllegalStateException    메시지를 받기 시작한 후에 호출한 경우
+     */
+    public void addHandler(String filter, MessageHandler handler) {
+        if (dispatcher != null) {
+            throw new IllegalStateException("메시지를 받기 시작한 후에는 핸들러를 등록할 수 없습니다.");
+        }
+        TopicFilter.validate(TopicFilter.split(filter));
+        if (handler == null) {
+            throw new IllegalArgumentException("handler는 null일 수 없습니다.");
+        }
+
+        addTopic(filter);
+        handlers.computeIfAbsent(filter, key -> new ArrayList<>()).add(handler);
+    }
+
+    /**
+     * 핸들러를 실행할 executor를 설정합니다. 설정하지 않으면 가상 스레드(지원하지 않으면 캐시 스레드 풀)를 사용하고,
+     * run()이 끝날 때 종료합니다. 설정한 executor는 종료하지 않습니다.
+     *
+     * @param executor 핸들러를 실행할 executor
+     * @throws IllegalArgumentException executor가 null인 경우
+     */
+    public void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor는 null일 수 없습니다.");
+        }
+
+        this.executor = executor;
+    }
+
+    /**
+     * 필터마다 처리를 기다리며 쌓아 둘 수 있는 최대 메시지 수를 설정합니다.
+     *
+     * @param backlog 최대 메시지 수
+     * @throws IllegalArgumentException backlog가 1보다 작은 경우
+     */
+    public void setBacklog(int backlog) {
+        if (backlog < 1) {
+            throw new IllegalArgumentException("backlog는 1 이상이어야 합니다.");
+        }
+
+        this.backlog = backlog;
+    }
+
+    /**
+     * 핸들러의 처리를 기다리는 메시지 수를 반환합니다.
+     *
+     * @return 대기 중인 메시지 수. 핸들러를 등록하지 않았으면 0
+     */
+    public int getBacklog() {
+        return (dispatcher != null) ? dispatcher.getBacklog() : 0;
+    }
+
+    /**
+     * 연결과 메시지 수신을 수행하고, 직접 만든 핸들러 executor를 종료합니다.
+     */
+    @Override
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+                ownedExecutor = null;
+                executor = null;
+                dispatcher = null;
+            }
+        }
+    }
+
     /**
      * MQTT 브로커와 연결을 수행하고 메시지를 처리합니다.
      * 클린 세션이 설정된 경우, 모든 구독 토픽에 대해 SUBSCRIBE 메시지를 전송하고
      * SUBACK 메시지를 수신합니다. 이후 PUBLISH 메시지를 지속적으로 수신합니다.
+     * 다시 연결할 때도 호출되므로, 브로커에 이전 세션이 남아 있지 않으면 getTopics()를 모두 다시 구독합니다.
      *
      * @throws IOException 메시지 전송 또는 수신 중 오류가 발생한 경우
      */
     @Override
     protected void processing() throws IOException {
         // TODO: clean session인 경우, 추가되어 있는 토픽을 브로커에 등록합니다.
+        if (getCleanSession() || !isSessionPresent()) {
+            for (String topic : topics) {
+                sendSubscribe(topic);
+                receiveSubAck(topic);
+            }
+        }
 
         // TODO: 해당 토픽 메시지를 수신합니다.
+        listenForMessages();
     }
 
     /**
@@ -130,9 +239,8 @@ public class SubscribeClient extends Client {
      */
     protected void sendSubscribe(String topic) throws IOException {
         // TODO: 토픽을 브로커에 등록합니다.
+        send(new SUBSCRIBE(topic));
         log.info("Sent SUBSCRIBE message for topic: {}", topic);
-        
-        
     }
 
     /**
@@ -165,5 +273,60 @@ public class SubscribeClient extends Client {
      */
     protected void listenForMessages() throws IOException {
         // TODO: PUBLISH 메시지를 반복해서 수신하여, 터미널로 출력합니다.
+        HandlerDispatcher handlerDispatcher = getDispatcher();
+        while (!Thread.currentThread().isInterrupted()) {
+            Message message = receive();
+            if (message instanceof PUBLISH publish) {
+                if (handlerDispatcher != null) {
+                    dispatch(handlerDispatcher, publish);
+                } else if (verbose) {
+                    System.out.println(publish.getTopic() + " " + publish.getMessage());
+                } else {
+                    System.out.println(publish.getMessage());
+                }
+
+                if (publish.getQoS() == 1) {
+                    send(new PUBACK(publish.getPacketId()));
+                } else if (publish.getQoS() == 2) {
+                    send(new PUBREC(publish.getPacketId()));
+                }
+            } else if (message instanceof PUBREL pubRel) {
+                send(new PUBCOMP(pubRel.getPacketId()));
+            }
+        }
+    }
+
+    private void dispatch(HandlerDispatcher handlerDispatcher, PUBLISH publish) throws InterruptedIOException {
+        try {
+            if (handlerDispatcher.dispatch(publish) == 0) {
+                log.debug("No handler for topic: {}", publish.getTopic());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("핸들러의 대기열을 기다리는 중 인터럽트가 발생하였습니다.");
+        }
+    }
+
+    /**
+     * 등록한 핸들러로 디스패처를 만듭니다. 다시 연결해도 같은 디스패처를 사용하여 필터별 순서를 유지합니다.
+     *
+     * @return 디스패처. 핸들러를 등록하지 않았으면 null
+     */
+    private HandlerDispatcher getDispatcher() {
+        if ((dispatcher == null) && !handlers.isEmpty()) {
+            if (executor == null) {
+                ownedExecutor = VirtualThreads.newExecutor("subscribe-handler");
+                executor = ownedExecutor;
+            }
+            HandlerDispatcher created = new HandlerDispatcher(executor, backlog);
+            for (Map.Entry<String, List<MessageHandler>> entry : handlers.entrySet()) {
+                for (MessageHandler handler : entry.getValue()) {
+                    created.register(entry.getKey(), handler);
+                }
+            }
+            dispatcher = created;
+        }
+
+        return dispatcher;
     }
 }
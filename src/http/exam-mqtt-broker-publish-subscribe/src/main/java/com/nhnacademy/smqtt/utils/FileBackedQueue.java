@@ -0,0 +1,286 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * 바이트 배열을 파일에 차례로 기록하고 기록한 순서대로 꺼내는 큐입니다.
+ *
+ * <p>
+ * 원소는 [길이 4][내용] 형식으로 파일 끝에 이어서 기록하고, 읽기 위치를 앞에서부터 옮기며 꺼냅니다.
+ * 큐가 비면 파일을 0바이트로 잘라 공간을 돌려줍니다. 파일은 처음 원소를 넣을 때 만들고
+ * 닫을 때 삭제하므로, 한 번도 사용하지 않은 큐는 파일을 만들지 않습니다.
+ * 힙 밖에 데이터를 보관하기 위한 용도이며 재시작 후 복구는 지원하지 않습니다. 스레드 안전하지 않습니다.
+ * </p>
+ *
+ * <p>
+ * {@link #open(Path)}로 연 큐는 정해진 파일을 사용하고 닫아도 삭제하지 않습니다. 파일 앞 8바이트에 읽기 위치를 기록하므로
+ * 프로세스를 다시 시작해도 꺼내지 않은 원소부터 이어서 꺼낼 수 있습니다. 원소를 기록하는 도중 종료되어 끝이 잘린 원소는
+ * 열 때 버립니다. fsync는 하지 않으므로 운영체제가 비정상 종료되면 마지막 기록은 잃을 수 있습니다.
+ * </p>
+ */
+public class FileBackedQueue implements AutoCloseable {
+    private static final int HEADER_LENGTH = 8;
+
+    private final Path directory;
+    private final String prefix;
+    private final boolean durable;
+    private final long start;
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+    private FileChannel channel;
+    private Path file;
+    private long readPosition;
+    private long writePosition;
+    private int size;
+
+    /**
+     * FileBackedQueue 생성자.
+     *
+     * @param directory 큐 파일을 만들 디렉터리
+     * @param prefix    큐 파일 이름의 접두사
+     * @throws IllegalArgumentException directory가 null인 경우
+     */
+    public FileBackedQueue(Path directory, String prefix) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory는 null일 수 없습니다.");
+        }
+
+        this.directory = directory;
+        this.prefix = prefix;
+        this.durable = false;
+        this.start = 0;
+    }
+
+    private FileBackedQueue(Path file) {
+        this.directory = file.toAbsolutePath().getParent();
+        this.prefix = null;
+        this.durable = true;
+        this.start = HEADER_LENGTH;
+        this.file = file;
+        this.readPosition = start;
+        this.writePosition = start;
+    }
+
+    /**
+     * 재시작 후에도 남는 큐를 엽니다. 파일이 있으면 꺼내지 않은 원소를 복구하고, 없으면 새로 만듭니다.
+     *
+     * @param file 큐 파일 경로
+     * @return 열린 큐
+     * @throws IllegalArgumentException file이 null인 경우
+     * @throws IOException              파일을 열거나 읽을 수 없는 경우
+     */
+    public static FileBackedQueue open(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file은 null일 수 없습니다.");
+        }
+
+        FileBackedQueue queue = new FileBackedQueue(file);
+        try {
+            queue.recover();
+        } catch (IOException e) {
+            queue.close();
+            throw e;
+        }
+
+        return queue;
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        long length = channel.size();
+        if (length >= HEADER_LENGTH) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            readFully(header, 0);
+            readPosition = header.getLong(0);
+        }
+        if ((readPosition < start) || (readPosition > length)) {
+            readPosition = start;
+        }
+
+        // 읽기 위치부터 원소를 차례로 세고, 끝이 잘린 원소를 만나면 그 앞까지만 남깁니다.
+        long position = readPosition;
+        while (position + 4 <= length) {
+            lengthBuffer.clear();
+            readFully(lengthBuffer, position);
+            int elementLength = lengthBuffer.getInt(0);
+            if ((elementLength < 0) || (position + 4 + elementLength > length)) {
+                break;
+            }
+            position += 4L + elementLength;
+            size++;
+        }
+        writePosition = position;
+        if (size == 0) {
+            reset();
+        } else {
+            channel.truncate(writePosition);
+            writeHeader();
+        }
+    }
+
+    private void reset() throws IOException {
+        channel.truncate(start);
+        readPosition = start;
+        writePosition = start;
+        if (durable) {
+            writeHeader();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putLong(0, readPosition);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    /**
+     * 원소를 큐의 끝에 추가합니다.
+     *
+     * @param element 추가할 원소
+     * @throws UncheckedIOException 파일에 기록할 수 없는 경우
+     */
+    public void offer(byte[] element) {
+        try {
+            if (channel == null) {
+                Files.createDirectories(directory);
+                file = Files.createTempFile(directory, prefix, ".queue");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+
+            ByteBuffer[] buffers = {
+                    ByteBuffer.allocate(4).putInt(0, element.length),
+                    ByteBuffer.wrap(element)
+            };
+            channel.position(writePosition);
+            while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            writePosition += 4L + element.length;
+            size++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 큐의 맨 앞 원소를 꺼냅니다.
+     *
+     * @return 꺼낸 원소. 큐가 비어 있으면 null
+     * @throws UncheckedIOException 파일을 읽을 수 없는 경우
+     */
+    public byte[] poll() {
+        if (size == 0) {
+            return null;
+        }
+
+        try {
+            lengthBuffer.clear();
+            readFully(lengthBuffer, readPosition);
+            ByteBuffer element = ByteBuffer.allocate(lengthBuffer.getInt(0));
+            readFully(element, readPosition + 4);
+
+            readPosition += 4L + element.capacity();
+            if (--size == 0) {
+                reset();
+            } else if (durable) {
+                writeHeader();
+            }
+
+            return element.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 꺼내지 않은 원소를 맨 앞부터 차례로 전달합니다. 원소는 큐에 그대로 남습니다.
+     *
+     * @param consumer 원소를 받을 함수
+     * @throws UncheckedIOException 파일을 읽을 수 없는 경우
+     */
+    public void forEach(Consumer<byte[]> consumer) {
+        long position = readPosition;
+        try {
+            for (int i = 0; i < size; i++) {
+                lengthBuffer.clear();
+                readFully(lengthBuffer, position);
+                ByteBuffer element = ByteBuffer.allocate(lengthBuffer.getInt(0));
+                readFully(element, position + 4);
+                position += 4L + element.capacity();
+
+                consumer.accept(element.array());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("큐 파일이 손상되었습니다: " + file);
+            }
+        }
+    }
+
+    /**
+     * 큐에 남은 원소 수를 반환합니다.
+     *
+     * @return 원소 수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 큐가 비어 있는지 확인합니다.
+     *
+     * @return 비어 있으면 true
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 큐 파일의 경로를 반환합니다.
+     *
+     * @return 큐 파일 경로. 아직 만들지 않았으면 null
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 남은 원소를 버리고 큐 파일을 삭제합니다. {@link #open(Path)}로 연 큐는 원소와 파일을 남겨 두고 닫기만 합니다.
+     */
+    @Override
+    public void close() {
+        size = 0;
+        readPosition = start;
+        writePosition = start;
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+            if (!durable) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 많은 수의 짧은 타이머를 적은 비용으로 관리하기 위한 해시 휠 타이머입니다.
+ *
+ * <p>
+ * 시간을 tick 단위로 나눈 원형 배열(휠)의 각 칸에 타이머를 연결 리스트로 매달고,
+ * 하나의 작업 스레드가 tick마다 한 칸씩 이동하며 만료된 타이머를 실행합니다.
+ * 타이머 항목은 {@link Timeout}을 상속한 객체 자체가 리스트의 노드가 되므로,
+ * 예약이나 취소 시 별도의 객체를 만들지 않습니다. 만료 시점의 정밀도는 tick 간격입니다.
+ * </p>
+ */
+@Slf4j
+public class HashedWheelTimer implements AutoCloseable {
+    /**
+     * 휠에 예약할 수 있는 타이머 항목입니다. 만료 시 작업 스레드에서 {@link #expire()}가 호출됩니다.
+     */
+    public abstract static class Timeout {
+        private long deadline;
+        private long rounds;
+        private int bucket = -1;
+        private Timeout prev;
+        private Timeout next;
+
+        /**
+         * 타이머가 만료되었을 때 실행할 동작입니다. 타이머 스레드를 오래 점유하지 않도록 짧게 작성합니다.
+         */
+        protected abstract void expire();
+    }
+
+    private final long tickNanos;
+    private final Timeout[] wheel;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String name;
+    private long startNanos;
+    private long tick;
+    private Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * HashedWheelTimer 생성자.
+     *
+     * @param name          작업 스레드 이름
+     * @param tickDuration  tick 간격
+     * @param unit          tick 간격의 단위
+     * @param ticksPerWheel 휠의 칸 수. 2의 거듭제곱으로 올림됩니다.
+     * @throws IllegalArgumentException tickDuration이나 ticksPerWheel이 1보다 작은 경우
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if ((tickDuration < 1) || (ticksPerWheel < 1) || (ticksPerWheel > (1 << 30))) {
+            throw new IllegalArgumentException("tickDuration과 ticksPerWheel은 1 이상이어야 합니다.");
+        }
+
+        int size = (ticksPerWheel == 1) ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Timeout[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * 타이머를 예약합니다. 이미 예약된 타이머는 기존 예약을 취소하고 다시 예약합니다.
+     * 작업 스레드는 처음 예약할 때 시작됩니다.
+     *
+     * @param timeout 예약할 타이머 항목
+     * @param delay   만료까지의 시간
+     * @param unit    시간 단위
+     * @return 예약되었으면 true, 타이머가 이미 종료되었으면 false
+     */
+    public boolean schedule(Timeout timeout, long delay, TimeUnit unit) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            start();
+            unlink(timeout);
+
+            long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+            long ticks = Math.max(deadline / tickNanos, tick);
+
+            timeout.deadline = deadline;
+            timeout.rounds = (ticks - tick) / wheel.length;
+            timeout.bucket = (int) (ticks & mask);
+            timeout.prev = null;
+            timeout.next = wheel[timeout.bucket];
+            if (timeout.next != null) {
+                timeout.next.prev = timeout;
+            }
+            wheel[timeout.bucket] = timeout;
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 예약된 타이머를 취소합니다.
+     *
+     * @param timeout 취소할 타이머 항목
+     * @return 예약되어 있었으면 true
+     */
+    public boolean cancel(Timeout timeout) {
+        lock.lock();
+        try {
+            return unlink(timeout);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 타이머가 예약되어 있는지 확인합니다.
+     *
+     * @param timeout 타이머 항목
+     * @return 예약되어 있으면 true
+     */
+    public boolean isScheduled(Timeout timeout) {
+        lock.lock();
+        try {
+            return timeout.bucket >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean unlink(Timeout timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheel[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+
+        return true;
+    }
+
+    private void start() {
+        if (worker == null) {
+            startNanos = System.nanoTime();
+            worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void run() {
+        List<Timeout> expired = new ArrayList<>();
+
+        while (!closed) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+
+            lock.lock();
+            try {
+                collectExpired(deadline, expired);
+                tick++;
+            } finally {
+                lock.unlock();
+            }
+
+            // 만료 동작은 잠금 밖에서 실행하여, 동작 안에서 다시 예약할 수 있도록 합니다.
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.expire();
+                } catch (RuntimeException e) {
+                    log.warn("{}: {}", name, e.getMessage());
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    private void collectExpired(long now, List<Timeout> expired) {
+        Timeout timeout = wheel[(int) (tick & mask)];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.rounds <= 0) {
+                if (timeout.deadline <= now) {
+                    unlink(timeout);
+                    expired.add(timeout);
+                }
+            } else {
+                timeout.rounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * 작업 스레드를 종료합니다. 예약되어 있던 타이머는 실행되지 않습니다.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            if (worker != null) {
+                worker.interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
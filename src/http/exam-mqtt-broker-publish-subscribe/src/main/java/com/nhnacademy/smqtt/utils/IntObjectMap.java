@@ -0,0 +1,220 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * int 키를 박싱하지 않고 저장하는 오픈 어드레싱 해시 맵입니다.
+ *
+ * <p>
+ * 키와 값을 각각의 배열에 보관하고 선형 탐사로 충돌을 해결합니다.
+ * 삭제 시에는 뒤따르는 항목을 앞으로 당겨 tombstone 없이 탐사 순서를 유지합니다.
+ * 스레드 안전하지 않으므로 사용하는 쪽에서 동기화해야 합니다.
+ * </p>
+ *
+ * @param <V> 값의 타입
+ */
+public class IntObjectMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * 기본 크기의 맵을 생성합니다.
+     */
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * IntObjectMap 생성자.
+     *
+     * @param expectedSize 예상되는 항목 수
+     * @throws IllegalArgumentException expectedSize가 음수인 경우
+     */
+    public IntObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize는 0 이상이어야 합니다.");
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * 키에 해당하는 값을 반환합니다.
+     *
+     * @param key 키
+     * @return 값. 없으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = indexOf(key);
+
+        return (index < 0) ? null : (V) values[index];
+    }
+
+    /**
+     * 키가 있는지 확인합니다.
+     *
+     * @param key 키
+     * @return 있으면 true
+     */
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * 키와 값을 저장합니다.
+     *
+     * @param key   키
+     * @param value 값 (null 불가)
+     * @return 이전 값. 없었으면 null
+     * @throws IllegalArgumentException value가 null인 경우
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value는 null일 수 없습니다.");
+        }
+
+        int index = hash(key);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * 키에 해당하는 항목을 삭제합니다.
+     *
+     * @param key 키
+     * @return 삭제된 값. 없었으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V previous = (V) values[index];
+        values[index] = null;
+        size--;
+
+        // 삭제한 자리 뒤의 항목 중 원래 위치가 빈 자리보다 앞선 항목을 당겨 옵니다.
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                values[next] = null;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        return previous;
+    }
+
+    /**
+     * 저장된 항목 수를 반환합니다.
+     *
+     * @return 항목 수
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 맵이 비어 있는지 확인합니다.
+     *
+     * @return 비어 있으면 true
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 모든 항목을 삭제합니다.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * 저장된 모든 값에 대해 action을 실행합니다. 실행 중에 맵을 수정해서는 안 됩니다.
+     *
+     * @param action 값마다 실행할 동작
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int index = hash(key);
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = hash(oldKeys[i]);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지연 시간 분포를 기록하는 히스토그램입니다.
+ *
+ * <p>
+ * HdrHistogram과 같은 방식으로 값의 범위를 2의 거듭제곱 단위 버킷으로 나누고, 각 버킷을 2048개의 하위 버킷으로
+ * 나누어 유효 숫자 3자리의 정밀도를 유지합니다. 따라서 1부터 maxValue까지의 값을 고정 크기 배열로 기록하며,
+ * 기록할 때 객체를 만들지 않습니다. maxValue보다 큰 값은 maxValue로 기록합니다.
+ * </p>
+ *
+ * <p>
+ * 여러 스레드가 동시에 기록할 수 있습니다. 버킷 배열은 스레드 수만큼 나누어(striping) 스레드마다 다른 배열을 갱신하고,
+ * 개수와 합계는 LongAdder로 더하므로 기록하는 스레드끼리 같은 캐시 라인을 두고 경합하지 않습니다.
+ * 나누어진 배열은 읽을 때 합치며, 최솟값과 최댓값도 기록할 때 갱신하지 않고 읽을 때 버킷에서 계산하므로
+ * 하위 버킷의 정밀도(유효 숫자 3자리)를 따릅니다.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_HALF_COUNT_MAGNITUDE = 10;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_COUNT_MAGNITUDE;
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF_COUNT << 1;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1L;
+    private static final int LEADING_ZERO_COUNT_BASE = 64 - SUB_BUCKET_HALF_COUNT_MAGNITUDE - 1;
+    private static final int MAX_STRIPES = 8;
+    private static final int STRIPES = Math.min(MAX_STRIPES,
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+    private final long maxValue;
+    private final int length;
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+
+    /**
+     * LatencyHistogram 생성자.
+     *
+     * @param maxValue 기록할 수 있는 최댓값
+     * @throws IllegalArgumentException maxValue가 2보다 작은 경우
+     */
+    public LatencyHistogram(long maxValue) {
+        if (maxValue < 2) {
+            throw new IllegalArgumentException("maxValue는 2 이상이어야 합니다.");
+        }
+
+        int bucketCount = 1;
+        long smallestUntrackable = SUB_BUCKET_COUNT;
+        while ((smallestUntrackable <= maxValue) && (bucketCount < 64 - SUB_BUCKET_HALF_COUNT_MAGNITUDE)) {
+            smallestUntrackable <<= 1;
+            bucketCount++;
+        }
+
+        this.maxValue = maxValue;
+        this.length = (bucketCount + 1) * SUB_BUCKET_HALF_COUNT;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new AtomicLongArray(length);
+        }
+    }
+
+    /**
+     * 값을 기록합니다.
+     *
+     * @param value 기록할 값. 음수는 0으로, maxValue보다 큰 값은 maxValue로 기록합니다.
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), maxValue);
+
+        stripes[(int) Thread.currentThread().getId() & (STRIPES - 1)].incrementAndGet(indexOf(clamped));
+        totalCount.increment();
+        totalValue.add(clamped);
+    }
+
+    /**
+     * 나누어 기록한 버킷 배열을 하나로 합칩니다.
+     *
+     * @return 버킷별 개수
+     */
+    private long[] merge() {
+        long[] merged = new long[length];
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < length; i++) {
+                merged[i] += stripe.get(i);
+            }
+        }
+
+        return merged;
+    }
+
+    private static int indexOf(long value) {
+        int bucketIndex = LEADING_ZERO_COUNT_BASE - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+
+        return ((bucketIndex + 1) << SUB_BUCKET_HALF_COUNT_MAGNITUDE) + (subBucketIndex - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long lowestValueAt(int index) {
+        int bucketIndex = (index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1;
+        int subBucketIndex = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        if (bucketIndex < 0) {
+            subBucketIndex -= SUB_BUCKET_HALF_COUNT;
+            bucketIndex = 0;
+        }
+
+        return (long) subBucketIndex << bucketIndex;
+    }
+
+    private static long highestValueAt(int index) {
+        int bucketIndex = Math.max((index >> SUB_BUCKET_HALF_COUNT_MAGNITUDE) - 1, 0);
+
+        return lowestValueAt(index) + (1L << bucketIndex) - 1;
+    }
+
+    /**
+     * 주어진 백분위에 해당하는 값을 반환합니다.
+     * 반환 값은 해당 하위 버킷에 속하는 값 중 가장 큰 값이며, maxValue를 넘지 않습니다.
+     *
+     * @param percentile 백분위 (0 ~ 100)
+     * @return 백분위 값. 기록된 값이 없으면 0
+     * @throws IllegalArgumentException percentile이 0 ~ 100 범위를 벗어난 경우
+     */
+    public long getValueAtPercentile(double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("percentile은 0 ~ 100 사이여야 합니다.");
+        }
+
+        // 개수는 합친 버킷에서 다시 세어, 읽는 동안 기록된 값이 있어도 목표 위치가 버킷 범위를 벗어나지 않도록 합니다.
+        long[] counts = merge();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), maxValue);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * 기록된 값의 수를 반환합니다.
+     *
+     * @return 기록된 값의 수
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * 기록된 최솟값을 반환합니다. 가장 작은 값이 속한 하위 버킷의 하한입니다.
+     *
+     * @return 최솟값. 기록된 값이 없으면 0
+     */
+    public long getMin() {
+        long[] counts = merge();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                return lowestValueAt(i);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * 기록된 최댓값을 반환합니다. 가장 큰 값이 속한 하위 버킷의 상한이며, maxValue를 넘지 않습니다.
+     *
+     * @return 최댓값. 기록된 값이 없으면 0
+     */
+    public long getMax() {
+        long[] counts = merge();
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return Math.min(highestValueAt(i), maxValue);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * 기록된 값의 평균을 반환합니다.
+     *
+     * @return 평균. 기록된 값이 없으면 0
+     */
+    public double getMean() {
+        long total = totalCount.sum();
+
+        return (total == 0) ? 0 : (double) totalValue.sum() / total;
+    }
+
+    /**
+     * 다른 히스토그램에 기록된 값을 더합니다.
+     *
+     * @param other 더할 히스토그램
+     * @throws IllegalArgumentException 기록할 수 있는 최댓값이 다른 경우
+     */
+    public void add(LatencyHistogram other) {
+        if (other.maxValue != maxValue) {
+            throw new IllegalArgumentException("maxValue가 같은 히스토그램만 더할 수 있습니다.");
+        }
+
+        long[] counts = other.merge();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                stripes[0].addAndGet(i, counts[i]);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalValue.add(other.totalValue.sum());
+    }
+
+    /**
+     * 지금까지 기록된 값을 새 히스토그램으로 옮기고 이 히스토그램을 비웁니다.
+     * 옮기는 동안 기록된 값은 어느 한쪽에만 포함되며, 이때 평균에는 약간의 오차가 생길 수 있습니다.
+     *
+     * @return 기록된 값을 담은 새 히스토그램
+     */
+    public LatencyHistogram snapshotAndReset() {
+        LatencyHistogram snapshot = new LatencyHistogram(maxValue);
+
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < length; i++) {
+                long count = stripe.getAndSet(i, 0);
+                if (count > 0) {
+                    snapshot.stripes[0].addAndGet(i, count);
+                    total += count;
+                }
+            }
+        }
+        totalCount.add(-total);
+        snapshot.totalCount.add(total);
+        snapshot.totalValue.add(totalValue.sumThenReset());
+
+        return snapshot;
+    }
+}
@@ -0,0 +1,210 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 여러 스레드가 넣고 한 스레드만 꺼내는(MPSC) 크기가 고정된 잠금 없는 링 버퍼입니다.
+ *
+ * <p>
+ * 칸마다 순번을 두어 칸의 상태를 나타냅니다. 생산자는 tail을 CAS로 하나 늘려 칸을 차지한 뒤 원소를 쓰고,
+ * 칸의 순번을 갱신하여 소비자에게 원소를 공개합니다. 소비자는 칸의 순번으로 원소가 공개되었는지 확인하고,
+ * 원소를 꺼낸 뒤 순번을 한 바퀴 뒤로 옮겨 생산자에게 칸을 돌려줍니다.
+ * 생산자끼리는 tail의 CAS에서만 경합하고, 소비자는 어떤 원자적 연산도 기다리지 않습니다.
+ * </p>
+ *
+ * <p>
+ * 칸마다 미리 만들어 둔 원소를 다시 채워 쓰려면 factory를 받는 생성자를 사용합니다. 이때 생산자는 claim()으로 칸을 차지하고,
+ * get()으로 얻은 원소를 채운 뒤 publish()로 공개합니다. 소비자는 peek()으로 원소를 읽고 release()로 칸을 돌려주므로,
+ * 넣고 꺼낼 때 객체를 만들지 않습니다. 이 방식에서는 offer()와 poll()을 함께 사용하지 않습니다.
+ * </p>
+ *
+ * <p>
+ * poll(), peek(), release()는 소비자 스레드 하나만 호출해야 합니다. offer(), claim(), size()는 어느 스레드에서나 호출할 수 있습니다.
+ * </p>
+ *
+ * @param <E> 원소의 타입
+ */
+public class MpscRingBuffer<E> {
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * MpscRingBuffer 생성자. 용량은 2의 거듭제곱으로 올림합니다.
+     *
+     * @param capacity 최대 원소 수
+     * @throws IllegalArgumentException capacity가 1보다 작거나 2^30보다 큰 경우
+     */
+    public MpscRingBuffer(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * 칸마다 원소를 미리 만들어 두는 MpscRingBuffer 생성자. 용량은 2의 거듭제곱으로 올림합니다.
+     *
+     * @param capacity 최대 원소 수
+     * @param factory  칸에 둘 원소를 만드는 함수. null이면 칸을 비워 둡니다.
+     * @throws IllegalArgumentException capacity가 1보다 작거나 2^30보다 큰 경우
+     */
+    public MpscRingBuffer(int capacity, Supplier<? extends E> factory) {
+        if ((capacity < 1) || (capacity > (1 << 30))) {
+            throw new IllegalArgumentException("capacity는 1부터 2^30 사이여야 합니다.");
+        }
+
+        int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+            if (factory != null) {
+                elements[i] = factory.get();
+            }
+        }
+    }
+
+    /**
+     * 원소를 넣습니다.
+     *
+     * @param element 넣을 원소
+     * @return 넣었으면 true, 가득 찼으면 false
+     * @throws IllegalArgumentException element가 null인 경우
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("element는 null일 수 없습니다.");
+        }
+
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // 소비자가 아직 한 바퀴 전의 원소를 꺼내지 않았습니다.
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 가장 먼저 넣은 원소를 꺼냅니다. 소비자 스레드만 호출해야 합니다.
+     *
+     * @return 꺼낸 원소. 비어 있으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.set(index, position + elements.length);
+        head = position + 1;
+
+        return element;
+    }
+
+    /**
+     * 원소를 채울 칸을 차지합니다. 차지한 칸은 get()으로 원소를 채운 뒤 반드시 publish()로 공개해야 합니다.
+     *
+     * @return 차지한 칸의 순번. 가득 찼으면 -1
+     */
+    public long claim() {
+        while (true) {
+            long position = tail.get();
+            long difference = sequences.get((int) (position & mask)) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 차지한 칸에 미리 만들어 둔 원소를 반환합니다.
+     *
+     * @param sequence claim()이 반환한 순번
+     * @return 칸의 원소
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) elements[(int) (sequence & mask)];
+    }
+
+    /**
+     * 채운 칸을 소비자에게 공개합니다.
+     *
+     * @param sequence claim()이 반환한 순번
+     */
+    public void publish(long sequence) {
+        sequences.set((int) (sequence & mask), sequence + 1);
+    }
+
+    /**
+     * 가장 먼저 공개된 원소를 칸에서 꺼내지 않고 반환합니다. 소비자 스레드만 호출해야 합니다.
+     * 원소를 다 읽었으면 release()로 칸을 돌려주어야 합니다.
+     *
+     * @return 공개된 원소. 비어 있으면 null
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long position = head;
+        int index = (int) (position & mask);
+
+        return (sequences.get(index) == position + 1) ? (E) elements[index] : null;
+    }
+
+    /**
+     * peek()으로 읽은 칸을 원소와 함께 생산자에게 돌려줍니다. 소비자 스레드만 호출해야 합니다.
+     */
+    public void release() {
+        long position = head;
+        sequences.set((int) (position & mask), position + elements.length);
+        head = position + 1;
+    }
+
+    /**
+     * 꺼내지 않은 원소 수를 반환합니다. 다른 스레드가 동시에 넣거나 꺼내는 중이면 근삿값입니다.
+     *
+     * @return 원소 수
+     */
+    public int size() {
+        long size = tail.get() - head;
+
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    /**
+     * 비어 있는지 확인합니다.
+     *
+     * @return 비어 있으면 true
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 최대 원소 수를 반환합니다.
+     *
+     * @return 용량
+     */
+    public int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,119 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 한 연결에서 사용하는 패킷 식별자(1 ~ 65535)를 나누어 주는 할당기입니다.
+ *
+ * <p>
+ * 사용 중인 식별자를 65536비트 비트맵에 기록하며, 할당과 반납은 비트맵 워드에 대한 CAS로 처리하므로
+ * 여러 스레드가 잠금 없이 동시에 호출할 수 있습니다. 할당은 마지막으로 나누어 준 식별자 다음부터 차례로 찾으므로
+ * 방금 반납한 식별자를 바로 다시 사용하지 않고, 응답을 기다리는 식별자는 건너뜁니다.
+ * 할당과 반납 중에는 객체를 만들지 않습니다.
+ * </p>
+ */
+public class PacketIdAllocator {
+    public static final int MAX_PACKET_ID = 0xFFFF;
+    private static final int WORD_COUNT = (MAX_PACKET_ID + 1) / Long.SIZE;
+
+    private final AtomicLongArray words = new AtomicLongArray(WORD_COUNT);
+    private final AtomicInteger cursor = new AtomicInteger(1);
+
+    /**
+     * PacketIdAllocator 생성자.
+     */
+    public PacketIdAllocator() {
+        // 0은 패킷 식별자로 사용할 수 없으므로 항상 사용 중으로 둡니다.
+        words.set(0, 1L);
+    }
+
+    /**
+     * 사용하지 않는 패킷 식별자를 하나 할당합니다.
+     *
+     * @return 1부터 65535 사이의 패킷 식별자
+     * @throws IllegalStateException 모든 식별자가 사용 중인 경우
+     */
+    public int allocate() {
+        int start = cursor.get() & MAX_PACKET_ID;
+        int index = start >>> 6;
+        long mask = -1L << (start & 63);
+
+        // 시작 워드의 앞부분까지 다시 보도록 한 바퀴 하고 한 워드를 더 확인합니다.
+        for (int i = 0; i <= WORD_COUNT; i++) {
+            long word = words.get(index);
+            long free = ~word & mask;
+            while (free != 0) {
+                long bit = Long.lowestOneBit(free);
+                if (words.compareAndSet(index, word, word | bit)) {
+                    int packetId = (index << 6) | Long.numberOfTrailingZeros(bit);
+                    cursor.set(packetId + 1);
+                    return packetId;
+                }
+                word = words.get(index);
+                free = ~word & mask;
+            }
+
+            index = (index + 1) % WORD_COUNT;
+            mask = -1L;
+        }
+
+        throw new IllegalStateException("사용할 수 있는 패킷 식별자가 없습니다.");
+    }
+
+    /**
+     * 패킷 식별자를 반납합니다.
+     *
+     * @param packetId 반납할 패킷 식별자
+     * @return 사용 중이던 식별자를 반납하였으면 true, 사용 중이 아니었으면 false
+     * @throws IllegalArgumentException packetId가 1부터 65535 사이가 아닌 경우
+     */
+    public boolean release(int packetId) {
+        check(packetId);
+
+        int index = packetId >>> 6;
+        long bit = 1L << (packetId & 63);
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) == 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 패킷 식별자가 사용 중인지 확인합니다.
+     *
+     * @param packetId 확인할 패킷 식별자
+     * @return 사용 중이면 true
+     * @throws IllegalArgumentException packetId가 1부터 65535 사이가 아닌 경우
+     */
+    public boolean isInUse(int packetId) {
+        check(packetId);
+
+        return (words.get(packetId >>> 6) & (1L << (packetId & 63))) != 0;
+    }
+
+    /**
+     * 사용 중인 패킷 식별자 수를 반환합니다. 다른 스레드가 동시에 할당하거나 반납하는 중이면 근삿값입니다.
+     *
+     * @return 사용 중인 식별자 수
+     */
+    public int getInUseCount() {
+        int count = 0;
+        for (int i = 0; i < WORD_COUNT; i++) {
+            count += Long.bitCount(words.get(i));
+        }
+
+        return count - 1;
+    }
+
+    private static void check(int packetId) {
+        if ((packetId < 1) || (packetId > MAX_PACKET_ID)) {
+            throw new IllegalArgumentException("packetId는 1부터 " + MAX_PACKET_ID + " 사이여야 합니다.");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nhnacademy.smqtt.utils;
+
+/**
+ * MQTT 토픽 필터를 다루는 유틸리티입니다. 토픽을 레벨('/') 단위로 나누고, '+'와 '#' 와일드카드 필터가
+ * 발행 토픽과 일치하는지 확인합니다. 브로커의 구독 트리와 구독 클라이언트의 핸들러 선택이 같은 규칙을 사용합니다.
+ */
+public final class TopicFilter {
+    public static final String LEVEL_SEPARATOR = "/";
+    public static final String SINGLE_LEVEL_WILDCARD = "+";
+    public static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private TopicFilter() {
+    }
+
+    /**
+     * 토픽 필터의 형식을 검증합니다.
+     *
+     * @param levels 레벨 단위로 나눈 토픽 필터
+     * @throws IllegalArgumentException '#'이 마지막 레벨이 아니거나, 와일드카드가 레벨 전체를 차지하지 않는 경우
+     */
+    public static void validate(String[] levels) {
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (level.contains(MULTI_LEVEL_WILDCARD)
+                    && (!level.equals(MULTI_LEVEL_WILDCARD) || (i != levels.length - 1))) {
+                throw new IllegalArgumentException("'#'은 마지막 레벨에만 단독으로 사용할 수 있습니다.");
+            }
+
+            if (level.contains(SINGLE_LEVEL_WILDCARD) && !level.equals(SINGLE_LEVEL_WILDCARD)) {
+                throw new IllegalArgumentException("'+'는 레벨에 단독으로 사용해야 합니다.");
+            }
+        }
+    }
+
+    /**
+     * 토픽 필터가 발행 토픽과 일치하는지 확인합니다.
+     *
+     * @param filter 토픽 필터
+     * @param topic  발행 토픽
+     * @return 일치하면 true
+     */
+    public static boolean matches(String filter, String topic) {
+        String[] filterLevels = split(filter);
+        String[] topicLevels = split(topic);
+
+        if (topicLevels[0].startsWith("$")
+                && (filterLevels[0].equals(SINGLE_LEVEL_WILDCARD) || filterLevels[0].equals(MULTI_LEVEL_WILDCARD))) {
+            return false;
+        }
+
+        for (int i = 0; i < filterLevels.length; i++) {
+            if (filterLevels[i].equals(MULTI_LEVEL_WILDCARD)) {
+                return true;
+            }
+
+            if ((i >= topicLevels.length)
+                    || (!filterLevels[i].equals(SINGLE_LEVEL_WILDCARD) && !filterLevels[i].equals(topicLevels[i]))) {
+                return false;
+            }
+        }
+
+        return filterLevels.length == topicLevels.length;
+    }
+
+    /**
+     * 토픽을 레벨 단위로 나눕니다. 빈 레벨도 하나의 레벨로 유지합니다.
+     *
+     * @param topic 토픽 또는 토픽 필터
+     * @return 레벨 배열
+     * @throws IllegalArgumentException topic이 null이거나 비어 있는 경우
+     */
+    public static String[] split(String topic) {
+        if ((topic == null) || topic.isEmpty()) {
+            throw new IllegalArgumentException("Topic은 비어 있을 수 없습니다.");
+        }
+
+        int count = 1;
+        for (int i = 0; i < topic.length(); i++) {
+            if (topic.charAt(i) == '/') {
+                count++;
+            }
+        }
+
+        String[] levels = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = topic.indexOf('/', start);
+            if (end < 0) {
+                end = topic.length();
+            }
+            levels[i] = topic.substring(start, end);
+            start = end + 1;
+        }
+
+        return levels;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nhnacademy.smqtt.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 작업마다 가상 스레드를 사용하는 ExecutorService를 만드는 유틸리티입니다.
+ *
+ * <p>
+ * 프로젝트는 Java 17을 대상으로 컴파일하므로 Executors.newVirtualThreadPerTaskExecutor()를 리플렉션으로 찾습니다.
+ * Java 21 이상에서 실행하면 가상 스레드를 사용하고, 그렇지 않으면 이름이 붙은 데몬 스레드의 캐시 스레드 풀을 사용합니다.
+ * </p>
+ */
+public final class VirtualThreads {
+    private static final Method FACTORY = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    private static Method findFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ignore) {
+            return null;
+        }
+    }
+
+    /**
+     * 현재 런타임이 가상 스레드를 지원하는지 확인합니다.
+     *
+     * @return 지원하면 true
+     */
+    public static boolean isSupported() {
+        return FACTORY != null;
+    }
+
+    /**
+     * 작업마다 새 스레드를 사용하는 ExecutorService를 만듭니다.
+     *
+     * @param name 가상 스레드를 지원하지 않을 때 사용할 스레드 이름의 접두사
+     * @return 가상 스레드 또는 캐시 스레드 풀 기반의 ExecutorService
+     */
+    public static ExecutorService newExecutor(String name) {
+        if (FACTORY != null) {
+            try {
+                return (ExecutorService) FACTORY.invoke(null);
+            } catch (ReflectiveOperationException ignore) {
+                // 캐시 스레드 풀을 사용합니다.
+            }
+        }
+
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
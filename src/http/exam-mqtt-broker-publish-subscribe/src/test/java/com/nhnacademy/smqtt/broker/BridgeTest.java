@@ -0,0 +1,217 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BridgeTest {
+    private static final String BROKER_HOST = "localhost";
+    private static final int[] BROKER_PORTS = { 18841, 18842, 18843 };
+    private static final int PEER_PORT = 18844;
+    private static final long TIMEOUT = 10_000;
+    private static final List<Broker> brokers = new ArrayList<>();
+
+    /**
+     * 모든 테스트 전에 서로를 peer로 연결한 Broker 세 개를 실행합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        for (int port : BROKER_PORTS) {
+            Broker broker = new Broker(port);
+            broker.setMode(Broker.Mode.NON_BLOCKING);
+            broker.setReactorCount(1);
+            for (int peer : BROKER_PORTS) {
+                if (peer != port) {
+                    broker.addBridge(BROKER_HOST, peer);
+                }
+            }
+            broker.start();
+            brokers.add(broker);
+        }
+
+        Thread.sleep(500);
+    }
+
+    /**
+     * 모든 테스트 후에 Broker를 중단합니다.
+     */
+    @AfterAll
+    static void tearDown() {
+        for (Broker broker : brokers) {
+            broker.interrupt();
+        }
+    }
+
+    /**
+     * 잘못된 브리지 설정이 거부되는지 테스트
+     */
+    @Test
+    void testInvalidConfiguration() {
+        Broker other = new Broker(BROKER_PORTS[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> other.addBridge("", 1883));
+        assertThrows(IllegalArgumentException.class, () -> other.addBridge(BROKER_HOST, 0));
+        assertThrows(IllegalArgumentException.class, () -> other.setBridgeName(""));
+        assertThrows(IllegalArgumentException.class, () -> other.setBridgeName("x".repeat(16)));
+        assertEquals("broker-" + BROKER_PORTS[0], other.getBridgeName());
+    }
+
+    /**
+     * 구독자가 있는 peer로만 메시지가 전달되는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPublishIsForwardedOnlyToSubscribedPeer() throws IOException, InterruptedException {
+        String topic = "bridge/forward";
+        try (Socket subscriber = connect(BROKER_PORTS[1], "BridgeSubscriber")) {
+            subscribe(subscriber, topic);
+            awaitForwarders(brokers.get(0), topic, 1);
+            awaitForwarders(brokers.get(2), topic, 1);
+
+            publish(BROKER_PORTS[0], "BridgePublisher", topic, "forwarded");
+
+            DataInputStream input = new DataInputStream(subscriber.getInputStream());
+            assertEquals("forwarded", ((PUBLISH) BrokerTest.receive(input)).getMessage());
+            assertThrows(SocketTimeoutException.class, () -> BrokerTest.receive(input));
+        }
+
+        awaitForwarders(brokers.get(0), topic, 0);
+    }
+
+    /**
+     * peer에게서 받은 메시지를 다른 peer로 다시 전달하지 않아 모든 구독자가 한 번씩만 받는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testBridgedMessageIsNotForwardedAgain() throws IOException, InterruptedException {
+        String topic = "bridge/loop";
+        List<Socket> subscribers = new ArrayList<>();
+        try {
+            for (int i = 0; i < BROKER_PORTS.length; i++) {
+                Socket subscriber = connect(BROKER_PORTS[i], "LoopSubscriber" + i);
+                subscribers.add(subscriber);
+                subscribe(subscriber, "bridge/+");
+            }
+            for (Broker broker : brokers) {
+                awaitForwarders(broker, topic, BROKER_PORTS.length - 1);
+            }
+
+            publish(BROKER_PORTS[1], "LoopPublisher", topic, "once");
+
+            for (Socket subscriber : subscribers) {
+                DataInputStream input = new DataInputStream(subscriber.getInputStream());
+                assertEquals("once", ((PUBLISH) BrokerTest.receive(input)).getMessage());
+                assertThrows(SocketTimeoutException.class, () -> BrokerTest.receive(input));
+            }
+        } finally {
+            for (Socket subscriber : subscribers) {
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * peer가 응답하기 전에 연결이 끊긴 QoS 1 메시지를 다음 링크가 다시 보내고, 응답을 받으면 놓는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testUnackedForwardIsResentOnReconnect() throws IOException, InterruptedException {
+        try (ServerSocket server = new ServerSocket(PEER_PORT)) {
+            server.setSoTimeout((int) TIMEOUT);
+            PublishFrame frame = PublishFrame.encode("bridge/qos", Payload.of("again"), false);
+
+            BridgeLink first = new BridgeLink(BROKER_HOST, PEER_PORT, "resend", new TopicTree(), 10);
+            Thread firstThread = new Thread(first);
+            try (Socket peer = acceptBridge(server, firstThread)) {
+                first.getForwarder().sendPublish(frame, 1);
+                PUBLISH publish = (PUBLISH) BrokerTest.receive(new DataInputStream(peer.getInputStream()));
+                assertEquals("again", publish.getMessage());
+                assertEquals(1, first.getUnackedCount());
+            }
+            firstThread.join(TIMEOUT);
+
+            BridgeLink second = new BridgeLink(BROKER_HOST, PEER_PORT, "resend", new TopicTree(), 10);
+            second.resend(first);
+            assertEquals(0, first.getUnackedCount());
+            Thread secondThread = new Thread(second);
+            try (Socket peer = acceptBridge(server, secondThread)) {
+                PUBLISH publish = (PUBLISH) BrokerTest.receive(new DataInputStream(peer.getInputStream()));
+                assertEquals("again", publish.getMessage());
+                assertEquals(1, publish.getQoS());
+
+                BrokerTest.send(new DataOutputStream(peer.getOutputStream()), new PUBACK(publish.getPacketId()));
+                long deadline = System.currentTimeMillis() + TIMEOUT;
+                while (second.getUnackedCount() > 0) {
+                    assertTrue(System.currentTimeMillis() < deadline, "응답을 받은 프레임이 남아 있습니다.");
+                    Thread.sleep(10);
+                }
+                second.close();
+            }
+            secondThread.join(TIMEOUT);
+        }
+    }
+
+    private static Socket acceptBridge(ServerSocket server, Thread link) throws IOException {
+        Socket peer = server.accept();
+        peer.setSoTimeout((int) TIMEOUT);
+        link.start();
+
+        DataInputStream input = new DataInputStream(peer.getInputStream());
+        assertTrue(BrokerTest.receive(input) instanceof CONNECT);
+        BrokerTest.send(new DataOutputStream(peer.getOutputStream()), new CONNACK(false, 0));
+        assertTrue(BrokerTest.receive(input) instanceof SUBSCRIBE);
+
+        return peer;
+    }
+
+    private static Socket connect(int port, String clientId) throws IOException {
+        Socket socket = new Socket(BROKER_HOST, port);
+        socket.setSoTimeout(500);
+
+        CONNECT connect = new CONNECT(clientId);
+        connect.setCleanSession(true);
+        BrokerTest.send(new DataOutputStream(socket.getOutputStream()), connect);
+        assertTrue(BrokerTest.receive(new DataInputStream(socket.getInputStream())) instanceof CONNACK);
+
+        return socket;
+    }
+
+    private static void subscribe(Socket socket, String filter) throws IOException {
+        BrokerTest.send(new DataOutputStream(socket.getOutputStream()), new SUBSCRIBE(filter));
+        assertTrue(BrokerTest.receive(new DataInputStream(socket.getInputStream())) instanceof SUBACK);
+    }
+
+    private static void publish(int port, String clientId, String topic, String message) throws IOException {
+        try (Socket socket = connect(port, clientId)) {
+            BrokerTest.send(new DataOutputStream(socket.getOutputStream()), new PUBLISH(topic, message));
+            BrokerTest.send(new DataOutputStream(socket.getOutputStream()), new DISCONNECT());
+        }
+    }
+
+    private static void awaitForwarders(Broker broker, String topic, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (broker.getBridgeSubscribers().match(topic).size() != expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("peer 구독이 전달되지 않았습니다: " + broker.getBridgeSubscribers().match(topic).size());
+            }
+            Thread.sleep(50);
+        }
+    }
+}
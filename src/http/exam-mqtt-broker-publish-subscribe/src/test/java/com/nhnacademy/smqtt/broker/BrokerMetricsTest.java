@@ -0,0 +1,137 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BrokerMetricsTest {
+    private static final String BROKER_HOST = "localhost";
+    private static final int BROKER_PORT = 18851;
+
+    /**
+     * 카운터와 분포가 기록한 값대로 합산되는지 테스트합니다.
+     */
+    @Test
+    void testCounters() {
+        BrokerMetrics metrics = new BrokerMetrics(() -> 7);
+        metrics.messageReceived("a/b");
+        metrics.messageReceived("a/b");
+        metrics.messageReceived("a/c");
+        metrics.delivered(3);
+        metrics.delivered(0);
+        metrics.bytesReceived(100);
+        metrics.bytesSent(40);
+
+        assertEquals(3, metrics.getMessagesReceived());
+        assertEquals(2, metrics.getMessagesReceived("a/b"));
+        assertEquals(0, metrics.getMessagesReceived("a/d"));
+        assertEquals(3, metrics.getMessagesSent());
+        assertEquals(2, metrics.getFanOut().getTotalCount());
+        assertEquals(3, metrics.getFanOut().getMax());
+
+        Map<String, String> snapshot = metrics.snapshot();
+        assertEquals("7", snapshot.get("subscriptions/count"));
+        assertEquals("100", snapshot.get("bytes/received"));
+        assertEquals("40", snapshot.get("bytes/sent"));
+    }
+
+    /**
+     * CONNECT한 연결만 세고, 텍스트에 세션별 대기열 지표가 포함되는지 테스트합니다.
+     */
+    @Test
+    void testSessions() {
+        BrokerMetrics metrics = new BrokerMetrics(() -> 0);
+        OutboundQueue outbound = mock(OutboundQueue.class);
+        when(outbound.size()).thenReturn(5);
+        Session session = mock(Session.class);
+        when(session.getClientId()).thenReturn("client\"1");
+        when(session.getOutboundQueue()).thenReturn(outbound);
+
+        metrics.disconnected(session);
+        metrics.connected(session);
+        metrics.connected(session);
+        assertEquals(1, metrics.getConnectedCount());
+        assertEquals("5", metrics.snapshot().get("queue/max_depth"));
+        assertTrue(metrics.toText().contains("smqtt_session_queue_depth{client=\"client\\\"1\"} 5\n"));
+
+        metrics.disconnected(session);
+        Map<String, String> snapshot = metrics.snapshot();
+        assertEquals("0", snapshot.get("clients/connected"));
+        assertEquals("1", snapshot.get("clients/connects"));
+        assertEquals("1", snapshot.get("clients/disconnects"));
+    }
+
+    /**
+     * 토픽 수가 한도를 넘으면 나머지 토픽을 하나의 카운터로 합산하는지 테스트합니다.
+     */
+    @Test
+    void testTopicLimit() {
+        BrokerMetrics metrics = new BrokerMetrics(() -> 0);
+        for (int i = 0; i < BrokerMetrics.MAX_TOPICS + 10; i++) {
+            metrics.messageReceived("topic/" + i);
+        }
+
+        assertEquals(0, metrics.getMessagesReceived("topic/" + BrokerMetrics.MAX_TOPICS));
+        assertTrue(metrics.toText().contains("smqtt_topic_messages_received{topic=\"(other)\"} 10\n"));
+    }
+
+    /**
+     * 브로커가 지표를 $SYS 토픽으로 발행하고 HTTP 엔드포인트로도 보여 주는지 테스트합니다.
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testSysTopicsAndEndpoint() throws IOException, InterruptedException {
+        Broker broker = new Broker(BROKER_PORT);
+        broker.setMode(Broker.Mode.NON_BLOCKING);
+        broker.setReactorCount(1);
+        broker.setSysInterval(1);
+        broker.setMetricsPort(0);
+        assertThrows(IllegalArgumentException.class, () -> broker.setSysInterval(-1));
+        assertThrows(IllegalArgumentException.class, () -> broker.setMetricsPort(-2));
+        broker.start();
+        Thread.sleep(500);
+
+        try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT)) {
+            socket.setSoTimeout(5000);
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+
+            CONNECT connect = new CONNECT("MetricsClient");
+            connect.setCleanSession(true);
+            BrokerTest.send(output, connect);
+            assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+            BrokerTest.send(output, new SUBSCRIBE("$SYS/broker/clients/connected"));
+            assertTrue(BrokerTest.receive(input) instanceof SUBACK);
+            BrokerTest.send(output, new PUBLISH("metrics/topic", "value"));
+
+            PUBLISH sys = (PUBLISH) BrokerTest.receive(input);
+            assertEquals("$SYS/broker/clients/connected", sys.getTopic());
+            assertEquals("1", sys.getMessage());
+
+            HttpURLConnection connection = (HttpURLConnection) new URL(
+                    "http://" + BROKER_HOST + ":" + broker.getMetricsPort() + MetricsEndpoint.PATH).openConnection();
+            try (InputStream body = connection.getInputStream()) {
+                String text = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                assertEquals(200, connection.getResponseCode());
+                assertTrue(text.contains("smqtt_clients_connected 1\n"));
+                assertTrue(text.contains("smqtt_topic_messages_received{topic=\"metrics/topic\"} 1\n"));
+                assertTrue(text.contains("smqtt_session_queue_depth{client=\"MetricsClient\"}"));
+            }
+        } finally {
+            broker.interrupt();
+        }
+    }
+}
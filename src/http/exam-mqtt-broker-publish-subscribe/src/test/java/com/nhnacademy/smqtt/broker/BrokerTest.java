@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.concurrent.*;
 
@@ -26,12 +27,16 @@ class BrokerTest {
 
     /**
      * 모든 테스트 전에 실행되어 Broker 인스턴스를 생성하고 실행합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
      */
     @BeforeAll
-    static void setUp() {
+    static void setUp() throws InterruptedException {
         broker = new Broker(BROKER_PORT);
         executorService = Executors.newSingleThreadExecutor();
         executorService.submit(broker);
+
+        Thread.sleep(500);
     }
 
     /**
@@ -203,7 +208,12 @@ class BrokerTest {
             assertTrue(message instanceof SUBACK);
 
             // UNSUBSCRIBE 메시지 전송
-            send(output, new UNSUBSCRIBE(new String[] { topic }));
+            UNSUBSCRIBE unsubscribe = new UNSUBSCRIBE(new String[] { topic });
+            unsubscribe.setPacketId(0xFFFF);
+            send(output, unsubscribe);
+            message = receive(input);
+            assertTrue(message instanceof UNSUBACK);
+            assertEquals(0xFFFF, ((UNSUBACK) message).getPacketId());
 
             // 다시 PUBLISH 후 메시지를 받지 않는지 확인
             send(output, new PUBLISH(topic, payload));
@@ -253,6 +263,120 @@ class BrokerTest {
         }
     }
 
+    /**
+     * 본문이 빈 PUBLISH도 구독자에게 전달되고, 뒤따르는 메시지의 프레임이 어긋나지 않는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testEmptyPayloadIsDelivered() throws IOException {
+        assertEmptyPayloadIsDelivered(BROKER_PORT, "Blocking");
+    }
+
+    /**
+     * 쓰는 도중 연결이 끊겨도 전송하던 본문의 참조를 돌려주는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPayloadsReleasedOnClose() throws IOException, InterruptedException {
+        assertPayloadsReleasedOnClose(broker, BROKER_PORT, "Blocking");
+    }
+
+    /**
+     * 구독자와 발행자를 연결하여 본문이 빈 메시지와 그 뒤의 메시지를 차례로 받는지 확인합니다.
+     * 스레드 처리 방식마다 쓰기 경로가 다르므로 각 방식의 테스트에서 사용합니다.
+     *
+     * @param port   브로커 포트
+     * @param prefix 클라이언트 식별자 접두사
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    static void assertEmptyPayloadIsDelivered(int port, String prefix) throws IOException {
+        String topic = "empty/" + prefix;
+        try (Socket subscriber = new Socket(BROKER_HOST, port);
+                Socket publisher = new Socket(BROKER_HOST, port)) {
+            subscriber.setSoTimeout(5000);
+            publisher.setSoTimeout(5000);
+            DataInputStream subscriberInput = new DataInputStream(subscriber.getInputStream());
+            DataOutputStream subscriberOutput = new DataOutputStream(subscriber.getOutputStream());
+            DataInputStream publisherInput = new DataInputStream(publisher.getInputStream());
+            DataOutputStream publisherOutput = new DataOutputStream(publisher.getOutputStream());
+
+            send(subscriberOutput, new CONNECT(prefix + "EmptySub"));
+            assertTrue(receive(subscriberInput) instanceof CONNACK);
+            send(subscriberOutput, new SUBSCRIBE(topic));
+            assertTrue(receive(subscriberInput) instanceof SUBACK);
+
+            send(publisherOutput, new CONNECT(prefix + "EmptyPub"));
+            assertTrue(receive(publisherInput) instanceof CONNACK);
+            send(publisherOutput, new PUBLISH(topic, ""));
+            send(publisherOutput, new PUBLISH(topic, MESSAGE1));
+
+            Message empty = receive(subscriberInput);
+            assertTrue(empty instanceof PUBLISH);
+            assertEquals("", ((PUBLISH) empty).getMessage());
+            assertEquals(MESSAGE1, ((PUBLISH) receive(subscriberInput)).getMessage());
+
+            send(publisherOutput, new DISCONNECT());
+            send(subscriberOutput, new DISCONNECT());
+        }
+    }
+
+    /**
+     * 쓰기가 막힌 구독자의 연결을 끊으면, 이미 꺼내 쓰던 묶음까지 본문의 참조가 모두 풀로 돌아오는지 확인합니다.
+     * 스레드 처리 방식마다 쓰기 경로가 다르므로 각 방식의 테스트에서 사용합니다.
+     *
+     * @param broker 확인할 브로커
+     * @param port   브로커 포트
+     * @param prefix 클라이언트 식별자 접두사
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    static void assertPayloadsReleasedOnClose(Broker broker, int port, String prefix)
+            throws IOException, InterruptedException {
+        String topic = "stall/" + prefix;
+        long borrowed = broker.getPayloadPool().getBorrowedBytes();
+        try (Socket subscriber = new Socket();
+                Socket publisher = new Socket(BROKER_HOST, port)) {
+            subscriber.setReceiveBufferSize(4096);
+            subscriber.connect(new InetSocketAddress(BROKER_HOST, port));
+            subscriber.setSoTimeout(5000);
+            publisher.setSoTimeout(5000);
+            DataInputStream subscriberInput = new DataInputStream(subscriber.getInputStream());
+            DataOutputStream subscriberOutput = new DataOutputStream(subscriber.getOutputStream());
+            DataInputStream publisherInput = new DataInputStream(publisher.getInputStream());
+            DataOutputStream publisherOutput = new DataOutputStream(publisher.getOutputStream());
+
+            send(subscriberOutput, new CONNECT(prefix + "StallSub"));
+            assertTrue(receive(subscriberInput) instanceof CONNACK);
+            send(subscriberOutput, new SUBSCRIBE(topic));
+            assertTrue(receive(subscriberInput) instanceof SUBACK);
+
+            // 구독자는 더 읽지 않으므로, 소켓 버퍼가 가득 차 브로커의 쓰기가 묶음 중간에서 멈춥니다.
+            send(publisherOutput, new CONNECT(prefix + "StallPub"));
+            assertTrue(receive(publisherInput) instanceof CONNACK);
+            String payload = "x".repeat(32 * 1024);
+            for (int i = 0; i < 200; i++) {
+                send(publisherOutput, new PUBLISH(topic, payload));
+            }
+            send(publisherOutput, new PINGREQ());
+            assertTrue(receive(publisherInput) instanceof PINGRESP);
+            Thread.sleep(500);
+            assertTrue(broker.getPayloadPool().getBorrowedBytes() > borrowed);
+
+            subscriber.setSoLinger(true, 0);
+            subscriber.close();
+            send(publisherOutput, new DISCONNECT());
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((broker.getPayloadPool().getBorrowedBytes() > borrowed) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+        assertEquals(borrowed, broker.getPayloadPool().getBorrowedBytes());
+    }
+
     /**
      * 주어진 메시지를 DataOutputStream을 통해 전송합니다.
      *
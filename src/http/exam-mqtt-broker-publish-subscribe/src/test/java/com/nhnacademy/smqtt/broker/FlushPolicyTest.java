@@ -0,0 +1,35 @@
+package com.nhnacademy.smqtt.broker;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlushPolicyTest {
+    /**
+     * 메시지가 하나씩 도착하면 기다리지 않고, 몰려 도착하면 기다리도록 바뀌는지 테스트합니다.
+     */
+    @Test
+    void testLingerAdaptsToLoad() {
+        FlushPolicy policy = new FlushPolicy(100_000);
+        assertEquals(0, policy.lingerNanos());
+
+        for (int i = 0; i < 10; i++) {
+            policy.record(16);
+        }
+        assertEquals(100_000, policy.lingerNanos());
+
+        for (int i = 0; i < 20; i++) {
+            policy.record(1);
+        }
+        assertEquals(0, policy.lingerNanos());
+        assertTrue(policy.getAverageBatch() < FlushPolicy.BATCHING_THRESHOLD);
+    }
+
+    /**
+     * 잘못된 설정 값이 거부되는지 테스트합니다.
+     */
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new FlushPolicy(-1));
+    }
+}
@@ -0,0 +1,182 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBLISH;
+import com.nhnacademy.smqtt.message.PUBREL;
+import com.nhnacademy.smqtt.utils.HashedWheelTimer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InflightWindowTest {
+    private static final String TOPIC = "test/topic";
+
+    private HashedWheelTimer timer;
+    private List<Message> sent;
+
+    /**
+     * 각 테스트 전에 타이머와 전송 기록을 초기화합니다.
+     */
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 64);
+        sent = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * 각 테스트 후에 타이머를 종료합니다.
+     */
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    /**
+     * maxInflight를 넘은 메시지는 응답이 올 때까지 대기하는지 테스트합니다.
+     */
+    @Test
+    void testFlowControl() {
+        InflightWindow window = window(2, 60_000, 10, Broker.OverflowPolicy.DROP_NEWEST);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(window.offer(PublishFrame.encode(TOPIC, "m" + i), 1));
+        }
+        assertEquals(2, sent.size());
+        assertEquals(2, window.size());
+        assertEquals(2, window.getBacklogSize());
+
+        assertTrue(window.acknowledge(((PUBLISH) sent.get(0)).getPacketId()));
+        assertFalse(window.acknowledge(((PUBLISH) sent.get(0)).getPacketId()));
+
+        assertEquals(3, sent.size());
+        assertEquals("m2", ((PUBLISH) sent.get(2)).getMessage());
+        assertEquals(1, window.getBacklogSize());
+    }
+
+    /**
+     * 대기열이 가득 찬 경우 정책에 따라 처리되는지 테스트합니다.
+     */
+    @Test
+    void testBacklogOverflow() {
+        InflightWindow window = window(1, 60_000, 1, Broker.OverflowPolicy.DISCONNECT);
+
+        assertTrue(window.offer(PublishFrame.encode(TOPIC, "m0"), 1));
+        assertTrue(window.offer(PublishFrame.encode(TOPIC, "m1"), 1));
+        assertFalse(window.offer(PublishFrame.encode(TOPIC, "m2"), 1));
+        assertEquals(1, window.getDroppedCount());
+        assertThrows(IllegalArgumentException.class, () -> window.offer(PublishFrame.encode(TOPIC, "m3"), 0));
+    }
+
+    /**
+     * 응답이 없으면 DUP 플래그를 설정해 재전송하는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testRetransmitWithDupFlag() throws InterruptedException {
+        InflightWindow window = window(10, 30, 10, Broker.OverflowPolicy.DROP_NEWEST);
+
+        window.offer(PublishFrame.encode(TOPIC, "retry"), 1);
+        waitForMessages(2);
+
+        PUBLISH first = (PUBLISH) sent.get(0);
+        PUBLISH retry = (PUBLISH) sent.get(1);
+        assertFalse(first.isDuplicated());
+        assertTrue(retry.isDuplicated());
+        assertEquals(first.getPacketId(), retry.getPacketId());
+        assertTrue(window.getRetransmittedCount() >= 1);
+
+        window.acknowledge(first.getPacketId());
+        int count = sent.size();
+        Thread.sleep(100);
+        assertEquals(count, sent.size());
+    }
+
+    /**
+     * QoS 2 메시지가 PUBREC 이후 PUBREL을 재전송하고, PUBCOMP로 완료되는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testQoS2Flow() throws InterruptedException {
+        InflightWindow window = window(10, 30, 10, Broker.OverflowPolicy.DROP_NEWEST);
+
+        window.offer(PublishFrame.encode(TOPIC, "exactly-once"), 2);
+        int packetId = ((PUBLISH) sent.get(0)).getPacketId();
+        assertEquals(2, sent.get(0).getQoS());
+
+        assertTrue(window.release(packetId));
+        sent.clear();
+        waitForMessages(1);
+        assertTrue(sent.get(0) instanceof PUBREL);
+        assertEquals(packetId, ((PUBREL) sent.get(0)).getPacketId());
+
+        assertTrue(window.acknowledge(packetId));
+        assertEquals(0, window.size());
+    }
+
+    /**
+     * QoS 2로 수신한 패킷 식별자가 PUBREL 전까지 중복으로 처리되는지 테스트합니다.
+     */
+    @Test
+    void testReceivedPacketIds() {
+        InflightWindow window = window(10, 60_000, 10, Broker.OverflowPolicy.DROP_NEWEST);
+
+        assertTrue(window.markReceived(7));
+        assertFalse(window.markReceived(7));
+        window.releaseReceived(7);
+        assertTrue(window.markReceived(7));
+    }
+
+    /**
+     * 패킷 식별자가 응답을 기다리는 식별자를 건너뛰고 65535 다음에 1로 돌아가는지 테스트합니다.
+     */
+    @Test
+    void testPacketIdAllocation() {
+        InflightWindow window = window(10, 60_000, 10, Broker.OverflowPolicy.DROP_NEWEST);
+
+        window.offer(PublishFrame.encode(TOPIC, "m"), 1);
+        assertEquals(1, ((PUBLISH) sent.get(0)).getPacketId());
+        assertEquals(2, window.nextPacketId());
+
+        for (int i = 3; i <= 0xFFFF; i++) {
+            window.nextPacketId();
+        }
+        assertEquals(2, window.nextPacketId());
+    }
+
+    private InflightWindow window(int maxInflight, long retryInterval, int backlogCapacity,
+            Broker.OverflowPolicy policy) {
+        return new InflightWindow(timer, (buffers, owner) -> sent.add(Message.parsing(concat(buffers))),
+                maxInflight, retryInterval, backlogCapacity, policy);
+    }
+
+    private void waitForMessages(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((sent.size() < count) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+        assertTrue(sent.size() >= count);
+    }
+
+    private static byte[] concat(ByteBuffer[] buffers) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            ByteBuffer view = buffer.duplicate();
+            byte[] bytes = new byte[view.remaining()];
+            view.get(bytes);
+            stream.writeBytes(bytes);
+        }
+
+        return stream.toByteArray();
+    }
+}
@@ -0,0 +1,75 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.utils.HashedWheelTimer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class KeepAliveTest {
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("keep-alive-test", 10, TimeUnit.MILLISECONDS, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    /**
+     * 수신이 없으면 Keep Alive의 1.5배가 지난 뒤 연결을 종료하는지 테스트합니다.
+     */
+    @Test
+    void testIdleSessionIsClosed() {
+        Session session = mock(Session.class);
+        KeepAlive keepAlive = new KeepAlive(timer, session, 1);
+        keepAlive.start();
+
+        verify(session, after(1000).never()).close();
+        verify(session, timeout(2000)).close();
+        assertFalse(timer.isScheduled(keepAlive));
+    }
+
+    /**
+     * 수신이 계속되면 연결을 유지하고, 다시 예약된 타이머가 남아 있는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testActiveSessionIsKeptAlive() throws InterruptedException {
+        Session session = mock(Session.class);
+        KeepAlive keepAlive = new KeepAlive(timer, session, 1);
+        keepAlive.start();
+
+        for (int i = 0; i < 12; i++) {
+            Thread.sleep(250);
+            keepAlive.touch();
+        }
+
+        verify(session, never()).close();
+        assertTrue(timer.isScheduled(keepAlive));
+
+        keepAlive.stop();
+        assertFalse(timer.isScheduled(keepAlive));
+    }
+
+    /**
+     * 잘못된 Keep Alive 값이 거부되는지 테스트합니다.
+     */
+    @Test
+    void testInvalidKeepAlive() {
+        assertThrows(IllegalArgumentException.class, () -> new KeepAlive(timer, mock(Session.class), 0));
+    }
+}
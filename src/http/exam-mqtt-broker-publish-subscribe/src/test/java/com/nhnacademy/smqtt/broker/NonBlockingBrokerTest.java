@@ -0,0 +1,434 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.*;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+class NonBlockingBrokerTest {
+    private static final String TOPIC = "test/topic";
+    private static final String MESSAGE1 = "Hello MQTT!";
+    private static final String BROKER_HOST = "localhost";
+    private static final int BROKER_PORT = 18831;
+    private static Broker broker;
+
+    /**
+     * 모든 테스트 전에 논블로킹 모드의 Broker를 실행합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        broker = new Broker(BROKER_PORT);
+        broker.setMode(Broker.Mode.NON_BLOCKING);
+        broker.setReactorCount(2);
+        broker.setRetryInterval(200);
+        broker.start();
+
+        Thread.sleep(500);
+    }
+
+    /**
+     * 모든 테스트 후에 Broker를 중단합니다.
+     */
+    @AfterAll
+    static void tearDown() {
+        broker.interrupt();
+    }
+
+    /**
+     * 잘못된 설정 값이 거부되는지 테스트
+     */
+    @Test
+    void testInvalidConfiguration() {
+        Broker other = new Broker(BROKER_PORT);
+
+        assertThrows(IllegalArgumentException.class, () -> other.setMode(null));
+        assertThrows(IllegalArgumentException.class, () -> other.setReactorCount(0));
+    }
+
+    /**
+     * 클라이언트가 CONNECT 메시지를 보내고 CONNACK 응답을 받는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testClientConnectsAndReceivesConnAck() throws IOException {
+        try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                DataInputStream input = new DataInputStream(socket.getInputStream())) {
+
+            BrokerTest.send(output, new CONNECT("NonBlocking"));
+
+            Message message = BrokerTest.receive(input);
+            assertTrue(message instanceof CONNACK);
+            assertEquals(0, ((CONNACK) message).getReturnCode());
+
+            BrokerTest.send(output, new PINGREQ());
+            assertTrue(BrokerTest.receive(input) instanceof PINGRESP);
+
+            BrokerTest.send(output, new DISCONNECT());
+        }
+    }
+
+    /**
+     * 여러 연결이 서로 다른 Reactor에 분산되어도 PUBLISH가 모든 구독자에게 전달되는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testPublishIsDeliveredAcrossReactors() throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            List<DataInputStream> inputs = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                sockets.add(socket);
+
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                inputs.add(input);
+
+                BrokerTest.send(output, new CONNECT("Subscriber" + i));
+                assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+                BrokerTest.send(output, new SUBSCRIBE(TOPIC));
+                assertTrue(BrokerTest.receive(input) instanceof SUBACK);
+            }
+
+            try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                    DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                    DataInputStream input = new DataInputStream(socket.getInputStream())) {
+                BrokerTest.send(output, new CONNECT("Publisher"));
+                assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+                BrokerTest.send(output, new PUBLISH(TOPIC, MESSAGE1));
+            }
+
+            for (DataInputStream input : inputs) {
+                Message message = BrokerTest.receive(input);
+                assertTrue(message instanceof PUBLISH);
+                assertEquals(TOPIC, ((PUBLISH) message).getTopic());
+                assertEquals(MESSAGE1, ((PUBLISH) message).getMessage());
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * QoS 1 구독자가 응답하지 않으면 DUP 플래그를 설정한 PUBLISH를 다시 받는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testQoS1PublishIsRetransmittedUntilAcknowledged() throws IOException {
+        try (Socket subscriber = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream subscriberOutput = new DataOutputStream(subscriber.getOutputStream());
+                DataInputStream subscriberInput = new DataInputStream(subscriber.getInputStream());
+                Socket publisher = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream publisherOutput = new DataOutputStream(publisher.getOutputStream());
+                DataInputStream publisherInput = new DataInputStream(publisher.getInputStream())) {
+
+            BrokerTest.send(subscriberOutput, new CONNECT("QoSSubscriber"));
+            assertTrue(BrokerTest.receive(subscriberInput) instanceof CONNACK);
+
+            SUBSCRIBE subscribe = new SUBSCRIBE("qos/topic");
+            subscribe.setQoS(1);
+            BrokerTest.send(subscriberOutput, subscribe);
+            Message message = BrokerTest.receive(subscriberInput);
+            assertTrue(message instanceof SUBACK);
+            assertEquals(1, ((SUBACK) message).getReturnCode());
+
+            BrokerTest.send(publisherOutput, new CONNECT("QoSPublisher"));
+            assertTrue(BrokerTest.receive(publisherInput) instanceof CONNACK);
+
+            PUBLISH publish = new PUBLISH("qos/topic", MESSAGE1);
+            publish.setQoS(1);
+            BrokerTest.send(publisherOutput, publish);
+            assertTrue(BrokerTest.receive(publisherInput) instanceof PUBACK);
+
+            PUBLISH first = (PUBLISH) BrokerTest.receive(subscriberInput);
+            assertEquals(1, first.getQoS());
+            assertFalse(first.isDuplicated());
+
+            PUBLISH retry = (PUBLISH) BrokerTest.receive(subscriberInput);
+            assertTrue(retry.isDuplicated());
+            assertEquals(first.getPacketId(), retry.getPacketId());
+
+            BrokerTest.send(subscriberOutput, new PUBACK(first.getPacketId()));
+            BrokerTest.send(subscriberOutput, new DISCONNECT());
+        }
+    }
+
+    /**
+     * 바이너리 본문이 바이트 그대로 전달되고, 응답을 받은 뒤 본문 버퍼가 풀로 돌아오는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testBinaryPayloadIsForwardedAndRecycled() throws IOException, InterruptedException {
+        byte[] binary = { 0x00, (byte) 0xFF, (byte) 0xC3, 0x28, 0x7F, (byte) 0x80 };
+
+        try (Socket subscriber = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream subscriberOutput = new DataOutputStream(subscriber.getOutputStream());
+                DataInputStream subscriberInput = new DataInputStream(subscriber.getInputStream());
+                Socket publisher = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream publisherOutput = new DataOutputStream(publisher.getOutputStream());
+                DataInputStream publisherInput = new DataInputStream(publisher.getInputStream())) {
+
+            CONNECT connect = new CONNECT("BinarySubscriber");
+            connect.setCleanSession(true);
+            BrokerTest.send(subscriberOutput, connect);
+            assertTrue(BrokerTest.receive(subscriberInput) instanceof CONNACK);
+
+            SUBSCRIBE subscribe = new SUBSCRIBE("binary/topic");
+            subscribe.setQoS(1);
+            BrokerTest.send(subscriberOutput, subscribe);
+            assertTrue(BrokerTest.receive(subscriberInput) instanceof SUBACK);
+
+            connect = new CONNECT("BinaryPublisher");
+            connect.setCleanSession(true);
+            BrokerTest.send(publisherOutput, connect);
+            assertTrue(BrokerTest.receive(publisherInput) instanceof CONNACK);
+
+            long pooled = broker.getPayloadPool().getPooledBytes();
+            PUBLISH publish = new PUBLISH("binary/topic", binary);
+            publish.setQoS(1);
+            BrokerTest.send(publisherOutput, publish);
+            assertTrue(BrokerTest.receive(publisherInput) instanceof PUBACK);
+
+            PUBLISH received = (PUBLISH) BrokerTest.receive(subscriberInput);
+            assertArrayEquals(binary, received.getPayload().toByteArray());
+            BrokerTest.send(subscriberOutput, new PUBACK(received.getPacketId()));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((broker.getPayloadPool().getPooledBytes() <= pooled) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertTrue(broker.getPayloadPool().getPooledBytes() > pooled);
+            BrokerTest.send(subscriberOutput, new DISCONNECT());
+        }
+    }
+
+    /**
+     * 구독하는 즉시 필터와 일치하는 retained 메시지를 RETAIN 비트와 함께 받는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testRetainedMessagesAreDeliveredOnSubscribe() throws IOException {
+        try (Socket publisher = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream publisherOutput = new DataOutputStream(publisher.getOutputStream());
+                DataInputStream publisherInput = new DataInputStream(publisher.getInputStream())) {
+            BrokerTest.send(publisherOutput, new CONNECT("RetainPublisher"));
+            assertTrue(BrokerTest.receive(publisherInput) instanceof CONNACK);
+
+            for (String topic : new String[] { "retain/a", "retain/b/c" }) {
+                PUBLISH publish = new PUBLISH(topic, MESSAGE1);
+                publish.setRetained(true);
+                BrokerTest.send(publisherOutput, publish);
+            }
+            BrokerTest.send(publisherOutput, new PINGREQ());
+            assertTrue(BrokerTest.receive(publisherInput) instanceof PINGRESP);
+        }
+
+        try (Socket subscriber = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(subscriber.getOutputStream());
+                DataInputStream input = new DataInputStream(subscriber.getInputStream())) {
+            BrokerTest.send(output, new CONNECT("RetainSubscriber"));
+            assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+            BrokerTest.send(output, new SUBSCRIBE("retain/#"));
+            assertTrue(BrokerTest.receive(input) instanceof SUBACK);
+
+            List<String> topics = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                PUBLISH publish = (PUBLISH) BrokerTest.receive(input);
+                assertTrue(publish.isRetained());
+                assertEquals(MESSAGE1, publish.getMessage());
+                topics.add(publish.getTopic());
+            }
+            assertTrue(topics.containsAll(List.of("retain/a", "retain/b/c")));
+
+            BrokerTest.send(output, new DISCONNECT());
+        }
+    }
+
+    /**
+     * 공유 구독 그룹의 구성원들이 발행 메시지를 하나씩 나누어 받는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testSharedSubscriptionDistributesMessages() throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            List<DataInputStream> inputs = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                socket.setSoTimeout(500);
+                sockets.add(socket);
+
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                inputs.add(input);
+
+                BrokerTest.send(output, new CONNECT("SharedWorker" + i));
+                assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+                BrokerTest.send(output, new SUBSCRIBE("$share/workers/shared/topic"));
+                assertEquals(0, ((SUBACK) BrokerTest.receive(input)).getReturnCode());
+            }
+
+            try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                    DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                    DataInputStream input = new DataInputStream(socket.getInputStream())) {
+                BrokerTest.send(output, new CONNECT("SharedPublisher"));
+                assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+                for (int i = 0; i < 4; i++) {
+                    BrokerTest.send(output, new PUBLISH("shared/topic", MESSAGE1 + i));
+                }
+            }
+
+            List<String> received = new ArrayList<>();
+            for (DataInputStream input : inputs) {
+                for (int i = 0; i < 2; i++) {
+                    received.add(((PUBLISH) BrokerTest.receive(input)).getMessage());
+                }
+                assertThrows(SocketTimeoutException.class, () -> BrokerTest.receive(input));
+            }
+            assertEquals(List.of(MESSAGE1 + 0, MESSAGE1 + 1, MESSAGE1 + 2, MESSAGE1 + 3),
+                    received.stream().sorted().toList());
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * 지속 세션이 연결이 끊긴 동안 받은 QoS 1 메시지를 다시 연결했을 때 받는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testPersistentSessionReceivesQueuedMessages() throws IOException {
+        try (Socket subscriber = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(subscriber.getOutputStream());
+                DataInputStream input = new DataInputStream(subscriber.getInputStream())) {
+            BrokerTest.send(output, new CONNECT("Persistent"));
+            assertFalse(((CONNACK) BrokerTest.receive(input)).isSessionPresent());
+
+            SUBSCRIBE subscribe = new SUBSCRIBE("offline/topic");
+            subscribe.setQoS(1);
+            BrokerTest.send(output, subscribe);
+            assertTrue(BrokerTest.receive(input) instanceof SUBACK);
+
+            BrokerTest.send(output, new DISCONNECT());
+        }
+
+        try (Socket publisher = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(publisher.getOutputStream());
+                DataInputStream input = new DataInputStream(publisher.getInputStream())) {
+            BrokerTest.send(output, new CONNECT("OfflinePublisher"));
+            assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+            for (int i = 0; i < 3; i++) {
+                PUBLISH publish = new PUBLISH("offline/topic", MESSAGE1 + i);
+                publish.setQoS(1);
+                BrokerTest.send(output, publish);
+                assertTrue(BrokerTest.receive(input) instanceof PUBACK);
+            }
+        }
+
+        try (Socket subscriber = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(subscriber.getOutputStream());
+                DataInputStream input = new DataInputStream(subscriber.getInputStream())) {
+            BrokerTest.send(output, new CONNECT("Persistent"));
+            assertTrue(((CONNACK) BrokerTest.receive(input)).isSessionPresent());
+
+            for (int i = 0; i < 3; i++) {
+                PUBLISH publish = (PUBLISH) BrokerTest.receive(input);
+                assertEquals(MESSAGE1 + i, publish.getMessage());
+                assertEquals(1, publish.getQoS());
+                BrokerTest.send(output, new PUBACK(publish.getPacketId()));
+            }
+
+            BrokerTest.send(output, new DISCONNECT());
+        }
+
+        try (Socket subscriber = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(subscriber.getOutputStream());
+                DataInputStream input = new DataInputStream(subscriber.getInputStream())) {
+            CONNECT connect = new CONNECT("Persistent");
+            connect.setCleanSession(true);
+            BrokerTest.send(output, connect);
+            assertFalse(((CONNACK) BrokerTest.receive(input)).isSessionPresent());
+
+            BrokerTest.send(output, new DISCONNECT());
+        }
+    }
+
+    /**
+     * Keep Alive의 1.5배 동안 아무것도 보내지 않은 연결을 브로커가 종료하는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testIdleConnectionIsClosedAfterKeepAlive() throws IOException {
+        try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                DataInputStream input = new DataInputStream(socket.getInputStream())) {
+            socket.setSoTimeout(5000);
+
+            CONNECT connect = new CONNECT("KeepAlive");
+            connect.setKeepAlive((short) 1);
+            BrokerTest.send(output, connect);
+            assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+            BrokerTest.send(output, new PINGREQ());
+            assertTrue(BrokerTest.receive(input) instanceof PINGRESP);
+
+            long start = System.nanoTime();
+            assertEquals(-1, input.read());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1000));
+        }
+    }
+
+    /**
+     * 본문이 빈 PUBLISH도 구독자에게 전달되고, 뒤따르는 메시지의 프레임이 어긋나지 않는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testEmptyPayloadIsDelivered() throws IOException {
+        BrokerTest.assertEmptyPayloadIsDelivered(BROKER_PORT, "NonBlocking");
+    }
+
+    /**
+     * 쓰는 도중 연결이 끊겨도 전송하던 본문의 참조를 돌려주는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPayloadsReleasedOnClose() throws IOException, InterruptedException {
+        BrokerTest.assertPayloadsReleasedOnClose(broker, BROKER_PORT, "NonBlocking");
+    }
+}
@@ -0,0 +1,180 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.store.MessageLog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OfflineQueueTest {
+    @TempDir
+    Path directory;
+    MessageLog spool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        spool = new MessageLog(directory.resolve("spool"), 1024, 64, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    /**
+     * 힙 한도를 넘은 메시지를 spool 로그에 기록해도 순서대로 전달하는지 테스트합니다.
+     */
+    @Test
+    void testSpillPreservesOrder() {
+        OfflineQueue queue = new OfflineQueue("c", 100, 3, spool, false, Broker.OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer("topic", "message-" + i, 1 + (i % 2)));
+        }
+        assertEquals(10, queue.size());
+        assertEquals(7, queue.getSpilledCount());
+
+        List<String> received = new ArrayList<>();
+        List<Integer> qos = new ArrayList<>();
+        Session session = recorder(received, qos);
+
+        assertEquals(4, queue.drainTo(session, 4));
+        assertEquals(6, queue.drainTo(session, 100));
+        assertEquals(0, queue.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("message-" + i, received.get(i));
+            assertEquals(1 + (i % 2), qos.get(i));
+        }
+        queue.close();
+    }
+
+    /**
+     * 한도를 넘으면 정책에 따라 새 메시지나 가장 오래된 메시지를 버리는지 테스트합니다.
+     */
+    @Test
+    void testQuota() {
+        OfflineQueue newest = new OfflineQueue("a", 2, 1, spool, false, Broker.OverflowPolicy.DROP_NEWEST);
+        newest.offer("t", "1", 1);
+        newest.offer("t", "2", 1);
+        assertFalse(newest.offer("t", "3", 1));
+        assertEquals(1, newest.getDroppedCount());
+
+        OfflineQueue oldest = new OfflineQueue("b", 2, 1, spool, false, Broker.OverflowPolicy.DROP_OLDEST);
+        oldest.offer("t", "1", 1);
+        oldest.offer("t", "2", 1);
+        assertTrue(oldest.offer("t", "3", 1));
+        assertEquals(1, oldest.getDroppedCount());
+
+        List<String> received = new ArrayList<>();
+        oldest.drainTo(recorder(received, new ArrayList<>()), 10);
+        assertEquals(List.of("2", "3"), received);
+
+        newest.close();
+        oldest.close();
+    }
+
+    /**
+     * 잘못된 설정 값이 거부되는지 테스트합니다.
+     */
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OfflineQueue("c", 0, 1, spool, false, Broker.OverflowPolicy.DROP_NEWEST));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OfflineQueue("c", 1, -1, spool, false, Broker.OverflowPolicy.DROP_NEWEST));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OfflineQueue("c", 1, 1, null, false, Broker.OverflowPolicy.DROP_NEWEST));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OfflineQueue(null, 1, 1, spool, false, Broker.OverflowPolicy.DROP_NEWEST));
+    }
+
+    /**
+     * 여러 세션이 spool 로그 하나를 함께 쓰고, 압축하면 꺼낸 메시지가 차지하던 세그먼트를 삭제하는지 테스트합니다.
+     */
+    @Test
+    void testCompactionReclaimsSpool() {
+        OfflineQueue first = new OfflineQueue("first", 1000, 0, spool, false, Broker.OverflowPolicy.DROP_NEWEST);
+        OfflineQueue second = new OfflineQueue("second", 1000, 0, spool, false, Broker.OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 100; i++) {
+            first.offer("topic", "first-" + i, 1);
+            second.offer("topic", "second-" + i, 1);
+        }
+        first.drainTo(recorder(new ArrayList<>(), new ArrayList<>()), 95);
+        second.drainTo(recorder(new ArrayList<>(), new ArrayList<>()), 100);
+        int segments = spool.getSegmentCount();
+        assertTrue(segments > 3);
+
+        long cutoff = spool.getNextOffset();
+        assertTrue(first.compact(cutoff));
+        assertFalse(second.compact(cutoff));
+        assertEquals(segments - 1, spool.deleteBefore(cutoff));
+
+        List<String> received = new ArrayList<>();
+        assertEquals(5, first.drainTo(recorder(received, new ArrayList<>()), 100));
+        assertEquals(List.of("first-95", "first-96", "first-97", "first-98", "first-99"), received);
+    }
+
+    /**
+     * durable 대기열에 남은 메시지를 재시작 후 로그에서 순서대로 복원하는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testRecoverFromLog() throws IOException {
+        Path logDirectory = directory.resolve("log");
+        try (MessageLog messageLog = new MessageLog(logDirectory, 1024, 64, 1)) {
+            SessionRegistry registry = new SessionRegistry(
+                    clientId -> new OfflineQueue(clientId, 100, 2, messageLog, true, Broker.OverflowPolicy.DROP_NEWEST));
+            registry.attach(messageLog);
+            Session session = mock(Session.class);
+            doAnswer(invocation -> "device").when(session).getClientId();
+            SessionState state = registry.connect(session, false).getState();
+            registry.disconnect(session);
+
+            for (int i = 0; i < 5; i++) {
+                state.sendPublish(PublishFrame.encode("topic", Payload.of("message-" + i), false), 1);
+            }
+            state.drainTo(recorder(new ArrayList<>(), new ArrayList<>()), 2);
+            state.restore(List.of(new AbstractMap.SimpleEntry<>(
+                    PublishFrame.encode("topic", Payload.of("unacked"), false), 2)));
+        }
+
+        try (MessageLog messageLog = new MessageLog(logDirectory, 1024, 64, 1)) {
+            SessionRegistry registry = new SessionRegistry(
+                    clientId -> new OfflineQueue(clientId, 100, 2, messageLog, true, Broker.OverflowPolicy.DROP_NEWEST));
+            Collection<SessionState> states = registry.attach(messageLog);
+            assertEquals(1, states.size());
+
+            List<String> received = new ArrayList<>();
+            List<Integer> qos = new ArrayList<>();
+            assertEquals(4, states.iterator().next().drainTo(recorder(received, qos), 100));
+            assertEquals(List.of("unacked", "message-2", "message-3", "message-4"), received);
+            assertEquals(List.of(2, 1, 1, 1), qos);
+        }
+    }
+
+    private static Session recorder(List<String> messages, List<Integer> qos) {
+        Session session = mock(Session.class);
+        doAnswer(invocation -> {
+            messages.add(invocation.<PublishFrame>getArgument(0).getMessage());
+            qos.add(invocation.getArgument(1));
+            return null;
+        }).when(session).sendPublish(any(PublishFrame.class), anyInt());
+
+        return session;
+    }
+}
@@ -0,0 +1,190 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.Payload;
+import com.nhnacademy.smqtt.message.PayloadPool;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundQueueTest {
+    /**
+     * DROP_OLDEST 정책에서 가장 오래된 발행 메시지가 버려지는지 테스트합니다.
+     */
+    @Test
+    void testDropOldest() {
+        OutboundQueue queue = new OutboundQueue(2, Broker.OverflowPolicy.DROP_OLDEST);
+
+        assertTrue(queue.offer(entry(1)));
+        assertTrue(queue.offer(entry(2)));
+        assertTrue(queue.offer(entry(3)));
+
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(2, value(queue.poll()));
+        assertEquals(3, value(queue.poll()));
+        assertNull(queue.poll());
+    }
+
+    /**
+     * DROP_NEWEST 정책에서 새 발행 메시지가 버려지는지 테스트합니다.
+     */
+    @Test
+    void testDropNewest() {
+        OutboundQueue queue = new OutboundQueue(2, Broker.OverflowPolicy.DROP_NEWEST);
+
+        queue.offer(entry(1));
+        queue.offer(entry(2));
+        assertTrue(queue.offer(entry(3)));
+
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(1, value(queue.poll()));
+        assertEquals(2, value(queue.poll()));
+        assertNull(queue.poll());
+    }
+
+    /**
+     * DISCONNECT 정책에서 연결 종료가 요청되는지 테스트합니다.
+     */
+    @Test
+    void testDisconnect() {
+        OutboundQueue queue = new OutboundQueue(1, Broker.OverflowPolicy.DISCONNECT);
+
+        assertTrue(queue.offer(entry(1)));
+        assertFalse(queue.offer(entry(2)));
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    /**
+     * 제어 메시지는 한도와 관계없이 보관되고 발행 메시지보다 먼저 꺼내지는지 테스트합니다.
+     */
+    @Test
+    void testControlMessagesAreNeverDropped() {
+        OutboundQueue queue = new OutboundQueue(1, Broker.OverflowPolicy.DROP_OLDEST);
+
+        queue.offer(entry(1));
+        queue.addControl(entry(10));
+        queue.addControl(entry(11));
+        queue.offer(entry(2));
+
+        assertEquals(10, value(queue.poll()));
+        assertEquals(11, value(queue.poll()));
+        assertEquals(2, value(queue.poll()));
+        assertEquals(3, queue.getMaxDepth());
+        assertEquals(4, queue.getEnqueuedCount());
+    }
+
+    /**
+     * 대기 중인 take()가 메시지 추가와 close()에 반응하는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testTakeWaitsForEntry() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(10, Broker.OverflowPolicy.DROP_NEWEST);
+
+        assertNull(queue.take(10, TimeUnit.MILLISECONDS));
+
+        Thread producer = new Thread(() -> queue.offer(entry(7)));
+        producer.start();
+        assertEquals(7, value(queue.take(5, TimeUnit.SECONDS)));
+
+        queue.close();
+        assertNull(queue.take(5, TimeUnit.SECONDS));
+        assertTrue(queue.offer(entry(8)));
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * drainTo()가 제어 메시지부터 바이트 수와 버퍼 수 한도까지 메시지를 이어 붙이는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testDrainToCoalescesEntries() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(10, Broker.OverflowPolicy.DROP_NEWEST);
+        for (int i = 1; i <= 5; i++) {
+            queue.offer(entry(i));
+        }
+        queue.addControl(entry(10));
+
+        List<ByteBuffer> batch = new ArrayList<>();
+        assertEquals(3, queue.drainTo(batch, 12, 10, 0));
+        assertEquals(List.of(10, 1, 2), batch.stream().map(buffer -> buffer.getInt(0)).toList());
+
+        batch.clear();
+        assertEquals(2, queue.drainTo(batch, 1024, 2, 0));
+        assertEquals(0, queue.drainTo(batch, 1024, 2, 0));
+        assertEquals(1, queue.size());
+    }
+
+    /**
+     * 큐가 비었을 때 drainTo()가 linger 시간 동안 다음 메시지를 기다리는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testDrainToLingersForNextEntry() throws InterruptedException {
+        OutboundQueue queue = new OutboundQueue(10, Broker.OverflowPolicy.DROP_NEWEST);
+        List<ByteBuffer> batch = new ArrayList<>();
+
+        assertEquals(0, queue.drainTo(batch, 8, 10, 0));
+
+        Thread producer = new Thread(() -> {
+            queue.offer(entry(1));
+            queue.offer(entry(2));
+        });
+        producer.start();
+        assertEquals(2, queue.drainTo(batch, 8, 10, TimeUnit.SECONDS.toNanos(5)));
+        producer.join();
+    }
+
+    /**
+     * 본문의 참조가 버릴 때는 바로, 꺼낸 뒤에는 complete()에서 돌려지는지 테스트합니다.
+     */
+    @Test
+    void testOwnersAreReleased() {
+        PayloadPool pool = new PayloadPool();
+        byte[] bytes = { 1, 2, 3 };
+        Payload first = pool.allocate(bytes, 0, bytes.length);
+        Payload second = pool.allocate(bytes, 0, bytes.length);
+        Payload third = pool.allocate(bytes, 0, bytes.length);
+        OutboundQueue queue = new OutboundQueue(1, Broker.OverflowPolicy.DROP_OLDEST);
+
+        queue.offer(entry(1), first);
+        queue.offer(entry(2), second);
+        assertEquals(0, first.refCount());
+
+        assertEquals(2, value(queue.poll()));
+        assertEquals(1, second.refCount());
+        queue.complete();
+        assertEquals(0, second.refCount());
+
+        queue.addControl(entry(3), third);
+        queue.close();
+        assertEquals(0, third.refCount());
+        assertTrue(pool.getPooledBytes() > 0);
+    }
+
+    /**
+     * 잘못된 설정 값이 거부되는지 테스트합니다.
+     */
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new OutboundQueue(0, Broker.OverflowPolicy.DROP_NEWEST));
+        assertThrows(IllegalArgumentException.class, () -> new OutboundQueue(1, null));
+    }
+
+    private static ByteBuffer[] entry(int value) {
+        return new ByteBuffer[] { ByteBuffer.allocate(4).putInt(0, value) };
+    }
+
+    private static int value(ByteBuffer[] entry) {
+        return entry[0].getInt(0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.Message;
+import com.nhnacademy.smqtt.message.PUBLISH;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishFrameTest {
+    private static final String TOPIC = "test/topic";
+    private static final String MESSAGE = "Hello MQTT!";
+
+    /**
+     * 구독자별 버퍼를 이어 붙이면 올바른 PUBLISH 프레임이 되는지 테스트합니다.
+     */
+    @Test
+    void testToBuffersProducesValidFrame() {
+        PublishFrame frame = PublishFrame.encode(TOPIC, MESSAGE);
+
+        PUBLISH publish = (PUBLISH) Message.parsing(concat(frame.toBuffers(1, 300)));
+
+        assertEquals(TOPIC, publish.getTopic());
+        assertEquals(MESSAGE, publish.getMessage());
+        assertEquals(300, publish.getPacketId());
+        assertEquals(1, publish.getQoS());
+    }
+
+    /**
+     * 여러 구독자에게 전송해도 공유 프레임이 변경되지 않는지 테스트합니다.
+     */
+    @Test
+    void testSharedFrameIsNotModified() {
+        PublishFrame frame = PublishFrame.encode(TOPIC, "x".repeat(1000));
+
+        byte[] first = concat(frame.toBuffers(0, 1));
+        byte[] second = concat(frame.toBuffers(1, 2));
+
+        assertEquals(frame.size(), first.length);
+        assertEquals(frame.size(), second.length);
+        assertEquals(1, ((PUBLISH) Message.parsing(first)).getPacketId());
+        assertEquals(2, ((PUBLISH) Message.parsing(second)).getPacketId());
+        assertEquals(0, Message.parsing(first).getQoS());
+    }
+
+    /**
+     * 잘못된 토픽과 QoS가 거부되는지 테스트합니다.
+     */
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> PublishFrame.encode("", MESSAGE));
+
+        PublishFrame frame = PublishFrame.encode(TOPIC, MESSAGE);
+        assertThrows(IllegalArgumentException.class, () -> frame.toBuffers(3, 1));
+    }
+
+    private static byte[] concat(ByteBuffer[] buffers) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            stream.writeBytes(bytes);
+        }
+
+        return stream.toByteArray();
+    }
+}
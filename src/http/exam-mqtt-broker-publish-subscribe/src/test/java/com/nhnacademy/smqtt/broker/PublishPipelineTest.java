@@ -0,0 +1,221 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishPipelineTest {
+    private static final String BROKER_HOST = "localhost";
+    private static final int BROKER_PORT = 18861;
+
+    /**
+     * 여러 스레드가 발행해도 토픽마다 같은 파티션 스레드에서 발행 순서대로 전달되고, 본문의 참조가 돌려지는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPerTopicOrdering() throws InterruptedException {
+        int topics = 8;
+        int count = 2000;
+        Map<String, List<Integer>> delivered = new ConcurrentHashMap<>();
+        Map<String, String> threads = new ConcurrentHashMap<>();
+        List<Payload> payloads = new CopyOnWriteArrayList<>();
+        PublishPipeline pipeline = new PublishPipeline(3, 16, (topic, payload, qos, forward) -> {
+            assertEquals(Thread.currentThread().getName(), threads.computeIfAbsent(topic,
+                    k -> Thread.currentThread().getName()));
+            delivered.computeIfAbsent(topic, k -> new ArrayList<>()).add(Integer.parseInt(payload.toString()));
+        });
+        pipeline.start();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < topics; t++) {
+            String topic = "topic/" + t;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    Payload payload = Payload.wrap(String.valueOf(i).getBytes());
+                    payloads.add(payload);
+                    pipeline.submit(topic, payload, 0, false);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        long dispatched = 0;
+        while ((dispatched < (long) topics * count) && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+            dispatched = 0;
+            for (int i = 0; i < pipeline.getPartitionCount(); i++) {
+                dispatched += pipeline.getDispatchedCount(i);
+            }
+        }
+        pipeline.stop();
+
+        assertEquals((long) topics * count, dispatched);
+        for (int t = 0; t < topics; t++) {
+            List<Integer> messages = delivered.get("topic/" + t);
+            assertEquals(count, messages.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, messages.get(i));
+            }
+        }
+        for (Payload payload : payloads) {
+            assertEquals(0, payload.refCount());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PublishPipeline(0, 16, (a, b, c, d) -> { }));
+    }
+
+    /**
+     * 파티션이 가득 차면 offer()가 메시지를 넘겨받지 않고, 파티션이 비워진 뒤 한 번 알려 주는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testOfferNotifiesWhenPartitionDrains() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch space = new CountDownLatch(1);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        PublishPipeline pipeline = new PublishPipeline(1, 2, (topic, payload, qos, forward) -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(payload.toString());
+        });
+        pipeline.start();
+
+        try {
+            // 첫 메시지는 전달 스레드가 꺼내 전달하는 중이므로, 링 버퍼를 채우려면 두 개가 더 필요합니다.
+            int accepted = 0;
+            Payload rejected = null;
+            for (int i = 0; (rejected == null) && (i < 10); i++) {
+                Payload payload = Payload.wrap(String.valueOf(i).getBytes());
+                if (pipeline.offer("full", payload, 0, false, space::countDown)) {
+                    accepted++;
+                    Thread.sleep(50);
+                } else {
+                    rejected = payload;
+                }
+            }
+            assertNotNull(rejected);
+            assertEquals(1, rejected.refCount());
+            assertEquals(1, space.getCount());
+
+            blocked.countDown();
+            assertTrue(space.await(5, TimeUnit.SECONDS));
+            assertTrue(pipeline.offer("full", rejected, 0, false, space::countDown));
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((delivered.size() < accepted + 1) && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(10);
+            }
+            assertEquals(accepted + 1, delivered.size());
+            for (int i = 0; i < delivered.size(); i++) {
+                assertEquals(String.valueOf(i), delivered.get(i));
+            }
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    /**
+     * 파티션이 가득 차면 offerOrDrop()이 기다리지 않고 메시지를 버리며, 본문을 돌려주고 버린 수를 세는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testOfferOrDropReleasesWhenFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        PublishPipeline pipeline = new PublishPipeline(1, 2, (topic, payload, qos, forward) -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        pipeline.start();
+
+        try {
+            Payload dropped = null;
+            for (int i = 0; (dropped == null) && (i < 10); i++) {
+                Payload payload = Payload.wrap(String.valueOf(i).getBytes());
+                if (pipeline.offerOrDrop("full", payload, 0, false)) {
+                    Thread.sleep(50);
+                } else {
+                    dropped = payload;
+                }
+            }
+            assertNotNull(dropped);
+            assertEquals(0, dropped.refCount());
+            assertEquals(1, pipeline.getDroppedCount());
+        } finally {
+            blocked.countDown();
+            pipeline.stop();
+        }
+    }
+
+    /**
+     * 파티션을 사용하는 브로커가 메시지를 순서대로 전달하고, 파티션별 대기열 지표를 보여 주는지 테스트합니다.
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testBrokerWithPartitions() throws IOException, InterruptedException {
+        Broker broker = new Broker(BROKER_PORT);
+        broker.setMode(Broker.Mode.NON_BLOCKING);
+        broker.setReactorCount(1);
+        broker.setDispatchPartitions(4);
+        assertThrows(IllegalArgumentException.class, () -> broker.setDispatchPartitions(-1));
+        broker.start();
+        Thread.sleep(500);
+
+        try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT)) {
+            socket.setSoTimeout(5000);
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+
+            CONNECT connect = new CONNECT("PipelineClient");
+            connect.setCleanSession(true);
+            BrokerTest.send(output, connect);
+            assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+            BrokerTest.send(output, new SUBSCRIBE("pipeline/+"));
+            assertTrue(BrokerTest.receive(input) instanceof SUBACK);
+
+            for (int i = 0; i < 50; i++) {
+                BrokerTest.send(output, new PUBLISH("pipeline/" + (i % 2), String.valueOf(i)));
+            }
+
+            int[] next = { 0, 1 };
+            for (int i = 0; i < 50; i++) {
+                PUBLISH publish = (PUBLISH) BrokerTest.receive(input);
+                int partition = publish.getTopic().endsWith("0") ? 0 : 1;
+                assertEquals(next[partition], Integer.parseInt(publish.getMessage()));
+                next[partition] += 2;
+            }
+
+            Map<String, String> snapshot = broker.getMetrics().snapshot();
+            assertEquals("4", snapshot.get("dispatch/partitions"));
+            assertTrue(broker.getMetrics().toText().contains("smqtt_dispatch_queue_depth{partition=\"3\"}"));
+        } finally {
+            broker.interrupt();
+        }
+    }
+}
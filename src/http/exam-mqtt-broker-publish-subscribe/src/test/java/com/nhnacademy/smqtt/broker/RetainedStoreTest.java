@@ -0,0 +1,181 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.store.MessageLog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetainedStoreTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * 와일드카드 필터로 일치하는 retained 메시지만 찾는지 테스트합니다.
+     */
+    @Test
+    void testMatchWithWildcards() {
+        RetainedStore store = new RetainedStore();
+        store.put("home/kitchen/temp", "21", 0);
+        store.put("home/living/temp", "23", 1);
+        store.put("home/living", "on", 0);
+        store.put("office/temp", "19", 0);
+        store.put("$SYS/uptime", "10", 0);
+
+        assertEquals(Set.of("home/kitchen/temp", "home/living/temp"), topics(store.match("home/+/temp")));
+        assertEquals(Set.of("home/kitchen/temp", "home/living/temp", "home/living"), topics(store.match("home/#")));
+        assertEquals(Set.of("home/living/temp", "home/living"), topics(store.match("home/living/#")));
+        assertEquals(4, store.match("#").size());
+        assertEquals(Set.of("$SYS/uptime"), topics(store.match("$SYS/#")));
+        assertTrue(store.match("garage/#").isEmpty());
+    }
+
+    /**
+     * 전달할 프레임에 RETAIN 비트와 발행 QoS가 유지되는지 테스트합니다.
+     */
+    @Test
+    void testRetainedFrame() {
+        RetainedStore store = new RetainedStore();
+        store.put("sensor", "first", 0);
+        store.put("sensor", "second", 2);
+
+        List<RetainedStore.Retained> matched = store.match("sensor");
+        assertEquals(1, matched.size());
+        assertEquals(1, store.size());
+        assertEquals("second", matched.get(0).getFrame().getMessage());
+        assertTrue(matched.get(0).getFrame().isRetained());
+        assertEquals(0x31, matched.get(0).getFrame().toBuffers(0, 1)[0].get(0));
+        assertEquals(2, matched.get(0).getQoS());
+    }
+
+    /**
+     * 빈 메시지를 retained로 발행하면 해당 토픽의 retained 메시지가 삭제되는지 테스트합니다.
+     */
+    @Test
+    void testEmptyMessageClearsRetained() {
+        RetainedStore store = new RetainedStore();
+        store.put("a/b", "value", 0);
+        store.put("a/b", "", 0);
+
+        assertEquals(0, store.size());
+        assertTrue(store.match("#").isEmpty());
+        assertEquals(0, store.getMemoryUsage());
+        assertThrows(IllegalArgumentException.class, () -> store.put("a/+", "value", 0));
+    }
+
+    /**
+     * 메시지 로그 없이 메모리 한도를 넘으면 가장 오래 사용하지 않은 메시지를 버리는지 테스트합니다.
+     */
+    @Test
+    void testLruEvictionWithoutLog() {
+        RetainedStore store = new RetainedStore(100);
+        store.put("a", "1".repeat(30), 0);
+        store.put("b", "2".repeat(30), 0);
+
+        // "a"를 사용하여 "b"가 가장 오래 사용하지 않은 메시지가 되도록 합니다.
+        assertEquals(1, store.match("a").size());
+        store.put("c", "3".repeat(30), 0);
+
+        assertEquals(Set.of("a", "c"), topics(store.match("#")));
+        assertEquals(1, store.getEvictedCount());
+        assertTrue(store.getMemoryUsage() <= 100);
+    }
+
+    /**
+     * 메시지 로그가 있으면 본문만 버리고 필요할 때 로그에서 다시 읽어 오는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testSpillToLog() throws IOException {
+        try (MessageLog messageLog = new MessageLog(directory)) {
+            RetainedStore store = new RetainedStore(100);
+            store.attach(messageLog);
+            for (int i = 0; i < 10; i++) {
+                store.put("topic/" + i, "message-" + i + "-" + "x".repeat(20), 1);
+            }
+
+            assertEquals(10, store.size());
+            assertTrue(store.getEvictedCount() > 0);
+
+            List<RetainedStore.Retained> matched = store.match("topic/0");
+            assertEquals(1, matched.size());
+            assertTrue(matched.get(0).getFrame().getMessage().startsWith("message-0-"));
+            assertEquals(1, matched.get(0).getQoS());
+            assertEquals(10, store.match("topic/#").size());
+        }
+    }
+
+    /**
+     * 브로커를 다시 시작해도 로그에서 retained 메시지를 복구하는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testRecoverFromLog() throws IOException {
+        try (MessageLog messageLog = new MessageLog(directory)) {
+            RetainedStore store = new RetainedStore();
+            store.attach(messageLog);
+            store.put("a", "old", 0);
+            store.put("a", "new", 1);
+            store.put("b", "removed", 0);
+            store.put("b", "", 0);
+        }
+
+        try (MessageLog messageLog = new MessageLog(directory)) {
+            RetainedStore store = new RetainedStore();
+            store.attach(messageLog);
+
+            assertEquals(1, store.size());
+            List<RetainedStore.Retained> matched = store.match("#");
+            assertEquals(1, matched.size());
+            assertEquals("new", matched.get(0).getFrame().getMessage());
+            assertEquals(1, matched.get(0).getQoS());
+        }
+    }
+
+    /**
+     * 압축하면 살아 있는 retained 메시지만 남기고 이전 세그먼트를 삭제할 수 있는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testCompaction() throws IOException {
+        try (MessageLog messageLog = new MessageLog(directory, 1024, 64, 1)) {
+            RetainedStore store = new RetainedStore(100);
+            store.attach(messageLog);
+            for (int i = 0; i < 200; i++) {
+                store.put("topic/" + (i % 3), "message-" + i, 1);
+            }
+            store.put("topic/2", "", 0);
+            int segments = messageLog.getSegmentCount();
+            assertTrue(segments > 3);
+
+            long cutoff = messageLog.getNextOffset();
+            assertEquals(2, store.compact(cutoff));
+            assertEquals(segments - 1, messageLog.deleteBefore(cutoff));
+            assertEquals("message-198", store.match("topic/0").get(0).getFrame().getMessage());
+        }
+
+        try (MessageLog messageLog = new MessageLog(directory, 1024, 64, 1)) {
+            RetainedStore store = new RetainedStore();
+            store.attach(messageLog);
+
+            assertEquals(2, store.size());
+            assertEquals("message-198", store.match("topic/0").get(0).getFrame().getMessage());
+            assertEquals("message-199", store.match("topic/1").get(0).getFrame().getMessage());
+            assertTrue(store.match("topic/2").isEmpty());
+        }
+    }
+
+    private static Set<String> topics(List<RetainedStore.Retained> matched) {
+        return matched.stream().map(retained -> retained.getFrame().getTopic()).collect(Collectors.toSet());
+    }
+}
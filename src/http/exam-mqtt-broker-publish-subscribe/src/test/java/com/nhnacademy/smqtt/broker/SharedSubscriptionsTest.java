@@ -0,0 +1,140 @@
+package com.nhnacademy.smqtt.broker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SharedSubscriptionsTest {
+    private static final String SHARE_FILTER = "$share/workers/jobs/+";
+
+    private TopicTree tree;
+    private SharedSubscriptions shared;
+    private PublishFrame frame;
+
+    /**
+     * 각 테스트 전에 TopicTree와 SharedSubscriptions를 초기화합니다.
+     */
+    @BeforeEach
+    void setUp() {
+        tree = new TopicTree();
+        shared = new SharedSubscriptions(tree);
+        frame = PublishFrame.encode("jobs/1", "payload");
+    }
+
+    /**
+     * 그룹 이름이나 토픽 필터가 잘못된 공유 구독이 거부되는지 테스트합니다.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "$share/", "$share//jobs", "$share/workers", "$share/workers/", "$share/wo+rk/jobs",
+            "$share/workers/jobs/#/1" })
+    void testInvalidShareFilter(String filter) {
+        Session session = connected(0);
+
+        assertThrows(IllegalArgumentException.class, () -> shared.subscribe(session, filter, 0));
+    }
+
+    /**
+     * 그룹이 토픽 트리에 구독자 하나로 등록되어 발행 메시지가 구성원 중 하나에게만 순서대로 전달되는지 테스트합니다.
+     */
+    @Test
+    void testRoundRobin() {
+        Session member1 = connected(0);
+        Session member2 = connected(0);
+        shared.subscribe(member1, SHARE_FILTER, 1);
+        shared.subscribe(member2, SHARE_FILTER, 1);
+
+        List<TopicTree.Subscription> subscriptions = tree.match("jobs/1");
+        assertEquals(1, subscriptions.size());
+
+        for (int i = 0; i < 4; i++) {
+            subscriptions.get(0).getSession().sendPublish(frame, 1);
+        }
+
+        verify(member1, times(2)).sendPublish(frame, 1);
+        verify(member2, times(2)).sendPublish(frame, 1);
+    }
+
+    /**
+     * LEAST_LOADED 방식에서 대기열이 가장 짧은 구성원에게 전달되는지 테스트합니다.
+     */
+    @Test
+    void testLeastLoaded() {
+        Session busy = connected(50);
+        Session idle = connected(3);
+        shared.setStrategy(Broker.ShareStrategy.LEAST_LOADED);
+        shared.subscribe(busy, SHARE_FILTER, 2);
+        shared.subscribe(idle, SHARE_FILTER, 0);
+
+        Session group = tree.match("jobs/1").get(0).getSession();
+        for (int i = 0; i < 3; i++) {
+            group.sendPublish(frame, 2);
+        }
+
+        verify(busy, never()).sendPublish(any(PublishFrame.class), anyInt());
+        verify(idle, times(3)).sendPublish(frame, 0);
+    }
+
+    /**
+     * 연결된 구성원이 있으면 연결이 끊긴 지속 세션에는 전달하지 않고, 연결된 구성원끼리 고르게 나누는지 테스트합니다.
+     */
+    @Test
+    void testPrefersConnectedMembers() {
+        Session offline = mock(Session.class);
+        Session online1 = connected(0);
+        Session online2 = connected(0);
+        shared.subscribe(online1, SHARE_FILTER, 1);
+        shared.subscribe(offline, SHARE_FILTER, 1);
+        shared.subscribe(online2, SHARE_FILTER, 1);
+
+        Session group = tree.match("jobs/1").get(0).getSession();
+        for (int i = 0; i < 4; i++) {
+            group.sendPublish(frame, 1);
+        }
+
+        verify(offline, never()).sendPublish(any(PublishFrame.class), anyInt());
+        verify(online1, times(2)).sendPublish(eq(frame), eq(1));
+        verify(online2, times(2)).sendPublish(eq(frame), eq(1));
+    }
+
+    /**
+     * 마지막 구성원이 구독을 해제하면 그룹이 토픽 트리에서 제거되는지 테스트합니다.
+     */
+    @Test
+    void testUnsubscribeRemovesEmptyGroup() {
+        Session member1 = connected(0);
+        Session member2 = connected(0);
+        shared.subscribe(member1, SHARE_FILTER, 0);
+        shared.subscribe(member2, "$share/workers/jobs/#", 0);
+
+        assertTrue(shared.unsubscribe(member1, SHARE_FILTER));
+        assertFalse(shared.unsubscribe(member1, SHARE_FILTER));
+        assertTrue(shared.getMembers(SHARE_FILTER).isEmpty());
+        assertEquals(1, tree.match("jobs/1").size());
+
+        shared.unsubscribeAll(member2);
+        assertTrue(tree.match("jobs/1").isEmpty());
+    }
+
+    private static Session connected(int queued) {
+        OutboundQueue outbound = mock(OutboundQueue.class);
+        when(outbound.size()).thenReturn(queued);
+
+        Session session = mock(Session.class);
+        when(session.getOutboundQueue()).thenReturn(outbound);
+        when(session.getInflightWindow()).thenReturn(mock(InflightWindow.class));
+        return session;
+    }
+}
@@ -0,0 +1,184 @@
+package com.nhnacademy.smqtt.broker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TopicTreeTest {
+    private TopicTree tree;
+    private Session session1;
+    private Session session2;
+
+    /**
+     * 각 테스트 전에 실행되어 TopicTree와 Mock Session을 초기화합니다.
+     */
+    @BeforeEach
+    void setUp() {
+        tree = new TopicTree();
+        session1 = mock(Session.class);
+        session2 = mock(Session.class);
+    }
+
+    /**
+     * 와일드카드 필터가 토픽과 올바르게 매칭되는지 테스트합니다.
+     */
+    @ParameterizedTest
+    @MethodSource("testMatchesParamProvider")
+    void testMatches(String filter, String topic, boolean expected) {
+        tree.subscribe(session1, filter);
+
+        assertEquals(expected, sessions(tree.match(topic)).contains(session1));
+        assertEquals(expected, TopicTree.matches(filter, topic));
+    }
+
+    static Stream<Arguments> testMatchesParamProvider() {
+        return Stream.of(
+                Arguments.of("sensor/temp", "sensor/temp", true),
+                Arguments.of("sensor/temp", "sensor/humidity", false),
+                Arguments.of("sensor/+", "sensor/temp", true),
+                Arguments.of("sensor/+", "sensor/temp/1", false),
+                Arguments.of("sensor/+/1", "sensor/temp/1", true),
+                Arguments.of("sensor/#", "sensor", true),
+                Arguments.of("sensor/#", "sensor/temp/1", true),
+                Arguments.of("#", "sensor/temp", true),
+                Arguments.of("#", "$SYS/broker/clients", false),
+                Arguments.of("+/broker/clients", "$SYS/broker/clients", false),
+                Arguments.of("$SYS/#", "$SYS/broker/clients", true));
+    }
+
+    /**
+     * 잘못된 토픽 필터가 거부되는지 테스트합니다.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "sensor/#/temp", "sensor/temp#", "sensor/te+mp", "" })
+    void testInvalidFilter(String filter) {
+        assertThrows(IllegalArgumentException.class, () -> tree.subscribe(session1, filter));
+    }
+
+    /**
+     * 여러 필터로 구독한 클라이언트가 한 번만 포함되는지 테스트합니다.
+     */
+    @Test
+    void testMatchDeduplicatesSession() {
+        tree.subscribe(session1, "sensor/temp");
+        tree.subscribe(session1, "sensor/#");
+        tree.subscribe(session2, "sensor/+");
+
+        List<Session> subscribers = sessions(tree.match("sensor/temp"));
+
+        assertEquals(2, subscribers.size());
+        assertTrue(subscribers.containsAll(List.of(session1, session2)));
+    }
+
+    /**
+     * 구독 및 구독 해제 시 캐시된 매칭 결과가 무효화되는지 테스트합니다.
+     */
+    @Test
+    void testCacheIsInvalidatedOnChange() {
+        tree.subscribe(session1, "sensor/+");
+        assertEquals(List.of(session1), sessions(tree.match("sensor/temp")));
+
+        tree.subscribe(session2, "sensor/temp");
+        assertEquals(2, tree.match("sensor/temp").size());
+
+        assertTrue(tree.unsubscribe(session1, "sensor/+"));
+        assertEquals(List.of(session2), sessions(tree.match("sensor/temp")));
+
+        assertFalse(tree.unsubscribe(session1, "sensor/+"));
+    }
+
+    /**
+     * 겹치는 구독 중 가장 높은 QoS가 사용되고, 재구독 시 QoS가 갱신되는지 테스트합니다.
+     */
+    @Test
+    void testMatchUsesHighestQoS() {
+        tree.subscribe(session1, "sensor/#", 0);
+        tree.subscribe(session1, "sensor/temp", 2);
+        tree.subscribe(session2, "sensor/+", 1);
+
+        for (TopicTree.Subscription subscription : tree.match("sensor/temp")) {
+            assertEquals((subscription.getSession() == session1) ? 2 : 1, subscription.getQoS());
+        }
+
+        tree.subscribe(session2, "sensor/+", 0);
+        assertEquals(0, tree.match("sensor/humidity").stream()
+                .filter(subscription -> subscription.getSession() == session2)
+                .findFirst().orElseThrow().getQoS());
+
+        assertThrows(IllegalArgumentException.class, () -> tree.subscribe(session1, "sensor/temp", 3));
+    }
+
+    /**
+     * 클라이언트의 모든 구독이 한 번에 해제되는지 테스트합니다.
+     */
+    @Test
+    void testUnsubscribeAll() {
+        tree.subscribe(session1, "sensor/temp");
+        tree.subscribe(session1, "alarm/#");
+        assertEquals(2, tree.getFilters(session1).size());
+
+        tree.unsubscribeAll(session1);
+
+        assertTrue(tree.match("sensor/temp").isEmpty());
+        assertTrue(tree.match("alarm/fire").isEmpty());
+        assertTrue(tree.getFilters(session1).isEmpty());
+    }
+
+    /**
+     * 구독을 해제하면 구독자와 자식이 없는 노드를 제거하여, 토픽이 계속 바뀌어도 트리가 커지지 않는지 테스트합니다.
+     */
+    @Test
+    void testUnsubscribePrunesEmptyNodes() {
+        tree.subscribe(session1, "sensor/temp");
+        assertEquals(2, tree.getNodeCount());
+
+        for (int i = 0; i < 1000; i++) {
+            String filter = "device/" + i + "/status/#";
+            tree.subscribe(session2, filter);
+            assertTrue(tree.unsubscribe(session2, filter));
+        }
+        assertEquals(2, tree.getNodeCount());
+
+        tree.subscribe(session2, "sensor/temp/inside");
+        tree.subscribe(session2, "alarm/+");
+        tree.unsubscribeAll(session2);
+        assertEquals(2, tree.getNodeCount());
+        assertEquals(List.of(session1), sessions(tree.match("sensor/temp")));
+
+        assertTrue(tree.unsubscribe(session1, "sensor/temp"));
+        assertEquals(0, tree.getNodeCount());
+        assertTrue(tree.getAllFilters().isEmpty());
+    }
+
+    /**
+     * 캐시가 가득 차도 자주 조회하는 토픽의 매칭 결과는 내보내지 않는지 테스트합니다.
+     */
+    @Test
+    void testCacheKeepsHotTopics() {
+        tree = new TopicTree(8);
+        tree.subscribe(session1, "sensor/#");
+        List<TopicTree.Subscription> hot = tree.match("sensor/hot");
+
+        for (int i = 0; i < 1000; i++) {
+            tree.match("sensor/cold/" + i);
+            assertSame(hot, tree.match("sensor/hot"));
+        }
+
+        tree.subscribe(session2, "sensor/hot");
+        assertEquals(2, tree.match("sensor/hot").size());
+    }
+
+    private static List<Session> sessions(List<TopicTree.Subscription> subscriptions) {
+        return subscriptions.stream().map(TopicTree.Subscription::getSession).collect(Collectors.toList());
+    }
+}
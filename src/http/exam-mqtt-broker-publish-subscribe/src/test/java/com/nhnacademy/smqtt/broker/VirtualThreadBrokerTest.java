@@ -0,0 +1,110 @@
+package com.nhnacademy.smqtt.broker;
+
+import com.nhnacademy.smqtt.message.*;
+
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadBrokerTest {
+    private static final String TOPIC = "virtual/topic";
+    private static final String MESSAGE1 = "Hello MQTT!";
+    private static final String BROKER_HOST = "localhost";
+    private static final int BROKER_PORT = 18832;
+    private static Broker broker;
+
+    /**
+     * 모든 테스트 전에 가상 스레드 모드의 Broker를 실행합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        broker = new Broker(BROKER_PORT);
+        broker.setMode(Broker.Mode.VIRTUAL_THREAD);
+        broker.start();
+
+        Thread.sleep(500);
+    }
+
+    /**
+     * 모든 테스트 후에 Broker를 중단합니다.
+     */
+    @AfterAll
+    static void tearDown() {
+        broker.interrupt();
+    }
+
+    /**
+     * 고정 스레드 풀의 크기보다 많은 연결이 동시에 열려 있어도 모두 처리되는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testMoreConnectionsThanPoolSizeAreServed() throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            List<DataInputStream> inputs = new ArrayList<>();
+            for (int i = 0; i < Broker.BLOCKING_POOL_SIZE * 3; i++) {
+                Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                socket.setSoTimeout(5000);
+                sockets.add(socket);
+
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                inputs.add(input);
+
+                BrokerTest.send(output, new CONNECT("Virtual" + i));
+                assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+                BrokerTest.send(output, new SUBSCRIBE(TOPIC));
+                assertTrue(BrokerTest.receive(input) instanceof SUBACK);
+            }
+
+            try (Socket socket = new Socket(BROKER_HOST, BROKER_PORT);
+                    DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                    DataInputStream input = new DataInputStream(socket.getInputStream())) {
+                BrokerTest.send(output, new CONNECT("VirtualPublisher"));
+                assertTrue(BrokerTest.receive(input) instanceof CONNACK);
+
+                BrokerTest.send(output, new PUBLISH(TOPIC, MESSAGE1));
+            }
+
+            for (DataInputStream input : inputs) {
+                Message message = BrokerTest.receive(input);
+                assertTrue(message instanceof PUBLISH);
+                assertEquals(MESSAGE1, ((PUBLISH) message).getMessage());
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * 본문이 빈 PUBLISH도 구독자에게 전달되고, 뒤따르는 메시지의 프레임이 어긋나지 않는지 테스트
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testEmptyPayloadIsDelivered() throws IOException {
+        BrokerTest.assertEmptyPayloadIsDelivered(BROKER_PORT, "Virtual");
+    }
+
+    /**
+     * 쓰는 도중 연결이 끊겨도 전송하던 본문의 참조를 돌려주는지 테스트
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPayloadsReleasedOnClose() throws IOException, InterruptedException {
+        BrokerTest.assertPayloadsReleasedOnClose(broker, BROKER_PORT, "Virtual");
+    }
+}
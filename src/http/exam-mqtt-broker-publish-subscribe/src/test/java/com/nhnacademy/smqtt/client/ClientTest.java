@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -17,6 +18,7 @@ class ClientTest {
     private static final String CLIENT_ID = "ClientTest";
     private static final String EXTERNAL_BROKER_HOST = "test.mosquitto.org";
     private static final int BROKER_PORT = 1883;
+    private static final int RECONNECT_BROKER_PORT = 18891;
     private Socket mockSocket;
     private DataInputStream mockInput;
     private DataOutputStream mockOutput;
@@ -179,6 +181,24 @@ class ClientTest {
         verify(mockSocket, times(1)).close();
     }
 
+    /**
+     * UNSUBSCRIBE를 보낼 때 0이 아닌 식별자를 연결의 할당기에서 받는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testSendUnsubscribeAllocatesPacketId() throws IOException {
+        UNSUBSCRIBE first = new UNSUBSCRIBE(new String[] { "test/topic" });
+        UNSUBSCRIBE second = new UNSUBSCRIBE(new String[] { "test/topic" });
+        mockClient.send(first);
+        mockClient.send(second);
+
+        assertTrue((first.getPacketId() > 0) && (first.getPacketId() <= 0xFFFF));
+        assertTrue(second.getPacketId() > 0);
+        assertNotEquals(first.getPacketId(), second.getPacketId());
+        verify(mockOutput, times(2)).write(any(byte[].class));
+    }
+
     /**
      * 패킷 ID가 올바르게 생성되는지 테스트합니다.
      */
@@ -189,4 +209,92 @@ class ClientTest {
 
         assertEquals(firstPacketId + 1, secondPacketId);
     }
+
+    /**
+     * 재연결 대기 시간이 시도할수록 두 배씩 늘어나고, 최대 대기 시간의 절반과 최대 대기 시간 사이에서 정해지는지 테스트합니다.
+     */
+    @Test
+    void testReconnectBackoff() {
+        mockClient.setReconnectDelay(100, 1000);
+        for (int i = 0; i < 100; i++) {
+            long first = mockClient.nextReconnectDelay(0);
+            assertTrue((first >= 50) && (first <= 100), () -> "first delay: " + first);
+            long third = mockClient.nextReconnectDelay(2);
+            assertTrue((third >= 200) && (third <= 400), () -> "third delay: " + third);
+            long capped = mockClient.nextReconnectDelay(100);
+            assertTrue((capped >= 500) && (capped <= 1000), () -> "capped delay: " + capped);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> mockClient.setReconnectDelay(0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> mockClient.setReconnectDelay(100, 10));
+        assertThrows(IllegalStateException.class, () -> mockClient.setReconnect(true));
+    }
+
+    /**
+     * 응답을 받기 전에 연결이 끊어진 SUBSCRIBE의 식별자를 다시 연결하기 전에 반납하는지 테스트합니다.
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testReconnectReleasesPendingPacketIds() throws IOException, InterruptedException {
+        try (ServerSocket server = new ServerSocket(RECONNECT_BROKER_PORT)) {
+            // CONNACK을 보내고, 첫 연결은 SUBSCRIBE를 받은 뒤 SUBACK 없이 끊습니다.
+            Thread broker = new Thread(() -> {
+                for (int i = 0; i < 2; i++) {
+                    try (Socket socket = server.accept()) {
+                        DataInputStream input = new DataInputStream(socket.getInputStream());
+                        skipFrame(input);
+                        socket.getOutputStream().write(new byte[] { 0x20, 2, 0, 0 });
+                        skipFrame(input);
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            broker.start();
+
+            int[] pending = new int[2];
+            AtomicInteger connections = new AtomicInteger();
+            Client client = new Client("localhost", RECONNECT_BROKER_PORT, CLIENT_ID) {
+                @Override
+                protected void connectionEstablished() throws IOException {
+                    if (connections.getAndIncrement() == 0) {
+                        send(new SUBSCRIBE("test/topic"));
+                        pending[0] = getPendingPacketIdCount();
+                    } else {
+                        pending[1] = getPendingPacketIdCount();
+                    }
+                }
+
+                @Override
+                protected void processing() throws IOException {
+                    if (connections.get() == 1) {
+                        receive();
+                    }
+                }
+            };
+            client.setReconnect(true);
+            client.setReconnectDelay(10, 20);
+            client.run();
+            broker.join(5000);
+
+            assertEquals(2, connections.get());
+            assertEquals(1, pending[0]);
+            assertEquals(0, pending[1]);
+        }
+    }
+
+    private static void skipFrame(DataInputStream input) throws IOException {
+        input.readUnsignedByte();
+        int length = 0;
+        int shift = 0;
+        int digit;
+        do {
+            digit = input.readUnsignedByte();
+            length |= (digit & 0x7F) << shift;
+            shift += 7;
+        } while ((digit & 0x80) != 0);
+        input.readFully(new byte[length]);
+    }
 }
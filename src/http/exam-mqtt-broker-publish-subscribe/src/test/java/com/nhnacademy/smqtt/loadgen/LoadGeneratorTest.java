@@ -0,0 +1,91 @@
+package com.nhnacademy.smqtt.loadgen;
+
+import com.nhnacademy.smqtt.broker.Broker;
+import com.nhnacademy.smqtt.utils.LatencyHistogram;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+    private static final String BROKER_HOST = "localhost";
+    private static final int BROKER_PORT = 18835;
+    private static Broker broker;
+
+    /**
+     * 모든 테스트 전에 논블로킹 모드의 Broker를 실행합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        broker = new Broker(BROKER_PORT);
+        broker.setMode(Broker.Mode.NON_BLOCKING);
+        broker.start();
+
+        Thread.sleep(500);
+    }
+
+    /**
+     * 모든 테스트 후에 Broker를 중단합니다.
+     */
+    @AfterAll
+    static void tearDown() {
+        broker.interrupt();
+    }
+
+    /**
+     * 잘못된 설정 값이 거부되는지 테스트
+     */
+    @Test
+    void testInvalidConfiguration() {
+        LoadGenerator generator = new LoadGenerator(BROKER_HOST, BROKER_PORT);
+
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(null, BROKER_PORT));
+        assertThrows(IllegalArgumentException.class, () -> generator.setPublisherCount(0));
+        assertThrows(IllegalArgumentException.class, () -> generator.setRate(0));
+        assertThrows(IllegalArgumentException.class, () -> generator.setQoS(3));
+        assertThrows(IllegalArgumentException.class, () -> generator.setTopicPrefix("load/#"));
+    }
+
+    /**
+     * 발행한 메시지가 토픽의 모든 구독자에게 전달되고, 구간별 결과와 전체 결과가 CSV로 기록되는지 테스트
+     *
+     * @param qos 발행 및 구독 QoS
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1 })
+    void testFanOutIsMeasured(int qos) throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator(BROKER_HOST, BROKER_PORT);
+        generator.setPublisherCount(2);
+        generator.setSubscriberCount(4);
+        generator.setTopicCount(2);
+        generator.setTopicPrefix("loadgen-test/" + qos);
+        generator.setRate(50);
+        generator.setDuration(1_000);
+        generator.setReportInterval(250);
+        generator.setQoS(qos);
+
+        StringWriter output = new StringWriter();
+        LatencyHistogram histogram = generator.run(new PrintWriter(output));
+
+        assertEquals(0, generator.getFailedCount());
+        assertTrue(generator.getSentCount() >= 90, "sent: " + generator.getSentCount());
+        assertEquals(generator.getSentCount() * 2, generator.getReceivedCount());
+        assertEquals(generator.getReceivedCount(), histogram.getTotalCount());
+        assertTrue(histogram.getValueAtPercentile(50) > 0);
+
+        String[] lines = output.toString().split("\\R");
+        assertEquals(LoadGenerator.CSV_HEADER, lines[0]);
+        assertTrue(lines.length >= 5, output.toString());
+        assertTrue(lines[lines.length - 1].startsWith("total," + generator.getSentCount() + ","));
+    }
+}
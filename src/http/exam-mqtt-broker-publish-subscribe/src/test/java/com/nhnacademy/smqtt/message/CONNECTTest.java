@@ -154,6 +154,22 @@ public class CONNECTTest {
         assertFalse(connect.getCleanSession());
     }
 
+    /**
+     * 사용자 이름 없이도 Clean Session 플래그가 올바르게 역직렬화되는지 확인합니다.
+     */
+    @Test
+    void testCleanSessionFlagSerialization() {
+        CONNECT connect = new CONNECT("ClientTest");
+        connect.setCleanSession(true);
+        byte[] serialized = connect.toByteArray();
+        assertTrue(new CONNECT(serialized, 2, serialized.length - 2).getCleanSession());
+
+        connect.setCleanSession(false);
+        connect.setUserName("user");
+        serialized = connect.toByteArray();
+        assertFalse(new CONNECT(serialized, 2, serialized.length - 2).getCleanSession());
+    }
+
     /**
      * 정상적인 바이트 배열을 사용하여 객체 생성 테스트
      */
@@ -0,0 +1,185 @@
+package com.nhnacademy.smqtt.message;
+
+import com.nhnacademy.smqtt.exception.InvalidMessageFormatException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDecoderTest {
+    private static final String TOPIC = "test/topic";
+    private static final String MESSAGE = "Hello MQTT!";
+
+    private MessageDecoder decoder;
+
+    /**
+     * 각 테스트 전에 실행되어 디코더를 초기화합니다.
+     */
+    @BeforeEach
+    void setUp() {
+        decoder = new MessageDecoder();
+    }
+
+    /**
+     * 한 바이트씩 나누어 도착한 프레임을 이어서 해석하는지 테스트합니다.
+     */
+    @Test
+    void testDecodeFragmentedFrame() {
+        PUBLISH original = new PUBLISH(TOPIC, MESSAGE);
+        original.setQoS(1);
+        byte[] frame = original.toByteArray();
+
+        Message message = null;
+        for (int i = 0; i < frame.length; i++) {
+            assertNull(message);
+            message = decoder.decode(ByteBuffer.wrap(frame, i, 1));
+        }
+
+        assertTrue(message instanceof PUBLISH);
+        assertEquals(TOPIC, ((PUBLISH) message).getTopic());
+        assertEquals(MESSAGE, ((PUBLISH) message).getMessage());
+        assertEquals(1, message.getQoS());
+    }
+
+    /**
+     * 하나의 버퍼에 연속으로 들어온 여러 프레임을 차례로 해석하는지 테스트합니다.
+     */
+    @Test
+    void testDecodeMultipleFramesInOneBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put(new CONNACK(false, 0).toByteArray());
+        buffer.put(new PINGREQ().toByteArray());
+        buffer.put(new SUBACK(7, (byte) 0).toByteArray());
+        buffer.flip();
+
+        assertTrue(decoder.decode(buffer) instanceof CONNACK);
+        assertTrue(decoder.decode(buffer) instanceof PINGREQ);
+        Message message = decoder.decode(buffer);
+        assertTrue(message instanceof SUBACK);
+        assertEquals(7, ((SUBACK) message).getPacketId());
+        assertNull(decoder.decode(buffer));
+    }
+
+    /**
+     * PUBLISH가 아닌 타입을 Message에 등록된 생성 함수로 만들어, 표에 있는 모든 기본 메시지를 해석하는지 테스트합니다.
+     */
+    @Test
+    void testDecodeRegisteredTypes() {
+        Message[] originals = { new PUBACK(1), new PUBREC(2), new PUBREL(3), new PUBCOMP(4), new UNSUBACK(5),
+                new PINGRESP(), new DISCONNECT() };
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (Message original : originals) {
+            buffer.put(original.toByteArray());
+        }
+        buffer.flip();
+
+        for (Message original : originals) {
+            Message message = decoder.decode(buffer);
+            assertNotNull(message);
+            assertSame(original.getClass(), message.getClass());
+        }
+        assertNull(decoder.decode(buffer));
+    }
+
+    /**
+     * 여러 바이트로 인코딩된 Remaining Length를 가진 프레임을 해석하는지 테스트합니다.
+     */
+    @Test
+    void testDecodeMultiByteRemainingLength() {
+        String payload = "x".repeat(20_000);
+        byte[] frame = new PUBLISH(TOPIC, payload).toByteArray();
+
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        Message message = null;
+        int position = 0;
+        while (message == null) {
+            int count = Math.min(buffer.remaining(), frame.length - position);
+            buffer.put(frame, position, count);
+            position += count;
+
+            buffer.flip();
+            message = decoder.decode(buffer);
+            buffer.compact();
+        }
+
+        assertEquals(payload, ((PUBLISH) message).getMessage());
+        assertEquals(frame.length, position);
+    }
+
+    /**
+     * 허용되지 않은 메시지 타입이나 크기를 거부하는지 테스트합니다.
+     */
+    @Test
+    void testDecodeInvalidFrame() {
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.wrap(new byte[] { 0x00, 0x00 })));
+        assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(ByteBuffer.wrap(new byte[] { 0x30, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF })));
+
+        MessageDecoder limited = new MessageDecoder(16);
+        byte[] frame = new PUBLISH(TOPIC, MESSAGE).toByteArray();
+        assertThrows(IllegalArgumentException.class, () -> limited.decode(ByteBuffer.wrap(frame)));
+    }
+
+    /**
+     * QoS가 3인 PUBLISH를 잘못된 패킷으로 거부하는지 테스트합니다.
+     */
+    @Test
+    void testDecodePublishWithQoS3() {
+        PUBLISH publish = new PUBLISH(TOPIC, MESSAGE);
+        publish.setQoS(1);
+        byte[] frame = publish.toByteArray();
+        frame[0] |= 0x06;
+
+        assertThrows(InvalidMessageFormatException.class, () -> decoder.decode(ByteBuffer.wrap(frame)));
+        assertThrows(InvalidMessageFormatException.class, () -> Message.parsing(frame));
+    }
+
+    /**
+     * Message.parsing이 배열의 일부 구간에 있는 프레임을 해석하는지 테스트합니다.
+     */
+    @Test
+    void testParsingUsesDecoderRules() {
+        byte[] frame = new PUBLISH(TOPIC, MESSAGE).toByteArray();
+        byte[] buffer = new byte[frame.length + 8];
+        System.arraycopy(frame, 0, buffer, 4, frame.length);
+
+        Message message = Message.parsing(buffer, 4, frame.length);
+
+        assertTrue(message instanceof PUBLISH);
+        assertEquals(MESSAGE, ((PUBLISH) message).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Message.parsing(buffer, 4, frame.length - 1));
+    }
+
+    /**
+     * 토픽 intern 테이블을 사용하면 같은 토픽이 같은 문자열 객체로 해석되고, 토픽 별칭을 복원하는지 테스트합니다.
+     */
+    @Test
+    void testDecodeTopicAlias() {
+        TopicTable topics = new TopicTable();
+        MessageDecoder aliasDecoder = new MessageDecoder(MessageDecoder.MAX_REMAINING_LENGTH, topics);
+
+        PUBLISH definition = new PUBLISH(TOPIC, MESSAGE);
+        definition.setTopicAlias(3, true);
+        PUBLISH aliased = new PUBLISH(TOPIC, "aliased");
+        aliased.setTopicAlias(3, false);
+        assertTrue(aliased.toByteArray().length < new PUBLISH(TOPIC, "aliased").toByteArray().length);
+
+        PUBLISH first = (PUBLISH) aliasDecoder.decode(ByteBuffer.wrap(definition.toByteArray()));
+        PUBLISH second = (PUBLISH) aliasDecoder.decode(ByteBuffer.wrap(aliased.toByteArray()));
+        PUBLISH third = (PUBLISH) aliasDecoder.decode(ByteBuffer.wrap(new PUBLISH(TOPIC, MESSAGE).toByteArray()));
+
+        assertEquals(TOPIC, first.getTopic());
+        assertEquals(3, second.getTopicAlias());
+        assertEquals("aliased", second.getMessage());
+        assertSame(first.getTopic(), second.getTopic());
+        assertSame(first.getTopic(), third.getTopic());
+        assertEquals(1, topics.size());
+
+        PUBLISH unknown = new PUBLISH(TOPIC, MESSAGE);
+        unknown.setTopicAlias(4, false);
+        assertThrows(IllegalArgumentException.class, () -> aliasDecoder.decode(ByteBuffer.wrap(unknown.toByteArray())));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(ByteBuffer.wrap(aliased.toByteArray())));
+    }
+}
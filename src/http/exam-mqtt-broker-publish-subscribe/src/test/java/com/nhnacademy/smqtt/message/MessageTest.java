@@ -216,4 +216,46 @@ class MessageTest {
     void testToString() {
         assertEquals("CONNECT", testMessage.toString());
     }
+
+    /**
+     * 기본 메시지인 UNSUBACK을 해석하고, 기본 메시지 타입이나 사용할 수 없는 타입은 등록할 수 없는지 테스트합니다.
+     */
+    @Test
+    void testRegisterFactory() {
+        byte[] unsubAck = { (byte) 0xB0, 0x02, (byte) 0xFF, (byte) 0xFF };
+        Message message = Message.parsing(unsubAck);
+        assertTrue(message instanceof UNSUBACK);
+        assertEquals(0xFFFF, ((UNSUBACK) message).getPacketId());
+        assertArrayEquals(unsubAck, new UNSUBACK(0xFFFF).toByteArray());
+
+        assertThrows(IllegalStateException.class,
+                () -> Message.register(Message.Type.UNSUBACK, (bytes, offset, length) -> testMessage));
+        assertThrows(IllegalStateException.class,
+                () -> Message.register(Message.Type.CONNECT, (bytes, offset, length) -> testMessage, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> Message.register(Message.Type.RESERVED, (bytes, offset, length) -> testMessage));
+        assertThrows(IllegalArgumentException.class,
+                () -> Message.register(Message.Type.PUBLISH, (bytes, offset, length) -> testMessage, true));
+        assertThrows(IllegalArgumentException.class, () -> Message.register(Message.Type.UNSUBACK, null));
+    }
+
+    /**
+     * 교체한 기본 메시지의 생성 함수를 MessageDecoder가 사용하고, 이전 생성 함수로 되돌릴 수 있는지 테스트합니다.
+     */
+    @Test
+    void testReplaceFactory() {
+        byte[] unsubAck = { (byte) 0xB0, 0x02, 0x00, 0x01 };
+        MessageDecoder decoder = new MessageDecoder();
+        Message.Factory previous = Message.register(Message.Type.UNSUBACK, (bytes, offset, length) -> testMessage,
+                true);
+        try {
+            assertNotNull(previous);
+            assertSame(testMessage, decoder.decode(ByteBuffer.wrap(unsubAck)));
+            assertSame(testMessage, Message.parsing(unsubAck));
+        } finally {
+            Message.register(Message.Type.UNSUBACK, previous, true);
+        }
+
+        assertTrue(decoder.decode(ByteBuffer.wrap(unsubAck)) instanceof UNSUBACK);
+    }
 }
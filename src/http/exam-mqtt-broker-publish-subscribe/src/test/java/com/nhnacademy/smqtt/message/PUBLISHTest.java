@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -77,6 +78,27 @@ class PUBLISHTest {
         assertEquals(packetId, publish.getPacketId());
     }
 
+    /**
+     * 0x8000 이상의 packetId를 음수로 바꾸지 않고 부호 없는 값으로 해석하는지 테스트
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 0x7FFF, 0x8000, 0xFFFF })
+    void testPublishCreationWithHighPacketId(int packetId) {
+        byte[] topicBytes = TOPIC.getBytes(StandardCharsets.UTF_8);
+        byte[] messageBytes = MESSAGE.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 + topicBytes.length + 2 + messageBytes.length);
+        buffer.putShort((short) topicBytes.length);
+        buffer.put(topicBytes);
+        buffer.putShort((short) packetId);
+        buffer.put(messageBytes);
+
+        PUBLISH publish = new PUBLISH(buffer.array());
+
+        assertEquals(packetId, publish.getPacketId());
+        assertEquals(MESSAGE, publish.getMessage());
+    }
+
     /**
      * 바이트 배열이 잘못된 경우 예외 발생 테스트
      *
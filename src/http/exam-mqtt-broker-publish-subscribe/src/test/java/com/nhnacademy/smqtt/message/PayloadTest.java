@@ -0,0 +1,76 @@
+package com.nhnacademy.smqtt.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadTest {
+    /**
+     * 풀의 버퍼가 참조 카운트가 0이 될 때 돌아와 같은 크기의 본문에 재사용되는지 테스트합니다.
+     */
+    @Test
+    void testPooledPayloadIsRecycled() {
+        PayloadPool pool = new PayloadPool();
+        byte[] bytes = { 0, (byte) 0xFF, 0x7F, 0x00, (byte) 0x80 };
+
+        Payload payload = pool.allocate(bytes, 1, 3);
+        assertTrue(payload.isPooled());
+        assertTrue(payload.buffer().isDirect());
+        assertTrue(payload.buffer().isReadOnly());
+        assertArrayEquals(new byte[] { (byte) 0xFF, 0x7F, 0x00 }, payload.toByteArray());
+
+        assertSame(payload, payload.retain());
+        assertFalse(payload.release());
+        assertEquals(0, pool.getPooledBytes());
+        assertTrue(payload.release());
+        assertEquals(PayloadPool.MIN_CHUNK_SIZE, pool.getPooledBytes());
+        assertThrows(IllegalStateException.class, payload::buffer);
+        assertThrows(IllegalStateException.class, payload::release);
+
+        Payload reused = pool.allocate(bytes, 0, 2);
+        assertEquals(0, pool.getPooledBytes());
+        assertArrayEquals(new byte[] { 0, (byte) 0xFF }, reused.toByteArray());
+    }
+
+    /**
+     * 풀의 한도보다 큰 본문은 힙 배열에 담기는지 테스트합니다.
+     */
+    @Test
+    void testLargePayloadIsNotPooled() {
+        PayloadPool pool = new PayloadPool();
+        byte[] bytes = new byte[PayloadPool.MAX_CHUNK_SIZE + 1];
+
+        Payload payload = pool.allocate(bytes, 0, bytes.length);
+        assertFalse(payload.isPooled());
+        assertEquals(bytes.length, payload.size());
+        assertTrue(payload.release());
+        assertEquals(0, pool.getPooledBytes());
+        assertSame(Payload.EMPTY, pool.allocate(bytes, 0, 0));
+    }
+
+    /**
+     * 디코더가 PUBLISH 본문을 풀의 버퍼에 바이트 그대로 담고, 문자열로도 볼 수 있는지 테스트합니다.
+     */
+    @Test
+    void testDecodeBinaryPublish() {
+        PayloadPool pool = new PayloadPool();
+        byte[] binary = { 0x01, (byte) 0xC3, 0x28, (byte) 0xFE };
+        PUBLISH original = new PUBLISH("binary/topic", binary);
+
+        MessageDecoder decoder = new MessageDecoder(MessageDecoder.MAX_REMAINING_LENGTH, new TopicTable(), pool);
+        PUBLISH decoded = (PUBLISH) decoder.decode(ByteBuffer.wrap(original.toByteArray()));
+
+        assertEquals("binary/topic", decoded.getTopic());
+        assertTrue(decoded.getPayload().isPooled());
+        assertArrayEquals(binary, decoded.getPayload().toByteArray());
+        assertArrayEquals(binary, ((PUBLISH) Message.parsing(decoded.toByteArray())).getPayload().toByteArray());
+        decoded.getPayload().release();
+
+        PUBLISH text = new PUBLISH("text/topic", "안녕");
+        assertArrayEquals("안녕".getBytes(StandardCharsets.UTF_8), text.getPayload().toByteArray());
+        assertEquals("안녕", ((PUBLISH) Message.parsing(text.toByteArray())).getMessage());
+    }
+}
@@ -0,0 +1,42 @@
+package com.nhnacademy.smqtt.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicTableTest {
+    /**
+     * 같은 바이트는 배열 안의 위치와 관계없이 같은 문자열 객체로 해석되는지 테스트합니다.
+     */
+    @Test
+    void testInternReturnsCanonicalTopic() {
+        TopicTable table = new TopicTable();
+        byte[] first = "sensor/온도".getBytes(StandardCharsets.UTF_8);
+        byte[] second = ("xx" + "sensor/온도" + "yy").getBytes(StandardCharsets.UTF_8);
+
+        String topic = table.intern(first, 0, first.length);
+
+        assertEquals("sensor/온도", topic);
+        assertSame(topic, table.intern(second, 2, first.length));
+        assertNotSame(topic, table.intern(second, 0, first.length));
+        assertEquals(2, table.size());
+    }
+
+    /**
+     * 최대 개수에 이르면 더 등록하지 않고 새 문자열을 반환하는지 테스트합니다.
+     */
+    @Test
+    void testMaxSize() {
+        TopicTable table = new TopicTable(1);
+        byte[] a = "a".getBytes(StandardCharsets.UTF_8);
+        byte[] b = "b".getBytes(StandardCharsets.UTF_8);
+
+        assertSame(table.intern(a, 0, 1), table.intern(a, 0, 1));
+        assertEquals("b", table.intern(b, 0, 1));
+        assertNotSame(table.intern(b, 0, 1), table.intern(b, 0, 1));
+        assertEquals(1, table.size());
+        assertThrows(IllegalArgumentException.class, () -> new TopicTable(-1));
+    }
+}
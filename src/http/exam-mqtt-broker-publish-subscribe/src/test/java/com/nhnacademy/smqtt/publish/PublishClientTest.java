@@ -1,11 +1,20 @@
 package com.nhnacademy.smqtt.publish;
 
+import com.nhnacademy.smqtt.broker.Broker;
 import com.nhnacademy.smqtt.message.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,6 +26,8 @@ class PublishClientTest {
     private static final String MESSAGE2 = "Test Message";
     private static final String BROKER_HOST = "lcoalhost";
     private static final int BROKER_PORT = 1883;
+    private static final int LOCAL_BROKER_PORT = 18871;
+    private static final int BUFFER_BROKER_PORT = 18872;
 
     private Socket mockSocket;
     private DataInputStream mockInput;
@@ -174,4 +185,169 @@ class PublishClientTest {
 
         assertFalse(publishClient.publishMap.containsKey(packetId)); // Packet ID가 제거되었는지 확인
     }
+
+    /**
+     * 토픽 별칭을 설정하면 같은 토픽의 두 번째 메시지부터 토픽 대신 별칭을 보내는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testSendPublishWithTopicAlias() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> publishClient.setTopicAliasMaximum(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> publishClient.setTopicAliasMaximum(PUBLISH.MAX_TOPIC_ALIAS + 1));
+        publishClient.setTopicAliasMaximum(1);
+
+        List<byte[]> frames = new ArrayList<>();
+        doAnswer(invocation -> frames.add(invocation.getArgument(0))).when(mockOutput).write(any(byte[].class));
+
+        publishClient.sendPublish(TOPIC, MESSAGE1);
+        publishClient.sendPublish(TOPIC, MESSAGE1);
+        publishClient.sendPublish("other/topic", MESSAGE1);
+
+        String topicText = new String(frames.get(0), StandardCharsets.UTF_8);
+        assertTrue(topicText.contains(TOPIC));
+        assertFalse(new String(frames.get(1), StandardCharsets.UTF_8).contains(TOPIC));
+        assertTrue(frames.get(1).length < frames.get(0).length);
+        assertTrue(new String(frames.get(2), StandardCharsets.UTF_8).contains("other/topic"));
+    }
+
+    /**
+     * 비동기 발행이 여러 메시지를 한 번의 쓰기로 묶어 보내고, 응답을 받지 않은 메시지를 여러 개 보내 둔 채
+     * 모든 메시지를 순서대로 전달하는지 테스트합니다.
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPublishAsync() throws IOException, InterruptedException {
+        int count = 1000;
+        Broker broker = new Broker(LOCAL_BROKER_PORT);
+        broker.setMode(Broker.Mode.NON_BLOCKING);
+        broker.start();
+        Thread.sleep(500);
+
+        try (Socket subscriber = new Socket("localhost", LOCAL_BROKER_PORT)) {
+            subscriber.setSoTimeout(10000);
+            DataOutputStream output = new DataOutputStream(subscriber.getOutputStream());
+            DataInputStream input = new DataInputStream(subscriber.getInputStream());
+            CONNECT connect = new CONNECT("AsyncSubscriber");
+            connect.setCleanSession(true);
+            output.write(connect.toByteArray());
+            assertTrue(receive(input) instanceof CONNACK);
+            output.write(new SUBSCRIBE("async/#").toByteArray());
+            assertTrue(receive(input) instanceof SUBACK);
+
+            List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+            AtomicInteger writes = new AtomicInteger();
+            PublishClient client = new PublishClient("localhost", LOCAL_BROKER_PORT, "AsyncPublisher", "async/topic",
+                    new ByteArrayInputStream(new byte[0])) {
+                @Override
+                protected void send(byte[] frames) throws IOException {
+                    writes.incrementAndGet();
+                    super.send(frames);
+                }
+
+                @Override
+                public void processing() throws IOException {
+                    for (int i = 0; i < count; i++) {
+                        futures.add(publishAsync(getTopic(), String.valueOf(i)));
+                    }
+                    flush();
+                }
+            };
+            assertThrows(IllegalArgumentException.class, () -> client.setMaxInflight(-1));
+            client.setQoS(1);
+            client.setMaxInflight(8);
+            client.run();
+
+            assertEquals(count, futures.size());
+            futures.forEach(future -> assertTrue(future.isDone() && !future.isCompletedExceptionally()));
+            assertTrue(writes.get() < count);
+
+            for (int i = 0; i < count; i++) {
+                PUBLISH publish = (PUBLISH) receive(input);
+                assertEquals(String.valueOf(i), publish.getMessage());
+            }
+        } finally {
+            broker.interrupt();
+        }
+    }
+
+    /**
+     * 연결하기 전에 발행한 QoS 1 메시지를 버퍼 파일에 보관하고, 다음 실행에서 버퍼를 복구하여 새 메시지보다 먼저 보내는지 테스트합니다.
+     *
+     * @param directory 버퍼 파일을 만들 임시 디렉터리
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testBufferReplayedOnNextRun(@TempDir Path directory) throws IOException, InterruptedException {
+        Path file = directory.resolve("publish.buffer");
+        Broker broker = new Broker(BUFFER_BROKER_PORT);
+        broker.setMode(Broker.Mode.NON_BLOCKING);
+        broker.start();
+        Thread.sleep(500);
+
+        try (Socket subscriber = new Socket("localhost", BUFFER_BROKER_PORT)) {
+            subscriber.setSoTimeout(10000);
+            DataOutputStream output = new DataOutputStream(subscriber.getOutputStream());
+            DataInputStream input = new DataInputStream(subscriber.getInputStream());
+            CONNECT connect = new CONNECT("BufferSubscriber");
+            connect.setCleanSession(true);
+            output.write(connect.toByteArray());
+            assertTrue(receive(input) instanceof CONNACK);
+            output.write(new SUBSCRIBE("buffer/#").toByteArray());
+            assertTrue(receive(input) instanceof SUBACK);
+
+            // 연결을 맺기 전이므로 메시지는 버퍼에만 남습니다.
+            PublishClient offline = new PublishClient("localhost", BUFFER_BROKER_PORT, "BufferedPublisher",
+                    "buffer/topic", new ByteArrayInputStream(new byte[0]));
+            offline.setQoS(1);
+            offline.setBuffer(file, 3);
+            assertThrows(IllegalStateException.class, () -> offline.setBuffer(file, 3));
+            for (int i = 0; i < 3; i++) {
+                assertFalse(offline.publishAsync("buffer/topic", String.valueOf(i)).isDone());
+            }
+            assertTrue(offline.publishAsync("buffer/topic", "overflow").isCompletedExceptionally());
+            assertEquals(3, offline.getBufferedCount());
+
+            PublishClient client = new PublishClient("localhost", BUFFER_BROKER_PORT, "BufferedPublisher",
+                    "buffer/topic", new ByteArrayInputStream("3\n4\n".getBytes(StandardCharsets.UTF_8)));
+            assertThrows(IllegalArgumentException.class, () -> client.setBuffer(file, 0));
+            client.setQoS(1);
+            client.setBuffer(file, 10);
+            assertEquals(3, client.getBufferedCount());
+            client.run();
+
+            assertEquals(0, client.getBufferedCount());
+            for (int i = 0; i < 5; i++) {
+                PUBLISH publish = (PUBLISH) receive(input);
+                assertEquals(String.valueOf(i), publish.getMessage());
+            }
+        } finally {
+            broker.interrupt();
+        }
+    }
+
+    private static Message receive(DataInputStream input) throws IOException {
+        byte[] header = new byte[5];
+        input.readFully(header, 0, 2);
+
+        int lengthFieldCount = 1;
+        int length = header[1] & 0x7F;
+        int multiplier = 128;
+        while ((header[lengthFieldCount] & 0x80) == 0x80) {
+            lengthFieldCount++;
+            input.readFully(header, lengthFieldCount, 1);
+            length += (header[lengthFieldCount] & 0x7F) * multiplier;
+            multiplier *= 128;
+        }
+
+        byte[] buffer = new byte[1 + lengthFieldCount + length];
+        System.arraycopy(header, 0, buffer, 0, 1 + lengthFieldCount);
+        input.readFully(buffer, 1 + lengthFieldCount, length);
+
+        return Message.parsing(buffer);
+    }
 }
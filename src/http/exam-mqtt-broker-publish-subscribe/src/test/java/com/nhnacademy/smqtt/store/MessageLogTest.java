@@ -0,0 +1,203 @@
+package com.nhnacademy.smqtt.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageLogTest {
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int INDEX_INTERVAL = 256;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 추가한 레코드를 순서대로 다시 읽을 수 있는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testAppendAndReplay() throws IOException {
+        try (MessageLog messageLog = open()) {
+            assertEquals(0, messageLog.append(LogRecord.Type.RETAIN, "sensor/temp", bytes("21.5")));
+            assertEquals(1, messageLog.append(LogRecord.Type.QUEUE, "client-1", bytes("hello")));
+
+            List<LogRecord> records = replay(messageLog, 0);
+            assertEquals(2, records.size());
+            assertEquals(LogRecord.Type.RETAIN, records.get(0).getType());
+            assertEquals("sensor/temp", records.get(0).getKey());
+            assertEquals("21.5", records.get(0).getValueAsString());
+            assertEquals(1, records.get(1).getOffset());
+        }
+    }
+
+    /**
+     * 세그먼트가 가득 차면 새 세그먼트로 넘어가고, 다시 열어도 오프셋이 이어지는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testSegmentRollAndReopen() throws IOException {
+        try (MessageLog messageLog = open()) {
+            for (int i = 0; i < 500; i++) {
+                messageLog.append(LogRecord.Type.QUEUE, "client", bytes("message-" + i));
+            }
+            assertTrue(messageLog.getSegmentCount() > 1);
+        }
+
+        try (MessageLog messageLog = open()) {
+            assertEquals(500, messageLog.getNextOffset());
+            assertEquals(500, messageLog.append(LogRecord.Type.QUEUE, "client", bytes("message-500")));
+
+            List<LogRecord> records = replay(messageLog, 0);
+            assertEquals(501, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(i, records.get(i).getOffset());
+                assertEquals("message-" + i, records.get(i).getValueAsString());
+            }
+        }
+    }
+
+    /**
+     * 인덱스를 사용해 중간 오프셋부터 읽을 수 있는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testReplayFromOffset() throws IOException {
+        try (MessageLog messageLog = open()) {
+            for (int i = 0; i < 300; i++) {
+                messageLog.append(LogRecord.Type.QUEUE, "client", bytes("message-" + i));
+            }
+
+            List<LogRecord> records = replay(messageLog, 123);
+            assertEquals(177, records.size());
+            assertEquals(123, records.get(0).getOffset());
+            assertEquals("message-123", records.get(0).getValueAsString());
+
+            assertEquals("message-257", messageLog.read(257).getValueAsString());
+            assertNull(messageLog.read(300));
+        }
+    }
+
+    /**
+     * 마지막 레코드가 완전히 기록되지 않은 경우 그 레코드를 버리고 이어서 기록하는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testRecoverFromTornWrite() throws IOException {
+        long position;
+        try (MessageLog messageLog = open()) {
+            messageLog.append(LogRecord.Type.RETAIN, "a", bytes("first"));
+            messageLog.append(LogRecord.Type.RETAIN, "b", bytes("second"));
+            position = 8 + 1 + 2 + 1 + 5;
+        }
+
+        // 두 번째 레코드의 값 일부를 손상시킵니다.
+        try (RandomAccessFile file = new RandomAccessFile(
+                directory.resolve(LogSegment.fileName(0, LogSegment.LOG_SUFFIX)).toFile(), "rw")) {
+            file.seek(position + 8 + 3 + 1);
+            file.write('X');
+        }
+
+        try (MessageLog messageLog = open()) {
+            assertEquals(1, messageLog.getNextOffset());
+            assertEquals(1, messageLog.append(LogRecord.Type.RETAIN, "c", bytes("third")));
+
+            List<LogRecord> records = replay(messageLog, 0);
+            assertEquals(2, records.size());
+            assertEquals("third", records.get(1).getValueAsString());
+        }
+    }
+
+    /**
+     * 여러 스레드가 동시에 동기화를 요청해도 모든 레코드가 기록되는지 테스트합니다.
+     *
+     * @throws Exception 실행 중 예외가 발생할 경우
+     */
+    @Test
+    void testGroupCommit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (MessageLog messageLog = open()) {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String value = "message-" + i;
+                futures.add(executor.submit(() -> messageLog.appendAndSync(LogRecord.Type.QUEUE, "c", bytes(value))));
+            }
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+
+            assertEquals(64, messageLog.getNextOffset());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 오래된 세그먼트를 삭제하면 시작 오프셋이 이동하는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testDeleteBefore() throws IOException {
+        try (MessageLog messageLog = open()) {
+            for (int i = 0; i < 500; i++) {
+                messageLog.append(LogRecord.Type.QUEUE, "client", bytes("message-" + i));
+            }
+
+            int segments = messageLog.getSegmentCount();
+            assertTrue(messageLog.deleteBefore(400) > 0);
+            assertTrue(messageLog.getSegmentCount() < segments);
+            assertTrue(messageLog.getStartOffset() <= 400);
+            assertEquals(499, replay(messageLog, 0).get(replay(messageLog, 0).size() - 1).getOffset());
+        }
+
+        try (MessageLog messageLog = open()) {
+            assertEquals(500, messageLog.getNextOffset());
+        }
+    }
+
+    /**
+     * 잘못된 레코드와 설정이 거부되는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testInvalidArguments() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new MessageLog(directory, 0, INDEX_INTERVAL, 1));
+
+        MessageLog messageLog = open();
+        assertThrows(IllegalArgumentException.class,
+                () -> messageLog.append(LogRecord.Type.QUEUE, "client", new byte[SEGMENT_SIZE]));
+        messageLog.close();
+        assertThrows(IllegalStateException.class, () -> messageLog.append(LogRecord.Type.QUEUE, "c", bytes("x")));
+    }
+
+    private MessageLog open() throws IOException {
+        return new MessageLog(directory, SEGMENT_SIZE, INDEX_INTERVAL, 1);
+    }
+
+    private static List<LogRecord> replay(MessageLog messageLog, long fromOffset) {
+        List<LogRecord> records = new ArrayList<>();
+        messageLog.replay(fromOffset, records::add);
+
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
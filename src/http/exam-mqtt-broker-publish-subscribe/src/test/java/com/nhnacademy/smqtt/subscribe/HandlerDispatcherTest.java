@@ -0,0 +1,105 @@
+package com.nhnacademy.smqtt.subscribe;
+
+import com.nhnacademy.smqtt.message.PUBLISH;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerDispatcherTest {
+    /**
+     * 여러 스레드에서 실행해도 필터마다 받은 순서대로 전달하고, 여러 필터와 일치하는 메시지는 모두에게 전달하는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testPerFilterOrdering() throws InterruptedException {
+        int count = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            HandlerDispatcher dispatcher = new HandlerDispatcher(executor, 16);
+            List<Integer> sensors = new CopyOnWriteArrayList<>();
+            List<Integer> all = new CopyOnWriteArrayList<>();
+            CountDownLatch done = new CountDownLatch(count * 2);
+            dispatcher.register("sensor/+", message -> {
+                sensors.add(Integer.parseInt(message.getMessage()));
+                done.countDown();
+            });
+            dispatcher.register("#", message -> {
+                all.add(Integer.parseInt(message.getMessage()));
+                done.countDown();
+            });
+
+            for (int i = 0; i < count; i++) {
+                assertEquals(2, dispatcher.dispatch(new PUBLISH("sensor/" + (i % 3), String.valueOf(i))));
+            }
+            assertEquals(0, dispatcher.dispatch(new PUBLISH("$SYS/uptime", "1")));
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, sensors.get(i));
+                assertEquals(i, all.get(i));
+            }
+            assertThrows(IllegalArgumentException.class, () -> dispatcher.register("a/#/b", message -> { }));
+            assertThrows(IllegalArgumentException.class, () -> new HandlerDispatcher(executor, 0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 느린 핸들러의 대기열이 찰 때까지는 다른 필터의 메시지를 계속 처리하고, 가득 차면 넣는 쪽이 기다리는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testBackpressureOnSlowHandler() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            HandlerDispatcher dispatcher = new HandlerDispatcher(executor, 2);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch fastDone = new CountDownLatch(10);
+            dispatcher.register("slow", message -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            dispatcher.register("fast", message -> fastDone.countDown());
+
+            // 첫 메시지는 핸들러가 붙잡고, 다음 두 개가 대기열을 채웁니다.
+            for (int i = 0; i < 3; i++) {
+                dispatcher.dispatch(new PUBLISH("slow", String.valueOf(i)));
+            }
+            for (int i = 0; i < 10; i++) {
+                dispatcher.dispatch(new PUBLISH("fast", String.valueOf(i)));
+            }
+            assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+
+            Thread producer = new Thread(() -> {
+                try {
+                    dispatcher.dispatch(new PUBLISH("slow", "3"));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            producer.join(300);
+            assertTrue(producer.isAlive());
+            assertEquals(2, dispatcher.getBacklog());
+
+            release.countDown();
+            producer.join(5000);
+            assertFalse(producer.isAlive());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
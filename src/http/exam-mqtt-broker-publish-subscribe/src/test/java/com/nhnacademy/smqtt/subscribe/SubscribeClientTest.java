@@ -10,6 +10,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.io.*;
 import java.net.Socket;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -182,4 +187,48 @@ class SubscribeClientTest {
         subscribeClient.setVerbose(true);
         assertTrue(subscribeClient.getVerbose());
     }
+
+    /**
+     * 핸들러를 등록하면 받은 PUBLISH 메시지를 토픽 필터가 일치하는 핸들러에 순서대로 전달하는지 테스트합니다.
+     *
+     * @throws IOException          입출력 예외가 발생할 경우
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testHandlerDispatch() throws IOException, InterruptedException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        for (int i = 0; i < 10; i++) {
+            frames.write(new PUBLISH("room/" + (i % 2) + "/temperature", String.valueOf(i)).toByteArray());
+        }
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(frames.toByteArray()));
+        SubscribeClient client = new SubscribeClient(mockSocket, input, mockOutput, CLIENT_ID);
+
+        List<String> room0 = new CopyOnWriteArrayList<>();
+        List<String> temperatures = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(15);
+        client.addHandler("room/0/#", message -> {
+            room0.add(message.getMessage());
+            done.countDown();
+        });
+        client.addHandler("room/+/temperature", message -> {
+            temperatures.add(message.getMessage());
+            done.countDown();
+        });
+        assertEquals(2, client.getTopicCount());
+        assertThrows(IllegalArgumentException.class, () -> client.addHandler("room/#/x", message -> { }));
+        assertThrows(IllegalArgumentException.class, () -> client.setBacklog(0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            client.setExecutor(executor);
+            assertThrows(EOFException.class, client::listenForMessages);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("0", "2", "4", "6", "8"), room0);
+            assertEquals(List.of("0", "1", "2", "3", "4", "5", "6", "7", "8", "9"), temperatures);
+            assertThrows(IllegalStateException.class, () -> client.addHandler("late", message -> { }));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package com.nhnacademy.smqtt.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileBackedQueueTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * 추가한 순서대로 원소를 꺼내는지 테스트합니다.
+     */
+    @Test
+    void testFifoOrder() {
+        try (FileBackedQueue queue = new FileBackedQueue(directory, "test-")) {
+            assertNull(queue.poll());
+            assertNull(queue.getFile());
+
+            for (int i = 0; i < 100; i++) {
+                queue.offer(("element-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            queue.offer(new byte[0]);
+            assertEquals(101, queue.size());
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals("element-" + i, new String(queue.poll(), StandardCharsets.UTF_8));
+            }
+            assertEquals(0, queue.poll().length);
+            assertTrue(queue.isEmpty());
+            assertNull(queue.poll());
+        }
+    }
+
+    /**
+     * 큐가 비면 파일을 잘라 내고, 닫으면 파일을 삭제하는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testTruncateAndDelete() throws IOException {
+        FileBackedQueue queue = new FileBackedQueue(directory, "test-");
+        queue.offer(new byte[1000]);
+        Path file = queue.getFile();
+        assertEquals(1004, Files.size(file));
+
+        queue.poll();
+        assertEquals(0, Files.size(file));
+
+        queue.offer(new byte[10]);
+        queue.close();
+        assertFalse(Files.exists(file));
+        assertEquals(0, queue.size());
+    }
+
+    /**
+     * 파일을 유지하는 큐를 닫았다가 다시 열면 꺼내지 않은 원소를 복구하고, 쓰다 만 마지막 원소는 버리는지 테스트합니다.
+     *
+     * @throws IOException 입출력 예외가 발생할 경우
+     */
+    @Test
+    void testDurableQueueRecovery() throws IOException {
+        Path file = directory.resolve("journal");
+        try (FileBackedQueue queue = FileBackedQueue.open(file)) {
+            for (int i = 0; i < 5; i++) {
+                queue.offer(("element-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals("element-0", new String(queue.poll(), StandardCharsets.UTF_8));
+        }
+        assertTrue(Files.exists(file));
+
+        // 길이만 쓰고 내용은 쓰지 못한 원소를 흉내 냅니다.
+        Files.write(file, new byte[] { 0, 0, 0, 100, 1, 2 }, StandardOpenOption.APPEND);
+
+        try (FileBackedQueue queue = FileBackedQueue.open(file)) {
+            assertEquals(4, queue.size());
+            StringBuilder peeked = new StringBuilder();
+            queue.forEach(element -> peeked.append(new String(element, StandardCharsets.UTF_8)).append(','));
+            assertEquals("element-1,element-2,element-3,element-4,", peeked.toString());
+            assertEquals(4, queue.size());
+
+            queue.offer("element-5".getBytes(StandardCharsets.UTF_8));
+            for (int i = 1; i <= 5; i++) {
+                assertEquals("element-" + i, new String(queue.poll(), StandardCharsets.UTF_8));
+            }
+            assertTrue(queue.isEmpty());
+        }
+
+        try (FileBackedQueue queue = FileBackedQueue.open(file)) {
+            assertTrue(queue.isEmpty());
+        }
+    }
+}
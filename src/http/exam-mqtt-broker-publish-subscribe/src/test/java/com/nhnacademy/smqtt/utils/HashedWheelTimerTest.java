@@ -0,0 +1,99 @@
+package com.nhnacademy.smqtt.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+    private HashedWheelTimer timer;
+
+    /**
+     * 각 테스트 전에 10ms 간격, 8칸짜리 타이머를 생성합니다.
+     */
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer("test-timer", 10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    /**
+     * 각 테스트 후에 타이머를 종료합니다.
+     */
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    /**
+     * 휠 한 바퀴보다 긴 타이머도 지연 시간이 지난 뒤에 만료되는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testExpiresAfterDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        long start = System.nanoTime();
+        long[] elapsed = new long[2];
+
+        timer.schedule(timeout(() -> {
+            elapsed[0] = System.nanoTime() - start;
+            latch.countDown();
+        }), 20, TimeUnit.MILLISECONDS);
+        timer.schedule(timeout(() -> {
+            elapsed[1] = System.nanoTime() - start;
+            latch.countDown();
+        }), 150, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(elapsed[1] >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    /**
+     * 취소된 타이머는 만료되지 않고, 다시 예약하면 새 지연 시간을 따르는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testCancelAndReschedule() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timeout(cancelled::countDown);
+
+        timer.schedule(timeout, 30, TimeUnit.MILLISECONDS);
+        assertTrue(timer.isScheduled(timeout));
+        assertTrue(timer.cancel(timeout));
+        assertFalse(timer.cancel(timeout));
+        assertFalse(cancelled.await(100, TimeUnit.MILLISECONDS));
+
+        CountDownLatch rescheduled = new CountDownLatch(1);
+        HashedWheelTimer.Timeout other = timeout(rescheduled::countDown);
+        timer.schedule(other, 1, TimeUnit.HOURS);
+        timer.schedule(other, 10, TimeUnit.MILLISECONDS);
+        assertTrue(rescheduled.await(5, TimeUnit.SECONDS));
+        assertFalse(timer.isScheduled(other));
+    }
+
+    /**
+     * 종료된 타이머에는 예약되지 않는지 테스트합니다.
+     */
+    @Test
+    void testScheduleAfterClose() {
+        timer.close();
+
+        assertFalse(timer.schedule(timeout(() -> {
+        }), 10, TimeUnit.MILLISECONDS));
+    }
+
+    private static HashedWheelTimer.Timeout timeout(Runnable action) {
+        return new HashedWheelTimer.Timeout() {
+            @Override
+            protected void expire() {
+                action.run();
+            }
+        };
+    }
+}
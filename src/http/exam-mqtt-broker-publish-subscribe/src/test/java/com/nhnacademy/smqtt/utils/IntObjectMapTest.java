@@ -0,0 +1,59 @@
+package com.nhnacademy.smqtt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+    /**
+     * 기본적인 저장, 조회, 삭제가 동작하는지 테스트합니다.
+     */
+    @Test
+    void testPutGetRemove() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+
+        assertNull(map.put(1, "one"));
+        assertEquals("one", map.put(1, "uno"));
+        assertEquals("uno", map.get(1));
+        assertTrue(map.containsKey(1));
+        assertEquals(1, map.size());
+
+        assertEquals("uno", map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertTrue(map.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> map.put(2, null));
+    }
+
+    /**
+     * 확장과 삭제를 반복해도 HashMap과 같은 결과를 내는지 테스트합니다.
+     */
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2048);
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 2048; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        int[] count = { 0 };
+        map.forEachValue(value -> count[0]++);
+        assertEquals(expected.size(), count[0]);
+    }
+}
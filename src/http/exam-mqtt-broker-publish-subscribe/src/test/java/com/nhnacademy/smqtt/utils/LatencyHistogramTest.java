@@ -0,0 +1,101 @@
+package com.nhnacademy.smqtt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    /**
+     * 백분위 값이 유효 숫자 3자리 안에서 정확한지 테스트합니다.
+     */
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000_000L);
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(100_000, histogram.getTotalCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100_000_000, histogram.getMax(), 100_000_000 * 0.001);
+        assertEquals(50_000_500, histogram.getMean(), 1);
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.001);
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.001);
+        assertEquals(histogram.getMax(), histogram.getValueAtPercentile(100));
+    }
+
+    /**
+     * 작은 값은 정확히 기록하고, 범위를 벗어난 값은 경계 값으로 기록하는지 테스트합니다.
+     */
+    @Test
+    void testExactSmallValuesAndClamping() {
+        LatencyHistogram histogram = new LatencyHistogram(10_000);
+        histogram.record(0);
+        histogram.record(7);
+        histogram.record(2047);
+        histogram.record(-5);
+        histogram.record(1_000_000);
+
+        assertEquals(5, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(40));
+        assertEquals(7, histogram.getValueAtPercentile(60));
+        assertEquals(2047, histogram.getValueAtPercentile(80));
+        assertEquals(10_000, histogram.getMax());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(1));
+    }
+
+    /**
+     * 구간별 히스토그램을 옮기고 다시 합치는지 테스트합니다.
+     */
+    @Test
+    void testSnapshotAndAdd() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000);
+        LatencyHistogram total = new LatencyHistogram(1_000_000);
+        histogram.record(100);
+        histogram.record(300);
+
+        LatencyHistogram first = histogram.snapshotAndReset();
+        assertEquals(2, first.getTotalCount());
+        assertEquals(200, first.getMean(), 0.001);
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getMax());
+
+        histogram.record(5000);
+        total.add(first);
+        total.add(histogram.snapshotAndReset());
+        assertEquals(3, total.getTotalCount());
+        assertEquals(100, total.getMin());
+        assertEquals(5000, total.getMax(), 5000 * 0.001);
+        assertThrows(IllegalArgumentException.class, () -> total.add(new LatencyHistogram(10)));
+    }
+
+    /**
+     * 여러 스레드가 동시에 기록한 값이 읽을 때 모두 합쳐지는지 테스트합니다.
+     */
+    @Test
+    void testConcurrentRecord() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            long value = (i + 1) * 10L;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    histogram.record(value);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getTotalCount());
+        assertEquals(10, histogram.getMin());
+        assertEquals(40, histogram.getMax());
+        assertEquals(25, histogram.getMean(), 0.001);
+        assertEquals(20, histogram.getValueAtPercentile(50));
+        assertEquals(40_000, histogram.snapshotAndReset().getTotalCount());
+        assertEquals(0, histogram.getTotalCount());
+    }
+}
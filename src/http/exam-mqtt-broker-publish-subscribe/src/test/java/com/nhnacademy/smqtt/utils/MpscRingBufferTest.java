@@ -0,0 +1,110 @@
+package com.nhnacademy.smqtt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+    /**
+     * 넣은 순서대로 꺼내고, 가득 차면 거부한 뒤 칸을 다시 사용하는지 테스트합니다.
+     */
+    @Test
+    void testOfferAndPoll() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+        assertNull(ring.poll());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertTrue(ring.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ring.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(0));
+    }
+
+    /**
+     * 미리 만든 칸을 채워 공개하고, 읽은 뒤 돌려준 칸을 다시 사용하는지 테스트합니다.
+     */
+    @Test
+    void testClaimAndRelease() {
+        MpscRingBuffer<int[]> ring = new MpscRingBuffer<>(2, () -> new int[1]);
+        assertNull(ring.peek());
+
+        long first = ring.claim();
+        long second = ring.claim();
+        assertEquals(-1, ring.claim());
+        ring.get(second)[0] = 2;
+        ring.publish(second);
+        assertNull(ring.peek());
+
+        ring.get(first)[0] = 1;
+        ring.publish(first);
+        int[] slot = ring.peek();
+        assertEquals(1, slot[0]);
+        ring.release();
+        assertEquals(2, ring.peek()[0]);
+
+        long third = ring.claim();
+        assertSame(slot, ring.get(third));
+        ring.release();
+        assertNull(ring.peek());
+        ring.publish(third);
+        assertSame(slot, ring.peek());
+    }
+
+    /**
+     * 여러 생산자가 동시에 넣어도 원소를 잃지 않고, 생산자마다 넣은 순서가 유지되는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int count = 10_000;
+        MpscRingBuffer<int[]> ring = new MpscRingBuffer<>(64);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    while (!ring.offer(new int[] { producer, i })) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        long deadline = System.currentTimeMillis() + 30_000;
+        while ((received < producers * count) && (System.currentTimeMillis() < deadline)) {
+            int[] element = ring.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(next[element[0]]++, element[1]);
+            received++;
+        }
+        assertEquals(producers * count, received);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(ring.poll());
+    }
+}
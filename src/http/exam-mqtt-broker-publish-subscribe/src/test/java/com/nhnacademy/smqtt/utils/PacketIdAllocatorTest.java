@@ -0,0 +1,78 @@
+package com.nhnacademy.smqtt.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketIdAllocatorTest {
+    /**
+     * 식별자를 1부터 차례로 할당하고, 한 바퀴 돈 후에는 응답을 기다리는 식별자를 건너뛰는지 테스트합니다.
+     */
+    @Test
+    void testAllocateSkipsIdsInUse() {
+        PacketIdAllocator allocator = new PacketIdAllocator();
+
+        assertEquals(1, allocator.allocate());
+        assertEquals(2, allocator.allocate());
+        assertEquals(3, allocator.allocate());
+        assertTrue(allocator.release(2));
+        assertFalse(allocator.release(2));
+        assertEquals(4, allocator.allocate());
+
+        for (int i = 5; i <= PacketIdAllocator.MAX_PACKET_ID; i++) {
+            assertEquals(i, allocator.allocate());
+        }
+        assertEquals(2, allocator.allocate());
+        assertEquals(PacketIdAllocator.MAX_PACKET_ID, allocator.getInUseCount());
+        assertThrows(IllegalStateException.class, allocator::allocate);
+
+        assertTrue(allocator.release(100));
+        assertFalse(allocator.isInUse(100));
+        assertEquals(100, allocator.allocate());
+        assertThrows(IllegalArgumentException.class, () -> allocator.release(0));
+        assertThrows(IllegalArgumentException.class, () -> allocator.isInUse(PacketIdAllocator.MAX_PACKET_ID + 1));
+    }
+
+    /**
+     * 여러 스레드가 동시에 할당하고 반납해도 사용 중인 식별자를 두 번 나누어 주지 않는지 테스트합니다.
+     *
+     * @throws InterruptedException 대기 중 인터럽트가 발생할 경우
+     */
+    @Test
+    void testConcurrentAllocation() throws InterruptedException {
+        PacketIdAllocator allocator = new PacketIdAllocator();
+        Set<Integer> inUse = ConcurrentHashMap.newKeySet();
+        List<Throwable> errors = new ArrayList<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 50_000; i++) {
+                        int packetId = allocator.allocate();
+                        assertTrue(inUse.add(packetId));
+                        assertTrue(inUse.remove(packetId));
+                        assertTrue(allocator.release(packetId));
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(errors.isEmpty(), () -> errors.get(0).toString());
+        assertEquals(0, allocator.getInUseCount());
+    }
+}